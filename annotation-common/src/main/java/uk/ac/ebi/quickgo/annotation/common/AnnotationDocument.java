@@ -5,8 +5,10 @@ import org.springframework.data.solr.core.mapping.SolrDocument;
 import uk.ac.ebi.quickgo.common.QuickGODocument;
 import uk.ac.ebi.quickgo.common.SolrCollectionName;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * Solr document class defining all fields within the annotation core.
@@ -16,6 +18,8 @@ import java.util.List;
  */
 @SolrDocument(collection = SolrCollectionName.ANNOTATION)
 public class AnnotationDocument implements QuickGODocument {
+    private static final String WITH_FROM_EXPORT_DELIMITER = "|";
+    private static final String TARGET_SET_EXPORT_DELIMITER = ",";
 
     @Field(AnnotationFields.ID)
     public String id;
@@ -82,6 +86,45 @@ public class AnnotationDocument implements QuickGODocument {
     @Field(AnnotationFields.GP_RELATED_GO_IDS)
     public List<String> gpRelatedGoIds;
 
+    @Field(AnnotationFields.GO_ID_ANCESTORS)
+    public List<String> goIdAncestors;
+
+    @Field(AnnotationFields.WITH_FROM_EXPORT)
+    public String withFromExport;
+
+    @Field(AnnotationFields.TARGET_SET_EXPORT)
+    public String targetSetsExport;
+
+    /**
+     * Join withFrom and targetSets, in their order, into the single values of their export fields, which can be
+     * exported from docValues without being sorted or deduplicated. Each is joined by the delimiter that separates its
+     * values in the source file, which is therefore not found within the values.
+     */
+    public void joinExportFields() {
+        withFromExport = join(withFrom, WITH_FROM_EXPORT_DELIMITER);
+        targetSetsExport = join(targetSets, TARGET_SET_EXPORT_DELIMITER);
+    }
+
+    /**
+     * Split the values of the export fields, as read from an export, back into withFrom and targetSets.
+     */
+    public void splitExportFields() {
+        if (withFromExport != null) {
+            withFrom = split(withFromExport, WITH_FROM_EXPORT_DELIMITER);
+        }
+        if (targetSetsExport != null) {
+            targetSets = split(targetSetsExport, TARGET_SET_EXPORT_DELIMITER);
+        }
+    }
+
+    private static String join(List<String> values, String delimiter) {
+        return values == null || values.isEmpty() ? null : String.join(delimiter, values);
+    }
+
+    private static List<String> split(String value, String delimiter) {
+        return Arrays.asList(value.split(Pattern.quote(delimiter), -1));
+    }
+
     @Override public String getUniqueName() {
         return id;
     }
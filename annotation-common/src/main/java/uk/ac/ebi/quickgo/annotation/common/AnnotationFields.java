@@ -38,6 +38,9 @@ public class AnnotationFields {
     static final String PROTEOME = "proteome";
     static final String DEFAULt_SORT = "defaultSort";
     static final String GP_RELATED_GO_IDS = "gpRelatedGoIds";
+    static final String GO_ID_ANCESTORS = "goIdAncestors";
+    static final String WITH_FROM_EXPORT = "withFrom_export";
+    static final String TARGET_SET_EXPORT = "targetSet_export";
 
     /**
      * Annotation fields that are indexed, and can therefore be searched.
@@ -62,6 +65,7 @@ public class AnnotationFields {
         public static final String EXTENSION = storeAndGet(VALUES, "extension_unsorted");
         public static final String PROTEOME = storeAndGet(VALUES, "proteome_unsorted");
         public static final String GP_RELATED_GO_IDS = storeAndGet(VALUES, "gpRelatedGoIds_unsorted");
+        public static final String GO_ID_ANCESTORS = storeAndGet(VALUES, AnnotationFields.GO_ID_ANCESTORS);
         //Below fields are not matching above naming convention, because they are not part of solr
         //They are here to trick quickgo code frame work for specific cases
         //e-g notGoId tell in framework filter we need to put NOT in gp_related_go_ids to get result etc
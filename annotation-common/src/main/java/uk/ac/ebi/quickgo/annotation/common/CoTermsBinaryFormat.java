@@ -0,0 +1,62 @@
+package uk.ac.ebi.quickgo.annotation.common;
+
+/**
+ * Defines the layout of the binary co-occurring terms file, written by the indexer and memory-mapped by the
+ * annotation service. All values are big-endian.
+ *
+ * <pre>
+ * header   magic (int), version (int), term count (int), record count (long)
+ * terms    term count GO ids, each {@link #TERM_BYTES} US-ASCII bytes, in ascending order
+ * offsets  term count + 1 record indices (long); the records of the n'th term are [offsets[n], offsets[n + 1])
+ * records  record count records of {@link #RECORD_BYTES} bytes: compared term (int, its position in terms),
+ *          probability ratio (float), similarity ratio (float), together (long), compared (long)
+ * </pre>
+ *
+ * The records of each term are held in the order in which the indexer calculated them, i.e., by descending
+ * probability ratio.
+ */
+public final class CoTermsBinaryFormat {
+    public static final int MAGIC = 0x51474354;
+    public static final int VERSION = 1;
+
+    public static final int HEADER_BYTES = Integer.BYTES * 3 + Long.BYTES;
+    public static final int TERM_BYTES = 10;
+    public static final int OFFSET_BYTES = Long.BYTES;
+    public static final int RECORD_BYTES = Integer.BYTES + Float.BYTES * 2 + Long.BYTES * 2;
+
+    public static final int MAGIC_POSITION = 0;
+    public static final int VERSION_POSITION = MAGIC_POSITION + Integer.BYTES;
+    public static final int TERM_COUNT_POSITION = VERSION_POSITION + Integer.BYTES;
+    public static final int RECORD_COUNT_POSITION = TERM_COUNT_POSITION + Integer.BYTES;
+
+    public static final int COMPARED_TERM_FIELD = 0;
+    public static final int PROBABILITY_RATIO_FIELD = COMPARED_TERM_FIELD + Integer.BYTES;
+    public static final int SIMILARITY_RATIO_FIELD = PROBABILITY_RATIO_FIELD + Float.BYTES;
+    public static final int TOGETHER_FIELD = SIMILARITY_RATIO_FIELD + Float.BYTES;
+    public static final int COMPARED_FIELD = TOGETHER_FIELD + Long.BYTES;
+
+    private CoTermsBinaryFormat() {}
+
+    /**
+     * @return the position of the first term.
+     */
+    public static long termsPosition() {
+        return HEADER_BYTES;
+    }
+
+    /**
+     * @param termCount the number of terms in the file.
+     * @return the position of the first offset.
+     */
+    public static long offsetsPosition(int termCount) {
+        return termsPosition() + (long) termCount * TERM_BYTES;
+    }
+
+    /**
+     * @param termCount the number of terms in the file.
+     * @return the position of the first record.
+     */
+    public static long recordsPosition(int termCount) {
+        return offsetsPosition(termCount) + (long) (termCount + 1) * OFFSET_BYTES;
+    }
+}
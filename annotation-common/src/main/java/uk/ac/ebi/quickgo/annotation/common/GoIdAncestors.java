@@ -0,0 +1,71 @@
+package uk.ac.ebi.quickgo.annotation.common;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Defines the values of an annotation's {@link AnnotationDocument#goIdAncestors} field.
+ *
+ * The ancestors of an annotation's GO id, which include the GO id itself, are indexed for each of the sets of
+ * relationships in {@link #INDEXED_RELATIONS}. Each value records an ancestor, and the set of relationships over which
+ * it is an ancestor, so that the annotations to a GO term and its descendants, over one of these sets, are found by a
+ * single-term query, rather than by a query for every descendant.
+ */
+public final class GoIdAncestors {
+    /**
+     * The relationships over which the ontology service finds descendants when none are specified.
+     */
+    public static final String DEFAULT_RELATIONS = "is_a,part_of,occurs_in,regulates";
+
+    /**
+     * The sets of relationships over which ancestors are indexed.
+     */
+    public static final List<String> INDEXED_RELATIONS =
+            unmodifiableList(asList("is_a", "is_a,part_of,occurs_in", DEFAULT_RELATIONS));
+
+    private static final String RELATIONS_DELIMITER = ",";
+    private static final String KEY_DELIMITER = "+";
+    private static final String VALUE_DELIMITER = "|";
+    private static final Set<String> INDEXED_RELATIONS_KEYS = INDEXED_RELATIONS.stream()
+            .map(GoIdAncestors::createKey)
+            .collect(Collectors.toSet());
+
+    private GoIdAncestors() {}
+
+    /**
+     * Identifies a set of relationships over which ancestors are indexed, regardless of the order or case in which
+     * they are specified.
+     * @param relations the relationships, e.g., "is_a", "part_of", or "is_a,part_of"; if none are specified,
+     * {@link #DEFAULT_RELATIONS} are used
+     * @return the key that identifies the set of relationships, or empty if ancestors are not indexed over it
+     */
+    public static Optional<String> indexedRelationsKey(String... relations) {
+        String key = createKey(relations == null || relations.length == 0 ? new String[]{DEFAULT_RELATIONS} :
+                relations);
+        return INDEXED_RELATIONS_KEYS.contains(key) ? Optional.of(key) : Optional.empty();
+    }
+
+    /**
+     * Creates the value indexed for a GO id's ancestor over a set of relationships.
+     * @param relationsKey the key identifying the set of relationships, see {@link #indexedRelationsKey}
+     * @param ancestorId the ancestor's GO id
+     * @return the indexed value, in lower case, as the field is indexed and queried
+     */
+    public static String value(String relationsKey, String ancestorId) {
+        return (relationsKey + VALUE_DELIMITER + ancestorId).toLowerCase();
+    }
+
+    private static String createKey(String... relations) {
+        return Stream.of(relations)
+                .flatMap(relation -> Stream.of(relation.split(RELATIONS_DELIMITER)))
+                .map(relation -> relation.trim().toLowerCase())
+                .filter(relation -> !relation.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(KEY_DELIMITER));
+    }
+}
@@ -92,6 +92,7 @@ public class AnnotationDocMocker {
         doc.goAspect = GO_ASPECT;
         doc.date = DATE;
         doc.proteome = PROTEOME;
+        doc.joinExportFields();
 
         return doc;
     }
@@ -3,7 +3,11 @@ package uk.ac.ebi.quickgo.annotation.controller;
 import io.swagger.annotations.*;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.task.TaskExecutor;
+import uk.ac.ebi.quickgo.annotation.download.DownloadScheduler;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -12,12 +16,21 @@ import org.springframework.util.MimeType;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCache;
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadKey;
 import uk.ac.ebi.quickgo.annotation.download.header.HeaderContent;
 import uk.ac.ebi.quickgo.annotation.download.header.HeaderCreator;
 import uk.ac.ebi.quickgo.annotation.download.header.HeaderCreatorFactory;
+import uk.ac.ebi.quickgo.annotation.download.header.HeaderLines;
 import uk.ac.ebi.quickgo.annotation.download.header.HeaderUri;
+import uk.ac.ebi.quickgo.annotation.download.header.OntologyHeaderInfo;
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
 import uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory;
+import uk.ac.ebi.quickgo.annotation.download.model.CachedDownloadContent;
 import uk.ac.ebi.quickgo.annotation.download.model.DownloadContent;
+import uk.ac.ebi.quickgo.annotation.download.spool.DownloadJob;
+import uk.ac.ebi.quickgo.annotation.download.spool.DownloadSpool;
 import uk.ac.ebi.quickgo.annotation.model.*;
 import uk.ac.ebi.quickgo.annotation.service.search.NameService;
 import uk.ac.ebi.quickgo.annotation.service.search.SearchServiceConfig;
@@ -25,11 +38,13 @@ import uk.ac.ebi.quickgo.annotation.service.statistics.StatisticsService;
 import uk.ac.ebi.quickgo.common.SolrCollectionName;
 import uk.ac.ebi.quickgo.rest.ParameterBindingException;
 import uk.ac.ebi.quickgo.rest.ParameterException;
+import uk.ac.ebi.quickgo.rest.ResourceNotFoundException;
 import uk.ac.ebi.quickgo.rest.ResponseExceptionHandler;
 import uk.ac.ebi.quickgo.rest.comm.FilterContext;
 import uk.ac.ebi.quickgo.rest.metadata.MetaData;
 import uk.ac.ebi.quickgo.rest.metadata.MetaDataProvider;
 import uk.ac.ebi.quickgo.rest.search.DefaultSearchQueryTemplate;
+import uk.ac.ebi.quickgo.rest.search.ExportRetrieval;
 import uk.ac.ebi.quickgo.rest.search.SearchService;
 import uk.ac.ebi.quickgo.rest.search.query.QueryRequest;
 import uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery;
@@ -44,6 +59,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -56,6 +72,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.stream.Collectors.toList;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.springframework.http.HttpHeaders.ACCEPT;
+import static org.springframework.http.HttpHeaders.ACCEPT_ENCODING;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
 import static org.springframework.http.HttpHeaders.VARY;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
@@ -66,6 +84,7 @@ import static uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transforme
 import static uk.ac.ebi.quickgo.common.array.ArrayPopulation.ensureArrayContains;
 import static uk.ac.ebi.quickgo.common.array.ArrayPopulation.ensureArrayContainsCommonValue;
 import static uk.ac.ebi.quickgo.rest.search.SearchDispatcher.searchAndTransform;
+import static uk.ac.ebi.quickgo.rest.search.SearchDispatcher.streamExportedResults;
 import static uk.ac.ebi.quickgo.rest.search.SearchDispatcher.streamSearchResults;
 import static uk.ac.ebi.quickgo.rest.search.query.CursorPage.createFirstCursorPage;
 
@@ -127,6 +146,11 @@ public class AnnotationController {
             DateTimeFormatter.ofPattern("-N-yyyyMMdd");
     private static final String DOWNLOAD_FILE_NAME_PREFIX = "QuickGO-annotations";
     private static final String GO_USAGE_SLIM = "goUsage=slim";
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    // statistics are calculated by aggregating in Solr, rather than written annotation by annotation
+    private static final long STATISTICS_DOWNLOAD_COST = 1;
+    private static final String DOWNLOAD_JOB_PATH = "/annotation/downloadJob/{id}";
+    private static final MediaType GZIP_MEDIA_TYPE = new MediaType("application", "gzip");
     private static final String DOWNLOAD_STATISTICS_FILE_NAME = "annotation_statistics";
     private static final Function<MediaType, String> TO_DOWNLOAD_STATISTICS_FILENAME = mt -> String.format("%s.%s",
             DOWNLOAD_STATISTICS_FILE_NAME,
@@ -141,28 +165,40 @@ public class AnnotationController {
     private static final String COLLECTION = SolrCollectionName.ANNOTATION;
     private final MetaDataProvider metaDataProvider;
     private final SearchService<Annotation> annotationSearchService;
+    private final ExportRetrieval<Annotation> annotationExportRetrieval;
     private final SearchServiceConfig.AnnotationCompositeRetrievalConfig annotationRetrievalConfig;
     private final DefaultSearchQueryTemplate queryTemplate;
     private final DefaultSearchQueryTemplate downloadQueryTemplate;
     private final FilterConverterFactory converterFactory;
     private final ResultTransformerChain<QueryResult<Annotation>> resultTransformerChain;
     private final StatisticsService statsService;
-    private final TaskExecutor taskExecutor;
+    private final DownloadScheduler downloadScheduler;
+    private final DownloadSpool downloadSpool;
+    private final DownloadCache downloadCache;
+    private final TaskExecutor readAheadExecutor;
     private final HeaderCreatorFactory headerCreatorFactory;
+    private final OntologyHeaderInfo ontologyHeaderInfo;
     private final NameService nameService;
 
     @Autowired
     public AnnotationController(SearchService<Annotation> annotationSearchService,
+            ExportRetrieval<Annotation> annotationExportRetrieval,
             SearchServiceConfig.AnnotationCompositeRetrievalConfig annotationRetrievalConfig,
             FilterConverterFactory converterFactory,
             ResultTransformerChain<QueryResult<Annotation>> resultTransformerChain,
             StatisticsService statsService,
-            TaskExecutor taskExecutor,
+            DownloadScheduler downloadScheduler,
+            DownloadSpool downloadSpool,
+            DownloadCache downloadCache,
+            @Qualifier("downloadReadAheadExecutor") TaskExecutor readAheadExecutor,
             HeaderCreatorFactory headerCreatorFactory,
+            OntologyHeaderInfo ontologyHeaderInfo,
             MetaDataProvider metaDataProvider,
             NameService nameService) {
         checkArgument(annotationSearchService != null, "The SearchService<Annotation> instance passed " +
                 "to the constructor of AnnotationController should not be null.");
+        checkArgument(annotationExportRetrieval != null, "The ExportRetrieval<Annotation> instance passed " +
+                "to the constructor of AnnotationController should not be null.");
         checkArgument(annotationRetrievalConfig != null, "The SearchServiceConfig" +
                 ".AnnotationCompositeRetrievalConfig instance passed to the constructor of AnnotationController " +
                 "should not be null.");
@@ -170,11 +206,16 @@ public class AnnotationController {
         checkArgument(resultTransformerChain != null,
                 "The ResultTransformerChain<QueryResult<Annotation>> cannot be null.");
         checkArgument(statsService != null, "Annotation stats service cannot be null.");
-        checkArgument(taskExecutor != null, "TaskExecutor cannot be null.");
+        checkArgument(downloadScheduler != null, "DownloadScheduler cannot be null.");
+        checkArgument(downloadSpool != null, "DownloadSpool cannot be null.");
+        checkArgument(downloadCache != null, "DownloadCache cannot be null.");
+        checkArgument(readAheadExecutor != null, "Read ahead TaskExecutor cannot be null.");
         checkArgument(headerCreatorFactory != null, "HeaderCreatorFactory cannot be null.");
+        checkArgument(ontologyHeaderInfo != null, "OntologyHeaderInfo cannot be null.");
         checkArgument(metaDataProvider != null, "Metadata provider cannot be null.");
 
         this.annotationSearchService = annotationSearchService;
+        this.annotationExportRetrieval = annotationExportRetrieval;
         this.converterFactory = converterFactory;
 
         this.statsService = statsService;
@@ -184,8 +225,12 @@ public class AnnotationController {
         this.queryTemplate = createSearchQueryTemplate(annotationRetrievalConfig);
         this.downloadQueryTemplate = createDownloadSearchQueryTemplate(annotationRetrievalConfig);
 
-        this.taskExecutor = taskExecutor;
+        this.downloadScheduler = downloadScheduler;
+        this.downloadSpool = downloadSpool;
+        this.downloadCache = downloadCache;
+        this.readAheadExecutor = readAheadExecutor;
         this.headerCreatorFactory = headerCreatorFactory;
+        this.ontologyHeaderInfo = ontologyHeaderInfo;
 
         this.metaDataProvider = metaDataProvider;
 
@@ -260,7 +305,9 @@ public class AnnotationController {
             @Valid @RequestBody(required = false) AnnotationRequestBody body,
             @Valid @ModelAttribute AnnotationRequest request,
             BindingResult bindingResult,
-            @RequestHeader(ACCEPT) MediaType[] incomingAcceptHeader, HttpServletRequest servletRequest) {
+            @RequestHeader(ACCEPT) MediaType[] incomingAcceptHeader,
+            @RequestHeader(value = ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest servletRequest) {
         LOGGER.info("Download Request:: " + request + ", " + Arrays.toString(incomingAcceptHeader));
         checkBindingErrors(bindingResult);
 
@@ -276,42 +323,242 @@ public class AnnotationController {
             .map(MediaTypeFactory::createMediaType)
             .orElseGet(firstSupportingTypeFromHeaders);
 
-        if (mediaTypeAcceptHeader.getSubtype().equals(TSV_SUB_TYPE)) {
-            //If synonyms are requested, ensure synonyms is in the list of include fields.
-            request.setIncludeFields(
-                    ensureArrayContainsCommonValue(request.getSelectedFields(), request.getIncludeFields(),
-                            "synonyms"));
-            //If gene product name is requested, ensure name is in the list of include fields.
-            request.setIncludeFields(
-                    ensureArrayContainsCommonValue(request.getSelectedFields(), request.getIncludeFields(), "name"));
-        }
+        includeSelectedTSVFields(request, mediaTypeAcceptHeader);
 
         request.addRequestBody(body);
-        FilterQueryInfo filterQueryInfo = extractFilterQueryInfo(request);
-        final int pageLimit = getPageLimit(request);
-
-        QueryRequest queryRequest = createQueryRequest(filterQueryInfo, pageLimit);
         ResponseBodyEmitter emitter = new ResponseBodyEmitter();
 
         final List<String> selectedFields = selectedFieldList(request);
-        writeHeader(mediaTypeAcceptHeader, servletRequest, emitter, selectedFields);
-        writeBody(request, mediaTypeAcceptHeader, filterQueryInfo, queryRequest, emitter, selectedFields);
+        ContentEncoding encoding = ContentEncoding.negotiate(acceptEncoding, request.isCompressed());
+        String header = "";
+        if (encoding == ContentEncoding.IDENTITY) {
+            writeHeader(mediaTypeAcceptHeader, servletRequest, emitter, selectedFields);
+        } else {
+            //An encoded header is written with the download, so that both are within the one encoded stream.
+            header = headerOf(mediaTypeAcceptHeader, servletRequest, selectedFields);
+        }
 
-        return ResponseEntity.ok().headers(createHttpDownloadHeader(mediaTypeAcceptHeader, TO_DOWNLOAD_FILENAME)).body(emitter);
+        String indexVersion = indexVersion();
+        String ontologyVersion = ontologyVersion();
+        boolean cacheable = !indexVersion.isEmpty() && !ontologyVersion.isEmpty();
+        String downloadKey =
+                downloadKey(request, mediaTypeAcceptHeader, selectedFields, indexVersion, ontologyVersion);
+        Optional<InputStream> cachedAnnotations = cacheable ? downloadCache.find(downloadKey) : Optional.empty();
+        if (cachedAnnotations.isPresent()) {
+            emitDownloadWithMediaType(emitter, new CachedDownloadContent(cachedAnnotations.get(), header, encoding),
+                    mediaTypeAcceptHeader);
+        } else {
+            FilterQueryInfo filterQueryInfo = extractFilterQueryInfo(request);
+            QueryRequest queryRequest = createQueryRequest(filterQueryInfo, getPageLimit(request));
+            QueryResult<Annotation> firstPage = findFirstPage(request, queryRequest);
+            String cacheKey = cacheable ? downloadKey : null;
+            writeBody(request, mediaTypeAcceptHeader, filterQueryInfo, queryRequest, firstPage, emitter,
+                    selectedFields, header, encoding, clientOf(servletRequest), cacheKey);
+        }
+
+        HttpHeaders httpHeaders = createHttpDownloadHeader(mediaTypeAcceptHeader, TO_DOWNLOAD_FILENAME);
+        httpHeaders.add(VARY, ACCEPT_ENCODING);
+        if (encoding != ContentEncoding.IDENTITY) {
+            httpHeaders.set(CONTENT_ENCODING, encoding.token());
+        }
+        return ResponseEntity.ok().headers(httpHeaders).body(emitter);
+    }
+
+    /**
+     * Requests a download to be written to a gzipped spool file, rather than to the response, so that it is written
+     * whether or not the client stays connected, and can be fetched once written from the location returned, with
+     * range requests if need be. A request identical to one already made reuses the job, and file, of that request.
+     */
+    @ApiResponses(value = {
+            @ApiResponse(code = 202, message = "The download job has been accepted, and its status is returned"),
+            @ApiResponse(code = 400, message = "Bad request due to a validation issue encountered in one of the " +
+                    "filters", response = ResponseExceptionHandler.ErrorInfo.class),
+            @ApiResponse(code = 429, message = "Too many downloads are being written: retry after the time given",
+                    response = ResponseExceptionHandler.ErrorInfo.class)})
+    @ApiOperation(value = "Request all annotations that match the supplied filter criteria to be written to a file, " +
+            "in the format given by downloadFileType, which can be fetched once it has been written.")
+    @RequestMapping(value = "/downloadJob", method = {GET, POST}, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<DownloadJob> downloadJob(
+            @Valid @RequestBody(required = false) AnnotationRequestBody body,
+            @Valid @ModelAttribute AnnotationRequest request,
+            BindingResult bindingResult,
+            HttpServletRequest servletRequest) {
+        LOGGER.info("Download Job Request:: " + request);
+        checkBindingErrors(bindingResult);
+
+        MediaType mediaType = Optional.ofNullable(request.getDownloadFileType())
+                .filter(Predicate.not(String::isBlank))
+                .map(MediaTypeFactory::createMediaType)
+                .orElseThrow(() -> new ParameterException(String.format(
+                        "Provide one of '%s', '%s' or '%s' as 'downloadFileType'",
+                        GPAD_SUB_TYPE, GAF_SUB_TYPE, TSV_SUB_TYPE)));
+        includeSelectedTSVFields(request, mediaType);
+        request.addRequestBody(body);
+        List<String> selectedFields = selectedFieldList(request);
+        String indexVersion = indexVersion();
+        String ontologyVersion = ontologyVersion();
+        boolean cacheable = !indexVersion.isEmpty() && !ontologyVersion.isEmpty();
+        String jobId = downloadKey(request, mediaType, selectedFields, indexVersion, ontologyVersion);
+
+        DownloadJob job = downloadSpool.findReusableJob(jobId).orElseGet(() -> {
+            FilterQueryInfo filterQueryInfo = extractFilterQueryInfo(request);
+            QueryRequest queryRequest = createQueryRequest(filterQueryInfo, getPageLimit(request));
+            String header = headerOf(mediaType, servletRequest, selectedFields);
+            QueryResult<Annotation> firstPage = findFirstPage(request, queryRequest);
+            String cacheKey = cacheable ? jobId : null;
+
+            return downloadSpool.submit(jobId, mediaType, clientOf(servletRequest), downloadCost(request, firstPage),
+                    () -> new DownloadContent(getQueryResultStream(request, filterQueryInfo, queryRequest, firstPage),
+                            selectedFields, header, ContentEncoding.GZIP, createCacheEntry(cacheKey)));
+        });
+
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromContextPath(servletRequest)
+                        .path(DOWNLOAD_JOB_PATH).buildAndExpand(job.getId()).toUri())
+                .body(job);
+    }
+
+    /**
+     * Get the status of a download job.
+     */
+    @ApiOperation(value = "Get the status of a download job.", response = DownloadJob.class)
+    @RequestMapping(value = "/downloadJob/{id}", method = GET, produces = {MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<DownloadJob> downloadJobStatus(@PathVariable String id) {
+        return ResponseEntity.ok(findDownloadJob(id));
+    }
+
+    /**
+     * Fetch the gzipped file written by a download job, once it has completed. Range requests are supported, so that
+     * an interrupted fetch can be resumed.
+     */
+    @ApiOperation(value = "Fetch the gzipped file written by a completed download job.", response = File.class)
+    @RequestMapping(value = "/downloadJob/{id}/file", method = GET)
+    public ResponseEntity<Resource> downloadJobFile(@PathVariable String id) {
+        DownloadJob job = findDownloadJob(id);
+        if (!downloadSpool.findReusableJob(id).filter(DownloadJob::isCompleted).isPresent()) {
+            throw new ResourceNotFoundException("The file of download job " + id + " is not available: the job is " +
+                    job.getStatus());
+        }
+
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setContentDispositionFormData("attachment",
+                String.format("%s%s.%s.gz", DOWNLOAD_FILE_NAME_PREFIX, formattedDateStringForNow(), job.getFormat()));
+        httpHeaders.setContentType(GZIP_MEDIA_TYPE);
+        return ResponseEntity.ok().headers(httpHeaders).body(new FileSystemResource(job.getFile()));
+    }
+
+    private DownloadJob findDownloadJob(String id) {
+        return downloadSpool.findJob(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No download job with id: " + id));
     }
 
     private void writeBody(@Valid @ModelAttribute AnnotationRequest request,
                            @RequestHeader(ACCEPT) MediaType mediaTypeAcceptHeader,
                            FilterQueryInfo filterQueryInfo,
                            QueryRequest queryRequest,
+                           QueryResult<Annotation> firstPage,
                            ResponseBodyEmitter emitter,
-                           List<String> selectedFields) {
-        taskExecutor.execute(() -> {
+                           List<String> selectedFields,
+                           String header,
+                           ContentEncoding encoding,
+                           String client,
+                           String cacheKey) {
+        downloadScheduler.submit(client, downloadCost(request, firstPage), finished -> {
+            //The download has finished once its stream has been written, or its response has completed otherwise.
+            emitter.onCompletion(finished);
             final Stream<QueryResult<Annotation>> annotationResultStream =
-                    getQueryResultStream(request, filterQueryInfo, queryRequest);
-            DownloadContent downloadContent = new DownloadContent(annotationResultStream, selectedFields);
+                    getQueryResultStream(request, filterQueryInfo, queryRequest, firstPage).onClose(finished);
+            DownloadContent downloadContent = new DownloadContent(annotationResultStream, selectedFields, header,
+                    encoding, createCacheEntry(cacheKey));
             emitDownloadWithMediaType(emitter, downloadContent, mediaTypeAcceptHeader);
-        });
+        }, emitter::completeWithError);
+    }
+
+    /**
+     * Identifies the annotations a download writes, and how it writes them, by its filters, fields, format and limit,
+     * and the versions of the index and ontology it reads.
+     */
+    private String downloadKey(AnnotationRequest request, MediaType mediaType, List<String> selectedFields,
+            String indexVersion, String ontologyVersion) {
+        return new DownloadKey.Builder()
+                .setFormat(mediaType.getSubtype())
+                .setFilters(request.createFilterRequests())
+                .setSelectedFields(selectedFields)
+                .setIncludeFields(request.getIncludeFields())
+                .setDownloadLimit(request.getDownloadLimit())
+                .setIndexVersion(indexVersion)
+                .setOntologyVersion(ontologyVersion)
+                .build()
+                .value();
+    }
+
+    /**
+     * The version of the index is that of its metadata, as shown by /about, which changes when the index is loaded.
+     * Downloads are not cached if the metadata cannot be read, since the cache could not tell when they change.
+     */
+    private String indexVersion() {
+        try {
+            return metaDataProvider.lookupMetaData().toString();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not read the version of the index: downloads will not be cached", e);
+            return "";
+        }
+    }
+
+    /**
+     * The version of the ontology is that of the GO and ECO sources it was built from, which change when the ontology
+     * file is reloaded. Downloads are not cached if the ontology file has not been read.
+     */
+    private String ontologyVersion() {
+        return String.join(" ", ontologyHeaderInfo.versions());
+    }
+
+    private DownloadCache.Entry createCacheEntry(String cacheKey) {
+        return cacheKey == null ? null : downloadCache.create(cacheKey).orElse(null);
+    }
+
+    /**
+     * A searched download fetches its first page before it is scheduled, rather than once it is started, so that the
+     * number of annotations it will write is known from the hits of that page, without a separate query to count
+     * them. An exported download reads every page from a single export, which is only opened once it is started.
+     *
+     * @return the first page of a searched download, or null for an exported download
+     */
+    private QueryResult<Annotation> findFirstPage(AnnotationRequest request, QueryRequest queryRequest) {
+        return isExportedDownload(request) ? null : annotationSearchService.findByQuery(queryRequest);
+    }
+
+    /**
+     * The cost of a download, by which it is scheduled, is the number of annotations it will write. That of an
+     * exported download, whose hits are not known until it is started, is taken to be its limit.
+     */
+    private static long downloadCost(AnnotationRequest request, QueryResult<Annotation> firstPage) {
+        return firstPage == null ? request.getDownloadLimit() :
+                Math.min(firstPage.getNumberOfHits(), request.getDownloadLimit());
+    }
+
+    /**
+     * Identifies the client making a request by the first address it was forwarded for, if it was forwarded, or
+     * else by the address it came from.
+     */
+    private static String clientOf(HttpServletRequest servletRequest) {
+        String forwardedFor = servletRequest.getHeader(X_FORWARDED_FOR);
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            return forwardedFor.split(",")[0].trim();
+        }
+        return servletRequest.getRemoteAddr();
+    }
+
+    private void includeSelectedTSVFields(AnnotationRequest request, MediaType mediaType) {
+        if (mediaType.getSubtype().equals(TSV_SUB_TYPE)) {
+            //If synonyms are requested, ensure synonyms is in the list of include fields.
+            request.setIncludeFields(
+                    ensureArrayContainsCommonValue(request.getSelectedFields(), request.getIncludeFields(),
+                            "synonyms"));
+            //If gene product name is requested, ensure name is in the list of include fields.
+            request.setIncludeFields(
+                    ensureArrayContainsCommonValue(request.getSelectedFields(), request.getIncludeFields(), "name"));
+        }
     }
 
     private QueryRequest createQueryRequest(FilterQueryInfo filterQueryInfo, int pageLimit) {
@@ -332,6 +579,15 @@ public class AnnotationController {
         headerCreator.write(emitter, headerContent);
     }
 
+    /**
+     * Creates the header of a download as text, to be written within the download itself.
+     */
+    private String headerOf(MediaType mediaType, HttpServletRequest servletRequest, List<String> selectedFields) {
+        HeaderLines headerLines = new HeaderLines();
+        writeHeader(mediaType, servletRequest, headerLines, selectedFields);
+        return headerLines.toString();
+    }
+
     private int getPageLimit(@Valid @ModelAttribute AnnotationRequest request) {
         return request.getDownloadLimit() < this.annotationRetrievalConfig.getDownloadPageSize() ?
                 request.getDownloadLimit() : this.annotationRetrievalConfig.getDownloadPageSize();
@@ -351,19 +607,25 @@ public class AnnotationController {
     }
 
     @ApiOperation(value = "Download statistics for all annotations that match the supplied filter criteria.",
+            notes = "Statistics are downloaded as an .xlsx workbook, unless a legacy .xls workbook " +
+                    "(application/vnd.ms-excel) or JSON is accepted.",
             response = File.class)
     @RequestMapping(value = "/downloadStats", method = {GET},
-            produces = {EXCEL_MEDIA_TYPE_STRING, JSON_MEDIA_TYPE_STRING})
+            produces = {XLSX_MEDIA_TYPE_STRING, EXCEL_MEDIA_TYPE_STRING, JSON_MEDIA_TYPE_STRING})
     public ResponseEntity<ResponseBodyEmitter> downloadStats(@Valid @ModelAttribute AnnotationRequest request,
-            BindingResult bindingResult, @RequestHeader(ACCEPT) MediaType mediaTypeAcceptHeader) {
+            BindingResult bindingResult, @RequestHeader(value = ACCEPT, required = false) MediaType[] acceptHeader,
+            HttpServletRequest servletRequest) {
         checkBindingErrors(bindingResult);
+        MediaType mediaTypeAcceptHeader = statisticsMediaType(acceptHeader);
         ResponseBodyEmitter emitter = new ResponseBodyEmitter();
 
-        taskExecutor.execute(() -> {
+        downloadScheduler.submit(clientOf(servletRequest), STATISTICS_DOWNLOAD_COST, finished -> {
+            emitter.onCompletion(finished);
             QueryResult<StatisticsGroup> stats = statsService.calculateForDownloadUsage(request);
             addAllNamesToStatisticsValues(stats);
             emitDownloadWithMediaType(emitter, stats, mediaTypeAcceptHeader);
-        });
+            finished.run();
+        }, emitter::completeWithError);
 
         return ResponseEntity.ok()
                 .headers(createHttpDownloadHeader(mediaTypeAcceptHeader,
@@ -371,6 +633,19 @@ public class AnnotationController {
                 .body(emitter);
     }
 
+    /**
+     * Statistics are written in the first of the accepted media types they can be written in, which is a streamed
+     * .xlsx workbook if no such media type is named.
+     */
+    private static MediaType statisticsMediaType(MediaType[] acceptHeader) {
+        return Optional.ofNullable(acceptHeader).map(Arrays::stream).orElseGet(Stream::empty)
+                .filter(mediaType -> mediaType.equalsTypeAndSubtype(XLSX_MEDIA_TYPE) ||
+                        mediaType.equalsTypeAndSubtype(EXCEL_MEDIA_TYPE) ||
+                        mediaType.equalsTypeAndSubtype(JSON_MEDIA_TYPE))
+                .findFirst()
+                .orElse(XLSX_MEDIA_TYPE);
+    }
+
     private static String formattedDateStringForNow() {
         LocalDateTime now = LocalDateTime.now();
         return now.format(DOWNLOAD_FILE_NAME_DATE_FORMATTER);
@@ -458,18 +733,43 @@ public class AnnotationController {
     }
 
     private Stream<QueryResult<Annotation>> getQueryResultStream(@Valid @ModelAttribute AnnotationRequest request,
-            FilterQueryInfo filterQueryInfo, QueryRequest queryRequest) {
-        LOGGER.info("Creating stream of search results. With limit " + request.getDownloadLimit());
-        Stream<QueryResult<Annotation>> resultStream = streamSearchResults(queryRequest,
-                queryTemplate,
-                annotationSearchService,
-                resultTransformerChain,
-                filterQueryInfo.getFilterContext(),
-                request.getDownloadLimit());
+            FilterQueryInfo filterQueryInfo, QueryRequest queryRequest, QueryResult<Annotation> firstPage) {
+        Stream<QueryResult<Annotation>> resultStream;
+        if (firstPage == null) {
+            LOGGER.info("Creating stream of exported results. With limit " + request.getDownloadLimit());
+            resultStream = streamExportedResults(queryRequest,
+                    annotationExportRetrieval,
+                    resultTransformerChain,
+                    filterQueryInfo.getFilterContext(),
+                    request.getDownloadLimit(),
+                    annotationRetrievalConfig.getDownloadPageSize(),
+                    readAheadExecutor,
+                    annotationRetrievalConfig.getDownloadReadAheadPages());
+        } else {
+            LOGGER.info("Creating stream of search results. With limit " + request.getDownloadLimit());
+            resultStream = streamSearchResults(queryRequest,
+                    firstPage,
+                    queryTemplate,
+                    annotationSearchService,
+                    resultTransformerChain,
+                    filterQueryInfo.getFilterContext(),
+                    request.getDownloadLimit(),
+                    readAheadExecutor,
+                    annotationRetrievalConfig.getDownloadReadAheadPages());
+        }
         LOGGER.info("Finished creating stream of search results.");
         return resultStream;
     }
 
+    /**
+     * Large downloads are exported in a single request, rather than paged through with a cursor, which requires
+     * Solr to collect and sort the matching annotations again for every page.
+     */
+    private boolean isExportedDownload(AnnotationRequest request) {
+        int exportThreshold = annotationRetrievalConfig.getDownloadExportThreshold();
+        return exportThreshold > 0 && request.getDownloadLimit() >= exportThreshold;
+    }
+
     private <C> void emitDownloadWithMediaType(
             ResponseBodyEmitter emitter,
             C content,
@@ -1,14 +1,17 @@
 package uk.ac.ebi.quickgo.annotation.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
 
 import uk.ac.ebi.quickgo.annotation.download.converter.AnnotationToGAF;
 import uk.ac.ebi.quickgo.annotation.download.converter.AnnotationToGPAD;
 import uk.ac.ebi.quickgo.annotation.download.converter.AnnotationToTSV;
 import uk.ac.ebi.quickgo.annotation.download.http.*;
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
 import uk.ac.ebi.quickgo.annotation.service.converter.WorkbookFromStatisticsImpl;
 import uk.ac.ebi.quickgo.rest.controller.response.NoFacetNoHighlightNoAggregateQueryResult;
 import uk.ac.ebi.quickgo.rest.controller.response.NoNextCursorPageInfo;
@@ -17,7 +20,9 @@ import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.*;
 import static uk.ac.ebi.quickgo.annotation.service.converter.StatisticsWorkBookLayout.SHEET_LAYOUT_SET;
 
@@ -27,6 +32,17 @@ import static uk.ac.ebi.quickgo.annotation.service.converter.StatisticsWorkBookL
  * @author Ricardo Antunes
  */
 @Configuration class ResponseConfig {
+    @Value("${annotation.download.bufferBytes:65536}")
+    private int downloadBufferBytes;
+    @Value("${annotation.download.flushBytes:262144}")
+    private long downloadFlushBytes;
+    @Value("${annotation.download.flushIntervalMillis:1000}")
+    private long downloadFlushIntervalMillis;
+    @Value("${annotation.download.compressionLevel:" + ContentEncoding.DEFAULT_LEVEL + "}")
+    private int downloadCompressionLevel;
+    @Value("${annotation.stats.rowAccessWindowSize:100}")
+    private int statsRowAccessWindowSize;
+
     @Primary
     @Bean
     static ObjectMapper objectMapper() {
@@ -44,7 +60,7 @@ import static uk.ac.ebi.quickgo.annotation.service.converter.StatisticsWorkBookL
     }
 
     private OutputStreamWriter gpadDispatchWriter() {
-        return new AnnotationDispatchWriter(new AnnotationToGPAD(), GPAD_MEDIA_TYPE);
+        return annotationDispatchWriter(new AnnotationToGPAD(), GPAD_MEDIA_TYPE);
     }
 
     @Bean
@@ -53,7 +69,7 @@ import static uk.ac.ebi.quickgo.annotation.service.converter.StatisticsWorkBookL
     }
 
     private OutputStreamWriter gafDispatchWriter() {
-        return new AnnotationDispatchWriter(new AnnotationToGAF(), GAF_MEDIA_TYPE);
+        return annotationDispatchWriter(new AnnotationToGAF(), GAF_MEDIA_TYPE);
     }
 
     @Bean
@@ -62,7 +78,13 @@ import static uk.ac.ebi.quickgo.annotation.service.converter.StatisticsWorkBookL
     }
 
     private OutputStreamWriter tsvDispatchWriter() {
-        return new AnnotationDispatchWriter(new AnnotationToTSV(), TSV_MEDIA_TYPE);
+        return annotationDispatchWriter(new AnnotationToTSV(), TSV_MEDIA_TYPE);
+    }
+
+    private OutputStreamWriter annotationDispatchWriter(
+            BiFunction<Annotation, List<String>, List<String>> converter, MediaType mediaType) {
+        return new AnnotationDispatchWriter(converter, mediaType, downloadBufferBytes, downloadFlushBytes,
+                downloadFlushIntervalMillis, downloadCompressionLevel);
     }
 
     @Bean
@@ -73,4 +95,14 @@ import static uk.ac.ebi.quickgo.annotation.service.converter.StatisticsWorkBookL
     private OutputStreamWriter statsDispatchWriter() {
         return new StatsExcelDispatchWriter(new WorkbookFromStatisticsImpl(SHEET_LAYOUT_SET));
     }
+
+    @Bean
+    public HttpMessageConverter xlsxHttpMessageConverter() {
+        return new HttpMessageConverter(xlsxStatsDispatchWriter(), XLSX_MEDIA_TYPE);
+    }
+
+    private OutputStreamWriter xlsxStatsDispatchWriter() {
+        return new StatsExcelDispatchWriter(new WorkbookFromStatisticsImpl(SHEET_LAYOUT_SET,
+                WorkbookFromStatisticsImpl.streamingWorkbook(statsRowAccessWindowSize)));
+    }
 }
@@ -26,16 +26,21 @@ public class CoTermConfig {
      * If we have been unable to load the CoTermRepository, do not propagate the exception as this will stop all
      * configuration completing and the ontology service will not be available. Instead return a repository instance
      * that contains no data. It will throw an error every time it is used to look up CoTerms for an id.
+     * If the co-occurring terms are binary, the repository memory-maps them, rather than loading them into the heap.
      * @return CoTerm repository instance.
      */
     @Bean
     public CoTermRepository coTermRepository() {
-        CoTermRepositorySimpleMap coTermRepository;
+        CoTermRepository coTermRepository;
         LOGGER.debug("Contents of coterm properties" + coTermProperties);
         try {
-            coTermRepository = CoTermRepositorySimpleMap.createCoTermRepositorySimpleMap(coTermProperties.manual,
-                                                                                         coTermProperties.all,
-                                                                                         coTermProperties.headerLines);
+            if (coTermProperties.binary) {
+                coTermRepository = CoTermRepositoryMappedFile.createCoTermRepositoryMappedFile(
+                        coTermProperties.manual, coTermProperties.all);
+            } else {
+                coTermRepository = CoTermRepositorySimpleMap.createCoTermRepositorySimpleMap(
+                        coTermProperties.manual, coTermProperties.all, coTermProperties.headerLines);
+            }
         } catch (Exception e) {
             final String errorMessage = "Failed to load co-occurring terms from 'MANUAL' source " +
                     (coTermProperties
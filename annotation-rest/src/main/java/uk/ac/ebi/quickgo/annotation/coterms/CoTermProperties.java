@@ -26,6 +26,7 @@ public class CoTermProperties {
     public Resource manual = DEFAULT_MANUAL_RESOURCE;
     public Resource all = DEFAULT_ALL_RESOURCE;
     public int headerLines = DEFAULT_HEADER_LINES;
+    public boolean binary = false;
 
     public int getLimit() {
         return limit;
@@ -59,12 +60,21 @@ public class CoTermProperties {
         this.headerLines = headerLines;
     }
 
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
     @Override public String toString() {
         return "CoTermProperties{" +
                 "limit=" + limit +
                 ", manual=" + manual +
                 ", all=" + all +
                 ", headerLines=" + headerLines +
+                ", binary=" + binary +
                 '}';
     }
 }
@@ -0,0 +1,197 @@
+package uk.ac.ebi.quickgo.annotation.coterms;
+
+import uk.ac.ebi.quickgo.annotation.common.CoTermsBinaryFormat;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+/**
+ * Retrieve the co-occurring terms for the selected term from memory-mapped binary co-terms files, whose layout is
+ * defined by {@link CoTermsBinaryFormat}. Nothing is read when the repository is created, other than the files'
+ * headers; the co-occurring terms of a GO term are found by a binary search of the mapped terms, and only the
+ * requested terms' records are read. The data is held outside the heap, by the operating system's page cache.
+ */
+public class CoTermRepositoryMappedFile implements CoTermRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoTermRepositoryMappedFile.class);
+
+    private final MappedCoTerms coTermsManual;
+    private final MappedCoTerms coTermsAll;
+
+    private CoTermRepositoryMappedFile(MappedCoTerms coTermsManual, MappedCoTerms coTermsAll) {
+        this.coTermsManual = coTermsManual;
+        this.coTermsAll = coTermsAll;
+    }
+
+    /**
+     * Create a instance of CoTermRepositoryMappedFile, mapping the binary co-occurring data of the resources.
+     * @param manualCoTermsSource binary co-occurring terms for Terms used in manually derived annotations.
+     * @param allCoTermSource binary co-occurring terms for Terms used in annotations derived from all sources.
+     * @throws IOException if the source of the co-occurring terms exists, but fails to be mapped.
+     * @throws IllegalStateException if a source is not a binary co-occurring terms file.
+     */
+    public static CoTermRepositoryMappedFile createCoTermRepositoryMappedFile(Resource manualCoTermsSource,
+            Resource allCoTermSource) throws IOException {
+        Preconditions.checkArgument(manualCoTermsSource != null, "Resource manualCoTermsSource is null.");
+        Preconditions.checkArgument(allCoTermSource != null, "Resource allCoTermSource is null.");
+        Preconditions.checkState(manualCoTermsSource.exists(), "Resource manualCoTermsSource does not exist.");
+        Preconditions.checkState(allCoTermSource.exists(), "Resource allCoTermSource does not exist.");
+
+        return new CoTermRepositoryMappedFile(
+                MappedCoTerms.map(Paths.get(manualCoTermsSource.getURI())),
+                MappedCoTerms.map(Paths.get(allCoTermSource.getURI())));
+    }
+
+    /**
+     * Get all co-occurring terms for the requested term.
+     * @param id the GO Term for which we will lookup co-occurring terms.
+     * @param source the data to search, based on how the CoTerms were created.
+     * @return a list of CoTerms, each one of which represent a GO Term that is used to annotate the same gene
+     * product as the id. Each CoTerm holds statistics related to that co-occurrence.
+     * @throws IllegalArgumentException if the id is null.
+     * @throws IllegalArgumentException if the requested CoTermSource is null.
+     * @throws IllegalStateException if the source contains no co-occurring terms.
+     */
+    @Override
+    public List<CoTerm> findCoTerms(String id, CoTermSource source) {
+        Preconditions.checkArgument(id != null, "The requested id is null.");
+        Preconditions.checkArgument(source != null, "The requested co-occurring source is null.");
+        return source == CoTermSource.MANUAL ? coTermsManual.find(id) : coTermsAll.find(id);
+    }
+
+    /**
+     * The mapped contents of a single binary co-occurring terms file. The mapped buffers are only read with absolute
+     * methods, so that they can be shared by concurrent requests.
+     */
+    static class MappedCoTerms {
+        private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / CoTermsBinaryFormat.RECORD_BYTES;
+
+        private final ByteBuffer index;
+        private final ByteBuffer[] recordSegments;
+        private final int termCount;
+
+        private MappedCoTerms(ByteBuffer index, ByteBuffer[] recordSegments, int termCount) {
+            this.index = index;
+            this.recordSegments = recordSegments;
+            this.termCount = termCount;
+        }
+
+        static MappedCoTerms map(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                Preconditions.checkState(channel.size() >= CoTermsBinaryFormat.HEADER_BYTES,
+                        "%s is not a binary co-occurring terms file.", path);
+                ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, CoTermsBinaryFormat.HEADER_BYTES);
+                Preconditions.checkState(header.getInt(CoTermsBinaryFormat.MAGIC_POSITION) == CoTermsBinaryFormat.MAGIC,
+                        "%s is not a binary co-occurring terms file.", path);
+                int version = header.getInt(CoTermsBinaryFormat.VERSION_POSITION);
+                Preconditions.checkState(version == CoTermsBinaryFormat.VERSION,
+                        "%s has binary co-occurring terms version %s, but version %s is required.", path, version,
+                        CoTermsBinaryFormat.VERSION);
+                int termCount = header.getInt(CoTermsBinaryFormat.TERM_COUNT_POSITION);
+                long recordCount = header.getLong(CoTermsBinaryFormat.RECORD_COUNT_POSITION);
+
+                long recordsPosition = CoTermsBinaryFormat.recordsPosition(termCount);
+                Preconditions.checkState(
+                        channel.size() == recordsPosition + recordCount * CoTermsBinaryFormat.RECORD_BYTES,
+                        "%s is truncated.", path);
+
+                ByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, recordsPosition);
+                ByteBuffer[] recordSegments =
+                        new ByteBuffer[(int) ((recordCount + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT)];
+                for (int i = 0; i < recordSegments.length; i++) {
+                    long firstRecord = (long) i * RECORDS_PER_SEGMENT;
+                    long segmentRecords = Math.min(RECORDS_PER_SEGMENT, recordCount - firstRecord);
+                    recordSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                            recordsPosition + firstRecord * CoTermsBinaryFormat.RECORD_BYTES,
+                            segmentRecords * CoTermsBinaryFormat.RECORD_BYTES);
+                }
+
+                LOGGER.info("Mapped {} co-occurring terms of {} terms from {}", recordCount, termCount, path);
+                return new MappedCoTerms(index, recordSegments, termCount);
+            }
+        }
+
+        List<CoTerm> find(String id) {
+            Preconditions.checkState(termCount > 0, "The co-occurring repository is empty.");
+            int termIndex = indexOf(id.getBytes(StandardCharsets.US_ASCII));
+            if (termIndex < 0) {
+                return Collections.emptyList();
+            }
+
+            long from = offset(termIndex);
+            long to = offset(termIndex + 1);
+
+            List<CoTerm> coTerms = new ArrayList<>((int) (to - from));
+            for (long record = from; record < to; record++) {
+                ByteBuffer segment = recordSegments[(int) (record / RECORDS_PER_SEGMENT)];
+                int position = (int) (record % RECORDS_PER_SEGMENT) * CoTermsBinaryFormat.RECORD_BYTES;
+                coTerms.add(new CoTerm(id,
+                        term(segment.getInt(position + CoTermsBinaryFormat.COMPARED_TERM_FIELD)),
+                        segment.getFloat(position + CoTermsBinaryFormat.PROBABILITY_RATIO_FIELD),
+                        segment.getFloat(position + CoTermsBinaryFormat.SIMILARITY_RATIO_FIELD),
+                        segment.getLong(position + CoTermsBinaryFormat.TOGETHER_FIELD),
+                        segment.getLong(position + CoTermsBinaryFormat.COMPARED_FIELD)));
+            }
+            return coTerms;
+        }
+
+        private long offset(int termIndex) {
+            return index.getLong((int) (CoTermsBinaryFormat.offsetsPosition(termCount) +
+                    (long) termIndex * CoTermsBinaryFormat.OFFSET_BYTES));
+        }
+
+        private int indexOf(byte[] id) {
+            if (id.length != CoTermsBinaryFormat.TERM_BYTES) {
+                return -1;
+            }
+
+            int low = 0;
+            int high = termCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int comparison = compareTerm(mid, id);
+                if (comparison < 0) {
+                    low = mid + 1;
+                } else if (comparison > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        private int compareTerm(int termIndex, byte[] id) {
+            int position = termPosition(termIndex);
+            for (int i = 0; i < CoTermsBinaryFormat.TERM_BYTES; i++) {
+                int comparison = Byte.compare(index.get(position + i), id[i]);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        }
+
+        private String term(int termIndex) {
+            byte[] term = new byte[CoTermsBinaryFormat.TERM_BYTES];
+            index.get(termPosition(termIndex), term);
+            return new String(term, StandardCharsets.US_ASCII);
+        }
+
+        private int termPosition(int termIndex) {
+            return (int) (CoTermsBinaryFormat.termsPosition() + (long) termIndex * CoTermsBinaryFormat.TERM_BYTES);
+        }
+    }
+}
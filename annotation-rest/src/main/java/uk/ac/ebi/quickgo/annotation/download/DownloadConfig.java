@@ -1,5 +1,7 @@
 package uk.ac.ebi.quickgo.annotation.download;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,12 +10,20 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCache;
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCacheProperties;
 import uk.ac.ebi.quickgo.annotation.download.header.*;
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
+import uk.ac.ebi.quickgo.annotation.download.http.HttpMessageConverter;
+import uk.ac.ebi.quickgo.annotation.download.http.OutputStreamWriter;
+import uk.ac.ebi.quickgo.annotation.download.spool.DownloadSpool;
+import uk.ac.ebi.quickgo.annotation.download.spool.DownloadSpoolProperties;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.*;
@@ -32,6 +42,10 @@ public class DownloadConfig {
     private static final Path DEFAULT_ONTOLOGY_PATH = Paths.get("ONTOLOGY_IRI.dat.gz");
 
     private TaskExecutorProperties taskExecutor = new TaskExecutorProperties();
+    private TaskExecutorProperties readAheadExecutor = new TaskExecutorProperties();
+    private DownloadSchedulerProperties scheduler = new DownloadSchedulerProperties();
+    private DownloadSpoolProperties spool = new DownloadSpoolProperties();
+    private DownloadCacheProperties cache = new DownloadCacheProperties();
     private int defaultEmitterTimeout = DEFAULT_DOWNLOAD_EMITTER_TIMEOUT_MILLIS;
     private Resource ontologySource;
 
@@ -56,6 +70,53 @@ public class DownloadConfig {
         return configurableTaskExecutor;
     }
 
+    /**
+     * The executor in which each download fetches the pages following the one it is writing. A download holds one of
+     * its threads until all of its pages have been fetched, so it does not queue tasks: when all of its threads are
+     * busy, a download fetches its pages itself, as it writes them.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor downloadReadAheadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("download-read-ahead-");
+        executor.setCorePoolSize(readAheadExecutor.getCorePoolSize());
+        executor.setMaxPoolSize(readAheadExecutor.getMaxPoolSize());
+        executor.setQueueCapacity(0);
+        executor.setKeepAliveSeconds(readAheadExecutor.getKeepAliveSeconds());
+        executor.setAllowCoreThreadTimeOut(readAheadExecutor.isAllowCoreThreadTimeout());
+        return executor;
+    }
+
+    /**
+     * Admits the downloads written by the task executor, queueing or refusing those that would overload it.
+     */
+    @Bean
+    public DownloadScheduler downloadScheduler(@Qualifier("taskExecutor") ThreadPoolTaskExecutor taskExecutor) {
+        return new DownloadScheduler(taskExecutor, scheduler);
+    }
+
+    /**
+     * Writes downloads to spool files, to be fetched once written, with the writers that write them to responses.
+     */
+    @Bean
+    public DownloadSpool downloadSpool(DownloadScheduler downloadScheduler, List<HttpMessageConverter> converters)
+            throws IOException {
+        Map<String, OutputStreamWriter> writers = new HashMap<>();
+        converters.forEach(converter -> converter.getSupportedMediaTypes()
+                .forEach(mediaType -> writers.put(mediaType.getSubtype(), converter.getWriter())));
+        return new DownloadSpool(downloadScheduler, writers, spool);
+    }
+
+    /**
+     * Caches the annotations written by downloads, compressed as downloads are, to be copied to identical downloads.
+     */
+    @Bean
+    public DownloadCache downloadCache(
+            @Value("${annotation.download.compressionLevel:" + ContentEncoding.DEFAULT_LEVEL + "}")
+                    int compressionLevel) throws IOException {
+        return new DownloadCache(cache, compressionLevel);
+    }
+
     @Bean
     public ThreadPoolTaskExecutor configurableTaskExecutor() {
         return new ThreadPoolTaskExecutor();
@@ -73,7 +134,9 @@ public class DownloadConfig {
     @Bean
     OntologyHeaderInfo ontology() throws IOException {
         Path osPath = ontologySource != null ? Paths.get(ontologySource.getURI()) : DEFAULT_ONTOLOGY_PATH;
-        return new OntologyHeaderInfo(osPath);
+        OntologyHeaderInfo ontology = new OntologyHeaderInfo(osPath);
+        ontology.watch();
+        return ontology;
     }
 
     public TaskExecutorProperties getTaskExecutor() {
@@ -84,6 +147,38 @@ public class DownloadConfig {
         this.taskExecutor = taskExecutor;
     }
 
+    public TaskExecutorProperties getReadAheadExecutor() {
+        return readAheadExecutor;
+    }
+
+    public void setReadAheadExecutor(TaskExecutorProperties readAheadExecutor) {
+        this.readAheadExecutor = readAheadExecutor;
+    }
+
+    public DownloadSchedulerProperties getScheduler() {
+        return scheduler;
+    }
+
+    public void setScheduler(DownloadSchedulerProperties scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public DownloadSpoolProperties getSpool() {
+        return spool;
+    }
+
+    public void setSpool(DownloadSpoolProperties spool) {
+        this.spool = spool;
+    }
+
+    public DownloadCacheProperties getCache() {
+        return cache;
+    }
+
+    public void setCache(DownloadCacheProperties cache) {
+        this.cache = cache;
+    }
+
     public void setDefaultEmitterTimeout(int defaultEmitterTimeout) {
         this.defaultEmitterTimeout = defaultEmitterTimeout;
     }
@@ -0,0 +1,261 @@
+package uk.ac.ebi.quickgo.annotation.download;
+
+import uk.ac.ebi.quickgo.rest.TooManyRequestsException;
+
+import com.google.common.base.Preconditions;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admits downloads to the {@link Executor} that writes them, so that a few large downloads cannot take every thread
+ * of the executor, nor every connection to Solr.
+ * <p>
+ * At most a given number of downloads run at once; the others wait in a queue, in order of when they would finish if
+ * they were started when submitted, given their estimated cost and the rate at which downloads are written. Smaller
+ * downloads therefore overtake larger ones, but never indefinitely.
+ * <p>
+ * A download is refused, with a {@link TooManyRequestsException} that says when to retry it, if its client already
+ * has the most downloads it may have running or queued, if the queue is full, or if its cost would take the total
+ * cost of the downloads running and queued over the maximum. A download is never refused for its cost alone when no
+ * others are scheduled, so that the largest downloads can still be made.
+ * <p>
+ * The number of downloads running, queued, completed and refused, and their total cost, are recorded, and logged as
+ * downloads are admitted and refused.
+ */
+public class DownloadScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadScheduler.class);
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Executor executor;
+    private final int maxConcurrentDownloads;
+    private final int maxDownloadsPerClient;
+    private final int maxQueuedDownloads;
+    private final long maxScheduledCost;
+    private final long costPerSecond;
+    private final int minRetryAfterSeconds;
+    private final int maxRetryAfterSeconds;
+    private final LongSupplier nanoClock;
+
+    private final PriorityQueue<Job> queue =
+            new PriorityQueue<>(Comparator.comparingLong((Job job) -> job.estimatedFinishNanos)
+                    .thenComparingLong(job -> job.sequence));
+    private final Map<String, Integer> downloadsPerClient = new HashMap<>();
+    private int running;
+    private long scheduledCost;
+    private long sequence;
+    private long completed;
+    private long refused;
+
+    public DownloadScheduler(Executor executor, DownloadSchedulerProperties properties) {
+        this(executor, properties, System::nanoTime);
+    }
+
+    DownloadScheduler(Executor executor, DownloadSchedulerProperties properties, LongSupplier nanoClock) {
+        Preconditions.checkArgument(executor != null, "Executor cannot be null");
+        Preconditions.checkArgument(properties != null, "Download scheduler properties cannot be null");
+        Preconditions.checkArgument(properties.getMaxConcurrentDownloads() > 0,
+                "Maximum concurrent downloads must be greater than 0: " + properties.getMaxConcurrentDownloads());
+        Preconditions.checkArgument(properties.getMaxDownloadsPerClient() > 0,
+                "Maximum downloads per client must be greater than 0: " + properties.getMaxDownloadsPerClient());
+        Preconditions.checkArgument(properties.getMaxQueuedDownloads() >= 0,
+                "Maximum queued downloads cannot be negative: " + properties.getMaxQueuedDownloads());
+        Preconditions.checkArgument(properties.getMaxScheduledCost() > 0,
+                "Maximum scheduled cost must be greater than 0: " + properties.getMaxScheduledCost());
+        Preconditions.checkArgument(properties.getCostPerSecond() > 0,
+                "Cost per second must be greater than 0: " + properties.getCostPerSecond());
+        Preconditions.checkArgument(properties.getMinRetryAfterSeconds() >= 0,
+                "Minimum retry after seconds cannot be negative: " + properties.getMinRetryAfterSeconds());
+        Preconditions.checkArgument(properties.getMaxRetryAfterSeconds() >= properties.getMinRetryAfterSeconds(),
+                "Maximum retry after seconds cannot be less than the minimum: " +
+                        properties.getMaxRetryAfterSeconds());
+        Preconditions.checkArgument(nanoClock != null, "Clock cannot be null");
+
+        this.executor = executor;
+        this.maxConcurrentDownloads = properties.getMaxConcurrentDownloads();
+        this.maxDownloadsPerClient = properties.getMaxDownloadsPerClient();
+        this.maxQueuedDownloads = properties.getMaxQueuedDownloads();
+        this.maxScheduledCost = properties.getMaxScheduledCost();
+        this.costPerSecond = properties.getCostPerSecond();
+        this.minRetryAfterSeconds = properties.getMinRetryAfterSeconds();
+        this.maxRetryAfterSeconds = properties.getMaxRetryAfterSeconds();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Submits a download, which is run on the executor when it is admitted. The download is given a callback that it
+     * must run when it has finished, wherever that is, since it may finish after it returns; for instance, when the
+     * stream it emits has been written. The callback need not be run if the download throws an exception.
+     * <p>
+     * If the download cannot be run, because the executor refuses it or it throws an exception, it is failed with the
+     * cause, so that whatever is waiting for it, such as the response it is written to, can be completed.
+     *
+     * @param client identifies the client requesting the download
+     * @param cost the estimated cost of the download, such as the number of annotations it writes
+     * @param download the download, which accepts the callback to run when it has finished
+     * @param failure accepts the cause of the download failing to run
+     * @throws TooManyRequestsException if the download is refused
+     */
+    public synchronized void submit(String client, long cost, Consumer<Runnable> download,
+            Consumer<Throwable> failure) {
+        Preconditions.checkArgument(client != null, "Client cannot be null");
+        Preconditions.checkArgument(cost >= 0, "Cost cannot be negative: " + cost);
+        Preconditions.checkArgument(download != null, "Download cannot be null");
+        Preconditions.checkArgument(failure != null, "Failure callback cannot be null");
+
+        int clientDownloads = downloadsPerClient.getOrDefault(client, 0);
+        if (clientDownloads >= maxDownloadsPerClient) {
+            refuse("Too many downloads from this client: at most " + maxDownloadsPerClient +
+                    " may be running or queued at once");
+        }
+        if (running >= maxConcurrentDownloads && queue.size() >= maxQueuedDownloads) {
+            refuse("Too many downloads are queued");
+        }
+        if (scheduledCost > 0 && scheduledCost + cost > maxScheduledCost) {
+            refuse("Too many annotations are being downloaded to admit a download of " + cost + " more");
+        }
+
+        long estimatedNanos = Math.min(cost, Long.MAX_VALUE / NANOS_PER_SECOND) * NANOS_PER_SECOND / costPerSecond;
+        queue.add(new Job(client, cost, download, failure, nanoClock.getAsLong() + estimatedNanos, sequence++));
+        downloadsPerClient.put(client, clientDownloads + 1);
+        scheduledCost += cost;
+        dispatch();
+        LOGGER.info("Scheduled download of cost {} for {}: {}", cost, client, this);
+    }
+
+    /**
+     * @return the number of downloads being written
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * @return the number of downloads waiting to be written
+     */
+    public synchronized int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * @return the total estimated cost of the downloads running and queued
+     */
+    public synchronized long getScheduledCost() {
+        return scheduledCost;
+    }
+
+    /**
+     * @return the number of downloads that have finished, successfully or not
+     */
+    public synchronized long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return the number of downloads that have been refused
+     */
+    public synchronized long getRefused() {
+        return refused;
+    }
+
+    @Override public synchronized String toString() {
+        return "DownloadScheduler{" +
+                "running=" + running +
+                ", queued=" + queue.size() +
+                ", scheduledCost=" + scheduledCost +
+                ", completed=" + completed +
+                ", refused=" + refused +
+                '}';
+    }
+
+    private void refuse(String reason) {
+        refused++;
+        long retryAfterSeconds = retryAfterSeconds();
+        LOGGER.warn("Refused download, retry after {}s: {}: {}", retryAfterSeconds, reason, this);
+        throw new TooManyRequestsException(reason + ". Please retry later.", retryAfterSeconds);
+    }
+
+    /**
+     * Estimates how long it will take the downloads scheduled to be written, if they were spread over all the
+     * downloads that can run at once.
+     */
+    private long retryAfterSeconds() {
+        long seconds = (scheduledCost + costPerSecond - 1) / costPerSecond / maxConcurrentDownloads;
+        return Math.max(minRetryAfterSeconds, Math.min(maxRetryAfterSeconds, seconds));
+    }
+
+    private void dispatch() {
+        while (running < maxConcurrentDownloads && !queue.isEmpty()) {
+            Job job = queue.poll();
+            running++;
+            try {
+                executor.execute(job);
+            } catch (RejectedExecutionException e) {
+                LOGGER.error("Executor refused a scheduled download for " + job.client +
+                        ": the scheduler admits more downloads than the executor can run", e);
+                job.fail(e);
+            }
+        }
+    }
+
+    private synchronized void finished(Job job) {
+        running--;
+        completed++;
+        scheduledCost -= job.cost;
+        downloadsPerClient.computeIfPresent(job.client, (client, downloads) -> downloads > 1 ? downloads - 1 : null);
+        dispatch();
+    }
+
+    private class Job implements Runnable {
+        private final String client;
+        private final long cost;
+        private final Consumer<Runnable> download;
+        private final Consumer<Throwable> failure;
+        private final long estimatedFinishNanos;
+        private final long sequence;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private Job(String client, long cost, Consumer<Runnable> download, Consumer<Throwable> failure,
+                long estimatedFinishNanos, long sequence) {
+            this.client = client;
+            this.cost = cost;
+            this.download = download;
+            this.failure = failure;
+            this.estimatedFinishNanos = estimatedFinishNanos;
+            this.sequence = sequence;
+        }
+
+        @Override public void run() {
+            try {
+                download.accept(this::finish);
+            } catch (RuntimeException e) {
+                fail(e);
+                throw e;
+            }
+        }
+
+        private void fail(Throwable cause) {
+            try {
+                failure.accept(cause);
+            } catch (RuntimeException e) {
+                LOGGER.error("Could not fail the download for " + client, e);
+            } finally {
+                finish();
+            }
+        }
+
+        private void finish() {
+            if (finished.compareAndSet(false, true)) {
+                finished(this);
+            }
+        }
+    }
+}
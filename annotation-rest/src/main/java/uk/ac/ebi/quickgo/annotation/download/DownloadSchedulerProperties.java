@@ -0,0 +1,78 @@
+package uk.ac.ebi.quickgo.annotation.download;
+
+/**
+ * Records properties that can be used to configure a {@link DownloadScheduler}.
+ */
+public class DownloadSchedulerProperties {
+    static final int DEFAULT_MAX_CONCURRENT_DOWNLOADS = 10;
+    static final int DEFAULT_MAX_DOWNLOADS_PER_CLIENT = 3;
+    static final int DEFAULT_MAX_QUEUED_DOWNLOADS = 50;
+    static final long DEFAULT_MAX_SCHEDULED_COST = 20_000_000;
+    static final long DEFAULT_COST_PER_SECOND = 20_000;
+    static final int DEFAULT_MIN_RETRY_AFTER_SECONDS = 5;
+    static final int DEFAULT_MAX_RETRY_AFTER_SECONDS = 600;
+
+    private int maxConcurrentDownloads = DEFAULT_MAX_CONCURRENT_DOWNLOADS;
+    private int maxDownloadsPerClient = DEFAULT_MAX_DOWNLOADS_PER_CLIENT;
+    private int maxQueuedDownloads = DEFAULT_MAX_QUEUED_DOWNLOADS;
+    private long maxScheduledCost = DEFAULT_MAX_SCHEDULED_COST;
+    private long costPerSecond = DEFAULT_COST_PER_SECOND;
+    private int minRetryAfterSeconds = DEFAULT_MIN_RETRY_AFTER_SECONDS;
+    private int maxRetryAfterSeconds = DEFAULT_MAX_RETRY_AFTER_SECONDS;
+
+    public int getMaxConcurrentDownloads() {
+        return maxConcurrentDownloads;
+    }
+
+    public void setMaxConcurrentDownloads(int maxConcurrentDownloads) {
+        this.maxConcurrentDownloads = maxConcurrentDownloads;
+    }
+
+    public int getMaxDownloadsPerClient() {
+        return maxDownloadsPerClient;
+    }
+
+    public void setMaxDownloadsPerClient(int maxDownloadsPerClient) {
+        this.maxDownloadsPerClient = maxDownloadsPerClient;
+    }
+
+    public int getMaxQueuedDownloads() {
+        return maxQueuedDownloads;
+    }
+
+    public void setMaxQueuedDownloads(int maxQueuedDownloads) {
+        this.maxQueuedDownloads = maxQueuedDownloads;
+    }
+
+    public long getMaxScheduledCost() {
+        return maxScheduledCost;
+    }
+
+    public void setMaxScheduledCost(long maxScheduledCost) {
+        this.maxScheduledCost = maxScheduledCost;
+    }
+
+    public long getCostPerSecond() {
+        return costPerSecond;
+    }
+
+    public void setCostPerSecond(long costPerSecond) {
+        this.costPerSecond = costPerSecond;
+    }
+
+    public int getMinRetryAfterSeconds() {
+        return minRetryAfterSeconds;
+    }
+
+    public void setMinRetryAfterSeconds(int minRetryAfterSeconds) {
+        this.minRetryAfterSeconds = minRetryAfterSeconds;
+    }
+
+    public int getMaxRetryAfterSeconds() {
+        return maxRetryAfterSeconds;
+    }
+
+    public void setMaxRetryAfterSeconds(int maxRetryAfterSeconds) {
+        this.maxRetryAfterSeconds = maxRetryAfterSeconds;
+    }
+}
@@ -0,0 +1,310 @@
+package uk.ac.ebi.quickgo.annotation.download.cache;
+
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
+
+import com.google.common.base.Preconditions;
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the gzipped annotations written by downloads on local disk, by their {@link DownloadKey}, so that a download
+ * identical to one already written is copied from its file, rather than read from Solr and formatted again.
+ * <p>
+ * A download is cached as it is written to its response, through an {@link Entry}, which is only added to the cache
+ * once the whole download has been written to it. The header of a download is not cached, since it describes the
+ * request the download is written for, rather than the annotations.
+ * <p>
+ * The cache holds at most a given number of bytes, evicting the least recently used downloads to make room for
+ * others; a download larger than the cache is not cached at all. A cache of 0 bytes caches nothing. Downloads are
+ * only indexed in memory, so files left from a previous run are removed when the cache is created.
+ * <p>
+ * The number of hits, misses and evictions, and the size of the cache, are recorded, and logged as downloads are
+ * added and evicted.
+ */
+public class DownloadCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadCache.class);
+    static final String CACHE_SUFFIX = ".gz";
+    static final String PART_SUFFIX = ".part";
+    private static final int FILE_BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+    private final int compressionLevel;
+    private final Map<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param properties the directory and size of the cache
+     * @param compressionLevel the level at which downloads are compressed, from 1 to 9
+     * @throws IOException if the directory of the cache cannot be created or cleared
+     */
+    public DownloadCache(DownloadCacheProperties properties, int compressionLevel) throws IOException {
+        Preconditions.checkArgument(properties != null, "Download cache properties cannot be null");
+        Preconditions.checkArgument(properties.getDirectory() != null && !properties.getDirectory().isEmpty(),
+                "Cache directory cannot be null or empty");
+        Preconditions.checkArgument(properties.getMaxBytes() >= 0,
+                "Maximum bytes cannot be negative: " + properties.getMaxBytes());
+
+        this.directory = Paths.get(properties.getDirectory());
+        this.maxBytes = properties.getMaxBytes();
+        this.compressionLevel = compressionLevel;
+
+        if (isEnabled()) {
+            Files.createDirectories(directory);
+            removeCacheFiles();
+        }
+    }
+
+    /**
+     * @return whether downloads are cached
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Finds the cached download with the given key, which is then the most recently used. Its file is opened before
+     * the download can be evicted, so that it can be read in full even if it is evicted whilst it is being read.
+     *
+     * @param key the key of the download
+     * @return the gzipped annotations of the download, to be closed once read, if it is cached
+     */
+    public synchronized Optional<InputStream> find(String key) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+
+        Long size = sizes.get(key);
+        if (size != null) {
+            try {
+                InputStream annotations = Files.newInputStream(file(key));
+                hits++;
+                LOGGER.info("Found cached download {}: {}", key, this);
+                return Optional.of(annotations);
+            } catch (IOException e) {
+                LOGGER.warn("Could not open cached download " + key + ": removing it", e);
+                sizes.remove(key);
+                bytes -= size;
+            }
+        }
+        misses++;
+        return Optional.empty();
+    }
+
+    /**
+     * Starts caching a download with the given key, which is cached once its entry is committed.
+     *
+     * @param key the key of the download
+     * @return the entry to write the download's annotations to, or nothing if downloads are not cached
+     */
+    public Optional<Entry> create(String key) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new Entry(key, Files.createTempFile(directory, key, PART_SUFFIX)));
+        } catch (IOException e) {
+            LOGGER.warn("Could not start caching download " + key, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the number of downloads found in the cache
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of downloads not found in the cache
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of downloads evicted from the cache
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the total size of the cached downloads
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of cached downloads
+     */
+    public synchronized int getEntries() {
+        return sizes.size();
+    }
+
+    @Override public synchronized String toString() {
+        return "DownloadCache{" +
+                "entries=" + sizes.size() +
+                ", bytes=" + bytes +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                '}';
+    }
+
+    private Path file(String key) {
+        return directory.resolve(key + CACHE_SUFFIX);
+    }
+
+    private synchronized void add(String key, Path part, long size) throws IOException {
+        Files.move(part, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Long replacedSize = sizes.put(key, size);
+        bytes += size - (replacedSize == null ? 0 : replacedSize);
+
+        Iterator<Map.Entry<String, Long>> leastRecentlyUsed = sizes.entrySet().iterator();
+        while (bytes > maxBytes && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, Long> evicted = leastRecentlyUsed.next();
+            if (!evicted.getKey().equals(key)) {
+                leastRecentlyUsed.remove();
+                bytes -= evicted.getValue();
+                evictions++;
+                delete(file(evicted.getKey()));
+                LOGGER.info("Evicted cached download {}", evicted.getKey());
+            }
+        }
+        LOGGER.info("Cached download {} of {} bytes: {}", key, size, this);
+    }
+
+    private void removeCacheFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(CACHE_SUFFIX) || name.endsWith(PART_SUFFIX)) {
+                    delete(file);
+                }
+            }
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete download cache file: " + file, e);
+        }
+    }
+
+    /**
+     * A download being cached. Annotations are compressed into a part file as they are written, which is added to the
+     * cache when the entry is committed, and deleted if it is abandoned. A failure to write the part file abandons the
+     * entry, but never fails the download being cached.
+     */
+    public class Entry {
+        private final String key;
+        private final Path part;
+        private final OutputStream cached;
+        private boolean finished;
+
+        private Entry(String key, Path part) throws IOException {
+            this.key = key;
+            this.part = part;
+            this.cached = ContentEncoding.GZIP.encode(
+                    new BufferedOutputStream(Files.newOutputStream(part), FILE_BUFFER_BYTES), compressionLevel);
+        }
+
+        /**
+         * Wraps a stream so that whatever is written to it is also cached.
+         *
+         * @param download the stream to which the download is written
+         * @return the stream to write the download to
+         */
+        public OutputStream tee(OutputStream download) {
+            return new FilterOutputStream(download) {
+                @Override public void write(int b) throws IOException {
+                    out.write(b);
+                    cache(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    cache(b, off, len);
+                }
+            };
+        }
+
+        /**
+         * Adds the download written to the entry to the cache, unless it could not be written.
+         */
+        public void commit() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                ContentEncoding.GZIP.finish(cached);
+                cached.close();
+                long size = Files.size(part);
+                if (size > maxBytes) {
+                    LOGGER.info("Download {} of {} bytes is too large to cache", key, size);
+                    delete(part);
+                } else {
+                    add(key, part, size);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not cache download " + key, e);
+                delete(part);
+            }
+        }
+
+        /**
+         * Discards the download written to the entry, if it has not been committed.
+         */
+        public void abandon() {
+            if (!finished) {
+                finished = true;
+                close();
+                delete(part);
+            }
+        }
+
+        private void cache(byte[] b, int off, int len) {
+            if (finished) {
+                return;
+            }
+            try {
+                cached.write(b, off, len);
+            } catch (IOException e) {
+                LOGGER.warn("Could not write cached download " + key + ": abandoning it", e);
+                abandon();
+            }
+        }
+
+        private void close() {
+            try {
+                cached.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close cached download " + key, e);
+            }
+        }
+    }
+}
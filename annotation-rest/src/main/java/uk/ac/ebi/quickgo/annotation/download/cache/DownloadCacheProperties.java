@@ -0,0 +1,31 @@
+package uk.ac.ebi.quickgo.annotation.download.cache;
+
+import java.nio.file.Paths;
+
+/**
+ * Records properties that can be used to configure a {@link DownloadCache}.
+ */
+public class DownloadCacheProperties {
+    static final String DEFAULT_DIRECTORY =
+            Paths.get(System.getProperty("java.io.tmpdir"), "quickgo-download-cache").toString();
+    static final long DEFAULT_MAX_BYTES = 0;
+
+    private String directory = DEFAULT_DIRECTORY;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+}
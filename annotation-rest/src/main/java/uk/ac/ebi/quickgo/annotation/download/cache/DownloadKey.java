@@ -0,0 +1,133 @@
+package uk.ac.ebi.quickgo.annotation.download.cache;
+
+import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Creates the key that identifies the annotations a download writes, and how it writes them, so that downloads of the
+ * same annotations, in the same way, from the same index, have the same key, however they were requested.
+ * <p>
+ * The key is made from the download's filters, whose values are sorted, since each filter matches any of its
+ * values, and which are themselves sorted; the fields it selects, in the order they are written; the fields it
+ * includes, sorted; its format; its limit; the version of the index it is read from; and the version of the ontology,
+ * since the names of terms included in a download come from the ontology, rather than the index. The key is the
+ * SHA-256 of these, in hex, so that it can also name a file.
+ */
+public class DownloadKey {
+    private final String format;
+    private final List<String> filters;
+    private final List<String> selectedFields;
+    private final List<String> includeFields;
+    private final int downloadLimit;
+    private final String indexVersion;
+    private final String ontologyVersion;
+
+    private DownloadKey(Builder builder) {
+        this.format = builder.format;
+        this.filters = builder.filters;
+        this.selectedFields = builder.selectedFields;
+        this.includeFields = builder.includeFields;
+        this.downloadLimit = builder.downloadLimit;
+        this.indexVersion = builder.indexVersion;
+        this.ontologyVersion = builder.ontologyVersion;
+    }
+
+    /**
+     * @return the key, as the hex SHA-256 of the normalised download request
+     */
+    public String value() {
+        return Hashing.sha256().hashString(toString(), StandardCharsets.UTF_8).toString();
+    }
+
+    @Override public String toString() {
+        return "DownloadKey{" +
+                "format='" + format + '\'' +
+                ", filters=" + filters +
+                ", selectedFields=" + selectedFields +
+                ", includeFields=" + includeFields +
+                ", downloadLimit=" + downloadLimit +
+                ", indexVersion='" + indexVersion + '\'' +
+                ", ontologyVersion='" + ontologyVersion + '\'' +
+                '}';
+    }
+
+    public static class Builder {
+        private String format;
+        private List<String> filters = Collections.emptyList();
+        private List<String> selectedFields = Collections.emptyList();
+        private List<String> includeFields = Collections.emptyList();
+        private int downloadLimit;
+        private String indexVersion;
+        private String ontologyVersion;
+
+        public Builder setFormat(String format) {
+            this.format = format;
+            return this;
+        }
+
+        public Builder setFilters(List<FilterRequest> filterRequests) {
+            Preconditions.checkArgument(filterRequests != null, "Filter requests cannot be null");
+            this.filters = filterRequests.stream()
+                    .map(filterRequest -> normalise(filterRequest.getProperties()))
+                    .sorted()
+                    .collect(toList());
+            return this;
+        }
+
+        public Builder setSelectedFields(List<String> selectedFields) {
+            Preconditions.checkArgument(selectedFields != null, "Selected fields cannot be null");
+            this.selectedFields = new ArrayList<>(selectedFields);
+            return this;
+        }
+
+        public Builder setIncludeFields(String[] includeFields) {
+            this.includeFields = includeFields == null ? Collections.emptyList() :
+                    Stream.of(includeFields).map(String::toLowerCase).sorted().distinct().collect(toList());
+            return this;
+        }
+
+        public Builder setDownloadLimit(int downloadLimit) {
+            this.downloadLimit = downloadLimit;
+            return this;
+        }
+
+        public Builder setIndexVersion(String indexVersion) {
+            this.indexVersion = indexVersion;
+            return this;
+        }
+
+        public Builder setOntologyVersion(String ontologyVersion) {
+            this.ontologyVersion = ontologyVersion;
+            return this;
+        }
+
+        public DownloadKey build() {
+            Preconditions.checkArgument(format != null && !format.isEmpty(), "Format cannot be null or empty");
+            Preconditions.checkArgument(indexVersion != null, "Index version cannot be null");
+            Preconditions.checkArgument(ontologyVersion != null, "Ontology version cannot be null");
+            return new DownloadKey(this);
+        }
+
+        private static String normalise(Map<String, List<String>> properties) {
+            Map<String, List<String>> sortedProperties = new TreeMap<>();
+            properties.forEach((name, values) -> {
+                String[] sortedValues = values.toArray(new String[0]);
+                Arrays.sort(sortedValues);
+                sortedProperties.put(name, Arrays.asList(sortedValues));
+            });
+            return sortedProperties.toString();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package uk.ac.ebi.quickgo.annotation.download.converter;
+
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formats an {@link Annotation} as the rows of a download, appending them directly to a caller supplied
+ * {@link StringBuilder}. The same builder can be reused for every annotation in a download, so that writing a row
+ * does not require intermediate Strings, lists or streams to be created.
+ *
+ * The converters return the same rows, without their new lines, from
+ * {@link java.util.function.BiFunction#apply(Object, Object)}, via {@link #rows}.
+ */
+public interface AnnotationRowFormatter {
+    char ROW_TERMINATOR = '\n';
+
+    /**
+     * Append the rows representing an annotation to the builder.
+     *
+     * @param annotation the annotation to format
+     * @param selectedFields the fields selected for output, where the format supports a selection
+     * @param rows the builder to append to
+     * @return the number of rows appended, which may be zero
+     */
+    int appendRows(Annotation annotation, List<String> selectedFields, StringBuilder rows);
+
+    /**
+     * The rows representing an annotation, as appended by {@link #appendRows}, without their terminators.
+     *
+     * @param annotation the annotation to format
+     * @param selectedFields the fields selected for output, where the format supports a selection
+     * @return the rows, which may be empty
+     */
+    default List<String> rows(Annotation annotation, List<String> selectedFields) {
+        StringBuilder appended = new StringBuilder();
+        int count = appendRows(annotation, selectedFields, appended);
+        List<String> rows = new ArrayList<>(count);
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = appended.indexOf(String.valueOf(ROW_TERMINATOR), start);
+            rows.add(appended.substring(start, end));
+            start = end + 1;
+        }
+        return rows;
+    }
+}
@@ -1,20 +1,16 @@
 package uk.ac.ebi.quickgo.annotation.download.converter;
 
+import uk.ac.ebi.quickgo.annotation.download.converter.helpers.DateConverter;
 import uk.ac.ebi.quickgo.annotation.download.converter.helpers.Extensions;
+import uk.ac.ebi.quickgo.annotation.download.converter.helpers.Helper;
+import uk.ac.ebi.quickgo.annotation.download.converter.helpers.Taxon;
 import uk.ac.ebi.quickgo.annotation.download.converter.helpers.WithFrom;
 import uk.ac.ebi.quickgo.annotation.model.Annotation;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.StringJoiner;
 import java.util.function.BiFunction;
 
-import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toList;
-import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.DateConverter.ISO_8601_FORMATTER;
-import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.Helper.nullToEmptyString;
-import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.Taxon.taxonIdToCurie;
 
 /**
  * Convert an Annotation to the GPAD format.
@@ -28,38 +24,58 @@ import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.Taxon.taxo
  UniProtKB	A0A000	enables	GO:0003870	GO_REF:0000002	ECO:0000256	InterPro:IPR010961		20170107	InterPro
  go_evidence=IEA
  </pre>
+ * The rows are appended to a reused {@link StringBuilder}, via {@link #appendRows}; {@link #apply} returns the same
+ * rows as Strings.
+ *
  * @author Tony Wardell
  * Date: 17/01/2017
  * Time: 11:24
  * Created with IntelliJ IDEA.
  */
-public class AnnotationToGPAD implements BiFunction<Annotation, List<String>, List<String>> {
+public class AnnotationToGPAD implements BiFunction<Annotation, List<String>, List<String>>, AnnotationRowFormatter {
 
     private static final String GO_EVIDENCE = "goEvidence=";
     private static final String OUTPUT_DELIMITER = "\t";
 
     @Override
     public List<String> apply(Annotation annotation, List<String> selectedFields) {
+        return rows(annotation, selectedFields);
+    }
+
+    @Override
+    public int appendRows(Annotation annotation, List<String> selectedFields, StringBuilder rows) {
         if (Objects.isNull(annotation.slimmedIds) || annotation.slimmedIds.isEmpty()) {
-            return Collections.singletonList(toOutputRecord(annotation, annotation.goId));
-        } else {
-            return annotation.slimmedIds.stream().map(goId -> this.toOutputRecord(annotation, goId)).collect(toList());
+            appendRow(annotation, annotation.goId, rows);
+            return 1;
+        }
+        for (int i = 0; i < annotation.slimmedIds.size(); i++) {
+            appendRow(annotation, annotation.slimmedIds.get(i), rows);
         }
+        return annotation.slimmedIds.size();
     }
 
-    private String toOutputRecord(Annotation annotation, String goId) {
-        StringJoiner tsvJoiner = new StringJoiner(OUTPUT_DELIMITER);
-        return tsvJoiner.add(annotation.getGeneProduct().db()).add(annotation.getGeneProduct().annotatedGeneProduct())
-                .add(nullToEmptyString(annotation.qualifier))
-                .add(nullToEmptyString(goId))
-                .add(nullToEmptyString(annotation.reference))
-                .add(nullToEmptyString(annotation.evidenceCode))
-                .add(WithFrom.nullOrEmptyListToString(annotation.withFrom))
-                .add(taxonIdToCurie(0, annotation.interactingTaxonId))
-                .add(ofNullable(annotation.date).map(ISO_8601_FORMATTER).orElse(""))
-                .add(nullToEmptyString(annotation.assignedBy))
-                .add(Extensions.asString(annotation.extensions))
-                .add(GO_EVIDENCE + nullToEmptyString(annotation.goEvidence))
-                .toString();
+    private static void appendRow(Annotation annotation, String goId, StringBuilder row) {
+        row.append(annotation.getGeneProduct().db()).append(OUTPUT_DELIMITER)
+                .append(annotation.getGeneProduct().annotatedGeneProduct()).append(OUTPUT_DELIMITER);
+        Helper.appendNullAsEmpty(annotation.qualifier, row);
+        row.append(OUTPUT_DELIMITER);
+        Helper.appendNullAsEmpty(goId, row);
+        row.append(OUTPUT_DELIMITER);
+        Helper.appendNullAsEmpty(annotation.reference, row);
+        row.append(OUTPUT_DELIMITER);
+        Helper.appendNullAsEmpty(annotation.evidenceCode, row);
+        row.append(OUTPUT_DELIMITER);
+        WithFrom.appendTo(annotation.withFrom, row);
+        row.append(OUTPUT_DELIMITER);
+        Taxon.appendTaxonIdCurie(0, annotation.interactingTaxonId, row);
+        row.append(OUTPUT_DELIMITER);
+        DateConverter.appendIso8601(annotation.date, row);
+        row.append(OUTPUT_DELIMITER);
+        Helper.appendNullAsEmpty(annotation.assignedBy, row);
+        row.append(OUTPUT_DELIMITER);
+        Extensions.appendTo(annotation.extensions, row);
+        row.append(OUTPUT_DELIMITER).append(GO_EVIDENCE);
+        Helper.appendNullAsEmpty(annotation.goEvidence, row);
+        row.append(ROW_TERMINATOR);
     }
 }
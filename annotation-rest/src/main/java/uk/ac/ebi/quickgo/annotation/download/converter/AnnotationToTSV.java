@@ -1,20 +1,12 @@
 package uk.ac.ebi.quickgo.annotation.download.converter;
 
-import uk.ac.ebi.quickgo.annotation.download.converter.helpers.Extensions;
-import uk.ac.ebi.quickgo.annotation.download.converter.helpers.WithFrom;
+import uk.ac.ebi.quickgo.annotation.download.converter.helpers.*;
 import uk.ac.ebi.quickgo.annotation.model.Annotation;
-import uk.ac.ebi.quickgo.common.model.Aspect;
 
 import java.util.*;
-import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 
-import static java.util.Optional.ofNullable;
-import static java.util.stream.Collectors.toList;
 import static uk.ac.ebi.quickgo.annotation.download.TSVDownload.*;
-import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.DateConverter.ISO_8601_FORMATTER;
-import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.Helper.nullToEmptyString;
-import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.Taxon.taxonIdToString;
 
 /**
  * Convert an {@link Annotation} to a String representation of the view seen in QuickGO front end.
@@ -25,17 +17,20 @@ import static uk.ac.ebi.quickgo.annotation.download.converter.helpers.Taxon.taxo
  * UniProtKB	Q4VCS5	AMOT	-	        GO:0005515	protein binding	Function	IPI	        PMID:16043488
  * UniProtKB:Q6RHR9-2	9606	20051207	UniProt	UniProtKB:Q4VCS5-1
  *
+ * The rows are appended to a reused {@link StringBuilder}, via {@link #appendRows}; {@link #apply} returns the same
+ * rows as Strings.
+ *
  * @author Tony Wardell
  * Date: 26/04/2017
  * Time: 14:56
  * Created with IntelliJ IDEA.
  */
-public class AnnotationToTSV implements BiFunction<Annotation, List<String>, List<String>> {
+public class AnnotationToTSV implements BiFunction<Annotation, List<String>, List<String>>, AnnotationRowFormatter {
 
-    private static final Map<String, BiConsumer<OutputContent, StringJoiner>> selected2Content = new HashMap<>();
+    private static final Map<String, ColumnWriter> selected2ColumnWriter = new HashMap<>();
 
     static {
-        initialiseContentMappings();
+        initialiseColumnWriters();
     }
 
     static final String OUTPUT_DELIMITER = "\t";
@@ -44,75 +39,73 @@ public class AnnotationToTSV implements BiFunction<Annotation, List<String>, Lis
     }
 
     @Override public List<String> apply(Annotation annotation, List<String> selectedFields) {
+        return rows(annotation, selectedFields);
+    }
+
+    @Override public int appendRows(Annotation annotation, List<String> selectedFields, StringBuilder rows) {
         final List<String> columns = whichColumnsWillWeShow(selectedFields);
         if (isSlimmedRequest(annotation)) {
-            return Collections.singletonList(output(new OutputContent(annotation, columns, null)));
-        } else {
-            return annotation.slimmedIds.stream()
-                    .map(goId -> output(new OutputContent(annotation, columns, goId)))
-                    .collect(toList());
+            appendRow(annotation, columns, null, rows);
+            return 1;
+        }
+        for (int i = 0; i < annotation.slimmedIds.size(); i++) {
+            appendRow(annotation, columns, annotation.slimmedIds.get(i), rows);
         }
+        return annotation.slimmedIds.size();
     }
 
-    private static void initialiseContentMappings() {
-        selected2Content.put(GENE_PRODUCT_FIELD_NAME,
-                (c, j) -> {
-                    j.add(c.annotation.getGeneProduct().db());
-                    j.add(c.annotation.getGeneProduct().annotatedGeneProduct());
-                });
-        selected2Content.put(SYMBOL_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.symbol)));
-        selected2Content.put(QUALIFIER_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.qualifier)));
-        selected2Content.put(GO_TERM_FIELD_NAME, (c, j) -> {
-            if (Objects.nonNull(c.slimmedToGoId)) {
-                j.add(c.slimmedToGoId);
+    private static void initialiseColumnWriters() {
+        selected2ColumnWriter.put(GENE_PRODUCT_FIELD_NAME, (a, s, r) ->
+                r.append(a.getGeneProduct().db()).append(OUTPUT_DELIMITER)
+                        .append(a.getGeneProduct().annotatedGeneProduct()));
+        selected2ColumnWriter.put(SYMBOL_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.symbol, r));
+        selected2ColumnWriter.put(QUALIFIER_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.qualifier, r));
+        selected2ColumnWriter.put(GO_TERM_FIELD_NAME, (a, s, r) -> {
+            if (Objects.nonNull(s)) {
+                r.append(s).append(OUTPUT_DELIMITER);
             }
-            j.add(nullToEmptyString(c.annotation.goId));
+            Helper.appendNullAsEmpty(a.goId, r);
         });
-        selected2Content.put(GO_ASPECT_FIELD_NAME,
-                (c, j) -> j.add(Aspect.fromScientificName(c.annotation.goAspect)
-                        .map(Aspect::getCharacter)
-                        .orElse("")));
-        selected2Content.put(GO_NAME_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.goName)));
-        selected2Content.put(ECO_ID_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.evidenceCode)));
-        selected2Content.put(GO_EVIDENCE_CODE_FIELD_NAME,
-                (c, j) -> j.add(nullToEmptyString(c.annotation.goEvidence)));
-        selected2Content.put(REFERENCE_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.reference)));
-        selected2Content.put(WITH_FROM_FIELD_NAME, (c, j) -> j.add(WithFrom.nullOrEmptyListToString(c.annotation.withFrom)));
-        selected2Content.put(TAXON_ID_FIELD_NAME, (c, j) -> j.add(taxonIdToString(c.annotation.taxonId)));
-        selected2Content.put(INTERACTING_TAXON_ID_FIELD_NAME, (c, j) -> j.add(taxonIdToString(c.annotation.interactingTaxonId)));
-        selected2Content.put(ASSIGNED_BY_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.assignedBy)));
-        selected2Content.put(ANNOTATION_EXTENSION_FIELD_NAME,
-                (c, j) -> j.add(Extensions.asString(c.annotation.extensions)));
-        selected2Content.put(DATE_FIELD_NAME,
-                (c, j) -> j.add(ofNullable(c.annotation.date).map(ISO_8601_FORMATTER).orElse("")));
-        selected2Content.put(TAXON_NAME_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.taxonName)));
-        selected2Content.put(GENE_PRODUCT_NAME_FIELD_NAME, (c, j) -> j.add(nullToEmptyString(c.annotation.name)));
-        selected2Content.put(GENE_PRODUCT_SYNONYMS_FIELD_NAME,
-                (c, j) -> j.add(nullToEmptyString(c.annotation.synonyms)));
-        selected2Content.put(GENE_PRODUCT_TYPE_FIELD_NAME, (c, j) -> j.add(c.annotation.getGeneProduct().type()));
+        selected2ColumnWriter.put(GO_ASPECT_FIELD_NAME,
+                (a, s, r) -> Helper.appendNullAsEmpty(AspectCharacter.ofScientificName(a.goAspect), r));
+        selected2ColumnWriter.put(GO_NAME_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.goName, r));
+        selected2ColumnWriter.put(ECO_ID_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.evidenceCode, r));
+        selected2ColumnWriter.put(GO_EVIDENCE_CODE_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.goEvidence, r));
+        selected2ColumnWriter.put(REFERENCE_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.reference, r));
+        selected2ColumnWriter.put(WITH_FROM_FIELD_NAME, (a, s, r) -> WithFrom.appendTo(a.withFrom, r));
+        selected2ColumnWriter.put(TAXON_ID_FIELD_NAME, (a, s, r) -> Taxon.appendTaxonId(a.taxonId, r));
+        selected2ColumnWriter.put(INTERACTING_TAXON_ID_FIELD_NAME,
+                (a, s, r) -> Taxon.appendTaxonId(a.interactingTaxonId, r));
+        selected2ColumnWriter.put(ASSIGNED_BY_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.assignedBy, r));
+        selected2ColumnWriter.put(ANNOTATION_EXTENSION_FIELD_NAME, (a, s, r) -> Extensions.appendTo(a.extensions, r));
+        selected2ColumnWriter.put(DATE_FIELD_NAME, (a, s, r) -> DateConverter.appendIso8601(a.date, r));
+        selected2ColumnWriter.put(TAXON_NAME_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.taxonName, r));
+        selected2ColumnWriter.put(GENE_PRODUCT_NAME_FIELD_NAME, (a, s, r) -> Helper.appendNullAsEmpty(a.name, r));
+        selected2ColumnWriter.put(GENE_PRODUCT_SYNONYMS_FIELD_NAME,
+                (a, s, r) -> Helper.appendNullAsEmpty(a.synonyms, r));
+        selected2ColumnWriter.put(GENE_PRODUCT_TYPE_FIELD_NAME, (a, s, r) -> r.append(a.getGeneProduct().type()));
     }
 
-    private boolean isSlimmedRequest(Annotation annotation) {
-        return Objects.isNull(annotation.slimmedIds) || annotation.slimmedIds.isEmpty();
-    }
-
-    private String output(OutputContent outputContent) {
-        StringJoiner tsvJoiner = new StringJoiner(OUTPUT_DELIMITER);
-        for (String selectedField : outputContent.selectedFields) {
-            selected2Content.get(selectedField).accept(outputContent, tsvJoiner);
+    private static void appendRow(Annotation annotation, List<String> columns, String slimmedToGoId,
+            StringBuilder row) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                row.append(OUTPUT_DELIMITER);
+            }
+            selected2ColumnWriter.get(columns.get(i)).append(annotation, slimmedToGoId, row);
         }
-        return tsvJoiner.toString();
+        row.append(ROW_TERMINATOR);
     }
 
-    private static class OutputContent {
-        final Annotation annotation;
-        final List<String> selectedFields;
-        final String slimmedToGoId;
+    private boolean isSlimmedRequest(Annotation annotation) {
+        return Objects.isNull(annotation.slimmedIds) || annotation.slimmedIds.isEmpty();
+    }
 
-        private OutputContent(Annotation annotation, List<String> selectedFields, String slimmedToGoId) {
-            this.annotation = annotation;
-            this.selectedFields = selectedFields;
-            this.slimmedToGoId = slimmedToGoId;
-        }
+    /**
+     * Appends the content of a column, for an annotation and the GO id it is slimmed to, if any.
+     */
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void append(Annotation annotation, String slimmedToGoId, StringBuilder row);
     }
 }
@@ -0,0 +1,31 @@
+package uk.ac.ebi.quickgo.annotation.download.converter.helpers;
+
+import uk.ac.ebi.quickgo.common.model.Aspect;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Looks up the single character representation of an aspect from its scientific name, e.g. 'F' for
+ * molecular_function, without the array copy and {@link java.util.Optional} created by
+ * {@link Aspect#fromScientificName(String)}, since it is needed for every row written.
+ */
+public class AspectCharacter {
+    private static final Map<String, String> SCIENTIFIC_NAME_TO_CHARACTER = new HashMap<>();
+
+    static {
+        for (Aspect aspect : Aspect.values()) {
+            SCIENTIFIC_NAME_TO_CHARACTER.put(aspect.getScientificName(), aspect.getCharacter());
+        }
+    }
+
+    private AspectCharacter() {}
+
+    /**
+     * @param scientificName the scientific name of an aspect
+     * @return the character of the aspect, or null if the name is null or not that of an aspect
+     */
+    public static String ofScientificName(String scientificName) {
+        return SCIENTIFIC_NAME_TO_CHARACTER.get(scientificName);
+    }
+}
@@ -1,8 +1,11 @@
 package uk.ac.ebi.quickgo.annotation.download.converter.helpers;
 
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -17,9 +20,39 @@ import java.util.function.Function;
 public class DateConverter {
     private static final String ISO_8601_DATE_FORMAT = "yyyyMMdd";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(ISO_8601_DATE_FORMAT);
+    private static final TimeZone SYSTEM_TIME_ZONE = TimeZone.getDefault();
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
     public static final Function<java.util.Date, String> ISO_8601_FORMATTER =
             d -> Objects.isNull(d) ? "" : d.toInstant().atZone(ZoneId.systemDefault()).format(DATE_FORMATTER);
 
     private DateConverter() {
     }
+
+    /**
+     * Appends the same representation as {@link #ISO_8601_FORMATTER} to the given builder, calculating the day from
+     * the system time zone's offset rather than creating a zoned date time and a String for every date. The system
+     * time zone is that at start up.
+     * @param date the date, which may be null
+     * @param builder the builder to append to
+     */
+    public static void appendIso8601(java.util.Date date, StringBuilder builder) {
+        if (Objects.isNull(date)) {
+            return;
+        }
+        long millis = date.getTime();
+        long localMillis = millis + SYSTEM_TIME_ZONE.getOffset(millis);
+        LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(localMillis, MILLIS_PER_DAY));
+        appendPadded(day.getYear(), 4, builder);
+        appendPadded(day.getMonthValue(), 2, builder);
+        appendPadded(day.getDayOfMonth(), 2, builder);
+    }
+
+    private static void appendPadded(int value, int width, StringBuilder builder) {
+        for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+            if (value < limit) {
+                builder.append('0');
+            }
+        }
+        builder.append(value);
+    }
 }
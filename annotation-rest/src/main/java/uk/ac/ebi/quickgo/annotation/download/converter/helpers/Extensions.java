@@ -29,6 +29,31 @@ public class Extensions {
                 .collect(Collectors.joining(PIPE));
     }
 
+    /**
+     * Appends the same representation as {@link #asString(List)} to the given builder, without creating
+     * intermediate Strings.
+     * @param connectedXRefs the extensions, which may be null
+     * @param builder the builder to append to
+     */
+    public static void appendTo(List<Annotation.ConnectedXRefs<Annotation.RelationXref>> connectedXRefs,
+            StringBuilder builder) {
+        if (connectedXRefs == null) {
+            return;
+        }
+        for (int i = 0; i < connectedXRefs.size(); i++) {
+            if (i > 0) {
+                builder.append(PIPE);
+            }
+            List<Annotation.RelationXref> xrefs = connectedXRefs.get(i).getConnectedXrefs();
+            for (int j = 0; j < xrefs.size(); j++) {
+                if (j > 0) {
+                    builder.append(COMMA);
+                }
+                xrefs.get(j).appendXrefTo(builder);
+            }
+        }
+    }
+
     private static String relationRefAndToString(Annotation.ConnectedXRefs<Annotation.RelationXref> itemList) {
         return itemList.getConnectedXrefs()
                 .stream()
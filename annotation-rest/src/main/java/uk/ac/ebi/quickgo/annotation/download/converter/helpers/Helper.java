@@ -21,4 +21,15 @@ public class Helper {
     public static String nullToEmptyString(String reference){
         return Objects.nonNull(reference) ? reference : "";
     }
+
+    /**
+     * Appends the reference to the builder if it is not null.
+     * @param reference a string value.
+     * @param builder the builder to append to.
+     */
+    public static void appendNullAsEmpty(String reference, StringBuilder builder) {
+        if (Objects.nonNull(reference)) {
+            builder.append(reference);
+        }
+    }
 }
@@ -39,6 +39,18 @@ public class Qualifier {
         }
     }
 
+    /**
+     * Appends the same representation as {@link #gafQualifierAsString(String)} to the given builder, only creating a
+     * new String when the qualifier contains a lower case 'not'.
+     * @param qualifier input string
+     * @param builder the builder to append to
+     */
+    public static void appendGafQualifier(String qualifier, StringBuilder builder) {
+        if (Objects.nonNull(qualifier)) {
+            builder.append(qualifier.contains(NOT_LOWERCASE) ? showNotInUpperCase(qualifier) : qualifier);
+        }
+    }
+
     private static String showNotInUpperCase(String qualifier) {
         return qualifier.replace(NOT_LOWERCASE, NOT_UPPERCASE);
     }
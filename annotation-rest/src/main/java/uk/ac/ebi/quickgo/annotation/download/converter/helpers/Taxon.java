@@ -20,4 +20,28 @@ public class Taxon {
     public static String taxonIdToString(int taxId) {
         return taxId > MINIMUM_TAX_ID ? Integer.toString(taxId) : "";
     }
+
+    /**
+     * Appends the same representation as {@link #taxonIdToCurie(int, int)} to the given builder.
+     */
+    public static void appendTaxonIdCurie(int taxId, int interactingTaxonId, StringBuilder builder) {
+        if (taxId > MINIMUM_TAX_ID) {
+            builder.append(TAXON).append(taxId);
+        }
+        if (interactingTaxonId > MINIMUM_TAX_ID) {
+            if (taxId > MINIMUM_TAX_ID) {
+                builder.append(PIPE);
+            }
+            builder.append(TAXON).append(interactingTaxonId);
+        }
+    }
+
+    /**
+     * Appends the same representation as {@link #taxonIdToString(int)} to the given builder.
+     */
+    public static void appendTaxonId(int taxId, StringBuilder builder) {
+        if (taxId > MINIMUM_TAX_ID) {
+            builder.append(taxId);
+        }
+    }
 }
@@ -40,4 +40,29 @@ public class WithFrom {
         return Objects.nonNull(connectedXRefs) && !connectedXRefs.isEmpty() ? asString(connectedXRefs) : "";
     }
 
+    /**
+     * Appends the same representation as {@link #nullOrEmptyListToString(List)} to the given builder, without
+     * creating intermediate Strings.
+     * @param connectedXRefs the with/from values, which may be null
+     * @param builder the builder to append to
+     */
+    public static void appendTo(List<Annotation.ConnectedXRefs<Annotation.SimpleXRef>> connectedXRefs,
+            StringBuilder builder) {
+        if (connectedXRefs == null) {
+            return;
+        }
+        for (int i = 0; i < connectedXRefs.size(); i++) {
+            if (i > 0) {
+                builder.append(PIPE);
+            }
+            List<Annotation.SimpleXRef> xrefs = connectedXRefs.get(i).getConnectedXrefs();
+            for (int j = 0; j < xrefs.size(); j++) {
+                if (j > 0) {
+                    builder.append(COMMA);
+                }
+                xrefs.get(j).appendXrefTo(builder);
+            }
+        }
+    }
+
 }
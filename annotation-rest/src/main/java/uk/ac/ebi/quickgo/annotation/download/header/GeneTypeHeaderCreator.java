@@ -2,11 +2,19 @@ package uk.ac.ebi.quickgo.annotation.download.header;
 
 import com.google.common.base.Preconditions;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 /**
  * Produce a header for GPAD and GAF files.
+ * <p>
+ * The lines of the header that are the same for every download of a format are prepared once for each version of
+ * the ontology, in an immutable template that is replaced when the ontology's versions change, so that only the date
+ * and the filtering parameters are formatted for each download.
  *
  * @author Tony Wardell
  * Date: 25/01/2017
@@ -23,6 +31,7 @@ public abstract class GeneTypeHeaderCreator extends AbstractHeaderCreator {
     static final String PREFIX = "!";
 
     private final OntologyHeaderInfo ontology;
+    private final AtomicReference<Template> template = new AtomicReference<>();
 
     GeneTypeHeaderCreator(OntologyHeaderInfo ontology) {
         Preconditions.checkArgument(ontology != null, "The ontology instance must not be null");
@@ -36,15 +45,10 @@ public abstract class GeneTypeHeaderCreator extends AbstractHeaderCreator {
      */
     @Override
     protected void output(ResponseBodyEmitter emitter, HeaderContent content) throws IOException {
-        send(emitter, version());
-        send(emitter, PROJECT_NAME);
-        send(emitter, URL);
-        send(emitter, EMAIL);
+        Template current = template();
+        sendLines(emitter, current.preamble);
         send(emitter, DATE + content.getDate());
-        for (String s : ontology.versions()) {
-            send(emitter, s);
-        }
-        send(emitter, FILTERS_INTRO);
+        sendLines(emitter, current.ontologyLines);
         send(emitter, ANNOTATION_URL + getURLParams(content.getUri()));
     }
 
@@ -54,9 +58,56 @@ public abstract class GeneTypeHeaderCreator extends AbstractHeaderCreator {
         emitter.send(PREFIX + content + "\n", MediaType.TEXT_PLAIN);
     }
 
+    private Template template() {
+        List<String> versions = ontology.versions();
+        Template current = template.get();
+        if (current == null || current.versions != versions) {
+            current = new Template(versions);
+            template.set(current);
+        }
+        return current;
+    }
+
+    private void sendLines(ResponseBodyEmitter emitter, List<String> lines) throws IOException {
+        for (String line : lines) {
+            emitter.send(line, MediaType.TEXT_PLAIN);
+        }
+    }
+
+    private static String line(String content) {
+        return PREFIX + content + "\n";
+    }
+
     private String getURLParams(String uri){
         uri = uri == null ? "" : uri.trim();
         final int index = uri.indexOf("?");
         return index < 0 ? "" : uri.substring(index, uri.length());
     }
+
+    /**
+     * The formatted lines of the header written before and after the date, for a version of the ontology.
+     */
+    private class Template {
+        private final List<String> versions;
+        private final List<String> preamble;
+        private final List<String> ontologyLines;
+
+        private Template(List<String> versions) {
+            this.versions = versions;
+            this.preamble = lines(version(), PROJECT_NAME, URL, EMAIL);
+
+            List<String> lines = new ArrayList<>(versions.size() + 1);
+            versions.forEach(v -> lines.add(line(v)));
+            lines.add(line(FILTERS_INTRO));
+            this.ontologyLines = Collections.unmodifiableList(lines);
+        }
+
+        private List<String> lines(String... contents) {
+            List<String> lines = new ArrayList<>(contents.length);
+            for (String content : contents) {
+                lines.add(line(content));
+            }
+            return Collections.unmodifiableList(lines);
+        }
+    }
 }
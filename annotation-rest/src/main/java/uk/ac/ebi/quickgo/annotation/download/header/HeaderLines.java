@@ -0,0 +1,26 @@
+package uk.ac.ebi.quickgo.annotation.download.header;
+
+import com.google.common.base.Preconditions;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * A {@link ResponseBodyEmitter} that collects the header a {@link HeaderCreator} writes to it, rather than sending it
+ * to the client, so that the header can be written as part of the download it heads; for instance, inside the same
+ * compressed stream.
+ */
+public class HeaderLines extends ResponseBodyEmitter {
+    private final StringBuilder lines = new StringBuilder();
+
+    @Override public void send(Object object, MediaType mediaType) {
+        Preconditions.checkArgument(object instanceof CharSequence, "Header content must be text: " + object);
+        lines.append((CharSequence) object);
+    }
+
+    /**
+     * @return the header written so far, with each line followed by its new line
+     */
+    @Override public String toString() {
+        return lines.toString();
+    }
+}
@@ -3,55 +3,155 @@ package uk.ac.ebi.quickgo.annotation.download.header;
 import uk.ac.ebi.quickgo.common.loader.GZIPFiles;
 
 import com.google.common.base.Preconditions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Provide the details of the latest ontology sources.
+ * <p>
+ * The versions are read from the ontology file when this instance is created, and held in an immutable snapshot
+ * that is swapped atomically when the file is reloaded, so that reading them never touches the file system. The file
+ * is reloaded by {@link #refresh()}, which is called whenever the file changes once it is being watched.
  *
  * @author Tony Wardell
  * Date: 23/05/2017
  * Time: 10:37
  * Created with IntelliJ IDEA.
  */
-public class OntologyHeaderInfo {
+public class OntologyHeaderInfo implements Closeable {
     private static Logger LOGGER = LoggerFactory.getLogger(OntologyHeaderInfo.class);
 
     private final Path ontologyPath;
-    private List<String> savedOntologyLines;
-    private FileTime previousTimeStamp;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private WatchService watchService;
 
     public OntologyHeaderInfo(Path ontologyPath) {
         Preconditions.checkArgument(ontologyPath != null, "The path to the ontology file must not be null");
-        this.ontologyPath = ontologyPath;
+        this.ontologyPath = ontologyPath.toAbsolutePath();
+        refresh();
     }
 
     /**
      * The version details of the current ontology sources.
-     * @return a list of versions, commonly GO & ECO.
+     * @return an immutable list of versions, commonly GO & ECO, which is replaced, rather than changed, when the
+     * ontology file is reloaded.
      */
-    List<String> versions() {
+    public List<String> versions() {
+        return snapshot.get().versions;
+    }
+
+    /**
+     * Reload the versions from the ontology file, if it has changed since they were last loaded. If the file cannot
+     * be read, the versions already loaded are kept.
+     */
+    synchronized void refresh() {
+        Snapshot current = snapshot.get();
         try {
             FileTime lastModifiedTime = Files.getLastModifiedTime(ontologyPath);
-
-            if (!lastModifiedTime.equals(previousTimeStamp)) {
-                previousTimeStamp = lastModifiedTime;
-                savedOntologyLines = GZIPFiles.lines(ontologyPath)
+            if (!lastModifiedTime.equals(current.lastModifiedTime)) {
+                List<String> versions = GZIPFiles.lines(ontologyPath)
                         .skip(1)
                         .map(s -> s.substring(s.indexOf("http:")))
-                        .collect(Collectors.toList());
-
+                        .collect(Collectors.collectingAndThen(Collectors.toList(),
+                                Collections::unmodifiableList));
+                snapshot.set(new Snapshot(lastModifiedTime, versions));
+                LOGGER.info("Loaded the version of the ontology from {}: {}", ontologyPath, versions);
             }
         } catch (Exception e) {
-            savedOntologyLines = Collections.emptyList();
             LOGGER.error("Failed to load the version of the ontology", e);
         }
-        return savedOntologyLines;
+    }
+
+    /**
+     * Start watching the directory of the ontology file, so that the versions are reloaded whenever the file is
+     * written. If the directory cannot be watched, the versions loaded already are used until the next
+     * {@link #refresh()}.
+     */
+    public synchronized void watch() {
+        if (watchService != null) {
+            return;
+        }
+        Path directory = ontologyPath.getParent();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not watch the ontology file " + ontologyPath + " for changes", e);
+            close();
+            return;
+        }
+
+        Thread watcher = new Thread(() -> watchForChanges(watchService), "ontology-header-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Stop watching the ontology file for changes.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not stop watching the ontology file " + ontologyPath, e);
+            }
+            watchService = null;
+        }
+    }
+
+    private void watchForChanges(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                            (context instanceof Path && ontologyPath.getFileName().equals(context));
+                }
+                if (changed) {
+                    refresh();
+                }
+                if (!key.reset()) {
+                    LOGGER.warn("Stopped watching the ontology file {}: its directory is no longer accessible",
+                            ontologyPath);
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.debug("Stopped watching the ontology file {}", ontologyPath);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Snapshot {
+        private static final Snapshot EMPTY = new Snapshot(null, Collections.emptyList());
+
+        private final FileTime lastModifiedTime;
+        private final List<String> versions;
+
+        private Snapshot(FileTime lastModifiedTime, List<String> versions) {
+            this.lastModifiedTime = lastModifiedTime;
+            this.versions = versions;
+        }
     }
 }
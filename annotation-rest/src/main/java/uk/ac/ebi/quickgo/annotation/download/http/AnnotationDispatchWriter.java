@@ -1,23 +1,43 @@
 package uk.ac.ebi.quickgo.annotation.download.http;
 
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCache;
+import uk.ac.ebi.quickgo.annotation.download.converter.AnnotationRowFormatter;
+import uk.ac.ebi.quickgo.annotation.download.model.CachedDownloadContent;
 import uk.ac.ebi.quickgo.annotation.download.model.DownloadContent;
 import uk.ac.ebi.quickgo.annotation.model.Annotation;
 import uk.ac.ebi.quickgo.rest.ResponseExceptionHandler;
 import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
 
+import com.google.common.base.Preconditions;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
 
 /**
  * Writes a stream of {@link QueryResult}s containing {@link Annotation} instances to a response's output stream,
- * using the provided converter to format the output.
+ * using the provided converter to format the output. Rows are encoded as UTF-8 into a buffer, and the response is
+ * flushed by the number of bytes written and the time passed, rather than per row; see {@link BufferedRowWriter}.
+ * <p>
+ * Where the converter is also an {@link AnnotationRowFormatter}, the rows of each page of results are appended to a
+ * single builder, reused for the whole download, rather than being created as separate Strings.
+ * <p>
+ * The download is written with the {@link ContentEncoding} it was requested with, compressing it as it is written,
+ * together with any header it carries, so that the whole response is encoded.
+ * <p>
+ * A download may also be written to a {@link DownloadCache} entry as it is written to its response, without its
+ * header, and is only cached once it has all been written. A download from the cache is copied from its gzipped file,
+ * as it is, if it is written gzipped, after a gzip member of its own for the header. A cached download that cannot be
+ * read in full fails its response, rather than ending it early, so that the client cannot mistake it for a whole one.
  *
  * @author Tony Wardell
  * Date: 26/04/2017
@@ -27,13 +47,50 @@ import org.springframework.http.MediaType;
 public class AnnotationDispatchWriter implements OutputStreamWriter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AnnotationDispatchWriter.class);
-    private static final int FLUSH_INTERVAL = 500;
+    static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+    static final long DEFAULT_FLUSH_BYTES = 256 * 1024;
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
     private final BiFunction<Annotation, List<String>, List<String>> converter;
     private final MediaType type;
+    private final int bufferBytes;
+    private final long flushBytes;
+    private final long flushIntervalMillis;
+    private final int compressionLevel;
 
     public AnnotationDispatchWriter(BiFunction<Annotation, List<String>, List<String>> converter, MediaType mediaType) {
+        this(converter, mediaType, DEFAULT_BUFFER_BYTES, DEFAULT_FLUSH_BYTES, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public AnnotationDispatchWriter(BiFunction<Annotation, List<String>, List<String>> converter, MediaType mediaType,
+            int bufferBytes, long flushBytes, long flushIntervalMillis) {
+        this(converter, mediaType, bufferBytes, flushBytes, flushIntervalMillis, ContentEncoding.DEFAULT_LEVEL);
+    }
+
+    /**
+     * @param converter converts an annotation into the rows written for it, given the selected fields
+     * @param mediaType the media type written
+     * @param bufferBytes the size of the buffer into which rows are encoded
+     * @param flushBytes the number of bytes written after which the response is flushed
+     * @param flushIntervalMillis the time after which the response is flushed, once a row has been written
+     * @param compressionLevel the level at which compressed downloads are compressed, from 1 to 9
+     */
+    public AnnotationDispatchWriter(BiFunction<Annotation, List<String>, List<String>> converter, MediaType mediaType,
+            int bufferBytes, long flushBytes, long flushIntervalMillis, int compressionLevel) {
+        Preconditions.checkArgument(bufferBytes >= BufferedRowWriter.MIN_BUFFER_BYTES,
+                "Buffer size must be at least " + BufferedRowWriter.MIN_BUFFER_BYTES + ": " + bufferBytes);
+        Preconditions.checkArgument(flushBytes > 0, "Flush size must be greater than 0: " + flushBytes);
+        Preconditions.checkArgument(flushIntervalMillis > 0,
+                "Flush interval must be greater than 0: " + flushIntervalMillis);
+        Preconditions.checkArgument(
+                compressionLevel >= Deflater.BEST_SPEED && compressionLevel <= Deflater.BEST_COMPRESSION,
+                "Compression level must be from " + Deflater.BEST_SPEED + " to " + Deflater.BEST_COMPRESSION + ": " +
+                        compressionLevel);
         this.converter = converter;
         this.type = mediaType;
+        this.bufferBytes = bufferBytes;
+        this.flushBytes = flushBytes;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.compressionLevel = compressionLevel;
     }
 
     @Override
@@ -43,6 +100,8 @@ public class AnnotationDispatchWriter implements OutputStreamWriter {
         } else {
             if (object instanceof DownloadContent) {
                 writeAnnotations(out, (DownloadContent) object);
+            } else if (object instanceof CachedDownloadContent) {
+                writeCachedAnnotations(out, (CachedDownloadContent) object);
             } else {
                 LOGGER.warn("DispatchWriter write must handle: " + object.getClass());
             }
@@ -50,46 +109,119 @@ public class AnnotationDispatchWriter implements OutputStreamWriter {
     }
 
     private void writeError(OutputStream out, ResponseExceptionHandler.ErrorInfo errorInfo) throws IOException {
-        out.write(("URL:\n\t" + errorInfo.getUrl() + "\n").getBytes());
-        out.write(("Messages:\n\t" + errorInfo.getMessages().stream().collect(Collectors.joining(",\n"))).getBytes());
+        out.write(("URL:\n\t" + errorInfo.getUrl() + "\n").getBytes(StandardCharsets.UTF_8));
+        out.write(("Messages:\n\t" + errorInfo.getMessages().stream().collect(Collectors.joining(",\n")))
+                .getBytes(StandardCharsets.UTF_8));
     }
 
     private void writeAnnotations(OutputStream out, DownloadContent downloadContent) {
-        AtomicInteger counter = new AtomicInteger(0);
-        AtomicInteger batchCount = new AtomicInteger(0);
+        ContentEncoding encoding = downloadContent.encoding;
+        DownloadCache.Entry cacheEntry = downloadContent.cacheEntry;
+        OutputStream encoded;
         try {
-            downloadContent.annotationStream.forEach(annotationResult ->
-                    annotationResult.getResults()
-                            .forEach(annotation -> converter.apply(annotation, downloadContent.selectedFields)
-                                    .forEach(content ->
-                                            writeContent(content, out, counter, batchCount))));
+            encoded = encoding.encode(out, compressionLevel);
+        } catch (IOException e) {
+            LOGGER.error("Could not start " + encoding.token() + " encoding of " + type.getType() +
+                    " annotations: closing stream.", e);
+            downloadContent.annotationStream.close();
+            if (cacheEntry != null) {
+                cacheEntry.abandon();
+            }
+            return;
+        }
+
+        OutputStream rows = cacheEntry == null ? encoded : cacheEntry.tee(encoded);
+        BufferedRowWriter rowWriter = new BufferedRowWriter(rows, bufferBytes, flushBytes, flushIntervalMillis);
+        boolean written = false;
+        try {
+            if (!downloadContent.header.isEmpty()) {
+                // the header describes this request, so it is written around the cache
+                encoded.write(downloadContent.header.getBytes(StandardCharsets.UTF_8));
+            }
+            if (converter instanceof AnnotationRowFormatter) {
+                writeFormattedAnnotations(downloadContent, (AnnotationRowFormatter) converter, rowWriter);
+            } else {
+                downloadContent.annotationStream.forEach(annotationResult ->
+                        annotationResult.getResults()
+                                .forEach(annotation -> converter.apply(annotation, downloadContent.selectedFields)
+                                        .forEach(content -> writeContent(content, rowWriter))));
+            }
+            rowWriter.flush();
+            encoding.finish(encoded);
+            written = true;
         } catch (StopStreamException e) {
             LOGGER.error("Client aborted streaming: closing stream.", e);
+        } catch (IOException e) {
+            LOGGER.error("Could not flush " + type.getType() + " annotations: closing stream.", e);
+        } finally {
+            // also stops any pages still being fetched ahead for the stream
             downloadContent.annotationStream.close();
+            if (cacheEntry != null) {
+                if (written) {
+                    cacheEntry.commit();
+                } else {
+                    cacheEntry.abandon();
+                }
+            }
         }
-        LOGGER.debug("Written {} {} annotations", counter.get(), type.getType());
+        LOGGER.info("Written {} {} annotations ({} bytes, {} encoded) in {}ms: {} rows/s, {} bytes/s",
+                rowWriter.rows(), type.getType(), rowWriter.bytes(), encoding.token(), rowWriter.elapsedMillis(),
+                rowWriter.rowsPerSecond(), rowWriter.bytesPerSecond());
     }
 
-    private void writeContent(String content, OutputStream out, AtomicInteger counter, AtomicInteger batchCount) {
+    private void writeCachedAnnotations(OutputStream out, CachedDownloadContent cachedContent) throws IOException {
+        ContentEncoding encoding = cachedContent.encoding;
+        byte[] header = cachedContent.header.getBytes(StandardCharsets.UTF_8);
+        long start = System.currentTimeMillis();
+        try (InputStream cachedAnnotations = cachedContent.cachedAnnotations) {
+            if (encoding == ContentEncoding.GZIP) {
+                if (header.length > 0) {
+                    OutputStream encodedHeader = encoding.encode(out, compressionLevel);
+                    encodedHeader.write(header);
+                    encoding.finish(encodedHeader);
+                }
+                StreamUtils.copy(cachedAnnotations, out);
+            } else {
+                OutputStream encoded = encoding.encode(out, compressionLevel);
+                encoded.write(header);
+                StreamUtils.copy(new GZIPInputStream(cachedAnnotations, bufferBytes), encoded);
+                encoding.finish(encoded);
+            }
+            out.flush();
+        } catch (IOException e) {
+            LOGGER.error("Could not write cached " + type.getType() + " annotations: failing the response.", e);
+            throw e;
+        }
+        LOGGER.info("Written cached {} annotations ({} encoded) in {}ms", type.getType(), encoding.token(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void writeFormattedAnnotations(DownloadContent downloadContent, AnnotationRowFormatter formatter,
+            BufferedRowWriter rowWriter) {
+        StringBuilder rows = new StringBuilder(bufferBytes);
+        downloadContent.annotationStream.forEach(annotationResult -> {
+            rows.setLength(0);
+            int count = 0;
+            for (Annotation annotation : annotationResult.getResults()) {
+                count += formatter.appendRows(annotation, downloadContent.selectedFields, rows);
+            }
+            try {
+                rowWriter.writeRows(rows, count);
+            } catch (IOException e) {
+                throw new StopStreamException(
+                        "Could not write OutputStream whilst writing " + count + " " + type.getType() +
+                                " annotation rows", e);
+            }
+        });
+    }
+
+    private void writeContent(String content, BufferedRowWriter rowWriter) {
         try {
-            out.write((content + "\n").getBytes());
-            updateCountersAndFlushStreamWhenRequired(out, counter, batchCount);
+            rowWriter.writeRow(content);
         } catch (IOException e) {
             throw new StopStreamException(
                     "Could not write OutputStream whilst writing " + type.getType() + " annotation: " +
                             content, e);
         }
     }
-
-    private void updateCountersAndFlushStreamWhenRequired(OutputStream out, AtomicInteger counter,
-            AtomicInteger batchCount) throws IOException {
-        counter.getAndIncrement();
-        batchCount.getAndIncrement();
-        if (batchCount.get() >= FLUSH_INTERVAL) {
-            out.flush();
-            LOGGER.debug("Flushed " + type.getType() + " http message converter output stream after: " +
-                    counter.get() + " annotations.");
-            batchCount.set(0);
-        }
-    }
 }
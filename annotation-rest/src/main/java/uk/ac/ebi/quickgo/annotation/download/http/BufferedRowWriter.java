@@ -0,0 +1,174 @@
+package uk.ac.ebi.quickgo.annotation.download.http;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes rows of text to an {@link OutputStream}, each followed by a new line, encoding them as UTF-8 directly into
+ * a reusable byte buffer, which is written to the stream whenever it fills. The stream itself is flushed once a given
+ * number of bytes have been written since it was last flushed, or a given time has passed since then, whichever
+ * comes first, so that clients receive content steadily without a flush per row.
+ * <p>
+ * The number of rows and bytes written, and the time taken, are recorded so that the throughput of the download can
+ * be reported. A writer holds the state of a single download, and so is not thread safe.
+ */
+class BufferedRowWriter {
+    private static final byte NEW_LINE = '\n';
+    // the longest UTF-8 encoding of a character, which must fit in the buffer
+    static final int MIN_BUFFER_BYTES = 4;
+
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer;
+    private final long flushBytes;
+    private final long flushIntervalNanos;
+    private final long startNanos;
+
+    private long rows;
+    private long bytes;
+    private long bytesAtLastFlush;
+    private long lastFlushNanos;
+
+    /**
+     * @param out the stream to write to
+     * @param bufferBytes the size of the buffer into which rows are encoded
+     * @param flushBytes the number of bytes written after which the stream is flushed
+     * @param flushIntervalMillis the time after which the stream is flushed, once a row has been written
+     */
+    BufferedRowWriter(OutputStream out, int bufferBytes, long flushBytes, long flushIntervalMillis) {
+        Preconditions.checkArgument(out != null, "Output stream cannot be null");
+        Preconditions.checkArgument(bufferBytes >= MIN_BUFFER_BYTES,
+                "Buffer size must be at least " + MIN_BUFFER_BYTES + ": " + bufferBytes);
+        Preconditions.checkArgument(flushBytes > 0, "Flush size must be greater than 0: " + flushBytes);
+        Preconditions.checkArgument(flushIntervalMillis > 0,
+                "Flush interval must be greater than 0: " + flushIntervalMillis);
+        this.out = out;
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffer = ByteBuffer.allocate(bufferBytes);
+        this.flushBytes = flushBytes;
+        this.flushIntervalNanos = flushIntervalMillis * 1_000_000;
+        this.startNanos = System.nanoTime();
+        this.lastFlushNanos = startNanos;
+    }
+
+    /**
+     * Encodes a row, followed by a new line, flushing the stream if enough bytes or time have passed since it was
+     * last flushed.
+     *
+     * @param row the row
+     * @throws IOException if the stream cannot be written to
+     */
+    void writeRow(CharSequence row) throws IOException {
+        encode(row);
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put(NEW_LINE);
+        rows++;
+        flushIfDue();
+    }
+
+    /**
+     * Encodes a number of rows that have already been formatted, each followed by its new line, flushing the stream
+     * if enough bytes or time have passed since it was last flushed.
+     *
+     * @param formattedRows the rows, including their new lines
+     * @param count the number of rows
+     * @throws IOException if the stream cannot be written to
+     */
+    void writeRows(CharSequence formattedRows, int count) throws IOException {
+        encode(formattedRows);
+        rows += count;
+        flushIfDue();
+    }
+
+    private void encode(CharSequence content) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(content);
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+    }
+
+    private void flushIfDue() throws IOException {
+        long now = System.nanoTime();
+        if (bytes + buffer.position() - bytesAtLastFlush >= flushBytes || now - lastFlushNanos >= flushIntervalNanos) {
+            flush(now);
+        }
+    }
+
+    /**
+     * Writes any buffered bytes to the stream, and flushes it.
+     *
+     * @throws IOException if the stream cannot be written to
+     */
+    void flush() throws IOException {
+        flush(System.nanoTime());
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of bytes written, including any still buffered
+     */
+    long bytes() {
+        return bytes + buffer.position();
+    }
+
+    long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * @return the number of rows written per second since the writer was created
+     */
+    long rowsPerSecond() {
+        return perSecond(rows());
+    }
+
+    /**
+     * @return the number of bytes written per second since the writer was created
+     */
+    long bytesPerSecond() {
+        return perSecond(bytes());
+    }
+
+    private long perSecond(long count) {
+        long elapsedNanos = Math.max(System.nanoTime() - startNanos, 1);
+        return (long) (count * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    private void flush(long now) throws IOException {
+        drain();
+        out.flush();
+        bytesAtLastFlush = bytes;
+        lastFlushNanos = now;
+    }
+
+    private void drain() throws IOException {
+        if (buffer.position() > 0) {
+            out.write(buffer.array(), 0, buffer.position());
+            bytes += buffer.position();
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package uk.ac.ebi.quickgo.annotation.download.http;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The content codings with which a download can be written to its response, and the means of choosing one from a
+ * request's {@code Accept-Encoding} header.
+ * <p>
+ * Encoded content is compressed as it is written, so that a download is never held in memory; flushing the encoding
+ * stream flushes everything compressed so far, so clients receive a compressed download as steadily as an
+ * uncompressed one.
+ */
+public enum ContentEncoding {
+    IDENTITY("identity") {
+        @Override public OutputStream encode(OutputStream out, int level) {
+            return out;
+        }
+
+        @Override public void finish(OutputStream encoded) {
+            // nothing is held back from an unencoded stream
+        }
+    },
+    GZIP("gzip") {
+        @Override public OutputStream encode(OutputStream out, int level) throws IOException {
+            checkLevel(level);
+            return new LevelledGZIPOutputStream(out, level);
+        }
+
+        @Override public void finish(OutputStream encoded) throws IOException {
+            ((GZIPOutputStream) encoded).finish();
+        }
+    };
+
+    public static final int DEFAULT_LEVEL = 6;
+    private static final String GZIP_ALIAS = "x-gzip";
+    private static final String ANY = "*";
+    private static final double NOT_NAMED = -1;
+    private static final int ENCODING_BUFFER_BYTES = 8 * 1024;
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return the value of the {@code Content-Encoding} header of content written with this encoding
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Wraps a stream so that whatever is written to it is encoded.
+     *
+     * @param out the stream to which the encoded content is written
+     * @param level the compression level, from {@link Deflater#BEST_SPEED} to {@link Deflater#BEST_COMPRESSION}
+     * @return the stream to write content to
+     * @throws IOException if the encoding cannot be started on the stream
+     */
+    public abstract OutputStream encode(OutputStream out, int level) throws IOException;
+
+    /**
+     * Writes whatever the encoding still holds for a stream created by {@link #encode(OutputStream, int)}, without
+     * closing the stream it wraps.
+     *
+     * @param encoded the stream created by {@link #encode(OutputStream, int)}
+     * @throws IOException if the stream cannot be written to
+     */
+    public abstract void finish(OutputStream encoded) throws IOException;
+
+    /**
+     * Chooses the encoding of a download. Downloads are compressed if the client asks for them to be, or if its
+     * {@code Accept-Encoding} header accepts gzip; otherwise they are written as they are.
+     *
+     * @param acceptEncoding the value of the request's {@code Accept-Encoding} header, which may be null
+     * @param compressed whether the client asked for the download to be compressed
+     * @return the encoding of the download
+     */
+    public static ContentEncoding negotiate(String acceptEncoding, boolean compressed) {
+        if (compressed || acceptsGzip(acceptEncoding)) {
+            return GZIP;
+        }
+        return IDENTITY;
+    }
+
+    /**
+     * Whether gzip is accepted, by the quality given to gzip or its alias, if either is named, otherwise by the
+     * quality given to any coding, {@code *}, if that is named.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        double gzipQuality = NOT_NAMED;
+        double anyQuality = NOT_NAMED;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] nameAndParameters = coding.split(";");
+            String name = nameAndParameters[0].trim();
+            if (GZIP.token.equalsIgnoreCase(name) || GZIP_ALIAS.equalsIgnoreCase(name)) {
+                gzipQuality = Math.max(gzipQuality, quality(nameAndParameters));
+            } else if (ANY.equals(name)) {
+                anyQuality = Math.max(anyQuality, quality(nameAndParameters));
+            }
+        }
+        return (gzipQuality == NOT_NAMED ? anyQuality : gzipQuality) > 0;
+    }
+
+    /**
+     * The quality of a coding, which is 1 if it is not given, and 0, not acceptable, if it cannot be read.
+     */
+    private static double quality(String[] nameAndParameters) {
+        for (int i = 1; i < nameAndParameters.length; i++) {
+            String parameter = nameAndParameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static void checkLevel(int level) {
+        Preconditions.checkArgument(level >= Deflater.BEST_SPEED && level <= Deflater.BEST_COMPRESSION,
+                "Compression level must be from " + Deflater.BEST_SPEED + " to " + Deflater.BEST_COMPRESSION + ": " +
+                        level);
+    }
+
+    /**
+     * A gzip stream that compresses at a given level, and whose flush writes out all the content compressed so far.
+     */
+    private static class LevelledGZIPOutputStream extends GZIPOutputStream {
+        LevelledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, ENCODING_BUFFER_BYTES, true);
+            def.setLevel(level);
+        }
+    }
+}
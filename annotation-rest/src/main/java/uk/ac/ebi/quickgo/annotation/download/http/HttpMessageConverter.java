@@ -23,6 +23,13 @@ public class HttpMessageConverter extends AbstractHttpMessageConverter<Object> {
         this.writer = dispatchWriter;
     }
 
+    /**
+     * @return the writer to which writing is deferred
+     */
+    public OutputStreamWriter getWriter() {
+        return writer;
+    }
+
     @Override protected boolean supports(Class<?> clazz) {
         return true;
     }
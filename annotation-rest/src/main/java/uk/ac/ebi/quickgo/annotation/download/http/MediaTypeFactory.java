@@ -28,15 +28,22 @@ public class MediaTypeFactory {
     private static final String EXCEL_SUB_TYPE = "vnd.ms-excel";
     public static final String EXCEL_MEDIA_TYPE_STRING = APPLICATION_TYPE + "/" + EXCEL_SUB_TYPE;
     public static final MediaType EXCEL_MEDIA_TYPE = new MediaType(APPLICATION_TYPE, EXCEL_SUB_TYPE);
+    private static final String XLSX_SUB_TYPE = "vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    public static final String XLSX_MEDIA_TYPE_STRING = APPLICATION_TYPE + "/" + XLSX_SUB_TYPE;
+    public static final MediaType XLSX_MEDIA_TYPE = new MediaType(APPLICATION_TYPE, XLSX_SUB_TYPE);
     private static final String JSON_SUB_TYPE = "json";
     public static final String JSON_MEDIA_TYPE_STRING = APPLICATION_TYPE + "/" + JSON_SUB_TYPE;
     public static final MediaType JSON_MEDIA_TYPE = new MediaType(APPLICATION_TYPE, JSON_SUB_TYPE);
     private static final String EXCEL_FILE_TYPE = "xls";
+    private static final String XLSX_FILE_TYPE = "xlsx";
 
     public static String fileExtension(MediaType mediaType) {
         if (EXCEL_MEDIA_TYPE.equals(mediaType)) {
             return EXCEL_FILE_TYPE;
         }
+        if (XLSX_MEDIA_TYPE.equals(mediaType)) {
+            return XLSX_FILE_TYPE;
+        }
         return mediaType.getSubtype();
     }
 
@@ -13,6 +13,7 @@ import java.io.OutputStream;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +62,11 @@ public class StatsExcelDispatchWriter implements OutputStreamWriter {
             out.flush();
         } catch (IOException e) {
             LOGGER.error("Failed to send statistics workbook to client", e);
+        } finally {
+            if (workbook instanceof SXSSFWorkbook) {
+                // removes the temporary files the rows of a streaming workbook were flushed to
+                ((SXSSFWorkbook) workbook).dispose();
+            }
         }
     }
 }
@@ -0,0 +1,27 @@
+package uk.ac.ebi.quickgo.annotation.download.model;
+
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCache;
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
+
+import java.io.InputStream;
+
+/**
+ * Data structure for a download whose annotations are copied from the {@link DownloadCache}, rather than read from
+ * Solr.
+ */
+public class CachedDownloadContent {
+    public final InputStream cachedAnnotations;
+    public final String header;
+    public final ContentEncoding encoding;
+
+    /**
+     * @param cachedAnnotations the gzipped annotations of the download, which are closed once they are written
+     * @param header the header to write ahead of the annotations, which is empty if it is sent separately
+     * @param encoding the encoding with which the download is written
+     */
+    public CachedDownloadContent(InputStream cachedAnnotations, String header, ContentEncoding encoding) {
+        this.cachedAnnotations = cachedAnnotations;
+        this.header = header;
+        this.encoding = encoding;
+    }
+}
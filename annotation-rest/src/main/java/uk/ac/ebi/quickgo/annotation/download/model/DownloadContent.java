@@ -1,5 +1,7 @@
 package uk.ac.ebi.quickgo.annotation.download.model;
 
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCache;
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
 import uk.ac.ebi.quickgo.annotation.model.Annotation;
 import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
 
@@ -17,9 +19,38 @@ import java.util.stream.Stream;
 public class DownloadContent {
     public final Stream<QueryResult<Annotation>> annotationStream;
     public final List<String> selectedFields;
+    public final String header;
+    public final ContentEncoding encoding;
+    public final DownloadCache.Entry cacheEntry;
 
     public DownloadContent(Stream<QueryResult<Annotation>> annotationResultStream, List<String> selectedFields) {
+        this(annotationResultStream, selectedFields, "", ContentEncoding.IDENTITY);
+    }
+
+    /**
+     * @param annotationResultStream the annotations to download
+     * @param selectedFields the fields to write for each annotation
+     * @param header the header to write ahead of the annotations, which is empty if it is sent separately
+     * @param encoding the encoding with which the download is written
+     */
+    public DownloadContent(Stream<QueryResult<Annotation>> annotationResultStream, List<String> selectedFields,
+            String header, ContentEncoding encoding) {
+        this(annotationResultStream, selectedFields, header, encoding, null);
+    }
+
+    /**
+     * @param annotationResultStream the annotations to download
+     * @param selectedFields the fields to write for each annotation
+     * @param header the header to write ahead of the annotations, which is empty if it is sent separately
+     * @param encoding the encoding with which the download is written
+     * @param cacheEntry the entry to which the annotations are also written, to be cached, or null if they are not
+     */
+    public DownloadContent(Stream<QueryResult<Annotation>> annotationResultStream, List<String> selectedFields,
+            String header, ContentEncoding encoding, DownloadCache.Entry cacheEntry) {
         this.annotationStream = annotationResultStream;
         this.selectedFields = selectedFields;
+        this.header = header;
+        this.encoding = encoding;
+        this.cacheEntry = cacheEntry;
     }
 }
@@ -0,0 +1,117 @@
+package uk.ac.ebi.quickgo.annotation.download.spool;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * A download that is written to a spool file, rather than to the response that requested it, so that it can be
+ * fetched once it has been written.
+ */
+public class DownloadJob {
+    /**
+     * The stages a job passes through.
+     */
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final String format;
+    private final Path file;
+    private final Instant created;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finished;
+    private volatile long bytes;
+    private volatile String message;
+
+    DownloadJob(String id, String format, Path file, Instant created) {
+        this.id = id;
+        this.format = format;
+        this.file = file;
+        this.created = created;
+    }
+
+    /**
+     * @return the id of the job, which identifies the request it was created for
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the format in which the annotations are written, such as gaf
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getCreated() {
+        return created.toString();
+    }
+
+    public String getFinished() {
+        Instant finishedAt = finished;
+        return finishedAt == null ? null : finishedAt.toString();
+    }
+
+    /**
+     * @return the size of the compressed spool file, once the job has completed
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return why the job failed, if it did
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the spool file, which exists once the job has completed
+     */
+    @JsonIgnore
+    public Path getFile() {
+        return file;
+    }
+
+    @JsonIgnore
+    public boolean isCompleted() {
+        return status == Status.COMPLETED;
+    }
+
+    Instant finishedAt() {
+        return finished;
+    }
+
+    void running() {
+        status = Status.RUNNING;
+    }
+
+    void completed(long bytes, Instant finished) {
+        this.bytes = bytes;
+        this.finished = finished;
+        this.status = Status.COMPLETED;
+    }
+
+    void failed(String message, Instant finished) {
+        this.message = message;
+        this.finished = finished;
+        this.status = Status.FAILED;
+    }
+
+    @Override public String toString() {
+        return "DownloadJob{" +
+                "id='" + id + '\'' +
+                ", format='" + format + '\'' +
+                ", status=" + status +
+                ", bytes=" + bytes +
+                '}';
+    }
+}
@@ -0,0 +1,267 @@
+package uk.ac.ebi.quickgo.annotation.download.spool;
+
+import uk.ac.ebi.quickgo.annotation.download.DownloadScheduler;
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
+import uk.ac.ebi.quickgo.annotation.download.http.OutputStreamWriter;
+import uk.ac.ebi.quickgo.annotation.download.model.DownloadContent;
+import uk.ac.ebi.quickgo.rest.TooManyRequestsException;
+
+import com.google.common.base.Preconditions;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Writes downloads to gzipped spool files on local disk, as {@link DownloadJob}s, so that the Solr work of a large
+ * download is not lost when the client that requested it disconnects, and so that the finished file can be fetched,
+ * in ranges if need be, once it has been written.
+ * <p>
+ * A job's id identifies the request it was created for, so a request identical to one whose job is queued, running
+ * or completed reuses that job and its spool file, rather than writing the same annotations again. A job is written
+ * to a part file, which is only moved to the job's spool file once it has been written completely.
+ * <p>
+ * Jobs are admitted by the {@link DownloadScheduler}, like downloads written to a response. Finished jobs are kept
+ * for a configured time, after which they and their spool files are removed. Jobs are only held in memory, so spool
+ * files left from a previous run are removed when the spool is created.
+ */
+public class DownloadSpool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadSpool.class);
+    static final String SPOOL_SUFFIX = ".gz";
+    static final String PART_SUFFIX = ".part";
+
+    private final DownloadScheduler downloadScheduler;
+    private final Map<String, OutputStreamWriter> writers;
+    private final Path directory;
+    private final Duration retention;
+    private final Clock clock;
+    private final Map<String, DownloadJob> jobs = new HashMap<>();
+
+    public DownloadSpool(DownloadScheduler downloadScheduler, Map<String, OutputStreamWriter> writers,
+            DownloadSpoolProperties properties) throws IOException {
+        this(downloadScheduler, writers, properties, Clock.systemUTC());
+    }
+
+    DownloadSpool(DownloadScheduler downloadScheduler, Map<String, OutputStreamWriter> writers,
+            DownloadSpoolProperties properties, Clock clock) throws IOException {
+        Preconditions.checkArgument(downloadScheduler != null, "Download scheduler cannot be null");
+        Preconditions.checkArgument(writers != null, "Writers cannot be null");
+        Preconditions.checkArgument(properties != null, "Download spool properties cannot be null");
+        Preconditions.checkArgument(properties.getDirectory() != null && !properties.getDirectory().isEmpty(),
+                "Spool directory cannot be null or empty");
+        Preconditions.checkArgument(properties.getRetentionMinutes() > 0,
+                "Retention minutes must be greater than 0: " + properties.getRetentionMinutes());
+        Preconditions.checkArgument(clock != null, "Clock cannot be null");
+
+        this.downloadScheduler = downloadScheduler;
+        this.writers = writers;
+        this.directory = Paths.get(properties.getDirectory());
+        this.retention = Duration.ofMinutes(properties.getRetentionMinutes());
+        this.clock = clock;
+
+        Files.createDirectories(directory);
+        removeSpoolFiles();
+    }
+
+    /**
+     * Finds the job with the given id.
+     *
+     * @param id the id of the job
+     * @return the job, if there is one
+     */
+    public synchronized Optional<DownloadJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Finds the job with the given id, if it can be reused for a request with that id: that is, if it is queued,
+     * running, or has completed and its spool file still exists.
+     *
+     * @param id the id of the job
+     * @return the job, if there is one that can be reused
+     */
+    public synchronized Optional<DownloadJob> findReusableJob(String id) {
+        return findJob(id).filter(this::isReusable);
+    }
+
+    /**
+     * Submits a job to write a download to a spool file, unless it can reuse the job already submitted for the same
+     * request.
+     *
+     * @param id the id of the job, which is the same for identical requests, such as their
+     * {@link uk.ac.ebi.quickgo.annotation.download.cache.DownloadKey}
+     * @param mediaType the media type in which the download is written
+     * @param client identifies the client requesting the download
+     * @param cost the estimated cost of the download, for the {@link DownloadScheduler}
+     * @param content supplies the content of the download, when the job is run
+     * @return the job
+     * @throws TooManyRequestsException if the job is refused by the {@link DownloadScheduler}
+     */
+    public synchronized DownloadJob submit(String id, MediaType mediaType, String client, long cost,
+            Supplier<DownloadContent> content) {
+        Preconditions.checkArgument(id != null, "Job id cannot be null");
+        Preconditions.checkArgument(mediaType != null, "Media type cannot be null");
+        Preconditions.checkArgument(content != null, "Download content cannot be null");
+        OutputStreamWriter writer = writers.get(mediaType.getSubtype());
+        Preconditions.checkArgument(writer != null, "Cannot spool downloads of " + mediaType);
+
+        Optional<DownloadJob> reusable = findReusableJob(id);
+        if (reusable.isPresent()) {
+            LOGGER.info("Reusing download job: {}", reusable.get());
+            return reusable.get();
+        }
+
+        String format = mediaType.getSubtype();
+        DownloadJob job = new DownloadJob(id, format, directory.resolve(id + "." + format + SPOOL_SUFFIX),
+                clock.instant());
+        jobs.put(id, job);
+        try {
+            downloadScheduler.submit(client, cost, finished -> {
+                try {
+                    spool(job, writer, content);
+                } finally {
+                    finished.run();
+                }
+            }, e -> job.failed("The download could not be run: " + e.getMessage(), clock.instant()));
+        } catch (TooManyRequestsException e) {
+            jobs.remove(id);
+            throw e;
+        }
+        LOGGER.info("Submitted download job: {}", job);
+        return job;
+    }
+
+    /**
+     * Removes the jobs that finished longer ago than they are kept for, together with their spool files.
+     */
+    @Scheduled(fixedDelayString = "${annotation.download.spool.cleanupIntervalMillis:600000}")
+    public synchronized void removeExpiredJobs() {
+        Instant expiry = clock.instant().minus(retention);
+        Iterator<DownloadJob> jobIterator = jobs.values().iterator();
+        while (jobIterator.hasNext()) {
+            DownloadJob job = jobIterator.next();
+            Instant finished = job.finishedAt();
+            if (finished != null && finished.isBefore(expiry)) {
+                jobIterator.remove();
+                delete(job.getFile());
+                LOGGER.info("Removed expired download job: {}", job);
+            }
+        }
+    }
+
+    private boolean isReusable(DownloadJob job) {
+        switch (job.getStatus()) {
+            case QUEUED:
+            case RUNNING:
+                return true;
+            case COMPLETED:
+                return Files.exists(job.getFile());
+            default:
+                return false;
+        }
+    }
+
+    private void spool(DownloadJob job, OutputStreamWriter writer, Supplier<DownloadContent> content) {
+        job.running();
+        Path part = job.getFile().resolveSibling(job.getFile().getFileName() + PART_SUFFIX);
+        try {
+            try (FailureRecordingOutputStream out = new FailureRecordingOutputStream(Files.newOutputStream(part))) {
+                DownloadContent download = content.get();
+                writer.write(new DownloadContent(download.annotationStream, download.selectedFields,
+                        download.header, ContentEncoding.GZIP, download.cacheEntry), out);
+                out.rethrowFailure();
+            }
+            Files.move(part, job.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.completed(Files.size(job.getFile()), clock.instant());
+            LOGGER.info("Completed download job: {}", job);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed download job: " + job, e);
+            delete(part);
+            job.failed("The download could not be written: " + e.getMessage(), clock.instant());
+        }
+    }
+
+    private void removeSpoolFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SPOOL_SUFFIX) || name.endsWith(PART_SUFFIX)) {
+                    delete(file);
+                }
+            }
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete download spool file: " + file, e);
+        }
+    }
+
+    /**
+     * Records the first failure to write a spool file, since the writers of downloads log such failures, rather than
+     * throwing them, so that they do not fail the response they are written to.
+     */
+    private static class FailureRecordingOutputStream extends FilterOutputStream {
+        private IOException failure;
+
+        private FailureRecordingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override public void write(int b) throws IOException {
+            try {
+                out.write(b);
+            } catch (IOException e) {
+                throw record(e);
+            }
+        }
+
+        @Override public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                out.write(b, off, len);
+            } catch (IOException e) {
+                throw record(e);
+            }
+        }
+
+        @Override public void flush() throws IOException {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw record(e);
+            }
+        }
+
+        private IOException record(IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+            return e;
+        }
+
+        private void rethrowFailure() throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
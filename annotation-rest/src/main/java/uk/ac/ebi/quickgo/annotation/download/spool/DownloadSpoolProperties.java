@@ -0,0 +1,31 @@
+package uk.ac.ebi.quickgo.annotation.download.spool;
+
+import java.nio.file.Paths;
+
+/**
+ * Records properties that can be used to configure a {@link DownloadSpool}.
+ */
+public class DownloadSpoolProperties {
+    static final String DEFAULT_DIRECTORY =
+            Paths.get(System.getProperty("java.io.tmpdir"), "quickgo-download-spool").toString();
+    static final long DEFAULT_RETENTION_MINUTES = 24 * 60;
+
+    private String directory = DEFAULT_DIRECTORY;
+    private long retentionMinutes = DEFAULT_RETENTION_MINUTES;
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public long getRetentionMinutes() {
+        return retentionMinutes;
+    }
+
+    public void setRetentionMinutes(long retentionMinutes) {
+        this.retentionMinutes = retentionMinutes;
+    }
+}
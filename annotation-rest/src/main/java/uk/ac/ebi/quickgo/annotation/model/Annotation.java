@@ -275,6 +275,15 @@ public class Annotation {
             return String.format("%s:%s", db, id);
         }
 
+        /**
+         * Appends the same representation as {@link #asXref()} to the given builder, without creating a String.
+         * @param builder the builder to append to
+         * @return the builder
+         */
+        public StringBuilder appendXrefTo(StringBuilder builder) {
+            return builder.append(db).append(':').append(id);
+        }
+
         @Override public boolean equals(Object o) {
             if (this == o) {
                 return true;
@@ -353,6 +362,10 @@ public class Annotation {
             return String.format("%s(%s:%s)", relation, db, id);
         }
 
+        @Override public StringBuilder appendXrefTo(StringBuilder builder) {
+            return builder.append(relation).append('(').append(db).append(':').append(id).append(')');
+        }
+
         @Override public int hashCode() {
             int result = super.hashCode();
             result = 31 * result + (relation != null ? relation.hashCode() : 0);
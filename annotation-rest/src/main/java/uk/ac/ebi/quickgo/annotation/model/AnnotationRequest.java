@@ -221,6 +221,12 @@ public class AnnotationRequest {
         hidden = true, position = 26)
     private String downloadFileType;
 
+    @ApiModelProperty(
+        value = "Only applies for download endpoint. Pass this parameter as true to receive a gzip compressed " +
+            "download when the 'Accept-Encoding' header can't be provided",
+        hidden = true, position = 27)
+    private boolean compressed;
+
     private AnnotationRequestBody requestBody;
 
     private final Map<String, String[]> filterMap = new HashMap<>();
@@ -581,6 +587,14 @@ public class AnnotationRequest {
         return downloadFileType;
     }
 
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
     public void addRequestBody(AnnotationRequestBody requestBody) {
         AnnotationRequestBody.putDefaultValuesIfAbsent(requestBody);
         this.requestBody = requestBody;
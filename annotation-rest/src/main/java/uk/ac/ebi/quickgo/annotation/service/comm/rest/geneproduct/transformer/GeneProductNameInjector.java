@@ -4,19 +4,23 @@ import uk.ac.ebi.quickgo.annotation.model.Annotation;
 import uk.ac.ebi.quickgo.annotation.service.comm.rest.geneproduct.model.BasicGeneProduct;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
-import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractValueInjector;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractBatchValueInjector;
 
 import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
 
 /**
  * Responsible for supplementing an {@link Annotation} instance, which contains a gene product identifier, with the gene
- * product name using a RESTful service.
+ * product name using a RESTful service. The names for a list of annotations are fetched using a single request per
+ * batch of distinct identifiers.
  * @author Tony Wardell
  * Date: 23/06/2017
  * Time: 14:56
  * Created with IntelliJ IDEA.
  */
-public class GeneProductNameInjector extends AbstractValueInjector<BasicGeneProduct, Annotation> {
+public class GeneProductNameInjector extends AbstractBatchValueInjector<BasicGeneProduct, Annotation> {
 
     private static final String CANONICAL_ID = "canonicalId";
     static final String GENE_PRODUCT_NAME = "name";
@@ -27,8 +31,14 @@ public class GeneProductNameInjector extends AbstractValueInjector<BasicGeneProd
     }
 
     @Override
-    public FilterRequest buildFilterRequest(Annotation annotation) {
-        return FilterRequest.newBuilder().addProperty(getId()).addProperty(CANONICAL_ID, annotation.canonicalId)
+    public String keyOf(Annotation annotation) {
+        return annotation.canonicalId;
+    }
+
+    @Override
+    public FilterRequest buildFilterRequest(List<String> canonicalIds) {
+        return FilterRequest.newBuilder().addProperty(getId())
+                            .addProperty(CANONICAL_ID, canonicalIds.toArray(new String[0]))
                             .build();
     }
 
@@ -41,4 +51,13 @@ public class GeneProductNameInjector extends AbstractValueInjector<BasicGeneProd
             annotation.name = results.get(0).getName();
         }
     }
+
+    @Override
+    public void injectValuesFromResponse(ConvertedFilter<BasicGeneProduct> convertedRequest,
+            Map<String, List<Annotation>> annotationsByCanonicalId) {
+        for (BasicGeneProduct.Result result : convertedRequest.getConvertedValue().getResults()) {
+            annotationsByCanonicalId.getOrDefault(result.getId(), emptyList())
+                    .forEach(annotation -> annotation.name = result.getName());
+        }
+    }
 }
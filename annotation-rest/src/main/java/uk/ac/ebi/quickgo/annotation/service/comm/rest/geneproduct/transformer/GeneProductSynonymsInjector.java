@@ -4,21 +4,24 @@ import uk.ac.ebi.quickgo.annotation.model.Annotation;
 import uk.ac.ebi.quickgo.annotation.service.comm.rest.geneproduct.model.BasicGeneProduct;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
-import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractValueInjector;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractBatchValueInjector;
 
 import java.util.List;
+import java.util.Map;
 
+import static java.util.Collections.emptyList;
 import static uk.ac.ebi.quickgo.common.converter.HelpfulConverter.toCSV;
 
 /**
  * This class is responsible for supplementing an {@link Annotation} instance, which contains
- * a gene product identifier, with a list of gene product synonyms, through the use of a RESTful service.
+ * a gene product identifier, with a list of gene product synonyms, through the use of a RESTful service. The synonyms
+ * for a list of annotations are fetched using a single request per batch of distinct identifiers.
  * @author Tony Wardell
  * Date: 23/06/2017
  * Time: 14:56
  * Created with IntelliJ IDEA.
  */
-public class GeneProductSynonymsInjector extends AbstractValueInjector<BasicGeneProduct, Annotation> {
+public class GeneProductSynonymsInjector extends AbstractBatchValueInjector<BasicGeneProduct, Annotation> {
 
     static final String CANONICAL_ID = "canonicalId";
     static final String GENE_PRODUCT_SYNONYMS= "synonyms";
@@ -29,8 +32,14 @@ public class GeneProductSynonymsInjector extends AbstractValueInjector<BasicGene
     }
 
     @Override
-    public FilterRequest buildFilterRequest(Annotation annotation) {
-        return FilterRequest.newBuilder().addProperty(getId()).addProperty(CANONICAL_ID, annotation.canonicalId)
+    public String keyOf(Annotation annotation) {
+        return annotation.canonicalId;
+    }
+
+    @Override
+    public FilterRequest buildFilterRequest(List<String> canonicalIds) {
+        return FilterRequest.newBuilder().addProperty(getId())
+                            .addProperty(CANONICAL_ID, canonicalIds.toArray(new String[0]))
                             .build();
     }
 
@@ -43,4 +52,14 @@ public class GeneProductSynonymsInjector extends AbstractValueInjector<BasicGene
             annotation.synonyms = toCSV(results.get(0).getSynonyms());
         }
     }
+
+    @Override
+    public void injectValuesFromResponse(ConvertedFilter<BasicGeneProduct> convertedRequest,
+            Map<String, List<Annotation>> annotationsByCanonicalId) {
+        for (BasicGeneProduct.Result result : convertedRequest.getConvertedValue().getResults()) {
+            String synonyms = toCSV(result.getSynonyms());
+            annotationsByCanonicalId.getOrDefault(result.getId(), emptyList())
+                    .forEach(annotation -> annotation.synonyms = synonyms);
+        }
+    }
 }
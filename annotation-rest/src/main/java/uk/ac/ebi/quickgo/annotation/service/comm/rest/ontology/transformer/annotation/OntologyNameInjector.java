@@ -4,18 +4,22 @@ import uk.ac.ebi.quickgo.annotation.model.Annotation;
 import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.model.BasicOntology;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
-import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractValueInjector;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractBatchValueInjector;
 
 import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
 
 /**
  * This class is responsible for supplementing an {@link Annotation} instance, which contains
- * a gene ontology identifier, with a gene ontology name, through the use of a RESTful service.
+ * a gene ontology identifier, with a gene ontology name, through the use of a RESTful service. The names for a
+ * list of annotations are fetched using a single request per batch of distinct identifiers.
  *
  * Created 07/04/17
  * @author Edd
  */
-public class OntologyNameInjector extends AbstractValueInjector<BasicOntology, Annotation> {
+public class OntologyNameInjector extends AbstractBatchValueInjector<BasicOntology, Annotation> {
 
     static final String GO_ID = "goId";
     static final String GO_NAME = "goName";
@@ -26,10 +30,15 @@ public class OntologyNameInjector extends AbstractValueInjector<BasicOntology, A
     }
 
     @Override
-    public FilterRequest buildFilterRequest(Annotation annotation) {
+    public String keyOf(Annotation annotation) {
+        return annotation.goId;
+    }
+
+    @Override
+    public FilterRequest buildFilterRequest(List<String> goIds) {
         return FilterRequest.newBuilder()
                         .addProperty(getId())
-                        .addProperty(GO_ID, annotation.goId)
+                        .addProperty(GO_ID, goIds.toArray(new String[0]))
                         .build();
     }
 
@@ -42,4 +51,13 @@ public class OntologyNameInjector extends AbstractValueInjector<BasicOntology, A
             annotation.goName = results.get(0).getName();
         }
     }
+
+    @Override
+    public void injectValuesFromResponse(ConvertedFilter<BasicOntology> convertedRequest,
+            Map<String, List<Annotation>> annotationsByGoId) {
+        for (BasicOntology.Result result : convertedRequest.getConvertedValue().getResults()) {
+            annotationsByGoId.getOrDefault(result.getId(), emptyList())
+                    .forEach(annotation -> annotation.goName = result.getName());
+        }
+    }
 }
@@ -4,19 +4,29 @@ import uk.ac.ebi.quickgo.annotation.model.Annotation;
 import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.model.BasicTaxonomyNode;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
-import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractValueInjector;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractBatchValueInjector;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * This class is responsible for supplementing an {@link Annotation} instance, which contains
- * a taxonomy identifier, with a taxonomy name, through the use of a RESTful service.
+ * a taxonomy identifier, with a taxonomy name, through the use of a RESTful service. The taxonomy service only
+ * accepts one identifier per request, so a list of annotations is supplemented using one request per distinct
+ * taxonomy identifier.
  *
  * Created 07/04/17
  * @author Edd
  */
-public class TaxonomyNameInjector extends AbstractValueInjector<BasicTaxonomyNode, Annotation> {
+public class TaxonomyNameInjector extends AbstractBatchValueInjector<BasicTaxonomyNode, Annotation> {
 
     static final String TAXON_NAME = "taxonName";
     static final String TAXON_ID = "taxonId";
+    private static final int TAXON_IDS_PER_REQUEST = 1;
+
+    public TaxonomyNameInjector() {
+        super(TAXON_IDS_PER_REQUEST);
+    }
 
     @Override
     public String getId() {
@@ -24,10 +34,15 @@ public class TaxonomyNameInjector extends AbstractValueInjector<BasicTaxonomyNod
     }
 
     @Override
-    public FilterRequest buildFilterRequest(Annotation annotation) {
+    public String keyOf(Annotation annotation) {
+        return String.valueOf(annotation.taxonId);
+    }
+
+    @Override
+    public FilterRequest buildFilterRequest(List<String> taxonIds) {
         return FilterRequest.newBuilder()
                 .addProperty(getId())
-                .addProperty(TAXON_ID, String.valueOf(annotation.taxonId))
+                .addProperty(TAXON_ID, taxonIds.toArray(new String[0]))
                 .build();
     }
 
@@ -35,4 +50,12 @@ public class TaxonomyNameInjector extends AbstractValueInjector<BasicTaxonomyNod
     public void injectValueFromResponse(ConvertedFilter<BasicTaxonomyNode> convertedRequest, Annotation annotation) {
         annotation.taxonName = convertedRequest.getConvertedValue().getScientificName();
     }
+
+    @Override
+    public void injectValuesFromResponse(ConvertedFilter<BasicTaxonomyNode> convertedRequest,
+            Map<String, List<Annotation>> annotationsByTaxonId) {
+        String taxonName = convertedRequest.getConvertedValue().getScientificName();
+        annotationsByTaxonId.values()
+                .forEach(annotations -> annotations.forEach(annotation -> annotation.taxonName = taxonName));
+    }
 }
@@ -4,9 +4,12 @@ import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.model.BasicOntolo
 import uk.ac.ebi.quickgo.rest.model.CompletableValue;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
-import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractValueInjector;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractBatchValueInjector;
 
 import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
 
 /**
  * This class is responsible for supplementing an {@link CompletableValue} instance, which contains
@@ -15,7 +18,7 @@ import java.util.List;
  * Created 04/10/17
  * @author Tony Wardell
  */
-public class OntologyNameInjector extends AbstractValueInjector<BasicOntology, CompletableValue> {
+public class OntologyNameInjector extends AbstractBatchValueInjector<BasicOntology, CompletableValue> {
 
     public static final String GO_ID = "goId";
     static final String GO_NAME = "goName";
@@ -26,10 +29,15 @@ public class OntologyNameInjector extends AbstractValueInjector<BasicOntology, C
     }
 
     @Override
-    public FilterRequest buildFilterRequest(CompletableValue completableValue) {
+    public String keyOf(CompletableValue completableValue) {
+        return completableValue.getKey();
+    }
+
+    @Override
+    public FilterRequest buildFilterRequest(List<String> ids) {
         return FilterRequest.newBuilder()
                         .addProperty(getId())
-                        .addProperty(GO_ID, completableValue.getKey())
+                        .addProperty(GO_ID, ids.toArray(new String[0]))
                         .build();
     }
 
@@ -42,4 +50,13 @@ public class OntologyNameInjector extends AbstractValueInjector<BasicOntology, C
             completableValue.setValue(results.get(0).getName());
         }
     }
+
+    @Override
+    public void injectValuesFromResponse(ConvertedFilter<BasicOntology> convertedRequest,
+            Map<String, List<CompletableValue>> completableValuesById) {
+        for (BasicOntology.Result result : convertedRequest.getConvertedValue().getResults()) {
+            completableValuesById.getOrDefault(result.getId(), emptyList())
+                    .forEach(completableValue -> completableValue.setValue(result.getName()));
+        }
+    }
 }
@@ -4,19 +4,28 @@ import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.model.BasicTaxono
 import uk.ac.ebi.quickgo.rest.model.CompletableValue;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
-import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractValueInjector;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.AbstractBatchValueInjector;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * This class is responsible for supplementing an {@link CompletableValue} instance, which contains
- * a taxonomy identifier (in the key field), with a taxonomy name, through the use of a RESTful service.
+ * a taxonomy identifier (in the key field), with a taxonomy name, through the use of a RESTful service. The taxonomy
+ * service only accepts one identifier per request.
  *
  * Created 04/10/17
  * @author Tony Wardell
  */
-public class TaxonomyNameInjector extends AbstractValueInjector<BasicTaxonomyNode, CompletableValue> {
+public class TaxonomyNameInjector extends AbstractBatchValueInjector<BasicTaxonomyNode, CompletableValue> {
 
     public static final String TAXON_ID = "taxonId";
     static final String TAXON_NAME = "taxonName";
+    private static final int TAXON_IDS_PER_REQUEST = 1;
+
+    public TaxonomyNameInjector() {
+        super(TAXON_IDS_PER_REQUEST);
+    }
 
     @Override
     public String getId() {
@@ -24,10 +33,15 @@ public class TaxonomyNameInjector extends AbstractValueInjector<BasicTaxonomyNod
     }
 
     @Override
-    public FilterRequest buildFilterRequest(CompletableValue completableValue) {
+    public String keyOf(CompletableValue completableValue) {
+        return completableValue.getKey();
+    }
+
+    @Override
+    public FilterRequest buildFilterRequest(List<String> taxonIds) {
         return FilterRequest.newBuilder()
                 .addProperty(getId())
-                .addProperty(TAXON_ID, String.valueOf(completableValue.getKey()))
+                .addProperty(TAXON_ID, taxonIds.toArray(new String[0]))
                 .build();
     }
 
@@ -36,4 +50,12 @@ public class TaxonomyNameInjector extends AbstractValueInjector<BasicTaxonomyNod
             completableValue) {
         completableValue.setValue(convertedRequest.getConvertedValue().getScientificName());
     }
+
+    @Override
+    public void injectValuesFromResponse(ConvertedFilter<BasicTaxonomyNode> convertedRequest,
+            Map<String, List<CompletableValue>> completableValuesByTaxonId) {
+        String taxonName = convertedRequest.getConvertedValue().getScientificName();
+        completableValuesByTaxonId.values().forEach(completableValues ->
+                completableValues.forEach(completableValue -> completableValue.setValue(taxonName)));
+    }
 }
@@ -4,18 +4,23 @@ import uk.ac.ebi.quickgo.annotation.model.StatisticsByType;
 import uk.ac.ebi.quickgo.annotation.model.StatisticsGroup;
 import uk.ac.ebi.quickgo.annotation.model.StatisticsValue;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * Populate an Excel Workbook instance with statistics data (a list of {@link StatisticsGroup} instances).
  * Provide a sheet for each {@link StatisticsByType} where a format definition is available.
+ * <p>
+ * Each sheet is written a row at a time, in order, across all of its sections, so that the workbook can be a
+ * streaming {@link SXSSFWorkbook}, which only holds a window of rows in memory, flushing the rest to disk as it goes.
  *
  * @author Tony Wardell
  * Date: 22/09/2017
@@ -35,14 +40,45 @@ public class WorkbookFromStatisticsImpl implements WorkbookFromStatistics {
     private static final int SUMMARY_DETAIL_ROW = 2;
     private static final String SUMMARY_SHEET_NAME = "summary";
     private final LinkedHashSet<SheetLayout> sheetLayoutSet;
+    private final Supplier<Workbook> workbookSupplier;
 
+    /**
+     * Generates legacy .xls workbooks, held in memory.
+     *
+     * @param sheetLayouts the layouts of the sheets to generate
+     */
     public WorkbookFromStatisticsImpl(LinkedHashSet<SheetLayout> sheetLayouts) {
+        this(sheetLayouts, HSSFWorkbook::new);
+    }
+
+    /**
+     * @param sheetLayouts the layouts of the sheets to generate
+     * @param workbookSupplier creates each workbook to populate
+     */
+    public WorkbookFromStatisticsImpl(LinkedHashSet<SheetLayout> sheetLayouts, Supplier<Workbook> workbookSupplier) {
         checkArgument(Objects.nonNull(sheetLayouts), "Sheet layout map should not be null.");
+        checkArgument(Objects.nonNull(workbookSupplier), "Workbook supplier should not be null.");
         this.sheetLayoutSet = sheetLayouts;
+        this.workbookSupplier = workbookSupplier;
+    }
+
+    /**
+     * Creates a streaming .xlsx workbook, which holds at most the given number of rows of a sheet in memory.
+     *
+     * @param rowAccessWindowSize the number of rows held in memory
+     * @return a supplier of streaming workbooks
+     */
+    public static Supplier<Workbook> streamingWorkbook(int rowAccessWindowSize) {
+        checkArgument(rowAccessWindowSize > 0, "Row access window size should be greater than 0.");
+        return () -> {
+            SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindowSize);
+            workbook.setCompressTempFiles(true);
+            return workbook;
+        };
     }
 
     public Workbook generate(List<StatisticsGroup> statisticsGroups) {
-        Workbook wb = new HSSFWorkbook();
+        Workbook wb = workbookSupplier.get();
         CellStyle percentageCellFormat = createPercentageCellFormat(wb);
         CellStyle boldCellFormat = createBoldCellFormat(wb);
         createSummarySheet(statisticsGroups, wb, boldCellFormat);
@@ -53,28 +89,28 @@ public class WorkbookFromStatisticsImpl implements WorkbookFromStatistics {
     private void createDetailSheets(List<StatisticsGroup> statisticsGroups, Workbook wb, CellStyle
             percentageCellFormat, CellStyle boldCellFormat) {
         for (SheetLayout layout : sheetLayoutSet) {
-            for (StatisticsGroup statisticsGroup : statisticsGroups) {
-                //add group/type information to layout
-                writeGroupAndTypeValuesToTab(layout, statisticsGroup, wb, percentageCellFormat, boldCellFormat);
+            List<Section> sections = sectionsOf(layout, statisticsGroups);
+            if (!sections.isEmpty()) {
+                populateSheet(wb.createSheet(layout.displayName), sections, percentageCellFormat, boldCellFormat);
             }
         }
     }
 
-    private void writeGroupAndTypeValuesToTab(SheetLayout layout, StatisticsGroup statisticsGroup,
-            Workbook wb, CellStyle fixedDecimalPlaces, CellStyle boldCellFormat) {
-        for (StatisticsByType statisticsByType : statisticsGroup.getTypes()) {
-            if (layout.typeName.equals(statisticsByType.getType())) {
-                final Sheet sheet = retrieveOrCreateSheet(wb, layout);
-
-                layout.sectionLayouts.stream()
-                        .filter(sectionLayout -> sectionLayout.type.equals(statisticsGroup.getGroupName()))
-                        .forEach(sectionLayout -> populateSectionLayout(sheet,
-                                sectionLayout,
-                                statisticsByType,
-                                fixedDecimalPlaces,
-                                boldCellFormat));
+    /**
+     * Pairs each section of a layout with the group/type statistics written to it, in the order they are written.
+     */
+    private List<Section> sectionsOf(SheetLayout layout, List<StatisticsGroup> statisticsGroups) {
+        List<Section> sections = new ArrayList<>();
+        for (StatisticsGroup statisticsGroup : statisticsGroups) {
+            for (StatisticsByType statisticsByType : statisticsGroup.getTypes()) {
+                if (layout.typeName.equals(statisticsByType.getType())) {
+                    layout.sectionLayouts.stream()
+                            .filter(sectionLayout -> sectionLayout.type.equals(statisticsGroup.getGroupName()))
+                            .forEach(sectionLayout -> sections.add(new Section(sectionLayout, statisticsByType)));
+                }
             }
         }
+        return sections;
     }
 
     private void createSummarySheet(List<StatisticsGroup> statisticsGroups, Workbook wb, CellStyle boldCellFormat) {
@@ -96,56 +132,45 @@ public class WorkbookFromStatisticsImpl implements WorkbookFromStatistics {
         return boldCellFormat;
     }
 
-    private Sheet retrieveOrCreateSheet(Workbook wb, SheetLayout sheetLayout) {
-        return wb.getSheet(sheetLayout.displayName) != null ? wb.getSheet(sheetLayout.displayName)
-                : wb.createSheet(sheetLayout.displayName);
-    }
+    private void populateSheet(Sheet sheet, List<Section> sections, CellStyle fixedDecimalPlaces,
+            CellStyle boldCellFormat) {
+        Row sectionHeaderRow = sheet.createRow(HEADER_ROW);
+        sections.forEach(section -> populateSectionHeader(sectionHeaderRow, section.layout, boldCellFormat));
 
-    private void populateSectionLayout(Sheet sheet, SectionLayout sectionLayout, StatisticsByType statisticsByType,
-            CellStyle fixedDecimalPlaces, CellStyle boldCellFormat) {
-        populateSectionHeader(sheet, sectionLayout, boldCellFormat);
-        populateSectionColumnNames(sheet, sectionLayout);
-        populateSectionDetail(sheet, sectionLayout, statisticsByType, fixedDecimalPlaces);
+        Row sectionColumnNames = sheet.createRow(COLUMN_NAMES_ROW);
+        sections.forEach(section -> populateSectionColumnNames(sectionColumnNames, section.layout));
+
+        int detailRows = sections.stream().mapToInt(section -> section.values.size()).max().orElse(0);
+        for (int detail = 0; detail < detailRows; detail++) {
+            Row detailRow = sheet.createRow(DETAIL_ROW_INITIAL_VALUE + detail);
+            for (Section section : sections) {
+                if (detail < section.values.size()) {
+                    populateSectionDetail(detailRow, section.layout, section.values.get(detail), fixedDecimalPlaces);
+                }
+            }
+        }
     }
 
-    private void populateSectionHeader(Sheet sheet, SectionLayout sectionLayout, CellStyle boldCellFormat) {
-        Row sectionHeaderRow = getRow(sheet, HEADER_ROW);
+    private void populateSectionHeader(Row sectionHeaderRow, SectionLayout sectionLayout, CellStyle boldCellFormat) {
         final Cell cell = sectionHeaderRow.createCell(sectionLayout.startingColumn);
         cell.setCellStyle(boldCellFormat);
         cell.setCellValue(sectionLayout.header);
     }
 
-    private void populateSectionColumnNames(Sheet sheet, SectionLayout sectionLayout) {
-        Row sectionColumnNames = getRow(sheet, COLUMN_NAMES_ROW);
-
+    private void populateSectionColumnNames(Row sectionColumnNames, SectionLayout sectionLayout) {
         int colCounter = sectionLayout.startingColumn;
         for (int i = 0; i < SectionLayout.SECTION_COL_HEADINGS.length; i++) {
             sectionColumnNames.createCell(colCounter++).setCellValue(SectionLayout.SECTION_COL_HEADINGS[i]);
         }
     }
 
-    private void populateSectionDetail(Sheet sheet, SectionLayout sectionLayout, StatisticsByType statisticsByType,
+    private void populateSectionDetail(Row detailRow, SectionLayout sectionLayout, StatisticsValue value,
             CellStyle fixedDecimalPlaces) {
-        AtomicInteger rowCounter = new AtomicInteger(DETAIL_ROW_INITIAL_VALUE);
-        final List<StatisticsValue> values = statisticsByType.getValues();
-        for (StatisticsValue value : values) {
-
-            Row detailRow = getRow(sheet, rowCounter.getAndIncrement());
-
-            int colCounter = sectionLayout.startingColumn;
-            detailRow.createCell(colCounter).setCellValue(value.getKey());
-            detailRow.createCell(++colCounter).setCellValue(value.getName());
-            populatePercentageCell(detailRow.createCell(++colCounter), value, fixedDecimalPlaces);
-            detailRow.createCell(++colCounter).setCellValue(value.getHits());
-        }
-    }
-
-    private Row getRow(Sheet sheet, int rowCounter) {
-        Row detailRow = sheet.getRow(rowCounter);
-        if (detailRow == null) {
-            detailRow = sheet.createRow(rowCounter);
-        }
-        return detailRow;
+        int colCounter = sectionLayout.startingColumn;
+        detailRow.createCell(colCounter).setCellValue(value.getKey());
+        detailRow.createCell(++colCounter).setCellValue(value.getName());
+        populatePercentageCell(detailRow.createCell(++colCounter), value, fixedDecimalPlaces);
+        detailRow.createCell(++colCounter).setCellValue(value.getHits());
     }
 
     private void populatePercentageCell(Cell targetCell, StatisticsValue statisticsValue, CellStyle cellStyle) {
@@ -186,4 +211,17 @@ public class WorkbookFromStatisticsImpl implements WorkbookFromStatistics {
                             .setCellValue(GENE_PRODUCTS_SUMMARY + statisticsGroup.getTotalHits());
                 });
     }
+
+    /**
+     * A section of a sheet, with the statistics written to it.
+     */
+    private static class Section {
+        private final SectionLayout layout;
+        private final List<StatisticsValue> values;
+
+        private Section(SectionLayout layout, StatisticsByType statisticsByType) {
+            this.layout = layout;
+            this.values = statisticsByType.getValues();
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+import uk.ac.ebi.quickgo.annotation.service.converter.AnnotationDocConverter;
+
+import com.google.common.base.Preconditions;
+import java.time.Instant;
+import java.util.Date;
+import java.util.function.Function;
+import org.apache.solr.client.solrj.beans.DocumentObjectBinder;
+import org.apache.solr.common.SolrDocument;
+
+/**
+ * Turns SolrDocuments read from Solr's export handler into instances of the Annotation DTO.
+ *
+ * The export handler writes dates as ISO-8601 strings, rather than the dates a search returns, so the date is
+ * parsed before the document is bound to an {@link AnnotationDocument}. The multi-valued fields are exported from
+ * their single-valued export fields, which are split back into those fields once the document is bound.
+ */
+class ExportedDocumentConverter implements Function<SolrDocument, Annotation> {
+    static final String DATE = "date";
+
+    private final DocumentObjectBinder documentObjectBinder;
+    private final AnnotationDocConverter annotationDocConverter;
+
+    ExportedDocumentConverter(DocumentObjectBinder documentObjectBinder,
+            AnnotationDocConverter annotationDocConverter) {
+        Preconditions.checkArgument(documentObjectBinder != null, "Document Object Binder cannot be null");
+        Preconditions.checkArgument(annotationDocConverter != null, "Annotation document converter cannot be null");
+
+        this.documentObjectBinder = documentObjectBinder;
+        this.annotationDocConverter = annotationDocConverter;
+    }
+
+    @Override public Annotation apply(SolrDocument document) {
+        Object date = document.getFieldValue(DATE);
+        if (date instanceof String) {
+            document.setField(DATE, Date.from(Instant.parse((String) date)));
+        }
+
+        AnnotationDocument annotationDocument = documentObjectBinder.getBean(AnnotationDocument.class, document);
+        annotationDocument.splitExportFields();
+        return annotationDocConverter.convert(annotationDocument);
+    }
+}
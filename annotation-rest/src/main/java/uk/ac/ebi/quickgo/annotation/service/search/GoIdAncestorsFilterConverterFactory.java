@@ -0,0 +1,75 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import uk.ac.ebi.quickgo.annotation.common.AnnotationFields;
+import uk.ac.ebi.quickgo.annotation.common.GoIdAncestors;
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
+import uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery;
+import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
+import uk.ac.ebi.quickgo.rest.search.request.config.FilterConfigRetrieval;
+import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
+import uk.ac.ebi.quickgo.rest.search.request.converter.FilterConverterFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.web.client.RestOperations;
+
+import static uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery.createQuery;
+import static uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery.or;
+
+/**
+ * Converts {@link FilterRequest}s as a {@link FilterConverterFactory} does, except for requests for the annotations
+ * to GO terms and their descendants. When the annotation index holds the ancestors of each annotation's GO id, over
+ * the relationships requested, such a request is converted to a query for the annotations that have the GO terms as
+ * ancestors, which needs neither the descendants to be fetched from the ontology service, nor a query clause for
+ * each descendant.
+ *
+ * Requests over relationships whose ancestors are not indexed, see {@link GoIdAncestors#INDEXED_RELATIONS}, are
+ * converted via the ontology service, as before, as are all requests when the index does not yet hold the ancestors.
+ */
+public class GoIdAncestorsFilterConverterFactory extends FilterConverterFactory {
+    static final String DESCENDANTS_USAGE = "descendants";
+    static final String GO_ID = "goId";
+    static final String GO_USAGE_RELATIONSHIPS = "goUsageRelationships";
+
+    private static final String COMMA = ",";
+    private static final Set<String> GO_DESCENDANTS_SIGNATURE =
+            new HashSet<>(Arrays.asList(DESCENDANTS_USAGE, GO_ID, GO_USAGE_RELATIONSHIPS));
+
+    private final boolean ancestorsIndexed;
+
+    /**
+     * @param ancestorsIndexed whether the annotation index holds the ancestors of each annotation's GO id
+     */
+    public GoIdAncestorsFilterConverterFactory(FilterConfigRetrieval globalFilterConfigRetrieval,
+            RestOperations restOperations, RESTRequestExecutor restRequestExecutor, boolean ancestorsIndexed) {
+        super(globalFilterConfigRetrieval, restOperations, restRequestExecutor);
+        this.ancestorsIndexed = ancestorsIndexed;
+    }
+
+    @Override public ConvertedFilter<QuickGOQuery> convert(FilterRequest request) {
+        if (ancestorsIndexed && GO_DESCENDANTS_SIGNATURE.equals(request.getSignature())) {
+            List<String> goIds = goIds(request);
+            Optional<String> relationsKey = GoIdAncestors.indexedRelationsKey(request.getValue(GO_USAGE_RELATIONSHIPS)
+                    .map(relations -> relations.toArray(new String[0]))
+                    .orElse(null));
+
+            if (!goIds.isEmpty() && relationsKey.isPresent()) {
+                return new ConvertedFilter<>(or(goIds.stream()
+                        .map(goId -> createQuery(AnnotationFields.Searchable.GO_ID_ANCESTORS,
+                                GoIdAncestors.value(relationsKey.get(), goId)))
+                        .toArray(QuickGOQuery[]::new)));
+            }
+        }
+        return super.convert(request);
+    }
+
+    private static List<String> goIds(FilterRequest request) {
+        return request.getValue(GO_ID).orElse(Collections.emptyList()).stream()
+                .flatMap(goIds -> Stream.of(goIds.split(COMMA)))
+                .map(String::trim)
+                .filter(goId -> !goId.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,87 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.completablevalue.EvidenceNameInjector;
+import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.completablevalue.OntologyNameInjector;
+import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.completablevalue.TaxonomyNameInjector;
+import uk.ac.ebi.quickgo.rest.model.CompletableValue;
+import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.ResponseValueInjector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Configures the caching of names looked up by {@link NameService}: each type of name is held in its own cache
+ * region (see ehcache.xml), and the regions can optionally be warmed up once the application has started, e.g.,
+ *
+ * <pre>
+ * annotation:
+ *   names:
+ *     warmUp: true
+ *     warmUpSources:
+ *       goName: file:/path/to/go-ids.txt.gz
+ *       evidenceName: file:/path/to/eco-ids.txt
+ *       taxonName: file:/path/to/common-taxon-ids.txt
+ * </pre>
+ */
+@Configuration
+@ConfigurationProperties(prefix = "annotation.names")
+public class NameCacheConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NameCacheConfig.class);
+    private static final String GO_NAME = "goName";
+    private static final String TAXON_NAME = "taxonName";
+    private static final String EVIDENCE_NAME = "evidenceName";
+
+    private boolean warmUp = false;
+    private Map<String, Resource> warmUpSources = new HashMap<>();
+
+    @Bean
+    public NameCacheResolver nameCacheResolver(CacheManager cacheManager) {
+        Map<String, String> cacheNameByTargetName = new HashMap<>();
+        cacheNameByTargetName.put(GO_NAME, "goNames");
+        cacheNameByTargetName.put(TAXON_NAME, "taxonNames");
+        cacheNameByTargetName.put(EVIDENCE_NAME, "evidenceNames");
+        return new NameCacheResolver(cacheManager, cacheNameByTargetName);
+    }
+
+    @Bean
+    public NameCacheWarmer nameCacheWarmer(RESTFilterConverterFactory converterFactory,
+            NameCacheResolver nameCacheResolver) {
+        Map<String, ResponseValueInjector<CompletableValue>> injectorsByTargetName =
+                Stream.of(new OntologyNameInjector(), new TaxonomyNameInjector(), new EvidenceNameInjector())
+                        .collect(toMap(ResponseValueInjector::getId, injector -> injector));
+        return new NameCacheWarmer(converterFactory, nameCacheResolver, injectorsByTargetName);
+    }
+
+    /**
+     * Warms up the name caches in the background, if enabled, so that the application can serve requests meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpNameCaches(ApplicationReadyEvent event) {
+        if (warmUp && !warmUpSources.isEmpty()) {
+            NameCacheWarmer warmer = event.getApplicationContext().getBean(NameCacheWarmer.class);
+            LOGGER.info("Warming up name caches for: " + warmUpSources.keySet());
+            Thread.ofVirtual().name("name-cache-warm-up").start(() -> warmer.warm(warmUpSources));
+        }
+    }
+
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public void setWarmUpSources(Map<String, Resource> warmUpSources) {
+        this.warmUpSources = warmUpSources;
+    }
+}
@@ -0,0 +1,53 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import java.util.Collection;
+import java.util.Map;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.singletonList;
+
+/**
+ * Chooses the cache region used by {@link NameService}, based on the type of name requested (its first argument).
+ * Keeping each type of name in its own region means that, e.g., taxon names cannot evict GO names, and that each
+ * region can be sized and expired separately. Names whose type has no dedicated region are held in the
+ * {@link #DEFAULT_CACHE} region.
+ */
+public class NameCacheResolver implements CacheResolver {
+    static final String DEFAULT_CACHE = "names";
+
+    private final CacheManager cacheManager;
+    private final Map<String, String> cacheNameByTargetName;
+
+    public NameCacheResolver(CacheManager cacheManager, Map<String, String> cacheNameByTargetName) {
+        checkArgument(cacheManager != null, "CacheManager cannot be null");
+        checkArgument(cacheNameByTargetName != null, "Cache name by target name map cannot be null");
+        this.cacheManager = cacheManager;
+        this.cacheNameByTargetName = cacheNameByTargetName;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Object[] args = context.getArgs();
+        String targetName = args.length > 0 && args[0] != null ? args[0].toString() : null;
+        return singletonList(resolveCache(targetName));
+    }
+
+    /**
+     * Finds the cache region holding names of a given type.
+     *
+     * @param targetName the type of name, e.g., goName
+     * @return the cache region
+     */
+    public Cache resolveCache(String targetName) {
+        String cacheName = cacheNameByTargetName.getOrDefault(targetName, DEFAULT_CACHE);
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new IllegalStateException("Cache named '" + cacheName + "' has not been configured");
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,105 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import uk.ac.ebi.quickgo.rest.model.CompletableValue;
+import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.ResponseValueInjector;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.core.io.Resource;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Bulk loads names into the caches used by {@link NameService}, so that the first requests after a deployment do not
+ * each need a RESTful call per name. The identifiers whose names are loaded are read from a {@link Resource}
+ * (one identifier per line, optionally gzipped) for each type of name, and the names are fetched using the
+ * injector registered for that type, which can request many names at once.
+ */
+public class NameCacheWarmer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NameCacheWarmer.class);
+    private static final String GZIP_SUFFIX = ".gz";
+
+    private final RESTFilterConverterFactory restFetcher;
+    private final NameCacheResolver nameCacheResolver;
+    private final Map<String, ResponseValueInjector<CompletableValue>> injectorsByTargetName;
+
+    public NameCacheWarmer(RESTFilterConverterFactory restFetcher, NameCacheResolver nameCacheResolver,
+            Map<String, ResponseValueInjector<CompletableValue>> injectorsByTargetName) {
+        checkArgument(restFetcher != null, "RESTFilterConverterFactory cannot be null");
+        checkArgument(nameCacheResolver != null, "NameCacheResolver cannot be null");
+        checkArgument(injectorsByTargetName != null, "Injectors by target name cannot be null");
+        this.restFetcher = restFetcher;
+        this.nameCacheResolver = nameCacheResolver;
+        this.injectorsByTargetName = injectorsByTargetName;
+    }
+
+    /**
+     * Loads the names of every identifier held in each source into the cache for its type of name.
+     *
+     * @param sourcesByTargetName the identifier sources, keyed by the type of name, e.g., goName
+     */
+    public void warm(Map<String, Resource> sourcesByTargetName) {
+        sourcesByTargetName.forEach((targetName, source) -> {
+            try {
+                int loaded = warm(targetName, readIds(source));
+                LOGGER.info("Warmed the " + targetName + " cache with " + loaded + " names from " + source);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Failed to warm the " + targetName + " cache from " + source, e);
+            }
+        });
+    }
+
+    /**
+     * Loads the names of the supplied identifiers into the cache for a type of name.
+     *
+     * @param targetName the type of name, e.g., goName
+     * @param ids the identifiers whose names are loaded
+     * @return the number of names loaded into the cache
+     */
+    public int warm(String targetName, List<String> ids) {
+        ResponseValueInjector<CompletableValue> injector = injectorsByTargetName.get(targetName);
+        checkArgument(injector != null, "No name injector is registered for: " + targetName);
+
+        List<CompletableValue> values = ids.stream().map(CompletableValue::new).collect(toList());
+        injector.injectAll(restFetcher, values);
+
+        Cache cache = nameCacheResolver.resolveCache(targetName);
+        int loaded = 0;
+        for (CompletableValue value : values) {
+            if (value.value != null) {
+                cache.put(SimpleKeyGenerator.generateKey(targetName, value.getKey()), value.value);
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    private static List<String> readIds(Resource source) throws IOException {
+        try (InputStream inputStream = open(source);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .distinct()
+                    .collect(toList());
+        }
+    }
+
+    private static InputStream open(Resource source) throws IOException {
+        String fileName = source.getFilename();
+        InputStream inputStream = source.getInputStream();
+        return fileName != null && fileName.endsWith(GZIP_SUFFIX) ? new GZIPInputStream(inputStream) : inputStream;
+    }
+}
@@ -8,12 +8,12 @@ import uk.ac.ebi.quickgo.rest.search.results.transformer.ResultTransformerChain;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 /**
- * Provide a lookup service for names, caching results for use later.
+ * Provide a lookup service for names, caching results for use later. Each type of name is cached in its own region,
+ * chosen by the {@link NameCacheResolver}.
  *
  * @author Tony Wardell
  * Date: 13/11/2017
@@ -21,7 +21,6 @@ import org.springframework.stereotype.Service;
  * Created with IntelliJ IDEA.
  */
 @Service
-@CacheConfig(cacheNames = {"names"})
 public class NameService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NameService.class);
@@ -31,7 +30,7 @@ public class NameService {
         this.completableValueTransformerChain = completableValueTransformerChain;
     }
 
-    @Cacheable(unless="#result == null")
+    @Cacheable(cacheResolver = "nameCacheResolver", unless="#result == null")
     public String findName(String targetName, String targetKey) {
         FilterContext filterContext = createFilterContextForName(targetName);
         CompletableValue completableValue = new CompletableValue(targetKey);
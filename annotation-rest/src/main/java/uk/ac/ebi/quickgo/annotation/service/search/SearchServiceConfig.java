@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.*;
 import org.springframework.data.solr.core.SolrTemplate;
+import org.springframework.web.client.RestOperations;
 import uk.ac.ebi.quickgo.annotation.common.AnnotationFields;
 import uk.ac.ebi.quickgo.annotation.common.AnnotationRepoConfig;
 import uk.ac.ebi.quickgo.annotation.model.Annotation;
@@ -19,19 +20,26 @@ import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.annot
 import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.completablevalue.EvidenceNameInjector;
 import uk.ac.ebi.quickgo.annotation.service.converter.AnnotationDocConverterImpl;
 import uk.ac.ebi.quickgo.common.SearchableField;
+import uk.ac.ebi.quickgo.common.SolrCollectionName;
 import uk.ac.ebi.quickgo.common.loader.DbXRefLoader;
 import uk.ac.ebi.quickgo.common.validator.DbXRefEntityValidation;
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.controller.ControllerValidationHelper;
 import uk.ac.ebi.quickgo.rest.controller.ControllerValidationHelperImpl;
 import uk.ac.ebi.quickgo.rest.model.CompletableValue;
+import uk.ac.ebi.quickgo.rest.search.ExportRetrieval;
 import uk.ac.ebi.quickgo.rest.search.RequestRetrieval;
+import uk.ac.ebi.quickgo.rest.search.RetrievalException;
 import uk.ac.ebi.quickgo.rest.search.SearchService;
 import uk.ac.ebi.quickgo.rest.search.query.QueryRequestConverter;
 import uk.ac.ebi.quickgo.rest.search.query.SortCriterion;
+import uk.ac.ebi.quickgo.rest.search.request.config.FilterConfigRetrieval;
+import uk.ac.ebi.quickgo.rest.search.request.converter.FilterConverterFactory;
 import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
 import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
 import uk.ac.ebi.quickgo.rest.search.results.config.FieldNameTransformer;
 import uk.ac.ebi.quickgo.rest.search.results.transformer.*;
+import uk.ac.ebi.quickgo.rest.search.solr.SolrExportRetrieval;
 import uk.ac.ebi.quickgo.rest.search.solr.SolrQueryConverter;
 import uk.ac.ebi.quickgo.rest.search.solr.SolrRequestRetrieval;
 import uk.ac.ebi.quickgo.rest.search.solr.SolrRetrievalConfig;
@@ -77,6 +85,8 @@ public class SearchServiceConfig {
     private static final String SOLR_ANNOTATION_QUERY_REQUEST_HANDLER = "/query";
     private static final String DEFAULT_DOWNLOAD_SORT_FIELDS = "defaultSort,id";
     private static final int DEFAULT_DOWNLOAD_PAGE_SIZE = 500;
+    private static final int DEFAULT_DOWNLOAD_READ_AHEAD_PAGES = 2;
+    private static final int DEFAULT_DOWNLOAD_EXPORT_THRESHOLD = 100_000;
 
     @Value("${geneproduct.db.xref.valid.regexes}")
     String xrefValidationRegexFile;
@@ -92,15 +102,36 @@ public class SearchServiceConfig {
     @Value("${annotation.download.pageSize:" + DEFAULT_DOWNLOAD_PAGE_SIZE + "}")
     private int downloadPageSize;
 
+    @Value("${annotation.download.readAheadPages:" + DEFAULT_DOWNLOAD_READ_AHEAD_PAGES + "}")
+    private int downloadReadAheadPages;
+
+    @Value("${annotation.download.exportThreshold:" + DEFAULT_DOWNLOAD_EXPORT_THRESHOLD + "}")
+    private int downloadExportThreshold;
+
     @Value("${search.wildcard.fields:}")
     private String fieldsThatCanBeSearchedByWildCard;
 
+    @Value("${annotation.goIdAncestors.indexed:false}")
+    private boolean goIdAncestorsIndexed;
+
     @Bean
     public SearchService<Annotation> annotationSearchService(
             RequestRetrieval<Annotation> annotationSolrRequestRetrieval) {
         return new SearchServiceImpl(annotationSolrRequestRetrieval);
     }
 
+    /**
+     * Converts the filters of annotation requests, filtering by GO terms and their descendants via the ancestors
+     * indexed for each annotation, once {@code annotation.goIdAncestors.indexed} is set.
+     */
+    @Primary
+    @Bean
+    public FilterConverterFactory annotationFilterConverterFactory(FilterConfigRetrieval globalFilterConfigRetrieval,
+            RestOperations restOperations, RESTRequestExecutor restRequestExecutor) {
+        return new GoIdAncestorsFilterConverterFactory(globalFilterConfigRetrieval, restOperations,
+                restRequestExecutor, goIdAncestorsIndexed);
+    }
+
     @Bean
     public RequestRetrieval<Annotation> annotationSolrRequestRetrieval(
             SolrTemplate annotationTemplate,
@@ -119,6 +150,16 @@ public class SearchServiceConfig {
                 annotationRetrievalConfig);
     }
 
+    @Bean
+    public ExportRetrieval<Annotation> annotationSolrExportRetrieval(
+            SolrTemplate annotationTemplate,
+            QueryRequestConverter<SolrQuery> queryRequestConverter) {
+        return new SolrExportRetrieval<>(
+                annotationTemplate.getSolrClient(),
+                queryRequestConverter,
+                new ExportedDocumentConverter(new DocumentObjectBinder(), new AnnotationDocConverterImpl()));
+    }
+
     @Bean
     public ControllerValidationHelper validationHelper() {
         return new ControllerValidationHelperImpl(MAX_PAGE_RESULTS);
@@ -139,6 +180,7 @@ public class SearchServiceConfig {
      * Annotation retrieval config. Annotations searches don't use highlighting.
      *
      * @param annotationSearchSolrReturnedFields A list of fields that can be used for filtering.
+     * @param annotationSolrExportRetrieval checks that the fields returned and sorted on by downloads can be exported.
      * @return An instance of AnnotationCompositeRetrievalConfig which meets the requirements of the Configuration
      * interfaces it extends.
      */
@@ -146,13 +188,18 @@ public class SearchServiceConfig {
     public AnnotationCompositeRetrievalConfig annotationRetrievalConfig(
             @Value("${search.return.fields:" + DEFAULT_ANNOTATION_SEARCH_RETURN_FIELDS + "}") String
                     annotationSearchSolrReturnedFields,
-            FieldNameTransformer fieldNameTransformer) {
+            FieldNameTransformer fieldNameTransformer,
+            ExportRetrieval<Annotation> annotationSolrExportRetrieval) {
+        List<String> downloadSortFields = asList(defaultDownloadSortFields.split(COMMA));
+        List<String> downloadFields = Stream.concat(Stream.of(annotationSearchSolrReturnedFields.split(COMMA)),
+                downloadSortFields.stream()).collect(Collectors.toList());
+        int exportThreshold = exportableDownloadThreshold(annotationSolrExportRetrieval, downloadFields);
 
         return new AnnotationCompositeRetrievalConfig() {
 
             @Override
             public List<SortCriterion> getDownloadSortCriteria() {
-                return Stream.of(defaultDownloadSortFields.split(COMMA))
+                return downloadSortFields.stream()
                         .map(downloadSortField -> new SortCriterion(downloadSortField, SortCriterion.SortOrder.ASC))
                         .collect(Collectors.toList());
             }
@@ -161,6 +208,14 @@ public class SearchServiceConfig {
                 return downloadPageSize;
             }
 
+            @Override public int getDownloadReadAheadPages() {
+                return downloadReadAheadPages;
+            }
+
+            @Override public int getDownloadExportThreshold() {
+                return exportThreshold;
+            }
+
             @Override
             public Map<String, String> repo2DomainFieldMap() {
                 return fieldNameTransformer.getTransformations();
@@ -185,6 +240,29 @@ public class SearchServiceConfig {
         };
     }
 
+    /**
+     * Downloads are only exported if every field they return or sort on can be exported just as a search returns
+     * it; otherwise, whatever the configured threshold, they are paged through with a cursor.
+     */
+    private int exportableDownloadThreshold(ExportRetrieval<Annotation> exportRetrieval, List<String> downloadFields) {
+        if (downloadExportThreshold <= 0) {
+            return 0;
+        }
+
+        try {
+            List<String> unexportableFields =
+                    exportRetrieval.findUnexportableFields(SolrCollectionName.ANNOTATION, downloadFields);
+            if (unexportableFields.isEmpty()) {
+                return downloadExportThreshold;
+            }
+            LOGGER.warn("Downloads will not be exported, since these fields cannot be exported: {}",
+                    unexportableFields);
+        } catch (RetrievalException e) {
+            LOGGER.warn("Downloads will not be exported, since the fields that can be exported could not be found", e);
+        }
+        return 0;
+    }
+
     @Bean
     public ResultTransformerChain<QueryResult<Annotation>> resultTransformerChain(
             ExternalServiceResultsTransformer<QueryResult<Annotation>, Annotation> ontologyResultsTransformer,
@@ -299,5 +377,17 @@ public class SearchServiceConfig {
         List<SortCriterion> getDownloadSortCriteria();
 
         int getDownloadPageSize();
+
+        /**
+         * @return the number of pages a download fetches ahead of the page it is writing, or zero if it fetches
+         * each page only once the previous one has been written
+         */
+        int getDownloadReadAheadPages();
+
+        /**
+         * @return the download limit at or above which a download exports its annotations from Solr's export
+         * handler, rather than paging through them with a cursor, or zero if downloads never use the export handler
+         */
+        int getDownloadExportThreshold();
     }
 }
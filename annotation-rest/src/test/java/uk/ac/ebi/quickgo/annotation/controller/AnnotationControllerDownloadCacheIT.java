@@ -0,0 +1,149 @@
+package uk.ac.ebi.quickgo.annotation.controller;
+
+import uk.ac.ebi.quickgo.annotation.AnnotationREST;
+import uk.ac.ebi.quickgo.annotation.common.AnnotationRepository;
+import uk.ac.ebi.quickgo.annotation.common.document.AnnotationDocMocker;
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCache;
+import uk.ac.ebi.quickgo.common.store.TemporarySolrDataStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.WebApplicationContext;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.http.HttpHeaders.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static uk.ac.ebi.quickgo.annotation.common.document.AnnotationDocMocker.createGenericDocs;
+import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.GPAD_MEDIA_TYPE;
+
+/**
+ * Tests that downloads are served from the {@link DownloadCache}, once cached, rather than read from Solr again. The
+ * annotations are removed from Solr once a download has been cached, so that a download can only have them if it is
+ * served from the cache.
+ */
+@ExtendWith(TemporarySolrDataStore.class)
+@SpringBootTest(classes = {AnnotationREST.class}, properties = {"annotation.download.cache.maxBytes=10000000",
+        "annotation.download.cache.directory=${java.io.tmpdir}/quickgo-download-cache-it"})
+@WebAppConfiguration
+class AnnotationControllerDownloadCacheIT {
+    private static final int NUMBER_OF_DOCS = 100;
+    private static final String DOWNLOAD_SEARCH_URL = "/annotation/downloadSearch";
+    private static final String DOWNLOAD_LIMIT_PARAM = "downloadLimit";
+    private static final String GZIP = "gzip";
+    private static final String GPAD_HEADER_START = "!gpa-version";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private AnnotationRepository repository;
+
+    @Autowired
+    private DownloadCache downloadCache;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAll();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+
+        repository.saveAll(createGenericDocs(NUMBER_OF_DOCS, AnnotationDocMocker::createUniProtGPID));
+    }
+
+    @Test
+    void downloadIsServedFromTheCacheOnceWritten() throws Exception {
+        int downloadCount = 41;
+        String download = download(downloadCount, "identity");
+        long hits = downloadCache.getHits();
+
+        repository.deleteAll();
+        String cachedDownload = download(downloadCount, "identity");
+
+        assertThat(downloadCache.getHits(), is(hits + 1));
+        assertThat(cachedDownload, startsWith(GPAD_HEADER_START));
+        assertThat(annotationLines(cachedDownload), hasSize(downloadCount));
+        assertThat(annotationLines(cachedDownload), is(annotationLines(download)));
+    }
+
+    @Test
+    void gzippedDownloadIsServedFromTheCacheOnceWritten() throws Exception {
+        int downloadCount = 42;
+        String download = download(downloadCount, GZIP);
+
+        repository.deleteAll();
+        String cachedDownload = download(downloadCount, GZIP);
+
+        assertThat(cachedDownload, startsWith(GPAD_HEADER_START));
+        assertThat(annotationLines(cachedDownload), hasSize(downloadCount));
+        assertThat(annotationLines(cachedDownload), is(annotationLines(download)));
+    }
+
+    @Test
+    void gzippedDownloadIsServedUnencodedFromTheCache() throws Exception {
+        int downloadCount = 43;
+        String download = download(downloadCount, GZIP);
+
+        repository.deleteAll();
+        String cachedDownload = download(downloadCount, "identity");
+
+        assertThat(annotationLines(cachedDownload), is(annotationLines(download)));
+    }
+
+    @Test
+    void downloadOfADifferentNumberOfAnnotationsIsNotServedFromTheCache() throws Exception {
+        download(44, "identity");
+        long misses = downloadCache.getMisses();
+
+        repository.deleteAll();
+        String download = download(45, "identity");
+
+        assertThat(downloadCache.getMisses(), is(misses + 1));
+        assertThat(download, startsWith(GPAD_HEADER_START));
+        assertThat(annotationLines(download), is(empty()));
+    }
+
+    private String download(int downloadCount, String acceptEncoding) throws Exception {
+        MvcResult result = mockMvc.perform(
+                get(DOWNLOAD_SEARCH_URL)
+                        .header(ACCEPT, GPAD_MEDIA_TYPE)
+                        .header(ACCEPT_ENCODING, acceptEncoding)
+                        .param(DOWNLOAD_LIMIT_PARAM, Integer.toString(downloadCount)))
+                .andExpect(request().asyncStarted())
+                .andDo(MvcResult::getAsyncResult)
+                .andReturn();
+
+        byte[] content = result.getResponse().getContentAsByteArray();
+        if (GZIP.equals(result.getResponse().getHeader(CONTENT_ENCODING))) {
+            return gunzip(content);
+        }
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> annotationLines(String download) {
+        return download.lines().filter(line -> !line.startsWith("!")).collect(toList());
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.context.WebApplicationContext;
 import uk.ac.ebi.quickgo.annotation.AnnotationParameters;
 import uk.ac.ebi.quickgo.annotation.AnnotationREST;
@@ -31,14 +32,20 @@ import uk.ac.ebi.quickgo.annotation.service.comm.rest.geneproduct.model.BasicGen
 import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.model.BasicOntology;
 import uk.ac.ebi.quickgo.common.store.TemporarySolrDataStore;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.http.HttpHeaders.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
@@ -72,8 +79,15 @@ import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.*;
 class AnnotationControllerDownloadIT {
     private static final int NUMBER_OF_GENERIC_DOCS = 200;
     private static final String DOWNLOAD_SEARCH_URL = "/annotation/downloadSearch";
+    private static final String DOWNLOAD_JOB_URL = "/annotation/downloadJob";
+    private static final MediaType GZIP_MEDIA_TYPE = new MediaType("application", "gzip");
+    private static final int DOWNLOAD_JOB_ATTEMPTS = 100;
+    private static final long DOWNLOAD_JOB_POLL_MILLIS = 100;
     private static final String DOWNLOAD_LIMIT_PARAM = "downloadLimit";
     private static final String DOWNLOAD_FILE_TYPE_PARAM = "downloadFileType";
+    private static final String COMPRESSED_PARAM = "compressed";
+    private static final String GZIP = "gzip";
+    private static final String GPAD_HEADER_START = "!gpa-version";
     private static final int MIN_DOWNLOAD_NUMBER = 1;
     private static final int MAX_DOWNLOAD_NUMBER = 2000000;
     private static final String EXACT = "exact";
@@ -249,6 +263,102 @@ class AnnotationControllerDownloadIT {
         canDownloadWithSelectedFields();
     }
 
+    @Test
+    void downloadIsGzippedWhenClientAcceptsGzip() throws Exception {
+        int expectedDownloadCount = 97;
+        ResultActions response = mockMvc.perform(
+                get(DOWNLOAD_SEARCH_URL)
+                        .header(ACCEPT, GPAD_MEDIA_TYPE)
+                        .header(ACCEPT_ENCODING, "deflate, " + GZIP)
+                        .param(DOWNLOAD_LIMIT_PARAM, Integer.toString(expectedDownloadCount)));
+
+        List<String> storedIds = getFieldValuesFromRepo(doc -> idFrom(doc.geneProductId), expectedDownloadCount);
+
+        checkGzippedResponse(GPAD_MEDIA_TYPE, response, storedIds);
+    }
+
+    @Test
+    void downloadIsGzippedWhenCompressedIsRequested() throws Exception {
+        int expectedDownloadCount = 31;
+        ResultActions response = mockMvc.perform(
+                get(DOWNLOAD_SEARCH_URL)
+                        .header(ACCEPT, GPAD_MEDIA_TYPE)
+                        .param(COMPRESSED_PARAM, "true")
+                        .param(DOWNLOAD_LIMIT_PARAM, Integer.toString(expectedDownloadCount)));
+
+        List<String> storedIds = getFieldValuesFromRepo(doc -> idFrom(doc.geneProductId), expectedDownloadCount);
+
+        checkGzippedResponse(GPAD_MEDIA_TYPE, response, storedIds);
+    }
+
+    @Test
+    void downloadIsNotEncodedWhenClientDoesNotAcceptGzip() throws Exception {
+        ResultActions response = mockMvc.perform(
+                get(DOWNLOAD_SEARCH_URL)
+                        .header(ACCEPT, GPAD_MEDIA_TYPE)
+                        .header(ACCEPT_ENCODING, "identity")
+                        .param(DOWNLOAD_LIMIT_PARAM, "1"));
+
+        response.andExpect(request().asyncStarted())
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(header().doesNotExist(CONTENT_ENCODING))
+                .andExpect(header().stringValues(VARY, hasItem(ACCEPT_ENCODING)))
+                .andExpect(content().string(startsWith(GPAD_HEADER_START)));
+    }
+
+    @Test
+    void downloadJobWritesGzippedFileThatCanBeFetched() throws Exception {
+        int expectedDownloadCount = 53;
+        String location = requestDownloadJob(expectedDownloadCount);
+
+        awaitCompletedDownloadJob(location);
+        MvcResult result = mockMvc.perform(get(location + "/file"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(GZIP_MEDIA_TYPE))
+                .andExpect(header().string(CONTENT_DISPOSITION, endsWith(".gpad.gz\"")))
+                .andReturn();
+
+        List<String> storedIds = getFieldValuesFromRepo(doc -> idFrom(doc.geneProductId), expectedDownloadCount);
+        String download = gunzip(result.getResponse().getContentAsByteArray());
+        assertThat(download, startsWith(GPAD_HEADER_START));
+        assertThat(download, stringContainsInOrder(storedIds));
+    }
+
+    @Test
+    void identicalDownloadJobRequestsReuseTheSameJob() throws Exception {
+        String location = requestDownloadJob(54);
+
+        assertThat(requestDownloadJob(54), is(location));
+        assertThat(requestDownloadJob(55), is(not(location)));
+    }
+
+    @Test
+    void rangeOfDownloadJobFileCanBeFetched() throws Exception {
+        String location = requestDownloadJob(56);
+        awaitCompletedDownloadJob(location);
+        byte[] file = mockMvc.perform(get(location + "/file")).andReturn().getResponse().getContentAsByteArray();
+
+        mockMvc.perform(get(location + "/file").header(RANGE, "bytes=10-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(CONTENT_RANGE, "bytes 10-" + (file.length - 1) + "/" + file.length))
+                .andExpect(content().bytes(Arrays.copyOfRange(file, 10, file.length)));
+    }
+
+    @Test
+    void downloadJobWithoutFileTypeIsBadRequest() throws Exception {
+        ResultActions response = mockMvc.perform(get(DOWNLOAD_JOB_URL));
+
+        assertBadRequestError(response, "Provide one of 'gpad', 'gaf' or 'tsv' as 'downloadFileType'");
+    }
+
+    @Test
+    void unknownDownloadJobIsNotFound() throws Exception {
+        mockMvc.perform(get(DOWNLOAD_JOB_URL + "/unknown"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get(DOWNLOAD_JOB_URL + "/unknown/file"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void whenDownloadFileTypeProvidedAsPartOfRequestParam_acceptHeaderWillBeIgnored() throws Exception {
             int expectedDownloadCount = 97;
@@ -307,6 +417,32 @@ class AnnotationControllerDownloadIT {
         assertBadRequestError(response, err);
     }
 
+    private String requestDownloadJob(int downloadLimit) throws Exception {
+        return mockMvc.perform(
+                get(DOWNLOAD_JOB_URL)
+                        .param(DOWNLOAD_FILE_TYPE_PARAM, GPAD_SUB_TYPE)
+                        .param(DOWNLOAD_LIMIT_PARAM, Integer.toString(downloadLimit)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.format").value(GPAD_SUB_TYPE))
+                .andExpect(header().string(LOCATION, containsString(DOWNLOAD_JOB_URL + "/")))
+                .andReturn().getResponse().getHeader(LOCATION);
+    }
+
+    private void awaitCompletedDownloadJob(String location) throws Exception {
+        for (int attempt = 0; attempt < DOWNLOAD_JOB_ATTEMPTS; attempt++) {
+            String status = dtoMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString())
+                    .get("status").asText();
+            if ("COMPLETED".equals(status)) {
+                return;
+            }
+            assertThat(status, is(not("FAILED")));
+            Thread.sleep(DOWNLOAD_JOB_POLL_MILLIS);
+        }
+        throw new AssertionError("Download job did not complete: " + location);
+    }
+
     private void badRequest(String paramValue, String errorMsg) throws Exception {
         ResultActions response = mockMvc.perform(
             get(DOWNLOAD_SEARCH_URL)
@@ -388,6 +524,27 @@ class AnnotationControllerDownloadIT {
                 .andExpect(content().string(stringContainsInOrder(storedIds)));
     }
 
+    private void checkGzippedResponse(MediaType mediaType, ResultActions response, List<String> storedIds)
+            throws Exception {
+        MvcResult result = response.andExpect(request().asyncStarted())
+                .andDo(MvcResult::getAsyncResult)
+                .andExpect(header().string(CONTENT_ENCODING, is(GZIP)))
+                .andExpect(header().stringValues(VARY, hasItems(ACCEPT, ACCEPT_ENCODING)))
+                .andExpect(header().string(CONTENT_DISPOSITION, endsWith(getFileNameEndingFor(mediaType))))
+                .andExpect(content().contentType(mediaType))
+                .andReturn();
+
+        String download = gunzip(result.getResponse().getContentAsByteArray());
+        assertThat(download, startsWith(GPAD_HEADER_START));
+        assertThat(download, stringContainsInOrder(storedIds));
+    }
+
+    private String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+
     private void checkResponseForSelectedFields(ResultActions response, String... expectedFields) throws Exception {
         response.andExpect(request().asyncStarted())
                 .andDo(MvcResult::getAsyncResult)
@@ -0,0 +1,47 @@
+package uk.ac.ebi.quickgo.annotation.controller;
+
+import uk.ac.ebi.quickgo.annotation.AnnotationREST;
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+import uk.ac.ebi.quickgo.annotation.service.search.SearchServiceConfig;
+import uk.ac.ebi.quickgo.common.store.TemporarySolrDataStore;
+import uk.ac.ebi.quickgo.rest.search.ExportRetrieval;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.web.WebAppConfiguration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the download tests of {@link AnnotationControllerDownloadIT} with every download read from Solr's export
+ * handler, and the fields returned by the application's own configuration.
+ *
+ * The multi-valued withFrom and targetSet fields are exported from their single-valued export fields, so downloads
+ * must be the same as they are when paged through with a cursor.
+ */
+@ExtendWith(TemporarySolrDataStore.class)
+@SpringBootTest(classes = {AnnotationREST.class}, properties = {"annotation.download.exportThreshold=1"})
+@WebAppConfiguration
+class AnnotationControllerExportDownloadIT extends AnnotationControllerDownloadIT {
+    @Autowired
+    private SearchServiceConfig.AnnotationCompositeRetrievalConfig annotationRetrievalConfig;
+
+    @SpyBean
+    private ExportRetrieval<Annotation> annotationExportRetrieval;
+
+    @Test
+    void downloadsAreExportedWhenReturnedFieldsCanBeExported() throws Exception {
+        assertThat(annotationRetrievalConfig.getDownloadExportThreshold(), is(1));
+
+        canDownloadInTSVFormat();
+
+        verify(annotationExportRetrieval, atLeastOnce()).exportByQuery(any());
+    }
+}
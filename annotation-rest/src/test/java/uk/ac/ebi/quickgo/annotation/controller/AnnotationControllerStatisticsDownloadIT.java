@@ -23,11 +23,16 @@ import uk.ac.ebi.quickgo.annotation.common.AnnotationRepository;
 import uk.ac.ebi.quickgo.annotation.common.document.AnnotationDocMocker;
 import uk.ac.ebi.quickgo.common.store.TemporarySolrDataStore;
 
+import java.io.ByteArrayInputStream;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.IntStream;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.http.HttpHeaders.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -89,7 +94,7 @@ class AnnotationControllerStatisticsDownloadIT {
         goNames = new String[NUMBER_OF_GENERIC_DOCS];
         IntStream.range(0, goNames.length)
                 .forEach(i -> goNames[i] = toName.apply(i));
-        cacheManager.getCache("names").clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
     }
 
     @Test
@@ -103,6 +108,30 @@ class AnnotationControllerStatisticsDownloadIT {
         checkResponse(EXCEL_MEDIA_TYPE, response);
     }
 
+    @Test
+    void canDownloadInXlsxFormat() throws Exception {
+        setupSuccessfullyReceivingRestNames();
+
+        ResultActions response = mockMvc.perform(get(DOWNLOAD_STATISTICS_SEARCH_URL)
+                .param(TAXON_ID_PARAMETER_NAME, AnnotationDocMocker.TAXON_ID)
+                .header(ACCEPT, XLSX_MEDIA_TYPE));
+
+        checkResponse(XLSX_MEDIA_TYPE, response);
+        checkXlsxWorkbook(response);
+    }
+
+    @Test
+    void downloadIsInXlsxFormatWhenAnyMediaTypeIsAccepted() throws Exception {
+        setupSuccessfullyReceivingRestNames();
+
+        ResultActions response = mockMvc.perform(get(DOWNLOAD_STATISTICS_SEARCH_URL)
+                .param(TAXON_ID_PARAMETER_NAME, AnnotationDocMocker.TAXON_ID)
+                .header(ACCEPT, MediaType.ALL));
+
+        checkResponse(XLSX_MEDIA_TYPE, response);
+        checkXlsxWorkbook(response);
+    }
+
     @Test
     void canDownloadInJsonFormat() throws Exception {
         setupSuccessfullyReceivingRestNames();
@@ -209,6 +238,14 @@ class AnnotationControllerStatisticsDownloadIT {
         setupHelper.expectFailureToGetEcoNameViaRest(ECO_ID, NO_OF_STATISTICS_GROUPS);
     }
 
+    private void checkXlsxWorkbook(ResultActions response) throws Exception {
+        byte[] content = response.andReturn().getResponse().getContentAsByteArray();
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(content))) {
+            assertThat(workbook.getSheetAt(0).getSheetName(), is("summary"));
+            assertThat(workbook.getNumberOfSheets(), is(greaterThan(1)));
+        }
+    }
+
     private void checkResponse(ResultActions response) throws Exception {
         checkResponse(JSON_MEDIA_TYPE, response);
         response.andExpect(numOfResults(NUMBER_OF_GO_ID_RESULTS_FOR_ANNOTATIONS,
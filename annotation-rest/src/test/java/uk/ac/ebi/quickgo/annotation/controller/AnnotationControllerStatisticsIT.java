@@ -170,7 +170,7 @@ class AnnotationControllerStatisticsIT {
     //----------- Names for GO ids, taxon ids and eco codes -----------//
     @Test
     void namesForGoIdsAndTaxonIdsAndEvidenceCodes() throws Exception {
-        cacheManager.getCache("names").clear();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
         final int expectedDistinctValueCount = 1;
         StatsSetupHelper statsSetupHelper = new StatsSetupHelper(mockRestServiceServer);
         statsSetupHelper.expectGoTermHasNameViaRest(GO_ID, GO_TERM_NAME);
@@ -242,6 +242,9 @@ class AnnotationTransformerControllerIT {
         annotationRepository.save(createAnnotationDoc(createGPId(0), goId(0)));
         annotationRepository.save(createAnnotationDoc(createGPId(1), goId(1)));
 
+        // the names of all the terms on the page are requested together, then one at a time when that fails
+        expectRestCallResponse(GET, buildResource(GO_TERM_RESOURCE_FORMAT, goId(0) + "," + goId(1)),
+                withStatus(HttpStatus.NOT_FOUND));
         expectRestCallResponse(GET, buildResource(GO_TERM_RESOURCE_FORMAT, goId(0)), withStatus(HttpStatus.NOT_FOUND));
         expectGoTermsHaveGoNamesViaRest(singletonList(goId(1)), singletonList(goName(1)));
 
@@ -372,14 +375,11 @@ class AnnotationTransformerControllerIT {
         checkArgument(termIds.size() == termNames.size(),
                 "termIds and termNames lists must be the same size");
 
-        for (int i = 0; i < termIds.size(); i++) {
-            String termId = termIds.get(i);
-            String termName = termNames.get(i);
-            expectRestCallSuccess(
-                    GET,
-                    buildResource(GO_TERM_RESOURCE_FORMAT, termId),
-                    constructGoTermsResponseObject(singletonList(termId), singletonList(termName)));
-        }
+        // the names of all the terms on the page are requested together
+        expectRestCallSuccess(
+                GET,
+                buildResource(GO_TERM_RESOURCE_FORMAT, String.join(",", termIds)),
+                constructGoTermsResponseObject(termIds, termNames));
     }
 
     private String constructGoTermsResponseObject(List<String> termIds, List<String> termNames) {
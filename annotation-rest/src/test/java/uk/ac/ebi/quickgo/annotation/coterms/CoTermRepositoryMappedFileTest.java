@@ -0,0 +1,131 @@
+package uk.ac.ebi.quickgo.annotation.coterms;
+
+import uk.ac.ebi.quickgo.annotation.common.CoTermsBinaryFormat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoTermRepositoryMappedFileTest {
+    private static final String GO_1 = "GO:0000001";
+    private static final String GO_2 = "GO:0000002";
+    private static final String GO_3 = "GO:0000003";
+
+    @TempDir
+    Path folder;
+
+    private Resource manual;
+    private Resource all;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        manual = new FileSystemResource(folder.resolve("CoTermsManual.bin").toFile());
+        all = new FileSystemResource(folder.resolve("CoTermsAll.bin").toFile());
+        writeCoTerms(manual, CoTermsBinaryFormat.MAGIC);
+        writeCoTerms(all, CoTermsBinaryFormat.MAGIC);
+    }
+
+    @Test
+    void createFailsIfManualResourceIsNull() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CoTermRepositoryMappedFile.createCoTermRepositoryMappedFile(null, all));
+    }
+
+    @Test
+    void createFailsIfAllResourceIsNonExistent() {
+        Resource missing = new FileSystemResource(folder.resolve("missing").toFile());
+        assertThrows(IllegalStateException.class,
+                () -> CoTermRepositoryMappedFile.createCoTermRepositoryMappedFile(manual, missing));
+    }
+
+    @Test
+    void createFailsIfResourceIsNotBinaryCoTerms() throws IOException {
+        writeCoTerms(all, 0);
+        assertThrows(IllegalStateException.class,
+                () -> CoTermRepositoryMappedFile.createCoTermRepositoryMappedFile(manual, all));
+    }
+
+    @Test
+    void coTermsAreFoundInTheOrderTheyWereWritten() throws IOException {
+        List<CoTerm> coTerms = repository().findCoTerms(GO_1, CoTermSource.MANUAL);
+
+        assertThat(coTerms.size(), is(2));
+        assertThat(coTerms.get(1).getTarget(), is(GO_1));
+        assertThat(coTerms.get(1).getComparedTerm(), is(GO_3));
+        assertThat(coTerms.get(1).getProbabilityRatio(), is(0.75f));
+        assertThat(coTerms.get(1).getSimilarityRatio(), is(50.0f));
+        assertThat(coTerms.get(1).getTogether(), is(1L));
+        assertThat(coTerms.get(1).getCompared(), is(3L));
+    }
+
+    @Test
+    void lastTermsCoTermsAreFound() throws IOException {
+        List<CoTerm> coTerms = repository().findCoTerms(GO_3, CoTermSource.ALL);
+
+        assertThat(coTerms.stream().map(CoTerm::getComparedTerm).collect(Collectors.toList()), contains(GO_3));
+    }
+
+    @Test
+    void termWithoutCoTermsHasNone() throws IOException {
+        assertThat(repository().findCoTerms(GO_2, CoTermSource.ALL), is(empty()));
+    }
+
+    @Test
+    void unknownTermHasNoCoTerms() throws IOException {
+        assertThat(repository().findCoTerms("GO:0000004", CoTermSource.ALL), is(empty()));
+        assertThat(repository().findCoTerms("GO:1", CoTermSource.ALL), is(empty()));
+    }
+
+    @Test
+    void findFailsIfIdIsNull() throws IOException {
+        CoTermRepository repository = repository();
+        assertThrows(IllegalArgumentException.class, () -> repository.findCoTerms(null, CoTermSource.ALL));
+    }
+
+    private CoTermRepository repository() throws IOException {
+        return CoTermRepositoryMappedFile.createCoTermRepositoryMappedFile(manual, all);
+    }
+
+    private static void writeCoTerms(Resource resource, int magic) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(resource.getFile().toPath()))) {
+            output.writeInt(magic);
+            output.writeInt(CoTermsBinaryFormat.VERSION);
+            output.writeInt(3);
+            output.writeLong(3L);
+            for (String term : new String[]{GO_1, GO_2, GO_3}) {
+                output.write(term.getBytes(StandardCharsets.US_ASCII));
+            }
+            for (long offset : new long[]{0, 2, 2, 3}) {
+                output.writeLong(offset);
+            }
+            writeRecord(output, 0, 1.5f, 100.0f, 2, 2);
+            writeRecord(output, 2, 0.75f, 50.0f, 1, 3);
+            writeRecord(output, 2, 1.0f, 100.0f, 3, 3);
+        }
+    }
+
+    private static void writeRecord(DataOutputStream output, int comparedTerm, float probabilityRatio,
+            float similarityRatio, long together, long compared) throws IOException {
+        output.writeInt(comparedTerm);
+        output.writeFloat(probabilityRatio);
+        output.writeFloat(similarityRatio);
+        output.writeLong(together);
+        output.writeLong(compared);
+    }
+}
@@ -0,0 +1,370 @@
+package uk.ac.ebi.quickgo.annotation.download;
+
+import uk.ac.ebi.quickgo.rest.TooManyRequestsException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link DownloadScheduler} class.
+ */
+class DownloadSchedulerTest {
+    private static final String CLIENT = "10.0.0.1";
+    private static final String OTHER_CLIENT = "10.0.0.2";
+
+    private final List<Runnable> executed = new ArrayList<>();
+    private final Executor executor = executed::add;
+    private final Map<String, Runnable> finishers = new HashMap<>();
+    private final List<String> started = new ArrayList<>();
+    private final List<Throwable> failures = new ArrayList<>();
+    private DownloadSchedulerProperties properties;
+    private long nanos;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DownloadSchedulerProperties();
+        properties.setMaxConcurrentDownloads(1);
+        properties.setMaxDownloadsPerClient(2);
+        properties.setMaxQueuedDownloads(2);
+        properties.setMaxScheduledCost(1000);
+        properties.setCostPerSecond(10);
+        properties.setMinRetryAfterSeconds(1);
+        properties.setMaxRetryAfterSeconds(60);
+    }
+
+    @Test
+    void nullExecutorCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new DownloadScheduler(null, properties));
+    }
+
+    @Test
+    void nullPropertiesCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new DownloadScheduler(executor, null));
+    }
+
+    @Test
+    void noConcurrentDownloadsCausesException() {
+        properties.setMaxConcurrentDownloads(0);
+
+        assertThrows(IllegalArgumentException.class, () -> new DownloadScheduler(executor, properties));
+    }
+
+    @Test
+    void maxRetryAfterLessThanMinCausesException() {
+        properties.setMaxRetryAfterSeconds(0);
+
+        assertThrows(IllegalArgumentException.class, () -> new DownloadScheduler(executor, properties));
+    }
+
+    @Test
+    void negativeCostCausesException() {
+        DownloadScheduler scheduler = scheduler();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduler.submit(CLIENT, -1, download("a"), failures::add));
+    }
+
+    @Test
+    void nullFailureCallbackCausesException() {
+        DownloadScheduler scheduler = scheduler();
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.submit(CLIENT, 10, download("a"), null));
+    }
+
+    @Test
+    void downloadIsRunWhenThereIsCapacity() {
+        DownloadScheduler scheduler = scheduler();
+
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        runExecuted();
+
+        assertThat(started, contains("a"));
+        assertThat(scheduler.getRunning(), is(1));
+        assertThat(scheduler.getScheduledCost(), is(10L));
+    }
+
+    @Test
+    void downloadIsQueuedWhileOthersRun() {
+        DownloadScheduler scheduler = scheduler();
+
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        scheduler.submit(OTHER_CLIENT, 10, download("b"), failures::add);
+        runExecuted();
+
+        assertThat(started, contains("a"));
+        assertThat(scheduler.getRunning(), is(1));
+        assertThat(scheduler.getQueued(), is(1));
+    }
+
+    @Test
+    void queuedDownloadRunsWhenRunningDownloadFinishes() {
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        scheduler.submit(OTHER_CLIENT, 10, download("b"), failures::add);
+        runExecuted();
+
+        finishers.get("a").run();
+        runExecuted();
+
+        assertThat(started, contains("a", "b"));
+        assertThat(scheduler.getCompleted(), is(1L));
+        assertThat(scheduler.getScheduledCost(), is(10L));
+    }
+
+    @Test
+    void finishingTwiceIsCountedOnce() {
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        runExecuted();
+
+        finishers.get("a").run();
+        finishers.get("a").run();
+
+        assertThat(scheduler.getCompleted(), is(1L));
+        assertThat(scheduler.getRunning(), is(0));
+        assertThat(scheduler.getScheduledCost(), is(0L));
+    }
+
+    @Test
+    void cheaperDownloadOvertakesQueuedDearerOne() {
+        properties.setMaxQueuedDownloads(3);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("running"), failures::add);
+        scheduler.submit(CLIENT, 500, download("dear"), failures::add);
+        nanos += 1_000_000_000L;
+        scheduler.submit(OTHER_CLIENT, 10, download("cheap"), failures::add);
+        runExecuted();
+
+        finishers.get("running").run();
+        runExecuted();
+
+        assertThat(started, contains("running", "cheap"));
+    }
+
+    @Test
+    void dearerDownloadQueuedLongEnoughIsNotOvertaken() {
+        properties.setMaxQueuedDownloads(3);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("running"), failures::add);
+        scheduler.submit(CLIENT, 500, download("dear"), failures::add);
+        nanos += 60_000_000_000L;
+        scheduler.submit(OTHER_CLIENT, 10, download("cheap"), failures::add);
+        runExecuted();
+
+        finishers.get("running").run();
+        runExecuted();
+
+        assertThat(started, contains("running", "dear"));
+    }
+
+    @Test
+    void clientWithTooManyDownloadsIsRefused() {
+        properties.setMaxConcurrentDownloads(5);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        scheduler.submit(CLIENT, 10, download("b"), failures::add);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> scheduler.submit(CLIENT, 10, download("c"), failures::add));
+
+        assertThat(exception.getMessage(), containsString("client"));
+        assertThat(scheduler.getRefused(), is(1L));
+    }
+
+    @Test
+    void otherClientIsNotRefusedForAClientsDownloads() {
+        properties.setMaxConcurrentDownloads(5);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        scheduler.submit(CLIENT, 10, download("b"), failures::add);
+
+        scheduler.submit(OTHER_CLIENT, 10, download("c"), failures::add);
+
+        assertThat(scheduler.getRunning(), is(3));
+    }
+
+    @Test
+    void clientIsAdmittedAgainOnceItsDownloadsFinish() {
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        scheduler.submit(CLIENT, 10, download("b"), failures::add);
+        runExecuted();
+        finishers.get("a").run();
+
+        scheduler.submit(CLIENT, 10, download("c"), failures::add);
+
+        assertThat(scheduler.getRefused(), is(0L));
+    }
+
+    @Test
+    void downloadIsRefusedWhenTheQueueIsFull() {
+        properties.setMaxDownloadsPerClient(10);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        scheduler.submit(CLIENT, 10, download("b"), failures::add);
+        scheduler.submit(CLIENT, 10, download("c"), failures::add);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> scheduler.submit(OTHER_CLIENT, 10, download("d"), failures::add));
+
+        assertThat(exception.getMessage(), containsString("queued"));
+    }
+
+    @Test
+    void downloadTakingScheduledCostOverTheMaximumIsRefused() {
+        properties.setMaxConcurrentDownloads(5);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 600, download("a"), failures::add);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> scheduler.submit(OTHER_CLIENT, 500, download("b"), failures::add));
+
+        assertThat(exception.getMessage(), containsString("500"));
+    }
+
+    @Test
+    void downloadCostingMoreThanTheMaximumIsRunWhenNothingElseIsScheduled() {
+        DownloadScheduler scheduler = scheduler();
+
+        scheduler.submit(CLIENT, 5000, download("a"), failures::add);
+        runExecuted();
+
+        assertThat(started, contains("a"));
+    }
+
+    @Test
+    void retryAfterEstimatesWhenTheScheduledCostWillBeWritten() {
+        properties.setMaxConcurrentDownloads(2);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 400, download("a"), failures::add);
+        scheduler.submit(OTHER_CLIENT, 400, download("b"), failures::add);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> scheduler.submit("c", 400, download("c"), failures::add));
+
+        // 800 at 10 per second, over 2 downloads at once
+        assertThat(exception.getRetryAfterSeconds(), is(40L));
+    }
+
+    @Test
+    void retryAfterIsAtMostTheMaximum() {
+        properties.setMaxRetryAfterSeconds(30);
+        properties.setMaxConcurrentDownloads(2);
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 900, download("a"), failures::add);
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> scheduler.submit("c", 400, download("c"), failures::add));
+
+        assertThat(exception.getRetryAfterSeconds(), is(30L));
+    }
+
+    @Test
+    void downloadThatThrowsIsFinished() {
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, finished -> {
+            throw new IllegalStateException("failed");
+        }, failures::add);
+
+        assertThrows(IllegalStateException.class, this::runExecuted);
+
+        assertThat(scheduler.getRunning(), is(0));
+        assertThat(scheduler.getCompleted(), is(1L));
+    }
+
+    @Test
+    void downloadThatThrowsIsFailedWithTheException() {
+        IllegalStateException exception = new IllegalStateException("failed");
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, finished -> {
+            throw exception;
+        }, failures::add);
+
+        assertThrows(IllegalStateException.class, this::runExecuted);
+
+        assertThat(failures, contains(exception));
+    }
+
+    @Test
+    void downloadThatFinishesIsNotFailed() {
+        DownloadScheduler scheduler = scheduler();
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+        runExecuted();
+
+        finishers.get("a").run();
+
+        assertThat(failures, is(empty()));
+    }
+
+    @Test
+    void downloadRefusedByTheExecutorIsFinished() {
+        DownloadScheduler scheduler = refusingScheduler();
+
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+
+        assertThat(started, is(empty()));
+        assertThat(scheduler.getRunning(), is(0));
+        assertThat(scheduler.getScheduledCost(), is(0L));
+    }
+
+    @Test
+    void downloadRefusedByTheExecutorIsFailedWithTheRejection() {
+        DownloadScheduler scheduler = refusingScheduler();
+
+        scheduler.submit(CLIENT, 10, download("a"), failures::add);
+
+        assertThat(failures, hasSize(1));
+        assertThat(failures.get(0), is(instanceOf(RejectedExecutionException.class)));
+    }
+
+    @Test
+    void downloadRefusedByTheExecutorIsFinishedWhenFailingItThrows() {
+        DownloadScheduler scheduler = refusingScheduler();
+
+        scheduler.submit(CLIENT, 10, download("a"), cause -> {
+            throw new IllegalStateException("already completed");
+        });
+
+        assertThat(scheduler.getRunning(), is(0));
+        assertThat(scheduler.getCompleted(), is(1L));
+    }
+
+    private DownloadScheduler scheduler() {
+        return new DownloadScheduler(executor, properties, () -> nanos);
+    }
+
+    private DownloadScheduler refusingScheduler() {
+        return new DownloadScheduler(command -> {
+            throw new RejectedExecutionException("full");
+        }, properties, () -> nanos);
+    }
+
+    private Consumer<Runnable> download(String name) {
+        return finished -> {
+            started.add(name);
+            finishers.put(name, finished);
+        };
+    }
+
+    private void runExecuted() {
+        List<Runnable> toRun = new ArrayList<>(executed);
+        executed.clear();
+        toRun.forEach(Runnable::run);
+    }
+}
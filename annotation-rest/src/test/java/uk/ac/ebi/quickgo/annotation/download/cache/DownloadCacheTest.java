@@ -0,0 +1,192 @@
+package uk.ac.ebi.quickgo.annotation.download.cache;
+
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.StreamUtils;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link DownloadCache} class.
+ */
+class DownloadCacheTest {
+    private static final String ANNOTATIONS = "1\n2\n";
+
+    @TempDir
+    Path directory;
+
+    private DownloadCacheProperties properties;
+    private DownloadCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new DownloadCacheProperties();
+        properties.setDirectory(directory.toString());
+        properties.setMaxBytes(1024 * 1024);
+        cache = cache();
+    }
+
+    @Test
+    void nullPropertiesCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new DownloadCache(null, ContentEncoding.DEFAULT_LEVEL));
+    }
+
+    @Test
+    void negativeMaxBytesCausesException() {
+        properties.setMaxBytes(-1);
+
+        assertThrows(IllegalArgumentException.class, this::cache);
+    }
+
+    @Test
+    void cacheOfNoBytesCachesNothing() throws IOException {
+        properties.setMaxBytes(0);
+        cache = cache();
+
+        assertThat(cache.isEnabled(), is(false));
+        assertThat(cache.create("key").isPresent(), is(false));
+        assertThat(cache.find("key").isPresent(), is(false));
+    }
+
+    @Test
+    void committedDownloadIsFoundGzipped() throws IOException {
+        write("key", ANNOTATIONS).commit();
+
+        assertThat(gunzip(cache.find("key").get()), is(ANNOTATIONS));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getEntries(), is(1));
+        assertThat(cache.getBytes(), is(Files.size(directory.resolve("key" + DownloadCache.CACHE_SUFFIX))));
+    }
+
+    @Test
+    void foundDownloadCanBeReadAfterItIsEvicted() throws IOException {
+        write("first", ANNOTATIONS).commit();
+        properties.setMaxBytes(cache.getBytes());
+        cache = cache();
+        write("first", ANNOTATIONS).commit();
+
+        try (InputStream found = cache.find("first").get()) {
+            write("second", ANNOTATIONS).commit();
+
+            assertThat(cache.getEvictions(), is(1L));
+            assertThat(gunzip(found), is(ANNOTATIONS));
+        }
+    }
+
+    @Test
+    void downloadIsWrittenThroughTheEntry() throws IOException {
+        ByteArrayOutputStream download = new ByteArrayOutputStream();
+        DownloadCache.Entry entry = cache.create("key").get();
+
+        try (OutputStream out = entry.tee(download)) {
+            out.write(ANNOTATIONS.getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(download.toString(StandardCharsets.UTF_8.name()), is(ANNOTATIONS));
+    }
+
+    @Test
+    void uncommittedDownloadIsNotFound() throws IOException {
+        write("key", ANNOTATIONS);
+
+        assertThat(cache.find("key").isPresent(), is(false));
+        assertThat(cache.getMisses(), is(1L));
+    }
+
+    @Test
+    void abandonedDownloadIsNotFoundAndItsPartFileIsDeleted() throws IOException {
+        write("key", ANNOTATIONS).abandon();
+
+        assertThat(cache.find("key").isPresent(), is(false));
+        assertThat(partFiles(), is(0L));
+    }
+
+    @Test
+    void downloadLargerThanTheCacheIsNotCached() throws IOException {
+        properties.setMaxBytes(10);
+        cache = cache();
+
+        write("key", ANNOTATIONS).commit();
+
+        assertThat(cache.find("key").isPresent(), is(false));
+        assertThat(partFiles(), is(0L));
+    }
+
+    @Test
+    void leastRecentlyUsedDownloadIsEvictedToMakeRoom() throws IOException {
+        write("first", ANNOTATIONS).commit();
+        long size = cache.getBytes();
+        properties.setMaxBytes(2 * size);
+        cache = cache();
+        write("first", ANNOTATIONS).commit();
+        write("second", ANNOTATIONS).commit();
+        cache.find("first").get().close();
+
+        write("third", ANNOTATIONS).commit();
+
+        assertThat(cache.find("second").isPresent(), is(false));
+        assertThat(cache.find("first").isPresent(), is(true));
+        assertThat(cache.find("third").isPresent(), is(true));
+        assertThat(cache.getEvictions(), is(1L));
+        assertThat(cache.getBytes(), is(2 * size));
+    }
+
+    @Test
+    void downloadWhoseFileIsMissingIsNotFound() throws IOException {
+        write("key", ANNOTATIONS).commit();
+        Files.delete(directory.resolve("key" + DownloadCache.CACHE_SUFFIX));
+
+        assertThat(cache.find("key").isPresent(), is(false));
+        assertThat(cache.getEntries(), is(0));
+        assertThat(cache.getBytes(), is(0L));
+    }
+
+    @Test
+    void cacheFilesOfAPreviousRunAreRemoved() throws IOException {
+        Path cacheFile = Files.createFile(directory.resolve("old.gz"));
+        Path partFile = Files.createFile(directory.resolve("old.part"));
+        Path otherFile = Files.createFile(directory.resolve("other.txt"));
+
+        cache();
+
+        assertThat(Files.exists(cacheFile), is(false));
+        assertThat(Files.exists(partFile), is(false));
+        assertThat(Files.exists(otherFile), is(true));
+    }
+
+    private DownloadCache cache() throws IOException {
+        return new DownloadCache(properties, ContentEncoding.DEFAULT_LEVEL);
+    }
+
+    private DownloadCache.Entry write(String key, String annotations) throws IOException {
+        DownloadCache.Entry entry = cache.create(key).get();
+        entry.tee(new ByteArrayOutputStream()).write(annotations.getBytes(StandardCharsets.UTF_8));
+        return entry;
+    }
+
+    private long partFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(DownloadCache.PART_SUFFIX)).count();
+        }
+    }
+
+    private static String gunzip(InputStream file) throws IOException {
+        try (InputStream in = new GZIPInputStream(file)) {
+            return new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+}
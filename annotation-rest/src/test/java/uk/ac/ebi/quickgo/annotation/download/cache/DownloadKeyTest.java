@@ -0,0 +1,115 @@
+package uk.ac.ebi.quickgo.annotation.download.cache;
+
+import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link DownloadKey} class.
+ */
+class DownloadKeyTest {
+    private static final String FORMAT = "gaf";
+    private static final String INDEX_VERSION = "MetaData{properties={timestamp=2020-01-01}}";
+    private static final String ONTOLOGY_VERSION = "http://purl.obolibrary.org/obo/go/releases/2020-01-01/go.owl";
+    private static final FilterRequest TAXON = FilterRequest.newBuilder().addProperty("taxonId", "9606").build();
+    private static final FilterRequest ASPECT =
+            FilterRequest.newBuilder().addProperty("aspect", "molecular_function").build();
+
+    @Test
+    void nullFormatCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DownloadKey.Builder().setIndexVersion(INDEX_VERSION).setOntologyVersion(ONTOLOGY_VERSION)
+                        .build());
+    }
+
+    @Test
+    void nullIndexVersionCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DownloadKey.Builder().setFormat(FORMAT).setOntologyVersion(ONTOLOGY_VERSION).build());
+    }
+
+    @Test
+    void nullOntologyVersionCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DownloadKey.Builder().setFormat(FORMAT).setIndexVersion(INDEX_VERSION).build());
+    }
+
+    @Test
+    void nullFiltersCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new DownloadKey.Builder().setFilters(null));
+    }
+
+    @Test
+    void keyIsTheSameWhateverTheOrderOfTheFilters() {
+        assertThat(key(asList(TAXON, ASPECT)).value(), is(key(asList(ASPECT, TAXON)).value()));
+    }
+
+    @Test
+    void keyIsTheSameWhateverTheOrderOfAFiltersValues() {
+        FilterRequest taxa = FilterRequest.newBuilder().addProperty("taxonId", "9606", "10090").build();
+        FilterRequest reorderedTaxa = FilterRequest.newBuilder().addProperty("taxonId", "10090", "9606").build();
+
+        assertThat(key(singletonList(taxa)).value(), is(key(singletonList(reorderedTaxa)).value()));
+    }
+
+    @Test
+    void keyIsTheSameWhateverTheOrderOrCaseOfTheIncludedFields() {
+        DownloadKey key = builder(singletonList(TAXON)).setIncludeFields(new String[]{"goName", "taxonName"}).build();
+        DownloadKey reordered =
+                builder(singletonList(TAXON)).setIncludeFields(new String[]{"taxonname", "goName"}).build();
+
+        assertThat(key.value(), is(reordered.value()));
+    }
+
+    @Test
+    void keyDiffersByFilters() {
+        assertThat(key(singletonList(TAXON)).value(), is(not(key(singletonList(ASPECT)).value())));
+    }
+
+    @Test
+    void keyDiffersByTheOrderOfTheSelectedFields() {
+        DownloadKey key = builder(singletonList(TAXON)).setSelectedFields(asList("goId", "taxonId")).build();
+        DownloadKey reordered = builder(singletonList(TAXON)).setSelectedFields(asList("taxonId", "goId")).build();
+
+        assertThat(key.value(), is(not(reordered.value())));
+    }
+
+    @Test
+    void keyDiffersByFormatLimitAndIndexAndOntologyVersions() {
+        String key = key(singletonList(TAXON)).value();
+
+        assertThat(builder(singletonList(TAXON)).setFormat("gpad").build().value(), is(not(key)));
+        assertThat(builder(singletonList(TAXON)).setDownloadLimit(10).build().value(), is(not(key)));
+        assertThat(builder(singletonList(TAXON)).setIndexVersion("MetaData{properties={timestamp=2020-01-02}}")
+                .build().value(), is(not(key)));
+        assertThat(builder(singletonList(TAXON))
+                .setOntologyVersion("http://purl.obolibrary.org/obo/go/releases/2020-01-02/go.owl")
+                .build().value(), is(not(key)));
+    }
+
+    @Test
+    void keyCanNameAFile() {
+        assertThat(key(singletonList(TAXON)).value().matches("[0-9a-f]{64}"), is(true));
+    }
+
+    private static DownloadKey key(List<FilterRequest> filters) {
+        return builder(filters).build();
+    }
+
+    private static DownloadKey.Builder builder(List<FilterRequest> filters) {
+        return new DownloadKey.Builder()
+                .setFormat(FORMAT)
+                .setFilters(filters)
+                .setDownloadLimit(50)
+                .setIndexVersion(INDEX_VERSION)
+                .setOntologyVersion(ONTOLOGY_VERSION);
+    }
+}
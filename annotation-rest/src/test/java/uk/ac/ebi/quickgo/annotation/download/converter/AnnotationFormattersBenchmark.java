@@ -0,0 +1,200 @@
+package uk.ac.ebi.quickgo.annotation.download.converter;
+
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+import uk.ac.ebi.quickgo.annotation.model.GeneProduct;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static uk.ac.ebi.quickgo.annotation.download.TSVDownload.*;
+
+/**
+ * Compares the time and allocation taken to format a page of annotations, by returning a String per row using
+ * {@link BiFunction#apply}, with appending the rows to a reused {@link StringBuilder} using
+ * {@link AnnotationRowFormatter#appendRows}.
+ *
+ * The page contains a realistic mix of annotations: UniProtKB proteins with and without isoforms, RNAcentral and
+ * ComplexPortal entries, with varying numbers of with/from values and extensions, negated qualifiers, and a share
+ * of slimmed annotations, each mapping to several GO terms.
+ *
+ * Run from an IDE via {@link #main}, or after test-compile with:
+ * <pre>
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; org.openjdk.jmh.Main AnnotationFormattersBenchmark
+ *      -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AnnotationFormattersBenchmark {
+    private static final int PAGE_SIZE = 1000;
+    private static final String[] ASPECTS = {"molecular_function", "biological_process", "cellular_component"};
+    private static final String[] QUALIFIERS = {"enables", "involved_in", "part_of", "not|enables", "colocalizes_with"};
+    private static final String[] EVIDENCE = {"IEA", "IDA", "IPI", "ISS", "TAS"};
+    private static final String[] ASSIGNED_BY = {"UniProt", "InterPro", "MGI", "Ensembl", "GO_Central"};
+    private static final List<String> ALL_TSV_FIELDS = Arrays.asList(GENE_PRODUCT_FIELD_NAME, SYMBOL_FIELD_NAME,
+            QUALIFIER_FIELD_NAME, GO_TERM_FIELD_NAME, GO_ASPECT_FIELD_NAME, GO_NAME_FIELD_NAME, ECO_ID_FIELD_NAME,
+            GO_EVIDENCE_CODE_FIELD_NAME, REFERENCE_FIELD_NAME, WITH_FROM_FIELD_NAME, TAXON_ID_FIELD_NAME,
+            TAXON_NAME_FIELD_NAME, ASSIGNED_BY_FIELD_NAME, ANNOTATION_EXTENSION_FIELD_NAME, DATE_FIELD_NAME,
+            GENE_PRODUCT_NAME_FIELD_NAME, GENE_PRODUCT_SYNONYMS_FIELD_NAME, GENE_PRODUCT_TYPE_FIELD_NAME);
+
+    public enum Format {
+        GAF(new AnnotationToGAF(), null),
+        GPAD(new AnnotationToGPAD(), null),
+        TSV_DEFAULT(new AnnotationToTSV(), Collections.emptyList()),
+        TSV_ALL(new AnnotationToTSV(), ALL_TSV_FIELDS);
+
+        private final BiFunction<Annotation, List<String>, List<String>> converter;
+        private final List<String> selectedFields;
+
+        <T extends BiFunction<Annotation, List<String>, List<String>> & AnnotationRowFormatter> Format(T converter,
+                List<String> selectedFields) {
+            this.converter = converter;
+            this.selectedFields = selectedFields;
+        }
+    }
+
+    @Param
+    public Format format;
+
+    private List<Annotation> page;
+    private StringBuilder rows;
+
+    @Setup
+    public void setUp() {
+        page = createPage(new Random(42));
+        rows = new StringBuilder(64 * 1024);
+    }
+
+    @Benchmark
+    public void convertToStrings(Blackhole blackhole) {
+        for (Annotation annotation : page) {
+            for (String row : format.converter.apply(annotation, format.selectedFields)) {
+                blackhole.consume(row);
+            }
+        }
+    }
+
+    @Benchmark
+    public void appendToBuilder(Blackhole blackhole) {
+        AnnotationRowFormatter formatter = (AnnotationRowFormatter) format.converter;
+        rows.setLength(0);
+        int count = 0;
+        for (Annotation annotation : page) {
+            count += formatter.appendRows(annotation, format.selectedFields, rows);
+        }
+        blackhole.consume(count);
+        blackhole.consume(rows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AnnotationFormattersBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+
+    private static List<Annotation> createPage(Random random) {
+        List<Annotation> annotations = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            annotations.add(createAnnotation(i, random));
+        }
+        return annotations;
+    }
+
+    private static Annotation createAnnotation(int index, Random random) {
+        Annotation annotation = new Annotation();
+        String geneProductId = geneProductId(index, random);
+        annotation.id = geneProductId + "!" + index;
+        annotation.geneProductId = geneProductId;
+        annotation.setGeneProduct(GeneProduct.fromCurieId(geneProductId));
+        annotation.symbol = "GENE" + index;
+        annotation.qualifier = pick(QUALIFIERS, random);
+        annotation.goId = goId(random);
+        annotation.goName = "GO term name " + index;
+        annotation.goAspect = pick(ASPECTS, random);
+        annotation.evidenceCode = String.format("ECO:%07d", 256 + random.nextInt(10));
+        annotation.goEvidence = pick(EVIDENCE, random);
+        annotation.reference = random.nextBoolean() ? "PMID:" + (10_000_000 + random.nextInt(20_000_000))
+                : String.format("GO_REF:%07d", 1 + random.nextInt(50));
+        annotation.withFrom = withFrom(random);
+        annotation.extensions = extensions(random);
+        annotation.taxonId = random.nextBoolean() ? 9606 : 10090;
+        annotation.taxonName = annotation.taxonId == 9606 ? "Homo sapiens" : "Mus musculus";
+        annotation.interactingTaxonId = random.nextInt(10) == 0 ? 562 : 0;
+        annotation.assignedBy = pick(ASSIGNED_BY, random);
+        annotation.date = Date.from(LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3000))
+                .atStartOfDay(ZoneId.systemDefault()).toInstant());
+        annotation.name = "Protein name " + index;
+        annotation.synonyms = "SYN" + index + "|ALT" + index;
+        if (random.nextInt(4) == 0) {
+            annotation.slimmedIds = Arrays.asList(goId(random), goId(random), goId(random));
+        }
+        return annotation;
+    }
+
+    private static String geneProductId(int index, Random random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                return String.format("RNAcentral:URS%010X_9606", index);
+            case 1:
+                return String.format("ComplexPortal:CPX-%d", 1000 + index);
+            case 2:
+                return String.format("UniProtKB:P%05d-%d", index, 1 + random.nextInt(3));
+            default:
+                return String.format("UniProtKB:Q%05d", index);
+        }
+    }
+
+    private static List<Annotation.ConnectedXRefs<Annotation.SimpleXRef>> withFrom(Random random) {
+        List<Annotation.ConnectedXRefs<Annotation.SimpleXRef>> withFrom = new ArrayList<>();
+        int groups = random.nextInt(4);
+        for (int i = 0; i < groups; i++) {
+            Annotation.ConnectedXRefs<Annotation.SimpleXRef> xrefs = new Annotation.ConnectedXRefs<>();
+            int items = 1 + random.nextInt(3);
+            for (int j = 0; j < items; j++) {
+                xrefs.addXref(new Annotation.SimpleXRef("InterPro", String.format("IPR%06d", random.nextInt(50000))));
+            }
+            withFrom.add(xrefs);
+        }
+        return withFrom;
+    }
+
+    private static List<Annotation.ConnectedXRefs<Annotation.RelationXref>> extensions(Random random) {
+        if (random.nextInt(3) != 0) {
+            return null;
+        }
+        List<Annotation.ConnectedXRefs<Annotation.RelationXref>> extensions = new ArrayList<>();
+        Annotation.ConnectedXRefs<Annotation.RelationXref> xrefs = new Annotation.ConnectedXRefs<>();
+        xrefs.addXref(new Annotation.RelationXref("CL", String.format("%07d", random.nextInt(1000)), "occurs_in"));
+        xrefs.addXref(new Annotation.RelationXref("UBERON", String.format("%07d", random.nextInt(1000)), "part_of"));
+        extensions.add(xrefs);
+        return extensions;
+    }
+
+    private static String goId(Random random) {
+        return String.format("GO:%07d", random.nextInt(100000));
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -396,6 +396,11 @@ class AnnotationToGAFTest {
         assertThat(elements[COL_QUALIFIER], is("NOT|part_of"));
     }
 
+    @Test
+    void appendedRowsMatchConvertedRows() {
+        AppendedRows.assertAppendedRowsMatchConvertedRows(annotationToGAF, null);
+    }
+
     private void checkReturned(String slimmedToGoId, String converted) {
         String[] elements = converted.split(OUTPUT_DELIMITER, -1);
         assertThat(elements[COL_GO_ID], is(slimmedToGoId));
@@ -255,6 +255,11 @@ class AnnotationToGPADTest {
         assertThat(elements[COL_GO_ID], is(slimmedToGoId));
     }
 
+    @Test
+    void appendedRowsMatchConvertedRows() {
+        AppendedRows.assertAppendedRowsMatchConvertedRows(annotationToGPAD, null);
+    }
+
     private String[] annotationToDownloadColumns(Annotation annotation) {
         return annotationToGPAD.apply(annotation, null)
                 .get(0)
@@ -287,6 +287,20 @@ class AnnotationToTSVTest {
         assertThat(converted.get(0), equalTo(QUALIFIER));
     }
 
+    @Test
+    void appendedRowsMatchConvertedRowsForDefaultColumns() {
+        AppendedRows.assertAppendedRowsMatchConvertedRows(annotationToTSV, Collections.emptyList());
+    }
+
+    @Test
+    void appendedRowsMatchConvertedRowsForAllColumns() {
+        List<String> allFields = new ArrayList<>();
+        allFields.add(GENE_PRODUCT_FIELD_NAME);
+        unSlimmedFieldNames2Data.forEach(fieldAndData -> allFields.add(fieldAndData[0]));
+
+        AppendedRows.assertAppendedRowsMatchConvertedRows(annotationToTSV, allFields);
+    }
+
     private String[] annotationToElements(Annotation annotation) {
         List<String> selectedFields = Collections.emptyList();
         return annotationToElements(annotation, selectedFields);
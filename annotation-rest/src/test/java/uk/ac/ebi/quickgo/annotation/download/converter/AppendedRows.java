@@ -0,0 +1,75 @@
+package uk.ac.ebi.quickgo.annotation.download.converter;
+
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+import uk.ac.ebi.quickgo.annotation.model.AnnotationMocker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Checks that the rows a converter returns are those its {@link AnnotationRowFormatter} appends, split at their
+ * terminators, over a range of annotations, including those with slimmed ids and missing values.
+ */
+class AppendedRows {
+    private AppendedRows() {}
+
+    static <T extends BiFunction<Annotation, List<String>, List<String>> & AnnotationRowFormatter>
+    void assertAppendedRowsMatchConvertedRows(T converter, List<String> selectedFields) {
+        StringBuilder appended = new StringBuilder();
+        for (Annotation annotation : annotationVariants()) {
+            appended.setLength(0);
+            StringBuilder converted = new StringBuilder();
+            List<String> rows = converter.apply(annotation, selectedFields);
+            rows.forEach(row -> converted.append(row).append(AnnotationRowFormatter.ROW_TERMINATOR));
+
+            int count = converter.appendRows(annotation, selectedFields, appended);
+
+            assertThat(appended.toString(), is(converted.toString()));
+            assertThat(count, is(rows.size()));
+        }
+    }
+
+    private static List<Annotation> annotationVariants() {
+        List<Annotation> annotations = new ArrayList<>();
+        annotations.add(AnnotationMocker.createValidComplexPortalAnnotation());
+        annotations.add(AnnotationMocker.createValidComplexPortalAnnotationWithInteractingTaxon());
+        annotations.add(AnnotationMocker.createValidUniProtAnnotationWithIsoForm());
+        annotations.add(AnnotationMocker.createValidUniProtAnnotationWithoutIsoForm());
+        annotations.add(AnnotationMocker.createValidRNACentralAnnotation());
+
+        Annotation slimmed = AnnotationMocker.createValidUniProtAnnotationWithIsoForm();
+        slimmed.slimmedIds = Arrays.asList("GO:0000001", "GO:0000002", "GO:0000003");
+        annotations.add(slimmed);
+
+        Annotation negated = AnnotationMocker.createValidComplexPortalAnnotation();
+        negated.qualifier = "not|part_of";
+        annotations.add(negated);
+
+        Annotation blankEvidence = AnnotationMocker.createValidComplexPortalAnnotation();
+        blankEvidence.goEvidence = " ";
+        annotations.add(blankEvidence);
+
+        Annotation sparse = AnnotationMocker.createValidRNACentralAnnotation();
+        sparse.symbol = null;
+        sparse.qualifier = null;
+        sparse.goId = null;
+        sparse.goAspect = null;
+        sparse.reference = null;
+        sparse.withFrom = Collections.emptyList();
+        sparse.extensions = null;
+        sparse.date = null;
+        sparse.assignedBy = null;
+        sparse.name = null;
+        sparse.synonyms = null;
+        sparse.taxonId = 0;
+        sparse.slimmedIds = Collections.emptyList();
+        annotations.add(sparse);
+        return annotations;
+    }
+}
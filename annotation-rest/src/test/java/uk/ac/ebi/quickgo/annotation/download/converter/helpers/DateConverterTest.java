@@ -2,6 +2,8 @@ package uk.ac.ebi.quickgo.annotation.download.converter.helpers;
 
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -30,4 +32,28 @@ class DateConverterTest {
 
     }
 
+    @Test
+    void appendedDatesMatchFormattedDates() {
+        StringBuilder builder = new StringBuilder();
+        for (LocalDate day = LocalDate.of(1999, 12, 25); day.getYear() < 2002; day = day.plusDays(1)) {
+            for (int hour = 0; hour < 24; hour += 5) {
+                Date date = Date.from(day.atTime(hour, 30).atZone(ZoneId.systemDefault()).toInstant());
+                builder.setLength(0);
+
+                DateConverter.appendIso8601(date, builder);
+
+                assertThat(builder.toString(), is(ISO_8601_FORMATTER.apply(date)));
+            }
+        }
+    }
+
+    @Test
+    void nullDateAppendsNothing() {
+        StringBuilder builder = new StringBuilder();
+
+        DateConverter.appendIso8601(null, builder);
+
+        assertThat(builder.length(), is(0));
+    }
+
 }
\ No newline at end of file
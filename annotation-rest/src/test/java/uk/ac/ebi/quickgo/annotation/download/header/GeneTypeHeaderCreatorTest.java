@@ -7,6 +7,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -60,6 +61,19 @@ class GeneTypeHeaderCreatorTest {
                 .TEXT_PLAIN);
     }
 
+    @Test
+    void changedOntologyVersionsAreWrittenByLaterDownloads() throws Exception {
+        String newVersion = "test-version_3";
+        gTypeHeaderCreator.write(mockEmitter, mockContent);
+        when(mockOntology.versions()).thenReturn(Collections.singletonList(newVersion));
+
+        gTypeHeaderCreator.write(mockEmitter, mockContent);
+
+        verify(mockEmitter).send(GeneTypeHeaderCreator.PREFIX + newVersion + "\n", MediaType.TEXT_PLAIN);
+        verify(mockEmitter, times(2)).send(GeneTypeHeaderCreator.PREFIX + TestGTypeHeaderCreator.VERSION + "\n",
+                MediaType.TEXT_PLAIN);
+    }
+
     @Test
     void exceptionThrownIfOntologyIsNull() {
         assertThrows(IllegalArgumentException.class, () -> new TestGTypeHeaderCreator(null));
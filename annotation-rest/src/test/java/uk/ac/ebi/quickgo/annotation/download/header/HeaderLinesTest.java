@@ -0,0 +1,48 @@
+package uk.ac.ebi.quickgo.annotation.download.header;
+
+import uk.ac.ebi.quickgo.annotation.download.TSVDownload;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link HeaderLines} class.
+ */
+class HeaderLinesTest {
+    private final HeaderLines headerLines = new HeaderLines();
+
+    @Test
+    void nothingSentIsEmpty() {
+        assertThat(headerLines.toString(), is(""));
+    }
+
+    @Test
+    void linesSentAreCollectedInOrder() throws IOException {
+        headerLines.send("!gaf-version: 2.2\n", MediaType.TEXT_PLAIN);
+        headerLines.send("!Project_name: EBI GO Annotation program (GOA)\n");
+
+        assertThat(headerLines.toString(), is("!gaf-version: 2.2\n!Project_name: EBI GO Annotation program (GOA)\n"));
+    }
+
+    @Test
+    void nonTextContentCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> headerLines.send(1, MediaType.TEXT_PLAIN));
+    }
+
+    @Test
+    void headerCreatorWritesItsHeaderToTheLines() {
+        new TSVHeaderCreator().write(headerLines, new HeaderContent.Builder()
+                .setUri("/QuickGO/services/annotation/downloadSearch")
+                .setSelectedFields(singletonList(TSVDownload.GENE_PRODUCT_FIELD_NAME))
+                .build());
+
+        assertThat(headerLines.toString(), is(TSVHeaderCreator.GENE_PRODUCT_DB + "\t" +
+                TSVHeaderCreator.GENE_PRODUCT_ID + "\n"));
+    }
+}
@@ -0,0 +1,142 @@
+package uk.ac.ebi.quickgo.annotation.download.header;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link OntologyHeaderInfo} class.
+ */
+class OntologyHeaderInfoTest {
+    private static final String GO_VERSION = "http://purl.obolibrary.org/obo/go/releases/2017-01-12/go.owl";
+    private static final String ECO_VERSION = "http://purl.obolibrary.org/obo/eco/releases/2017-01-06/eco.owl";
+    private static final String NEW_GO_VERSION = "http://purl.obolibrary.org/obo/go/releases/2018-02-01/go.owl";
+    private static final long WATCH_TIMEOUT_MILLIS = 30000;
+
+    @TempDir
+    Path directory;
+
+    private OntologyHeaderInfo ontology;
+
+    @AfterEach
+    void tearDown() {
+        if (ontology != null) {
+            ontology.close();
+        }
+    }
+
+    @Test
+    void versionsAreLoadedWhenCreated() throws IOException {
+        Path file = writeOntology(directory.resolve("ONTOLOGY_IRI.dat.gz"), GO_VERSION, ECO_VERSION);
+
+        ontology = new OntologyHeaderInfo(file);
+
+        assertThat(ontology.versions(), contains(GO_VERSION, ECO_VERSION));
+    }
+
+    @Test
+    void versionsAreNotReloadedUntilRefreshed() throws IOException {
+        Path file = writeOntology(directory.resolve("ONTOLOGY_IRI.dat.gz"), GO_VERSION, ECO_VERSION);
+        ontology = new OntologyHeaderInfo(file);
+
+        rewriteOntology(file, NEW_GO_VERSION, ECO_VERSION);
+
+        assertThat(ontology.versions(), contains(GO_VERSION, ECO_VERSION));
+    }
+
+    @Test
+    void changedVersionsAreLoadedWhenRefreshed() throws IOException {
+        Path file = writeOntology(directory.resolve("ONTOLOGY_IRI.dat.gz"), GO_VERSION, ECO_VERSION);
+        ontology = new OntologyHeaderInfo(file);
+        rewriteOntology(file, NEW_GO_VERSION, ECO_VERSION);
+
+        ontology.refresh();
+
+        assertThat(ontology.versions(), contains(NEW_GO_VERSION, ECO_VERSION));
+    }
+
+    @Test
+    void unchangedVersionsAreTheSameInstanceWhenRefreshed() throws IOException {
+        Path file = writeOntology(directory.resolve("ONTOLOGY_IRI.dat.gz"), GO_VERSION, ECO_VERSION);
+        ontology = new OntologyHeaderInfo(file);
+        List<String> versions = ontology.versions();
+
+        ontology.refresh();
+
+        assertThat(ontology.versions(), sameInstance(versions));
+    }
+
+    @Test
+    void versionsCannotBeChanged() throws IOException {
+        Path file = writeOntology(directory.resolve("ONTOLOGY_IRI.dat.gz"), GO_VERSION, ECO_VERSION);
+        ontology = new OntologyHeaderInfo(file);
+
+        assertThrows(UnsupportedOperationException.class, () -> ontology.versions().add(NEW_GO_VERSION));
+    }
+
+    @Test
+    void missingFileHasNoVersions() {
+        ontology = new OntologyHeaderInfo(directory.resolve("missing.dat.gz"));
+
+        assertThat(ontology.versions(), empty());
+    }
+
+    @Test
+    void versionsAreKeptIfTheFileCannotBeReloaded() throws IOException {
+        Path file = writeOntology(directory.resolve("ONTOLOGY_IRI.dat.gz"), GO_VERSION, ECO_VERSION);
+        ontology = new OntologyHeaderInfo(file);
+        Files.write(file, "not gzipped".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().plusSeconds(60)));
+
+        ontology.refresh();
+
+        assertThat(ontology.versions(), contains(GO_VERSION, ECO_VERSION));
+    }
+
+    @Test
+    void watchedFileIsReloadedWhenWritten() throws Exception {
+        Path file = writeOntology(directory.resolve("ONTOLOGY_IRI.dat.gz"), GO_VERSION, ECO_VERSION);
+        ontology = new OntologyHeaderInfo(file);
+        ontology.watch();
+
+        rewriteOntology(file, NEW_GO_VERSION, ECO_VERSION);
+
+        long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+        while (!ontology.versions().contains(NEW_GO_VERSION) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(ontology.versions(), contains(NEW_GO_VERSION, ECO_VERSION));
+    }
+
+    private static void rewriteOntology(Path file, String... versions) throws IOException {
+        FileTime previous = Files.getLastModifiedTime(file);
+        writeOntology(file, versions);
+        Files.setLastModifiedTime(file, FileTime.from(previous.toInstant().plusSeconds(1)));
+    }
+
+    private static Path writeOntology(Path file, String... versions) throws IOException {
+        StringBuilder lines = new StringBuilder("ontology\tversion\n");
+        for (String version : versions) {
+            lines.append("name\t").append(version).append('\n');
+        }
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+}
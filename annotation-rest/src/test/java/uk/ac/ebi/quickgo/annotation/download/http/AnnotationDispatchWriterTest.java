@@ -0,0 +1,204 @@
+package uk.ac.ebi.quickgo.annotation.download.http;
+
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCache;
+import uk.ac.ebi.quickgo.annotation.download.cache.DownloadCacheProperties;
+import uk.ac.ebi.quickgo.annotation.download.model.CachedDownloadContent;
+import uk.ac.ebi.quickgo.annotation.download.model.DownloadContent;
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.StreamUtils;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.GAF_MEDIA_TYPE;
+
+/**
+ * Tests the {@link AnnotationDispatchWriter} class.
+ */
+class AnnotationDispatchWriterTest {
+    private static final BiFunction<Annotation, List<String>, List<String>> TO_ID =
+            (annotation, selectedFields) -> singletonList(annotation.id);
+    private static final String HEADER = "!gaf-version: 2.2\n";
+
+    private static final String KEY = "key";
+
+    @TempDir
+    Path cacheDirectory;
+
+    private final AnnotationDispatchWriter writer = new AnnotationDispatchWriter(TO_ID, GAF_MEDIA_TYPE);
+
+    @Test
+    void compressionLevelTooLowCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AnnotationDispatchWriter(TO_ID, GAF_MEDIA_TYPE, 16, 16, 16, 0));
+    }
+
+    @Test
+    void compressionLevelTooHighCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AnnotationDispatchWriter(TO_ID, GAF_MEDIA_TYPE, 16, 16, 16, 10));
+    }
+
+    @Test
+    void unencodedDownloadIsWrittenAsItIs() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(new DownloadContent(annotations("1", "2"), emptyList()), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()), is("1\n2\n"));
+    }
+
+    @Test
+    void headerIsWrittenAheadOfTheAnnotations() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(new DownloadContent(annotations("1", "2"), emptyList(), HEADER, ContentEncoding.IDENTITY), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()), is(HEADER + "1\n2\n"));
+    }
+
+    @Test
+    void gzipDownloadIsCompressedWithItsHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(new DownloadContent(annotations("1", "2"), emptyList(), HEADER, ContentEncoding.GZIP), out);
+
+        assertThat(gunzip(out.toByteArray()), is(HEADER + "1\n2\n"));
+    }
+
+    @Test
+    void annotationStreamIsClosedOnceWritten() throws IOException {
+        boolean[] closed = {false};
+        Stream<QueryResult<Annotation>> annotations = annotations("1").onClose(() -> closed[0] = true);
+
+        writer.write(new DownloadContent(annotations, emptyList(), "", ContentEncoding.GZIP),
+                new ByteArrayOutputStream());
+
+        assertThat(closed[0], is(true));
+    }
+
+    @Test
+    void downloadIsCachedWithoutItsHeader() throws IOException {
+        DownloadCache cache = cache();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(new DownloadContent(annotations("1", "2"), emptyList(), HEADER, ContentEncoding.GZIP,
+                cache.create(KEY).get()), out);
+
+        assertThat(gunzip(out.toByteArray()), is(HEADER + "1\n2\n"));
+        assertThat(gunzip(StreamUtils.copyToByteArray(cache.find(KEY).get())), is("1\n2\n"));
+    }
+
+    @Test
+    void downloadWhoseAnnotationsCannotBeReadIsNotCached() throws IOException {
+        DownloadCache cache = cache();
+        Stream<QueryResult<Annotation>> failing = Stream.generate(() -> {
+            throw new IllegalStateException("Solr is unavailable");
+        });
+
+        assertThrows(IllegalStateException.class, () -> writer.write(
+                new DownloadContent(failing, emptyList(), HEADER, ContentEncoding.GZIP, cache.create(KEY).get()),
+                new ByteArrayOutputStream()));
+
+        assertThat(cache.find(KEY).isPresent(), is(false));
+        assertThat(cache.getEntries(), is(0));
+    }
+
+    @Test
+    void cachedDownloadIsWrittenGzippedAfterItsHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(new CachedDownloadContent(cachedAnnotations(), HEADER, ContentEncoding.GZIP), out);
+
+        assertThat(gunzip(out.toByteArray()), is(HEADER + "1\n2\n"));
+    }
+
+    @Test
+    void cachedDownloadIsWrittenUnencodedAfterItsHeader() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        writer.write(new CachedDownloadContent(cachedAnnotations(), HEADER, ContentEncoding.IDENTITY), out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()), is(HEADER + "1\n2\n"));
+    }
+
+    @Test
+    void cachedDownloadThatCannotBeReadFailsTheResponse() throws IOException {
+        byte[] cached = StreamUtils.copyToByteArray(cachedAnnotations());
+        InputStream truncated = new ByteArrayInputStream(cached, 0, cached.length / 2);
+
+        assertThrows(IOException.class, () -> writer.write(
+                new CachedDownloadContent(truncated, HEADER, ContentEncoding.IDENTITY), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void cachedDownloadIsClosedOnceWritten() throws IOException {
+        boolean[] closed = {false};
+        InputStream cachedAnnotations = new FilterInputStream(cachedAnnotations()) {
+            @Override public void close() throws IOException {
+                closed[0] = true;
+                super.close();
+            }
+        };
+
+        writer.write(new CachedDownloadContent(cachedAnnotations, HEADER, ContentEncoding.GZIP),
+                new ByteArrayOutputStream());
+
+        assertThat(closed[0], is(true));
+    }
+
+    private DownloadCache cache() throws IOException {
+        DownloadCacheProperties properties = new DownloadCacheProperties();
+        properties.setDirectory(cacheDirectory.toString());
+        properties.setMaxBytes(1024 * 1024);
+        return new DownloadCache(properties, ContentEncoding.DEFAULT_LEVEL);
+    }
+
+    private InputStream cachedAnnotations() throws IOException {
+        DownloadCache cache = cache();
+        writer.write(new DownloadContent(annotations("1", "2"), emptyList(), "", ContentEncoding.IDENTITY,
+                cache.create(KEY).get()), new ByteArrayOutputStream());
+        return cache.find(KEY).get();
+    }
+
+    private static Stream<QueryResult<Annotation>> annotations(String... ids) {
+        List<Annotation> annotations = new ArrayList<>();
+        for (String id : asList(ids)) {
+            Annotation annotation = new Annotation();
+            annotation.id = id;
+            annotations.add(annotation);
+        }
+        return Stream.of(new QueryResult.Builder<>(annotations.size(), annotations).build());
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                content.write(buffer, 0, read);
+            }
+            return content.toString(StandardCharsets.UTF_8.name());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package uk.ac.ebi.quickgo.annotation.download.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link BufferedRowWriter} class.
+ */
+class BufferedRowWriterTest {
+    private static final long NEVER_MILLIS = 60 * 60 * 1000;
+
+    private FlushCountingOutputStream out;
+
+    @BeforeEach
+    void setUp() {
+        out = new FlushCountingOutputStream();
+    }
+
+    @Test
+    void nullStreamCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new BufferedRowWriter(null, 16, 16, 16));
+    }
+
+    @Test
+    void tooSmallBufferSizeCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new BufferedRowWriter(out, 3, 16, 16));
+    }
+
+    @Test
+    void nonPositiveFlushSizeCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new BufferedRowWriter(out, 16, 0, 16));
+    }
+
+    @Test
+    void nonPositiveFlushIntervalCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new BufferedRowWriter(out, 16, 16, 0));
+    }
+
+    @Test
+    void rowsAreWrittenAsUtf8Lines() throws IOException {
+        BufferedRowWriter writer = new BufferedRowWriter(out, 1024, 1024, NEVER_MILLIS);
+
+        writer.writeRow("GO:0005575\tα-helix");
+        writer.writeRow("row2");
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()), is("GO:0005575\tα-helix\nrow2\n"));
+        assertThat(writer.rows(), is(2L));
+        assertThat(writer.bytes(), is((long) out.size()));
+    }
+
+    @Test
+    void formattedRowsAreWrittenAsTheyAreAndCounted() throws IOException {
+        BufferedRowWriter writer = new BufferedRowWriter(out, 4, 1024, NEVER_MILLIS);
+
+        writer.writeRows("row1\nα-helix\n", 2);
+        writer.writeRow("row3");
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()), is("row1\nα-helix\nrow3\n"));
+        assertThat(writer.rows(), is(3L));
+        assertThat(writer.bytes(), is((long) out.size()));
+    }
+
+    @Test
+    void rowsLargerThanTheBufferAreWrittenWhole() throws IOException {
+        BufferedRowWriter writer = new BufferedRowWriter(out, 4, 1024, NEVER_MILLIS);
+
+        writer.writeRow("0123456789ü");
+        writer.writeRow("abcd");
+        writer.flush();
+
+        assertThat(out.toString(StandardCharsets.UTF_8.name()), is("0123456789ü\nabcd\n"));
+    }
+
+    @Test
+    void streamIsNotFlushedBeforeEnoughBytesAreWritten() throws IOException {
+        BufferedRowWriter writer = new BufferedRowWriter(out, 1024, 10, NEVER_MILLIS);
+
+        writer.writeRow("1234");
+
+        assertThat(out.flushes, is(0));
+        assertThat(out.size(), is(0));
+    }
+
+    @Test
+    void streamIsFlushedOnceEnoughBytesAreWritten() throws IOException {
+        BufferedRowWriter writer = new BufferedRowWriter(out, 1024, 10, NEVER_MILLIS);
+
+        writer.writeRow("1234");
+        writer.writeRow("5678");
+
+        assertThat(out.flushes, is(1));
+        assertThat(out.size(), is(10));
+    }
+
+    @Test
+    void streamIsFlushedOnceFlushIntervalHasPassed() throws IOException, InterruptedException {
+        BufferedRowWriter writer = new BufferedRowWriter(out, 1024, 1024, 1);
+
+        Thread.sleep(5);
+        writer.writeRow("1234");
+
+        assertThat(out.flushes, is(1));
+        assertThat(out.size(), is(5));
+    }
+
+    private static class FlushCountingOutputStream extends ByteArrayOutputStream {
+        private int flushes;
+
+        @Override public void flush() throws IOException {
+            super.flush();
+            flushes++;
+        }
+    }
+}
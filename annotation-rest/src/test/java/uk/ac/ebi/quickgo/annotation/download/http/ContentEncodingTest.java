@@ -0,0 +1,198 @@
+package uk.ac.ebi.quickgo.annotation.download.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link ContentEncoding} class.
+ */
+class ContentEncodingTest {
+    private static final String ROWS = repeat("UniProtKB\tA0A000\tmoeA5\tenables\tGO:0003824\tF\tECO:0000256\n", 200);
+
+    @Test
+    void noAcceptEncodingIsNotCompressed() {
+        assertThat(ContentEncoding.negotiate(null, false), is(ContentEncoding.IDENTITY));
+    }
+
+    @Test
+    void acceptEncodingWithoutGzipIsNotCompressed() {
+        assertThat(ContentEncoding.negotiate("identity, br", false), is(ContentEncoding.IDENTITY));
+    }
+
+    @Test
+    void acceptEncodingWithGzipIsCompressed() {
+        assertThat(ContentEncoding.negotiate("deflate, gzip;q=0.8, br", false), is(ContentEncoding.GZIP));
+    }
+
+    @Test
+    void acceptEncodingWithGzipAliasIsCompressed() {
+        assertThat(ContentEncoding.negotiate("X-GZIP", false), is(ContentEncoding.GZIP));
+    }
+
+    @Test
+    void acceptEncodingWithAnyCodingIsCompressed() {
+        assertThat(ContentEncoding.negotiate("*", false), is(ContentEncoding.GZIP));
+    }
+
+    @Test
+    void acceptEncodingRefusingGzipIsNotCompressed() {
+        assertThat(ContentEncoding.negotiate("gzip;q=0, identity", false), is(ContentEncoding.IDENTITY));
+    }
+
+    @Test
+    void acceptEncodingRefusingGzipIsNotCompressedWhenItAcceptsAnyCoding() {
+        assertThat(ContentEncoding.negotiate("gzip;q=0, *", false), is(ContentEncoding.IDENTITY));
+    }
+
+    @Test
+    void acceptEncodingAcceptingGzipIsCompressedWhenItRefusesAnyCoding() {
+        assertThat(ContentEncoding.negotiate("*;q=0, gzip", false), is(ContentEncoding.GZIP));
+    }
+
+    @Test
+    void acceptEncodingRefusingAnyCodingIsNotCompressed() {
+        assertThat(ContentEncoding.negotiate("identity, *;q=0", false), is(ContentEncoding.IDENTITY));
+    }
+
+    @Test
+    void acceptEncodingWithMalformedQualityIsNotCompressed() {
+        assertThat(ContentEncoding.negotiate("gzip;q=high", false), is(ContentEncoding.IDENTITY));
+    }
+
+    @Test
+    void compressedRequestIsCompressedWhateverItAccepts() {
+        assertThat(ContentEncoding.negotiate(null, true), is(ContentEncoding.GZIP));
+    }
+
+    @Test
+    void identityWritesContentAsItIs() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(ContentEncoding.IDENTITY.encode(out, ContentEncoding.DEFAULT_LEVEL), is(sameInstance(out)));
+    }
+
+    @Test
+    void gzipCompressesContent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        write(ContentEncoding.GZIP, out, ContentEncoding.DEFAULT_LEVEL, ROWS);
+
+        assertThat(out.size(), is(lessThan(ROWS.length() / 4)));
+        assertThat(gunzip(out.toByteArray()), is(ROWS));
+    }
+
+    @Test
+    void gzipFlushWritesEverythingCompressedSoFar() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OutputStream encoded = ContentEncoding.GZIP.encode(out, ContentEncoding.DEFAULT_LEVEL);
+
+        encoded.write(ROWS.getBytes(StandardCharsets.UTF_8));
+        encoded.flush();
+
+        assertThat(gunzipAvailable(out.toByteArray()), is(ROWS));
+    }
+
+    @Test
+    void gzipFinishDoesNotCloseTheStream() throws IOException {
+        ClosingStream out = new ClosingStream();
+
+        write(ContentEncoding.GZIP, out, ContentEncoding.DEFAULT_LEVEL, ROWS);
+
+        assertThat(out.closed, is(false));
+    }
+
+    @Test
+    void higherLevelCompressesMore() throws IOException {
+        String rows = ROWS + repeat("Sample_" + Math.PI + "\n", 500);
+        ByteArrayOutputStream fastest = new ByteArrayOutputStream();
+        ByteArrayOutputStream smallest = new ByteArrayOutputStream();
+
+        write(ContentEncoding.GZIP, fastest, 1, rows);
+        write(ContentEncoding.GZIP, smallest, 9, rows);
+
+        assertThat(fastest.size(), is(greaterThan(smallest.size())));
+    }
+
+    @Test
+    void levelTooLowCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ContentEncoding.GZIP.encode(new ByteArrayOutputStream(), 0));
+    }
+
+    @Test
+    void levelTooHighCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ContentEncoding.GZIP.encode(new ByteArrayOutputStream(), 10));
+    }
+
+    private static void write(ContentEncoding encoding, OutputStream out, int level, String content)
+            throws IOException {
+        OutputStream encoded = encoding.encode(out, level);
+        encoded.write(content.getBytes(StandardCharsets.UTF_8));
+        encoding.finish(encoded);
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(readAll(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Decompresses content whose gzip stream has not been finished, reading only what has been flushed.
+     */
+    private static String gunzipAvailable(byte[] compressed) throws IOException {
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed));
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        try {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                content.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            // the end of the unfinished stream is reached
+        }
+        return new String(content.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    private static String repeat(String content, int times) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            repeated.append(content);
+        }
+        return repeated.toString();
+    }
+
+    private static class ClosingStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -36,6 +36,11 @@ class MediaTypeFactoryTest {
         assertThat(MediaTypeFactory.fileExtension(EXCEL_MEDIA_TYPE), is("xls"));
     }
 
+    @Test
+    void requestedMediaTypeIsXlsx() {
+        assertThat(MediaTypeFactory.fileExtension(XLSX_MEDIA_TYPE), is("xlsx"));
+    }
+
     @Test
     void createMediaType_subTypeTest() {
         var subType = MediaTypeFactory.createMediaType(GPAD_SUB_TYPE).getSubtype();
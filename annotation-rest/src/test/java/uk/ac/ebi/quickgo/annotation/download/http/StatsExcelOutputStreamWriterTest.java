@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Collections;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -46,6 +47,18 @@ class StatsExcelOutputStreamWriterTest {
         verify(mockOutputStream).flush();
     }
 
+    @Test
+    void streamingWorkbookIsDisposedOnceWritten() throws Exception {
+        WorkbookFromStatistics mockConverter = mock(WorkbookFromStatistics.class);
+        SXSSFWorkbook mockStreamingWorkbook = mock(SXSSFWorkbook.class);
+        when(mockConverter.generate(Collections.emptyList())).thenReturn(mockStreamingWorkbook);
+
+        new StatsExcelDispatchWriter(mockConverter).write(inputObject, mockOutputStream);
+
+        verify(mockStreamingWorkbook).write(mockOutputStream);
+        verify(mockStreamingWorkbook).dispose();
+    }
+
     @Test
     void exceptionFromWorkBookWriteIsNotPropagated() throws Exception{
         doThrow(new IOException()).when(mockWorkbook).write(mockOutputStream);
@@ -0,0 +1,283 @@
+package uk.ac.ebi.quickgo.annotation.download.spool;
+
+import uk.ac.ebi.quickgo.annotation.download.DownloadScheduler;
+import uk.ac.ebi.quickgo.annotation.download.DownloadSchedulerProperties;
+import uk.ac.ebi.quickgo.annotation.download.http.AnnotationDispatchWriter;
+import uk.ac.ebi.quickgo.annotation.download.http.ContentEncoding;
+import uk.ac.ebi.quickgo.annotation.download.http.OutputStreamWriter;
+import uk.ac.ebi.quickgo.annotation.download.model.DownloadContent;
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+import uk.ac.ebi.quickgo.rest.TooManyRequestsException;
+import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.StreamUtils;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.GAF_MEDIA_TYPE;
+import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.GAF_SUB_TYPE;
+import static uk.ac.ebi.quickgo.annotation.download.http.MediaTypeFactory.TSV_MEDIA_TYPE;
+
+/**
+ * Tests the {@link DownloadSpool} class.
+ */
+class DownloadSpoolTest {
+    private static final String CLIENT = "10.0.0.1";
+    private static final String HEADER = "!gaf-version: 2.2\n";
+    private static final long RETENTION_MINUTES = 60;
+
+    @TempDir
+    Path directory;
+
+    private final List<Runnable> executed = new ArrayList<>();
+    private final MutableClock clock = new MutableClock();
+    private DownloadSpoolProperties properties;
+    private Map<String, OutputStreamWriter> writers;
+    private DownloadSpool spool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new DownloadSpoolProperties();
+        properties.setDirectory(directory.toString());
+        properties.setRetentionMinutes(RETENTION_MINUTES);
+        writers = new HashMap<>();
+        writers.put(GAF_SUB_TYPE, new AnnotationDispatchWriter(
+                (annotation, selectedFields) -> singletonList(annotation.id), GAF_MEDIA_TYPE));
+        spool = spool(executed::add);
+    }
+
+    @Test
+    void nullPropertiesCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new DownloadSpool(scheduler(executed::add), writers, null));
+    }
+
+    @Test
+    void noRetentionCausesException() {
+        properties.setRetentionMinutes(0);
+
+        assertThrows(IllegalArgumentException.class, () -> spool(executed::add));
+    }
+
+    @Test
+    void formatWithoutWriterCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> spool.submit("id", TSV_MEDIA_TYPE, CLIENT, 1, () -> content("1")));
+    }
+
+    @Test
+    void submittedJobIsQueuedUntilRun() {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+
+        assertThat(job.getStatus(), is(DownloadJob.Status.QUEUED));
+        assertThat(spool.findJob("id").get(), is(sameInstance(job)));
+    }
+
+    @Test
+    void jobWritesDownloadToGzippedSpoolFile() throws IOException {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 2, () -> content("1", "2"));
+
+        runExecuted();
+
+        assertThat(job.getStatus(), is(DownloadJob.Status.COMPLETED));
+        assertThat(job.getFile(), is(directory.resolve("id.gaf.gz")));
+        assertThat(job.getBytes(), is(Files.size(job.getFile())));
+        assertThat(gunzip(job.getFile()), is(HEADER + "1\n2\n"));
+    }
+
+    @Test
+    void identicalRequestReusesQueuedJob() {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+
+        assertThat(spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1")), is(sameInstance(job)));
+        assertThat(executed.size(), is(1));
+    }
+
+    @Test
+    void identicalRequestReusesCompletedJob() {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+        runExecuted();
+
+        assertThat(spool.findReusableJob("id").get(), is(sameInstance(job)));
+        assertThat(spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1")), is(sameInstance(job)));
+        assertThat(executed.size(), is(0));
+    }
+
+    @Test
+    void completedJobWhoseFileIsMissingIsNotReused() throws IOException {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+        runExecuted();
+        Files.delete(job.getFile());
+
+        assertThat(spool.findReusableJob("id").isPresent(), is(false));
+        assertThat(spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1")), is(not(sameInstance(job))));
+    }
+
+    @Test
+    void jobWhoseDownloadFailsIsFailedWithoutSpoolFile() {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> {
+            throw new IllegalStateException("Solr is unavailable");
+        });
+
+        runExecuted();
+
+        assertThat(job.getStatus(), is(DownloadJob.Status.FAILED));
+        assertThat(job.getMessage(), is("The download could not be written: Solr is unavailable"));
+        assertThat(Files.exists(job.getFile()), is(false));
+        assertThat(Files.exists(directory.resolve("id.gaf.gz" + DownloadSpool.PART_SUFFIX)), is(false));
+        assertThat(spool.findReusableJob("id").isPresent(), is(false));
+    }
+
+    @Test
+    void jobRefusedByTheExecutorIsFailed() throws IOException {
+        spool = spool(command -> {
+            throw new RejectedExecutionException("full");
+        });
+
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+
+        assertThat(job.getStatus(), is(DownloadJob.Status.FAILED));
+        assertThat(job.getMessage(), is("The download could not be run: full"));
+        assertThat(spool.findReusableJob("id").isPresent(), is(false));
+    }
+
+    @Test
+    void jobRefusedBySchedulerIsNotKept() throws IOException {
+        DownloadSchedulerProperties schedulerProperties = new DownloadSchedulerProperties();
+        schedulerProperties.setMaxConcurrentDownloads(1);
+        schedulerProperties.setMaxQueuedDownloads(0);
+        spool = new DownloadSpool(new DownloadScheduler(executed::add, schedulerProperties), writers, properties,
+                clock);
+        spool.submit("running", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> spool.submit("refused", GAF_MEDIA_TYPE, "10.0.0.2", 1, () -> content("1")));
+
+        assertThat(spool.findJob("refused").isPresent(), is(false));
+    }
+
+    @Test
+    void jobIsRemovedWithItsFileOnceExpired() {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+        runExecuted();
+        clock.advance(Duration.ofMinutes(RETENTION_MINUTES + 1));
+
+        spool.removeExpiredJobs();
+
+        assertThat(spool.findJob("id").isPresent(), is(false));
+        assertThat(Files.exists(job.getFile()), is(false));
+    }
+
+    @Test
+    void jobIsKeptUntilExpired() {
+        DownloadJob job = spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+        runExecuted();
+        clock.advance(Duration.ofMinutes(RETENTION_MINUTES - 1));
+
+        spool.removeExpiredJobs();
+
+        assertThat(spool.findJob("id").isPresent(), is(true));
+        assertThat(Files.exists(job.getFile()), is(true));
+    }
+
+    @Test
+    void unfinishedJobIsNotExpired() {
+        spool.submit("id", GAF_MEDIA_TYPE, CLIENT, 1, () -> content("1"));
+        clock.advance(Duration.ofMinutes(RETENTION_MINUTES + 1));
+
+        spool.removeExpiredJobs();
+
+        assertThat(spool.findJob("id").isPresent(), is(true));
+    }
+
+    @Test
+    void spoolFilesOfAPreviousRunAreRemoved() throws IOException {
+        Path spoolFile = Files.createFile(directory.resolve("old.gaf.gz"));
+        Path partFile = Files.createFile(directory.resolve("old.gaf.gz.part"));
+        Path otherFile = Files.createFile(directory.resolve("other.txt"));
+
+        spool(executed::add);
+
+        assertThat(Files.exists(spoolFile), is(false));
+        assertThat(Files.exists(partFile), is(false));
+        assertThat(Files.exists(otherFile), is(true));
+    }
+
+    private DownloadSpool spool(Executor executor) throws IOException {
+        return new DownloadSpool(scheduler(executor), writers, properties, clock);
+    }
+
+    private static DownloadScheduler scheduler(Executor executor) {
+        return new DownloadScheduler(executor, new DownloadSchedulerProperties());
+    }
+
+    private void runExecuted() {
+        List<Runnable> toRun = new ArrayList<>(executed);
+        executed.clear();
+        toRun.forEach(Runnable::run);
+    }
+
+    private static DownloadContent content(String... ids) {
+        List<Annotation> annotations = new ArrayList<>();
+        for (String id : ids) {
+            Annotation annotation = new Annotation();
+            annotation.id = id;
+            annotations.add(annotation);
+        }
+        Stream<QueryResult<Annotation>> results =
+                Stream.of(new QueryResult.Builder<>(annotations.size(), annotations).build());
+        return new DownloadContent(results, emptyList(), HEADER, ContentEncoding.IDENTITY);
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(StreamUtils.copyToByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant = Instant.parse("2020-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override public Instant instant() {
+            return instant;
+        }
+    }
+}
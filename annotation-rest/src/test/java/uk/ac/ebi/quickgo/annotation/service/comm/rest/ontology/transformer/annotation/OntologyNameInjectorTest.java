@@ -4,11 +4,16 @@ import uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.model.BasicOntolo
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
 
-
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.nullValue;
 import static uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.OntologyNameInjectorTestHelper
@@ -19,6 +24,7 @@ import static uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transforme
         .buildFilterRequestSuccessfully;
 import static uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.OntologyNameInjectorTestHelper
         .injectValueSuccessfully;
+import static uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.annotation.OntologyNameInjector.GO_ID;
 import static uk.ac.ebi.quickgo.annotation.service.comm.rest.ontology.transformer.annotation.OntologyNameInjector.GO_NAME;
 
 /**
@@ -50,6 +56,27 @@ class OntologyNameInjectorTest {
         injectValueSuccessfully(annotation.goName);
     }
 
+    @Test
+    void responseValuesAreInjectedToAnnotationsWithMatchingGoIds() {
+        Annotation other = new Annotation();
+        ConvertedFilter<BasicOntology> stubConvertedFilter = new ConvertedFilter<>(basicOntology);
+        Map<String, List<Annotation>> annotationsByGoId = new HashMap<>();
+        annotationsByGoId.put("ID:1", singletonList(annotation));
+        annotationsByGoId.put("ID:2", singletonList(other));
+
+        nameInjector.injectValuesFromResponse(stubConvertedFilter, annotationsByGoId);
+
+        injectValueSuccessfully(annotation.goName);
+        assertThat(other.goName, is(nullValue()));
+    }
+
+    @Test
+    void filterRequestForSeveralGoIdsIsBuilt() {
+        FilterRequest filterRequest = nameInjector.buildFilterRequest(asList("GO:1", "GO:2"));
+
+        assertThat(filterRequest.getProperties(), hasEntry(GO_ID, asList("GO:1", "GO:2")));
+    }
+
     @Test
     void correctFilterRequestIsBuilt() {
         annotation.goId = TEST_GO_ID;
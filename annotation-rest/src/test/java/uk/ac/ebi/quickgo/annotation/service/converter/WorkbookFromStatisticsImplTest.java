@@ -5,11 +5,18 @@ import uk.ac.ebi.quickgo.annotation.model.StatisticsByType;
 import uk.ac.ebi.quickgo.annotation.model.StatisticsGroup;
 import uk.ac.ebi.quickgo.annotation.model.StatisticsValue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.*;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static uk.ac.ebi.quickgo.annotation.service.converter.SheetLayout.buildLayout;
 import static uk.ac.ebi.quickgo.annotation.service.converter.WorkbookFromStatisticsImpl.ANNOTATIONS_SUMMARY;
@@ -42,6 +49,9 @@ class WorkbookFromStatisticsImplTest {
                 Arrays.asList(SL_ANNOTATION_ASPECT, SL_GENE_PRODUCT_ASPECT)));
     }
 
+    private static final int XLS_MAX_ROWS = 65536;
+    private static final int ROW_ACCESS_WINDOW_SIZE = 10;
+
     private List<StatisticsGroup> statisticsGroups;
 
     @BeforeEach
@@ -56,6 +66,53 @@ class WorkbookFromStatisticsImplTest {
 
         Workbook workbook = statisticsToWorkbook.generate(statisticsGroups);
 
+        assertWorkbookMatchesInputData(workbook);
+    }
+
+    @Test
+    void streamedWorkbookMatchesInputData() throws IOException {
+        WorkbookFromStatisticsImpl statisticsToWorkbook = new WorkbookFromStatisticsImpl(SHEET_LAYOUT_SET,
+                WorkbookFromStatisticsImpl.streamingWorkbook(ROW_ACCESS_WINDOW_SIZE));
+
+        SXSSFWorkbook workbook = (SXSSFWorkbook) statisticsToWorkbook.generate(statisticsGroups);
+
+        assertWorkbookMatchesInputData(new XSSFWorkbook(new ByteArrayInputStream(written(workbook))));
+    }
+
+    @Test
+    void streamedWorkbookHoldsOnlyAWindowOfRowsBeyondTheXlsLimit() throws IOException {
+        StatisticsGroup annotationStatisticsGroup = new StatisticsGroup("annotation", XLS_MAX_ROWS);
+        StatisticsByType statisticsByType = new StatisticsByType("TEST_GO_ID", 0);
+        for (int i = 0; i < XLS_MAX_ROWS; i++) {
+            statisticsByType.addValue(new StatisticsValue(String.format("GO:%07d", i), 1, XLS_MAX_ROWS));
+        }
+        annotationStatisticsGroup.addStatsType(statisticsByType);
+        WorkbookFromStatisticsImpl statisticsToWorkbook = new WorkbookFromStatisticsImpl(SHEET_LAYOUT_SET,
+                WorkbookFromStatisticsImpl.streamingWorkbook(ROW_ACCESS_WINDOW_SIZE));
+
+        SXSSFWorkbook workbook =
+                (SXSSFWorkbook) statisticsToWorkbook.generate(Collections.singletonList(annotationStatisticsGroup));
+
+        Sheet sheet = workbook.getSheet("goid");
+        int lastRow = XLS_MAX_ROWS + 2;
+        assertThat(sheet.getLastRowNum(), is(lastRow));
+        assertThat(sheet.getRow(3), is(nullValue()));
+        assertThat(sheet.getRow(lastRow).getCell(0).getStringCellValue(),
+                is(String.format("GO:%07d", XLS_MAX_ROWS - 1)));
+        workbook.dispose();
+    }
+
+    @Test
+    void streamingWorkbookWithoutRowsInMemoryThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> WorkbookFromStatisticsImpl.streamingWorkbook(0));
+    }
+
+    @Test
+    void creatingStatisticsToWorkbookWithNullWorkbookSupplierThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new WorkbookFromStatisticsImpl(SHEET_LAYOUT_SET, null));
+    }
+
+    private void assertWorkbookMatchesInputData(Workbook workbook) {
         assertThat(workbook.getNumberOfSheets(), is(3));
         assertThat(workbook.getSheetAt(0).getSheetName(), is("summary"));
         assertThat(workbook.getSheetAt(0).getPhysicalNumberOfRows(), is(3));
@@ -96,6 +153,13 @@ class WorkbookFromStatisticsImplTest {
         assertThrows(IllegalArgumentException.class, () -> new WorkbookFromStatisticsImpl(null));
     }
 
+    private static byte[] written(SXSSFWorkbook workbook) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        workbook.write(out);
+        workbook.dispose();
+        return out.toByteArray();
+    }
+
     private void testColumnHeaders(Workbook workbook, int startingCol) {
         assertThat(workbook.getSheetAt(1).getRow(2).getCell(startingCol).getStringCellValue(), is("Code"));
         assertThat(workbook.getSheetAt(1).getRow(2).getCell(++startingCol).getStringCellValue(), is("Name"));
@@ -0,0 +1,94 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
+import uk.ac.ebi.quickgo.annotation.model.Annotation;
+import uk.ac.ebi.quickgo.annotation.service.converter.AnnotationDocConverter;
+
+import java.time.Instant;
+import java.util.Date;
+import org.apache.solr.client.solrj.beans.DocumentObjectBinder;
+import org.apache.solr.common.SolrDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link ExportedDocumentConverter} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class ExportedDocumentConverterTest {
+    @Mock
+    private AnnotationDocConverter docConverter;
+
+    private ExportedDocumentConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        converter = new ExportedDocumentConverter(new DocumentObjectBinder(), docConverter);
+    }
+
+    @Test
+    void nullBinderCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new ExportedDocumentConverter(null, docConverter));
+    }
+
+    @Test
+    void nullDocConverterCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExportedDocumentConverter(new DocumentObjectBinder(), null));
+    }
+
+    @Test
+    void exportedFieldsAreBoundAndConverted() {
+        Annotation annotation = new Annotation();
+        when(docConverter.convert(any(AnnotationDocument.class))).thenReturn(annotation);
+        SolrDocument exported = new SolrDocument();
+        exported.setField("id", "1");
+        exported.setField("geneProductId", "UniProtKB:A0A000");
+        exported.setField("taxonId", 9606);
+        exported.setField("withFrom_export", "InterPro:IPR000002|InterPro:IPR000001");
+        exported.setField("targetSet_export", "KRUK,BHF-UCL");
+        exported.setField(ExportedDocumentConverter.DATE, "2016-07-04T00:00:00Z");
+
+        assertThat(converter.apply(exported), is(annotation));
+
+        AnnotationDocument bound = boundDocument();
+        assertThat(bound.id, is("1"));
+        assertThat(bound.geneProductId, is("UniProtKB:A0A000"));
+        assertThat(bound.taxonId, is(9606));
+        assertThat(bound.withFrom, contains("InterPro:IPR000002", "InterPro:IPR000001"));
+        assertThat(bound.targetSets, contains("KRUK", "BHF-UCL"));
+        assertThat(bound.date, is(Date.from(Instant.parse("2016-07-04T00:00:00Z"))));
+    }
+
+    @Test
+    void documentWithoutDateOrMultiValuedFieldsIsBound() {
+        SolrDocument exported = new SolrDocument();
+        exported.setField("id", "1");
+
+        converter.apply(exported);
+
+        AnnotationDocument bound = boundDocument();
+        assertThat(bound.date, is(nullValue()));
+        assertThat(bound.withFrom, is(nullValue()));
+        assertThat(bound.targetSets, is(nullValue()));
+    }
+
+    private AnnotationDocument boundDocument() {
+        ArgumentCaptor<AnnotationDocument> document = ArgumentCaptor.forClass(AnnotationDocument.class);
+        verify(docConverter).convert(document.capture());
+        return document.getValue();
+    }
+}
@@ -0,0 +1,100 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import uk.ac.ebi.quickgo.annotation.common.AnnotationFields;
+import uk.ac.ebi.quickgo.annotation.common.GoIdAncestors;
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
+import uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery;
+import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
+import uk.ac.ebi.quickgo.rest.search.request.config.FilterConfigRetrieval;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.RestOperations;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.ac.ebi.quickgo.annotation.service.search.GoIdAncestorsFilterConverterFactory.*;
+import static uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery.createQuery;
+import static uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery.or;
+
+@ExtendWith(MockitoExtension.class)
+class GoIdAncestorsFilterConverterFactoryTest {
+    private static final String GO_ID_1 = "GO:0000001";
+    private static final String GO_ID_2 = "GO:0000002";
+
+    @Mock
+    private FilterConfigRetrieval filterConfigRetrievalMock;
+    @Mock
+    private RestOperations restOperationsMock;
+    @Mock
+    private RESTRequestExecutor restRequestExecutorMock;
+
+    @Test
+    void descendantsOverDefaultRelationshipsAreFilteredByAncestors() {
+        FilterRequest request = descendantsRequest(GO_ID_1);
+
+        QuickGOQuery query = converter(true).convert(request).getConvertedValue();
+
+        assertThat(query, is(ancestorQuery(GoIdAncestors.DEFAULT_RELATIONS, GO_ID_1)));
+        verifyNoInteractions(filterConfigRetrievalMock, restOperationsMock, restRequestExecutorMock);
+    }
+
+    @Test
+    void descendantsOverIndexedRelationshipsAreFilteredByAncestors() {
+        FilterRequest request = descendantsRequest(GO_ID_1, "part_of", "is_a", "occurs_in");
+
+        QuickGOQuery query = converter(true).convert(request).getConvertedValue();
+
+        assertThat(query, is(ancestorQuery("is_a,part_of,occurs_in", GO_ID_1)));
+        verifyNoInteractions(filterConfigRetrievalMock, restOperationsMock, restRequestExecutorMock);
+    }
+
+    @Test
+    void descendantsOfMultipleTermsAreFilteredByAnyOfTheirAncestors() {
+        FilterRequest request = descendantsRequest(GO_ID_1 + "," + GO_ID_2, "is_a");
+
+        QuickGOQuery query = converter(true).convert(request).getConvertedValue();
+
+        assertThat(query, is(or(ancestorQuery("is_a", GO_ID_1), ancestorQuery("is_a", GO_ID_2))));
+    }
+
+    @Test
+    void descendantsOverUnindexedRelationshipsAreConvertedAsBefore() {
+        FilterRequest request = descendantsRequest(GO_ID_1, "part_of");
+        when(filterConfigRetrievalMock.getBySignature(request.getSignature())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> converter(true).convert(request));
+    }
+
+    @Test
+    void descendantsAreConvertedAsBeforeWhenAncestorsAreNotIndexed() {
+        FilterRequest request = descendantsRequest(GO_ID_1);
+        when(filterConfigRetrievalMock.getBySignature(request.getSignature())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> converter(false).convert(request));
+    }
+
+    private GoIdAncestorsFilterConverterFactory converter(boolean ancestorsIndexed) {
+        return new GoIdAncestorsFilterConverterFactory(filterConfigRetrievalMock, restOperationsMock,
+                restRequestExecutorMock, ancestorsIndexed);
+    }
+
+    private static FilterRequest descendantsRequest(String goIds, String... relationships) {
+        return FilterRequest.newBuilder()
+                .addProperty(DESCENDANTS_USAGE)
+                .addProperty(GO_ID, goIds)
+                .addProperty(GO_USAGE_RELATIONSHIPS, relationships)
+                .build();
+    }
+
+    private static QuickGOQuery ancestorQuery(String relations, String goId) {
+        return createQuery(AnnotationFields.Searchable.GO_ID_ANCESTORS,
+                GoIdAncestors.value(GoIdAncestors.indexedRelationsKey(relations).get(), goId));
+    }
+}
@@ -0,0 +1,45 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NameCacheResolverTest {
+    private NameCacheResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        CacheManager cacheManager = new ConcurrentMapCacheManager(NameCacheResolver.DEFAULT_CACHE, "goNames");
+        Map<String, String> cacheNameByTargetName = new HashMap<>();
+        cacheNameByTargetName.put("goName", "goNames");
+        cacheNameByTargetName.put("taxonName", "taxonNames");
+        resolver = new NameCacheResolver(cacheManager, cacheNameByTargetName);
+    }
+
+    @Test
+    void nullCacheManagerThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new NameCacheResolver(null, new HashMap<>()));
+    }
+
+    @Test
+    void targetNameWithDedicatedCacheResolvesToIt() {
+        assertThat(resolver.resolveCache("goName").getName(), is("goNames"));
+    }
+
+    @Test
+    void targetNameWithoutDedicatedCacheResolvesToDefault() {
+        assertThat(resolver.resolveCache("evidenceName").getName(), is(NameCacheResolver.DEFAULT_CACHE));
+    }
+
+    @Test
+    void unconfiguredCacheThrowsException() {
+        assertThrows(IllegalStateException.class, () -> resolver.resolveCache("taxonName"));
+    }
+}
@@ -0,0 +1,86 @@
+package uk.ac.ebi.quickgo.annotation.service.search;
+
+import uk.ac.ebi.quickgo.rest.model.CompletableValue;
+import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
+import uk.ac.ebi.quickgo.rest.search.results.transformer.ResponseValueInjector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class NameCacheWarmerTest {
+    private static final String GO_NAME = "goName";
+
+    @Mock
+    private RESTFilterConverterFactory restFetcher;
+
+    private Cache goNames;
+    private NameCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("names", "goNames");
+        NameCacheResolver resolver = new NameCacheResolver(cacheManager, singletonMap(GO_NAME, "goNames"));
+        goNames = cacheManager.getCache("goNames");
+
+        Map<String, ResponseValueInjector<CompletableValue>> injectors = new HashMap<>();
+        injectors.put(GO_NAME, new FakeNameInjector());
+        warmer = new NameCacheWarmer(restFetcher, resolver, injectors);
+    }
+
+    @Test
+    void namesFoundAreCachedUnderNameServiceKeys() {
+        int loaded = warmer.warm(GO_NAME, asList("GO:1", "GO:2", "missing"));
+
+        assertThat(loaded, is(2));
+        assertThat(goNames.get(SimpleKeyGenerator.generateKey(GO_NAME, "GO:1")).get(), is("name of GO:1"));
+        assertThat(goNames.get(SimpleKeyGenerator.generateKey(GO_NAME, "GO:2")).get(), is("name of GO:2"));
+        assertThat(goNames.get(SimpleKeyGenerator.generateKey(GO_NAME, "missing")), is(nullValue()));
+    }
+
+    @Test
+    void idsAreReadFromSource() {
+        Resource source = new ByteArrayResource("GO:1\n\n GO:2 \nGO:1\n".getBytes(StandardCharsets.UTF_8));
+
+        warmer.warm(singletonMap(GO_NAME, source));
+
+        assertThat(goNames.get(SimpleKeyGenerator.generateKey(GO_NAME, "GO:2")).get(), is("name of GO:2"));
+    }
+
+    @Test
+    void targetNameWithoutInjectorThrowsException() {
+        List<String> ids = asList("1", "2");
+        assertThrows(IllegalArgumentException.class, () -> warmer.warm("unknownName", ids));
+    }
+
+    private static class FakeNameInjector implements ResponseValueInjector<CompletableValue> {
+        @Override public String getId() {
+            return GO_NAME;
+        }
+
+        @Override public void inject(RESTFilterConverterFactory restFetcher, CompletableValue model) {
+            if (model.getKey().startsWith("GO:")) {
+                model.setValue("name of " + model.getKey());
+            }
+        }
+    }
+}
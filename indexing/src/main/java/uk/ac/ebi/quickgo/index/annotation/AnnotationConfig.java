@@ -6,8 +6,10 @@ import uk.ac.ebi.quickgo.common.SolrCollectionName;
 import uk.ac.ebi.quickgo.index.common.GZipBufferedReaderFactory;
 import uk.ac.ebi.quickgo.index.common.SolrServerWriter;
 
+import java.io.File;
 import java.util.function.Function;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.file.FlatFileItemReader;
@@ -47,6 +49,8 @@ public class AnnotationConfig {
     private Resource[] resources;
     @Value("${indexing.annotation.header.lines:21}")
     private int headerLines;
+    @Value("${indexing.ontology.source:}")
+    private String ontologySource;
 
     @Autowired
     private SolrTemplate annotationTemplate;
@@ -61,6 +65,24 @@ public class AnnotationConfig {
 
     @Bean
     FlatFileItemReader<Annotation> annotationSingleFileReader() {
+        return annotationFileReader();
+    }
+
+    /**
+     * Reads the single annotation file of a partition created by {@link AnnotationFilePartitioner}.
+     * @param resource the partition's annotation file.
+     * @return a reader of the partition's annotation file.
+     */
+    @Bean
+    @StepScope
+    FlatFileItemReader<Annotation> annotationPartitionFileReader(
+            @Value("#{stepExecutionContext['" + AnnotationFilePartitioner.RESOURCE_KEY + "']}") Resource resource) {
+        FlatFileItemReader<Annotation> reader = annotationFileReader();
+        reader.setResource(resource);
+        return reader;
+    }
+
+    private FlatFileItemReader<Annotation> annotationFileReader() {
         FlatFileItemReader<Annotation> reader = new FlatFileItemReader<>();
         reader.setBufferedReaderFactory(new GZipBufferedReaderFactory());
         reader.setLineMapper(annotationLineMapper());
@@ -88,7 +110,15 @@ public class AnnotationConfig {
 
     @Bean
     ItemProcessor<Annotation, AnnotationDocument> annotationDocConverter() {
-        return new AnnotationDocumentConverter();
+        return new AnnotationDocumentConverter(goTermAncestors());
+    }
+
+    @Bean
+    GoTermAncestors goTermAncestors() {
+        if (ontologySource.trim().isEmpty()) {
+            return GoTermAncestors.empty();
+        }
+        return GoTermAncestors.load(new File(ontologySource));
     }
 
     @Bean
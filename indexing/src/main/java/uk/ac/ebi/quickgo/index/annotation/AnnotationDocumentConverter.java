@@ -3,6 +3,7 @@ package uk.ac.ebi.quickgo.index.annotation;
 import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
 import uk.ac.ebi.quickgo.index.common.DocumentReaderException;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
@@ -30,9 +31,16 @@ class AnnotationDocumentConverter implements ItemProcessor<Annotation, Annotatio
     private static final Logger LOGGER = getLogger(AnnotationDocumentConverter.class);
     private static final String ANNOTATION_DATE_FORMAT = "yyyyMMdd";
     private final DateTimeFormatter dateTimeFormatter;
+    private final GoTermAncestors goTermAncestors;
 
     AnnotationDocumentConverter() {
+        this(GoTermAncestors.empty());
+    }
+
+    AnnotationDocumentConverter(GoTermAncestors goTermAncestors) {
+        Preconditions.checkArgument(goTermAncestors != null, "GO term ancestors cannot be null");
         this.dateTimeFormatter = DateTimeFormatter.ofPattern(ANNOTATION_DATE_FORMAT);
+        this.goTermAncestors = goTermAncestors;
     }
 
     @Override
@@ -68,6 +76,8 @@ class AnnotationDocumentConverter implements ItemProcessor<Annotation, Annotatio
         doc.taxonAncestors = constructTaxonAncestors(propertiesMap.get(TAXON_ANCESTORS));
         doc.proteome = propertiesMap.get(PROTEOME);
         doc.gpRelatedGoIds = constructGpRelatedGoIds(propertiesMap.get(GP_RELATED_GO_IDS));
+        doc.goIdAncestors = goTermAncestors.ancestorValues(annotation.goId);
+        doc.joinExportFields();
 
         return doc;
     }
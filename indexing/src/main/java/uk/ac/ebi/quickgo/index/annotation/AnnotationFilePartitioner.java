@@ -0,0 +1,63 @@
+package uk.ac.ebi.quickgo.index.annotation;
+
+import uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfig;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.file.MultiResourceItemReader;
+import org.springframework.core.io.Resource;
+
+/**
+ * Creates one partition per annotation file, so that each file is read, converted and written by its own worker step.
+ * Each partition's {@link ExecutionContext} holds the location of its file, and the position of the file amongst all
+ * the files, which is used to join the co-occurring term data for gene products whose annotations span two files.
+ *
+ * The files are numbered in the order in which a {@link MultiResourceItemReader} reads them by default, which is by
+ * file name, so that the positions are those of the files when they are read serially.
+ *
+ * The files are gzipped, so cannot be split any further than this.
+ */
+class AnnotationFilePartitioner implements Partitioner {
+    static final String RESOURCE_KEY = "resource";
+    private static final String PARTITION_NAME_PREFIX = "partition";
+
+    private final Resource[] resources;
+
+    AnnotationFilePartitioner(Resource[] resources) {
+        Preconditions.checkArgument(resources != null, "Annotation resources cannot be null");
+        this.resources = resources.clone();
+        Arrays.sort(this.resources, Comparator.comparing(Resource::getFilename));
+    }
+
+    /**
+     * Create a partition for each annotation file; the grid size is ignored.
+     * @param gridSize ignored.
+     * @return the execution context for each partition, keyed by partition name.
+     */
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (int i = 0; i < resources.length; i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString(RESOURCE_KEY, location(resources[i]));
+            context.putInt(CoTermsConfig.PARTITION_INDEX_KEY, i);
+            partitions.put(PARTITION_NAME_PREFIX + i, context);
+        }
+        return partitions;
+    }
+
+    private static String location(Resource resource) {
+        try {
+            return resource.getURL().toExternalForm();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not find the location of annotation file: " + resource, e);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import uk.ac.ebi.quickgo.common.QuickGODocument;
 import uk.ac.ebi.quickgo.common.SolrCollectionName;
 import uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsAggregationWriter;
 import uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfig;
+import uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsPartitionAggregationWriter;
 import uk.ac.ebi.quickgo.index.common.listener.ItemRateWriterListener;
 import uk.ac.ebi.quickgo.index.common.listener.LogJobListener;
 import uk.ac.ebi.quickgo.index.common.listener.LogStepListener;
@@ -22,6 +23,7 @@ import org.springframework.batch.core.configuration.annotation.JobBuilderFactory
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.FlatFileParseException;
 import org.springframework.batch.item.file.MultiResourceItemReader;
 import org.springframework.batch.item.support.CompositeItemProcessor;
@@ -33,6 +35,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.data.solr.core.SolrTemplate;
 import org.springframework.retry.backoff.BackOffPolicy;
 import org.springframework.retry.backoff.ExponentialBackOffPolicy;
@@ -49,6 +53,8 @@ import org.springframework.retry.backoff.ExponentialBackOffPolicy;
 public class AnnotationIndexingConfig {
     private static final String ANNOTATION_INDEXING_JOB_NAME = "annotationIndexingJob";
     private static final String ANNOTATION_INDEXING_STEP_NAME = "annotationIndexStep";
+    private static final String ANNOTATION_INDEXING_PARTITION_STEP_NAME = "annotationIndexPartitionStep";
+    private static final String ANNOTATION_INDEXING_THREAD_NAME_PREFIX = "annotation-index-";
 
     @Value("${indexing.annotation.source}")
     private Resource[] resources;
@@ -68,6 +74,10 @@ public class AnnotationIndexingConfig {
     private int maxBackOffInterval;
     @Value("${indexing.annotation.retries.retryLimit:20}")
     private int retryLimit;
+    @Value("${indexing.annotation.partitioned:false}")
+    private boolean partitioned;
+    @Value("${indexing.annotation.partition.threads:0}")
+    private int partitionThreads;
 
     @Autowired
     private SolrTemplate annotationTemplate;
@@ -86,6 +96,12 @@ public class AnnotationIndexingConfig {
     @Autowired
     private MultiResourceItemReader<Annotation> annotationMultiFileReader;
     @Autowired
+    private FlatFileItemReader<Annotation> annotationPartitionFileReader;
+    @Autowired
+    private CoTermsPartitionAggregationWriter coTermsManualPartitionAggregationWriter;
+    @Autowired
+    private CoTermsPartitionAggregationWriter coTermsAllPartitionAggregationWriter;
+    @Autowired
     private ItemWriter<AnnotationDocument> annotationSolrServerWriter;
     @Autowired
     private ItemProcessor<Annotation, AnnotationDocument> annotationDocConverter;
@@ -113,6 +129,10 @@ public class AnnotationIndexingConfig {
     }
 
     private Step annotationIndexingStep() {
+        return partitioned ? annotationPartitionedIndexingStep() : annotationSerialIndexingStep();
+    }
+
+    private Step annotationSerialIndexingStep() {
         return stepBuilders.get(ANNOTATION_INDEXING_STEP_NAME)
                 .<Annotation, AnnotationDocument>chunk(chunkSize)
                 .faultTolerant()
@@ -132,6 +152,57 @@ public class AnnotationIndexingConfig {
                 .build();
     }
 
+    /**
+     * Indexes each annotation file in its own partition, the partitions running concurrently. Once every partition
+     * has completed, the co-occurring term data for gene products annotated in more than one file is joined.
+     * @return a step that indexes the annotation files concurrently.
+     */
+    private Step annotationPartitionedIndexingStep() {
+        return stepBuilders.get(ANNOTATION_INDEXING_STEP_NAME)
+                .partitioner(ANNOTATION_INDEXING_PARTITION_STEP_NAME, new AnnotationFilePartitioner(resources))
+                .step(annotationPartitionIndexingStep())
+                .gridSize(resources.length)
+                .taskExecutor(partitionTaskExecutor())
+                .listener(logStepListener())
+                .listener(new StepExecutionListener() {
+                    @Override public void beforeStep(StepExecution stepExecution) {}
+
+                    @Override public ExitStatus afterStep(StepExecution stepExecution) {
+                        coTermsManualAggregationWriter.completePartitions();
+                        coTermsAllAggregationWriter.completePartitions();
+                        return stepExecution.getExitStatus();
+                    }
+                })
+                .build();
+    }
+
+    private Step annotationPartitionIndexingStep() {
+        return stepBuilders.get(ANNOTATION_INDEXING_PARTITION_STEP_NAME)
+                .<Annotation, AnnotationDocument>chunk(chunkSize)
+                .faultTolerant()
+                .skipLimit(skipLimit)
+                .skip(FlatFileParseException.class)
+                .skip(ValidationException.class)
+                .retry(SolrServerException.class)
+                .retry(HttpSolrClient.RemoteSolrException.class)
+                .retryLimit(retryLimit)
+                .backOffPolicy(backOffPolicy())
+                .<Annotation>reader(annotationPartitionFileReader)
+                .processor(annotationCompositeProcessor())
+                .<AnnotationDocument>writer(compositePartitionAnnotationWriter())
+                .listener(logWriteRateListener())
+                .listener(logStepListener())
+                .listener(skipLogListener())
+                .build();
+    }
+
+    private TaskExecutor partitionTaskExecutor() {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(ANNOTATION_INDEXING_THREAD_NAME_PREFIX);
+        taskExecutor.setConcurrencyLimit(
+                partitionThreads > 0 ? partitionThreads : Runtime.getRuntime().availableProcessors());
+        return taskExecutor;
+    }
+
     private BackOffPolicy backOffPolicy() {
         ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
         backOffPolicy.setInitialInterval(initialBackOffInterval);
@@ -149,6 +220,16 @@ public class AnnotationIndexingConfig {
         return compositeItemWriter;
     }
 
+    private ItemWriter<AnnotationDocument> compositePartitionAnnotationWriter() {
+        CompositeItemWriter<AnnotationDocument> compositeItemWriter = new CompositeItemWriter<>();
+        List<ItemWriter<? super AnnotationDocument>> writerList = new ArrayList<>();
+        writerList.add(annotationSolrServerWriter);
+        writerList.add(coTermsManualPartitionAggregationWriter);
+        writerList.add(coTermsAllPartitionAggregationWriter);
+        compositeItemWriter.setDelegates(writerList);
+        return compositeItemWriter;
+    }
+
     private ItemProcessor<Annotation, AnnotationDocument> annotationCompositeProcessor() {
         List<ItemProcessor<?, ?>> processors = new ArrayList<>();
         processors.add(annotationValidator);
@@ -0,0 +1,142 @@
+package uk.ac.ebi.quickgo.index.annotation;
+
+import uk.ac.ebi.quickgo.annotation.common.GoIdAncestors;
+import uk.ac.ebi.quickgo.ff.files.ontology.GOSourceFiles;
+import uk.ac.ebi.quickgo.ff.loader.ontology.GOLoader;
+import uk.ac.ebi.quickgo.model.ontology.generic.GenericOntology;
+import uk.ac.ebi.quickgo.model.ontology.generic.GenericTerm;
+import uk.ac.ebi.quickgo.model.ontology.generic.RelationType;
+import uk.ac.ebi.quickgo.model.ontology.generic.TermRelation;
+
+import java.io.File;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Holds the values of {@link uk.ac.ebi.quickgo.annotation.common.AnnotationDocument#goIdAncestors} for every GO term,
+ * i.e., the term's ancestors, including itself, over each of the sets of relationships in
+ * {@link GoIdAncestors#INDEXED_RELATIONS}. An ancestor is reached over a set of relationships when every relationship
+ * on the way to it is one of the set, or a form of one of them, as when the ontology service finds descendants.
+ *
+ * The values are computed once, when the ontology is loaded, and each distinct value is shared by all the terms that
+ * have it. Instances are immutable, and so can be used by concurrent partitions.
+ */
+class GoTermAncestors {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GoTermAncestors.class);
+    private static final String RELATIONS_DELIMITER = ",";
+
+    private final Map<String, List<String>> ancestorValues;
+
+    private GoTermAncestors(Map<String, List<String>> ancestorValues) {
+        this.ancestorValues = ancestorValues;
+    }
+
+    /**
+     * @return an instance that has no ancestors for any GO term.
+     */
+    static GoTermAncestors empty() {
+        return new GoTermAncestors(Collections.emptyMap());
+    }
+
+    /**
+     * Loads the Gene Ontology from its source files, and computes the ancestors of its terms.
+     * @param sourceFileDir the directory holding the Gene Ontology's source files.
+     * @return the ancestors of the Gene Ontology's terms.
+     * @throws IllegalStateException if the ontology cannot be loaded, so that annotations are not indexed without the
+     * ancestors they were meant to be indexed with.
+     */
+    static GoTermAncestors load(File sourceFileDir) {
+        GoTermAncestors ancestors;
+        try {
+            ancestors = fromOntology(new GOLoader(new GOSourceFiles(sourceFileDir)).load());
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to load GO ontology files from " + sourceFileDir, e);
+        }
+        LOGGER.info("Computed the GO id ancestors of {} terms, over relationships {}",
+                ancestors.ancestorValues.size(), GoIdAncestors.INDEXED_RELATIONS);
+        return ancestors;
+    }
+
+    static GoTermAncestors fromOntology(GenericOntology ontology) {
+        checkArgument(ontology != null, "Ontology cannot be null");
+
+        Map<String, List<String>> values = new HashMap<>();
+        for (String relations : GoIdAncestors.INDEXED_RELATIONS) {
+            String relationsKey = GoIdAncestors.indexedRelationsKey(relations)
+                    .orElseThrow(() -> new IllegalStateException("Relations are not indexed: " + relations));
+            Set<RelationType> relationTypes = relationTypes(relations);
+
+            Map<String, String> valueByAncestor = new HashMap<>();
+            Map<String, Set<String>> ancestorsByTerm = new HashMap<>();
+            for (GenericTerm term : ontology.getTerms()) {
+                List<String> termValues = values.computeIfAbsent(term.getId(), id -> new ArrayList<>());
+                for (String ancestor : ancestors(term, relationTypes, ancestorsByTerm)) {
+                    termValues.add(valueByAncestor.computeIfAbsent(ancestor,
+                            id -> GoIdAncestors.value(relationsKey, id)));
+                }
+            }
+        }
+
+        Map<String, List<String>> immutableValues = new HashMap<>();
+        values.forEach((id, termValues) -> immutableValues.put(id, unmodifiableList(new ArrayList<>(termValues))));
+        return new GoTermAncestors(Collections.unmodifiableMap(immutableValues));
+    }
+
+    /**
+     * @param goId the GO id of an annotation.
+     * @return the values to index for the ancestors of the GO id, or null if the GO id is not in the ontology.
+     */
+    List<String> ancestorValues(String goId) {
+        return goId == null ? null : ancestorValues.get(goId);
+    }
+
+    /**
+     * Finds the ancestors of a term by visiting each of them once, taking the ancestors of any term whose ancestors
+     * have already been found, rather than visiting them again. Only a term's complete ancestors are held in
+     * {@code ancestorsByTerm}, so that the ancestors of terms in a cycle are all found, whichever is visited first.
+     */
+    private static Set<String> ancestors(GenericTerm term, Set<RelationType> relationTypes,
+            Map<String, Set<String>> ancestorsByTerm) {
+        Set<String> ancestors = ancestorsByTerm.get(term.getId());
+        if (ancestors == null) {
+            ancestors = new LinkedHashSet<>();
+            Deque<GenericTerm> unvisited = new ArrayDeque<>();
+            unvisited.add(term);
+            while (!unvisited.isEmpty()) {
+                GenericTerm next = unvisited.poll();
+                Set<String> found = ancestorsByTerm.get(next.getId());
+                if (found != null) {
+                    ancestors.addAll(found);
+                } else if (ancestors.add(next.getId())) {
+                    for (TermRelation relation : next.parents) {
+                        if (relationTypes.contains(relation.typeof)) {
+                            unvisited.add(relation.parent);
+                        }
+                    }
+                }
+            }
+            ancestorsByTerm.put(term.getId(), ancestors);
+        }
+        return ancestors;
+    }
+
+    private static Set<RelationType> relationTypes(String relations) {
+        Set<RelationType> relationTypes = EnumSet.noneOf(RelationType.class);
+        for (String relation : relations.split(RELATIONS_DELIMITER)) {
+            relationTypes.add(Arrays.stream(RelationType.values())
+                    .filter(type -> type.formalCode.equals(relation))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Unknown relationship: " + relation)));
+        }
+        // as in the ontology service, regulates is traversed over its positive and negative forms too
+        if (relationTypes.contains(RelationType.REGULATES)) {
+            relationTypes.add(RelationType.POSITIVEREGULATES);
+            relationTypes.add(RelationType.NEGATIVEREGULATES);
+        }
+        return relationTypes;
+    }
+}
@@ -18,13 +18,32 @@ import org.springframework.batch.item.ItemWriter;
  */
 class CoTermItemReader implements ItemReader<String> {
 
+    private static final int ALL_TERMS = -1;
+
     private final CoTermsAggregationWriter aggregator;
+    private final int fromIndex;
+    private final int toIndex;
     private Iterator<String> termsIt;
 
     public CoTermItemReader(ItemWriter<AnnotationDocument> aggregator) {
+        this(aggregator, ALL_TERMS, ALL_TERMS);
+    }
+
+    /**
+     * Reads only the GO terms within a range of the ascending list of all GO terms with a co-occurring GO term, as
+     * created by {@link CoTermsPartitioner}.
+     * @param aggregator the aggregation of co-occurring GO terms.
+     * @param fromIndex the position of the first GO term read, inclusive.
+     * @param toIndex the position of the last GO term read, exclusive.
+     */
+    public CoTermItemReader(ItemWriter<AnnotationDocument> aggregator, int fromIndex, int toIndex) {
         Preconditions.checkArgument(aggregator != null, "An instance of CoTermItemReader has been passed a null " +
                 "ItemWriter<AnnotationDocument> to it's constructor which is illegal");
+        Preconditions.checkArgument(fromIndex <= toIndex, "The range of GO terms to read, [%s, %s), is illegal",
+                fromIndex, toIndex);
         this.aggregator = (CoTermsAggregationWriter) aggregator;
+        this.fromIndex = fromIndex;
+        this.toIndex = toIndex;
     }
 
     /**
@@ -34,7 +53,9 @@ class CoTermItemReader implements ItemReader<String> {
     @Override public String read() {
         //Delay providing full list until aggregator has fully processed all records.
         if (termsIt == null) {
-            termsIt = aggregator.getCoTermsIterator();
+            termsIt = fromIndex == ALL_TERMS ?
+                    aggregator.getCoTermsIterator() :
+                    aggregator.getCoTerms().subList(fromIndex, toIndex).iterator();
         }
 
         if (termsIt.hasNext()) {
@@ -4,7 +4,6 @@ import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
 
 import com.google.common.base.Preconditions;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import org.springframework.batch.item.support.AbstractItemStreamItemWriter;
 
@@ -26,13 +25,13 @@ import static uk.ac.ebi.quickgo.index.annotation.coterms.GeneProductBatch.buildB
  * Created with IntelliJ IDEA.
  */
 public class CoTermsAggregationWriter extends AbstractItemStreamItemWriter<AnnotationDocument> {
-    //A list of all unique geneProducts encountered - it exists so we can get a count of the total unique gene products.
-    private final Set<String> geneProductList;
-
     //Determines which annotations get processed.
     private final Predicate<AnnotationDocument> toBeProcessed;
-    private final CoTermMatrix coTerms;
-    private final TermGPCount geneProductCountForTerms;
+    private final CoTermCounts counts;
+    //The counts of the gene product batches read within each partition, keyed by partition index.
+    private final SortedMap<Integer, CoTermCounts> partitionCounts;
+    //Gene product batches at the edges of each partition, keyed and ordered by partition index.
+    private final SortedMap<Integer, List<GeneProductBatch>> partitionBoundaries;
     private GeneProductBatch geneProductBatch;
 
     CoTermsAggregationWriter(Predicate<AnnotationDocument> toBeProcessed) {
@@ -41,10 +40,10 @@ public class CoTermsAggregationWriter extends AbstractItemStreamItemWriter<Annot
                         " constructor.");
 
         this.toBeProcessed = toBeProcessed;
-        this.coTerms = new CoTermMatrix();
-        this.geneProductList = new HashSet<>();
-        this.geneProductCountForTerms = new TermGPCount();
+        this.counts = new CoTermCounts();
         this.geneProductBatch = new GeneProductBatch();
+        this.partitionCounts = new TreeMap<>();
+        this.partitionBoundaries = new TreeMap<>();
     }
 
     /**
@@ -69,7 +68,59 @@ public class CoTermsAggregationWriter extends AbstractItemStreamItemWriter<Annot
      */
     @Override
     public void close() {
-        increaseCountsForTermsInBatch();
+        counts.add(geneProductBatch);
+    }
+
+    /**
+     * Record what a partition has read: the counts of the gene product batches it read completely, i.e., those that
+     * no other partition can contain annotations for, which the partition aggregates by itself, without holding this
+     * writer's lock; and its first and last gene product batches. Since the annotations for a gene product may be
+     * split across consecutive input files, the boundary batches are only counted once every partition has finished,
+     * by {@link #completePartitions()}, which is also when the partition's counts are merged into this writer's.
+     * @param partitionIndex the position of the partition's input file amongst all the input files.
+     * @param counts the counts of the gene product batches read completely by the partition.
+     * @param boundaries the first and last gene product batches read by the partition, in the order they were read.
+     */
+    synchronized void addPartition(int partitionIndex, CoTermCounts counts, List<GeneProductBatch> boundaries) {
+        partitionCounts.put(partitionIndex, counts);
+        partitionBoundaries.put(partitionIndex, boundaries);
+    }
+
+    /**
+     * When every partition has written its annotation documents, merge the counts of each partition into the
+     * aggregation, then join the partition boundary batches that are for the same gene product, in input file order,
+     * and add their counts.
+     */
+    public synchronized void completePartitions() {
+        for (CoTermCounts partition : partitionCounts.values()) {
+            counts.addAll(partition);
+        }
+        partitionCounts.clear();
+
+        GeneProductBatch pending = null;
+        for (List<GeneProductBatch> boundaries : partitionBoundaries.values()) {
+            for (GeneProductBatch batch : boundaries) {
+                if (pending != null && pending.geneProduct.equals(batch.geneProduct)) {
+                    pending.terms.addAll(batch.terms);
+                } else {
+                    if (pending != null) {
+                        counts.add(pending);
+                    }
+                    pending = batch;
+                }
+            }
+        }
+        if (pending != null) {
+            counts.add(pending);
+        }
+        partitionBoundaries.clear();
+    }
+
+    /**
+     * @return the predicate that determines which annotations are aggregated.
+     */
+    Predicate<AnnotationDocument> getToBeProcessed() {
+        return toBeProcessed;
     }
 
     /**
@@ -78,7 +129,14 @@ public class CoTermsAggregationWriter extends AbstractItemStreamItemWriter<Annot
      * @return an iterator over all the GO Terms that have co-occurring terms.
      */
     Iterator<String> getCoTermsIterator() {
-        return this.coTerms.coTermMatrix.keySet().iterator();
+        return getCoTerms().iterator();
+    }
+
+    /**
+     * @return all the GO Terms that have co-occurring terms, in ascending order.
+     */
+    List<String> getCoTerms() {
+        return counts.termDictionary.sortedTerms();
     }
 
     /**
@@ -93,63 +151,33 @@ public class CoTermsAggregationWriter extends AbstractItemStreamItemWriter<Annot
                 .checkArgument(null != goTerm, "Target GO term id passed to createCoTermsForSelectedTerm should not " +
                         "be null");
 
-        final long selected = getCountOfGeneProductsForTerm(goTerm);
+        final int termId = counts.termDictionary.id(goTerm);
+        final long selected = termId == TermDictionary.NO_ID ? 0L : counts.geneProductCountForTerms.get(termId);
+        final long geneProductTotal = counts.geneProductTotal;
         if(selected == 0){
             return CoTermsForSelectedTerm.Builder.empty();
         }
 
         CoTermsForSelectedTerm.Builder coTermsBuilder = new CoTermsForSelectedTerm.Builder()
-                .setTotalNumberOfGeneProducts(getGeneProductTotal())
+                .setTotalNumberOfGeneProducts(geneProductTotal)
                 .setSelected(selected);
 
-        for (String comparedTerm : getCoTermsAndCounts(goTerm).keySet()) {
-            long together = getTogether(goTerm, comparedTerm);
-            long compared = getCountOfGeneProductsForTerm(comparedTerm);
+        counts.coTerms.forEachCoTerm(termId, (comparedTermId, together) -> {
+            long compared = counts.geneProductCountForTerms.get(comparedTermId);
 
             coTermsBuilder.addCoTerm(new CoTerm.Builder()
                     .setTarget(goTerm)
-                    .setComparedTerm(comparedTerm)
-                    .setCompared(getCountOfGeneProductsForTerm(comparedTerm))
-                    .setTogether(getTogether(goTerm, comparedTerm))
-                    .setProbabilityRatio(calculateProbabilityRatio(selected, together, getGeneProductTotal(), compared))
+                    .setComparedTerm(counts.termDictionary.term(comparedTermId))
+                    .setCompared(compared)
+                    .setTogether(together)
+                    .setProbabilityRatio(calculateProbabilityRatio(selected, together, geneProductTotal, compared))
                     .setSimilarityRatio(calculateSimilarityRatio(selected, together, compared))
                     .setGpCount(selected)
                     .build());
-        }
+        });
         return coTermsBuilder.build();
     }
 
-    /**
-     * We hold a count of the number of unique gene products encountered during processing, for each term.
-     * @param goTerm GO Term account for which we want the gene product count.
-     * @return count of the number of unique gene products encountered during processing for the request term.
-     */
-    private long getCountOfGeneProductsForTerm(String goTerm) {
-        final AtomicLong gpCountForTerm = geneProductCountForTerms.id2Count.get(goTerm);
-        return gpCountForTerm != null ? gpCountForTerm.get():0L;
-    }
-
-    /**
-     * Number of unique gene products processed from Annotations
-     * @return unique gene product count
-     */
-    private long getGeneProductTotal() {
-        return geneProductList.size();
-    }
-
-    /**
-     * Get a map of all co-occurring terms to co-occurrence count for the target termId.
-     * @param termId the termId for which the caller should receive all the co-occurring terms plus co-occurrence count.
-     * @return map of co-occurring terms to co-occurrence count.
-     */
-    private Map<String, AtomicLong> getCoTermsAndCounts(String termId) {
-        return coTerms.coTermMatrix.get(termId);
-    }
-
-    private long getTogether(String targetTerm, String comparedTerm) {
-        return coTerms.coTermMatrix.get(targetTerm).get(comparedTerm).get();
-    }
-
     /**
      * Add the data in an AnnotationDocument instance to the aggregation.
      * The documents are processed by this class in the gene product order.
@@ -168,24 +196,66 @@ public class CoTermsAggregationWriter extends AbstractItemStreamItemWriter<Annot
         }
 
         if (!doc.geneProductId.equals(geneProductBatch.geneProduct)) {
-            increaseCountsForTermsInBatch();
+            counts.add(geneProductBatch);
             geneProductBatch = buildBatch(doc);
         } else {
             geneProductBatch.addTerm(doc.goId);
         }
-
-        geneProductList.add(doc.geneProductId); //set so each gp is only added once.
     }
 
+}
+
+/**
+ * The co-occurrence counts of the gene product batches aggregated so far: the number of gene products each pair of
+ * terms annotates, the number each term annotates, and the number of gene products.
+ */
+class CoTermCounts {
+    //Interns GO term ids to the ints by which the counts are held.
+    final TermDictionary termDictionary = new TermDictionary();
+    final CoTermMatrix coTerms = new CoTermMatrix();
+    final TermGPCount geneProductCountForTerms = new TermGPCount();
+    //The count of unique gene products encountered. Each gene product batch is complete, as the annotations are read
+    //in gene product order, so each is counted once.
+    long geneProductTotal;
+
     /**
      * Got to the end of the list of annotations for this gene product
      * Record which terms annotate the same gene products.
      */
-    private void increaseCountsForTermsInBatch() {
-        for (String termId : geneProductBatch.terms) {
-            coTerms.incrementCoTerms(termId, geneProductBatch.terms);
+    void add(GeneProductBatch batch) {
+        if (batch.geneProduct == null) {
+            return;
+        }
+        int[] termIds = new int[batch.terms.size()];
+        int i = 0;
+        for (String term : batch.terms) {
+            termIds[i++] = termDictionary.intern(term);
+        }
+        coTerms.incrementCoTerms(termIds);
+        for (int termId : termIds) {
             geneProductCountForTerms.incrementGeneProductCountForTerm(termId);
         }
+        geneProductTotal++;
+    }
+
+    /**
+     * Add counts aggregated separately to these counts. The other counts' terms are interned by this instance's
+     * dictionary, since the same term has different ints in each dictionary. The merge visits each co-occurring pair
+     * of the other counts once, rather than once per gene product they annotate.
+     * @param other counts of gene products that have not been added to these counts.
+     */
+    void addAll(CoTermCounts other) {
+        int[] termIds = new int[other.termDictionary.size()];
+        for (int otherTermId = 0; otherTermId < termIds.length; otherTermId++) {
+            termIds[otherTermId] = termDictionary.intern(other.termDictionary.term(otherTermId));
+        }
+        for (int otherTermId = 0; otherTermId < termIds.length; otherTermId++) {
+            int termId = termIds[otherTermId];
+            other.coTerms.forEachCoTerm(otherTermId,
+                    (otherComparedTermId, together) -> coTerms.add(termId, termIds[otherComparedTermId], together));
+            geneProductCountForTerms.add(termId, other.geneProductCountForTerms.get(otherTermId));
+        }
+        geneProductTotal += other.geneProductTotal;
     }
 }
 
@@ -227,59 +297,221 @@ class GeneProductBatch {
     }
 }
 
+/**
+ * Interns GO term ids as consecutive ints, from 0, in the order they are first encountered, so that the co-occurrence
+ * counts can be held in primitive arrays rather than in maps keyed by term id.
+ */
+class TermDictionary {
+    static final int NO_ID = -1;
+
+    private final Map<String, Integer> idsByTerm = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+
+    /**
+     * @param term a GO term id
+     * @return the int for the term, which is assigned if it has not been encountered before
+     */
+    int intern(String term) {
+        Integer id = idsByTerm.get(term);
+        if (id == null) {
+            id = terms.size();
+            idsByTerm.put(term, id);
+            terms.add(term);
+        }
+        return id;
+    }
+
+    /**
+     * @param term a GO term id
+     * @return the int for the term, or {@link #NO_ID} if it has not been encountered
+     */
+    int id(String term) {
+        Integer id = idsByTerm.get(term);
+        return id == null ? NO_ID : id;
+    }
+
+    String term(int id) {
+        return terms.get(id);
+    }
+
+    /**
+     * @return the number of terms encountered, which are interned as the ints from 0 to one less than this.
+     */
+    int size() {
+        return terms.size();
+    }
+
+    /**
+     * @return all the terms encountered, in ascending order.
+     */
+    List<String> sortedTerms() {
+        List<String> sorted = new ArrayList<>(terms);
+        Collections.sort(sorted);
+        return sorted;
+    }
+}
+
 /**
  * This class represents a matrix of term to compared term, and its used to hold the number of permutation occurrences.
+ * Terms are identified by their {@link TermDictionary} ints. The matrix is sparse, as most terms never annotate the
+ * same gene product, so each term's row is an open addressing hash table of compared term to count, held in a pair of
+ * primitive arrays.
  */
 class CoTermMatrix {
+    private static final int INITIAL_ROWS = 1024;
+
+    private CoTermRow[] rows = new CoTermRow[INITIAL_ROWS];
 
-    // Key is the target term, the value is a map of all the GO terms that are used in annotations for the same gene
-    // product. i.e.  Key =>target term, value=> map (key=>co-occurring term, value => AtomicLong For Co-occurrence)
-    // For example key=>'GO:0003824', value=> map(entry 1 :: key=>'GO:0008152' value=>1346183 hits, entry 2
-    // key=>'GO:0016740' value=>1043613 hits)
-    final Map<String, Map<String, AtomicLong>> coTermMatrix;
+    /**
+     * Every term in a gene product batch co-occurs once with every term in the batch, including itself.
+     * @param termIds the ids of all the terms encountered in annotations for a particular gene product, without
+     * duplicates.
+     */
+    void incrementCoTerms(int[] termIds) {
+        for (int termId : termIds) {
+            CoTermRow row = row(termId);
+            for (int comparedTermId : termIds) {
+                row.increment(comparedTermId);
+            }
+        }
+    }
 
-    CoTermMatrix() {
-        coTermMatrix = new TreeMap<>();
+    /**
+     * Add to the number of gene products that two terms both annotate.
+     * @param termId the term whose row holds the count
+     * @param comparedTermId the term that co-occurs with it
+     * @param together the number of gene products to add
+     */
+    void add(int termId, int comparedTermId, long together) {
+        row(termId).add(comparedTermId, together);
     }
 
     /**
-     * For all terms encountered for gene product batch, increment its count. If this is a new {@code termId}, then
-     * its count is initialised as 1.
-     * @param termId single term from batch
-     * @param termsInBatch a list of all terms encountered in annotations for a particular gene product.
+     * Visit every term that co-occurs with a term, and the number of gene products they both annotate.
+     * @param termId the term whose co-occurring terms are visited
+     * @param consumer receives each co-occurring term and its count
      */
-    void incrementCoTerms(String termId, Set<String> termsInBatch) {
-        Map<String, AtomicLong> coTerms = coTermMatrix.computeIfAbsent(termId, k -> new HashMap<>());
+    void forEachCoTerm(int termId, CoTermCountConsumer consumer) {
+        if (termId < rows.length && rows[termId] != null) {
+            rows[termId].forEach(consumer);
+        }
+    }
+
+    private CoTermRow row(int termId) {
+        if (termId >= rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(rows.length * 2, termId + 1));
+        }
+        CoTermRow row = rows[termId];
+        if (row == null) {
+            row = new CoTermRow();
+            rows[termId] = row;
+        }
+        return row;
+    }
+
+    @FunctionalInterface
+    interface CoTermCountConsumer {
+        void accept(int comparedTermId, long together);
+    }
+}
+
+/**
+ * The counts of the terms that co-occur with a single term, held as an open addressing hash table, with linear
+ * probing, of term id to count.
+ */
+class CoTermRow {
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] termIds;
+    private long[] counts;
+    private int size;
+
+    CoTermRow() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    void increment(int termId) {
+        add(termId, 1L);
+    }
+
+    void add(int termId, long count) {
+        int slot = slot(termIds, termId);
+        if (termIds[slot] == EMPTY) {
+            if ((size + 1) * 4 > termIds.length * 3) {
+                resize();
+                slot = slot(termIds, termId);
+            }
+            termIds[slot] = termId;
+            size++;
+        }
+        counts[slot] += count;
+    }
 
-        //Loop through all the terms we have encountered in this batch and update the quantities
-        for (String term : termsInBatch) {
+    void forEach(CoTermMatrix.CoTermCountConsumer consumer) {
+        for (int i = 0; i < termIds.length; i++) {
+            if (termIds[i] != EMPTY) {
+                consumer.accept(termIds[i], counts[i]);
+            }
+        }
+    }
 
-            //Get 'permanent' record for this termId/termId permutation
-            AtomicLong permutationCount = coTerms.computeIfAbsent(term, k -> new AtomicLong());
+    private void resize() {
+        int[] oldTermIds = termIds;
+        long[] oldCounts = counts;
+        allocate(oldTermIds.length * 2);
+        for (int i = 0; i < oldTermIds.length; i++) {
+            if (oldTermIds[i] != EMPTY) {
+                int slot = slot(termIds, oldTermIds[i]);
+                termIds[slot] = oldTermIds[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
 
-            //Update it with a count of 'one' as this batch is for one gene protein and so the count must be one
-            permutationCount.incrementAndGet();
+    private void allocate(int capacity) {
+        termIds = new int[capacity];
+        Arrays.fill(termIds, EMPTY);
+        counts = new long[capacity];
+    }
 
+    private static int slot(int[] termIds, int termId) {
+        int mask = termIds.length - 1;
+        int hash = termId * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (termIds[slot] != EMPTY && termIds[slot] != termId) {
+            slot = (slot + 1) & mask;
         }
+        return slot;
     }
 }
 
 /**
- * State for GO termId::count of gene products for it.
+ * State for GO termId::count of gene products for it, indexed by the terms' {@link TermDictionary} ints.
  */
 class TermGPCount {
-    final Map<String, AtomicLong> id2Count;
+    private static final int INITIAL_TERMS = 1024;
 
-    TermGPCount() {
-        this.id2Count = new HashMap<>();
-    }
+    private long[] id2Count = new long[INITIAL_TERMS];
 
     /**
      * For every term, increment by one the count of gene products for this term
      */
-    void incrementGeneProductCountForTerm(String term) {
-        if (id2Count.putIfAbsent(term, new AtomicLong(1L)) != null) {
-            id2Count.get(term).incrementAndGet();
+    void incrementGeneProductCountForTerm(int termId) {
+        add(termId, 1L);
+    }
+
+    /**
+     * Add to the count of gene products for a term
+     */
+    void add(int termId, long count) {
+        if (termId >= id2Count.length) {
+            id2Count = Arrays.copyOf(id2Count, Math.max(id2Count.length * 2, termId + 1));
         }
+        id2Count[termId] += count;
+    }
+
+    long get(int termId) {
+        return termId < id2Count.length ? id2Count[termId] : 0L;
     }
 }
@@ -0,0 +1,160 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import uk.ac.ebi.quickgo.annotation.common.CoTermsBinaryFormat;
+
+import com.google.common.base.Preconditions;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+/**
+ * Once a co-terms summarization step has written the co-terms file, writes the same co-occurrence statistics in the
+ * binary layout defined by {@link CoTermsBinaryFormat}, so that they can be memory-mapped rather than parsed. Terms
+ * are identified by their position in the aggregator's ascending list of co-occurring terms.
+ * <p>
+ * If the binary file cannot be written, the step is failed, so that the job stops, as it would if the co-terms file
+ * could not be written.
+ */
+class CoTermsBinaryFileWriter implements StepExecutionListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoTermsBinaryFileWriter.class);
+    private static final String DELIMITER = "\t";
+    private static final int COLUMN_TARGET = 0;
+    private static final int COLUMN_COMPARED_TERM = 1;
+    private static final int COLUMN_PROBABILITY_RATIO = 2;
+    private static final int COLUMN_SIMILARITY_RATIO = 3;
+    private static final int COLUMN_TOGETHER = 4;
+    private static final int COLUMN_COMPARED = 5;
+    private static final int HEADER_LINES = 1;
+
+    private final CoTermsAggregationWriter aggregator;
+    private final String coTermsPath;
+    private final String binaryPath;
+
+    CoTermsBinaryFileWriter(CoTermsAggregationWriter aggregator, String coTermsPath, String binaryPath) {
+        Preconditions.checkArgument(aggregator != null, "Co-terms aggregator cannot be null");
+        Preconditions.checkArgument(coTermsPath != null, "Co-terms path cannot be null");
+        Preconditions.checkArgument(binaryPath != null, "Binary co-terms path cannot be null");
+        this.aggregator = aggregator;
+        this.coTermsPath = coTermsPath;
+        this.binaryPath = binaryPath;
+    }
+
+    @Override public void beforeStep(StepExecution stepExecution) {}
+
+    @Override public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+            return stepExecution.getExitStatus();
+        }
+
+        try {
+            write();
+            return stepExecution.getExitStatus();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to write binary co-terms file " + binaryPath, e);
+            stepExecution.setStatus(BatchStatus.FAILED);
+            stepExecution.addFailureException(e);
+            return ExitStatus.FAILED.addExitDescription(e);
+        }
+    }
+
+    void write() throws IOException {
+        List<String> terms = aggregator.getCoTerms();
+        Map<String, Integer> termIds = new HashMap<>();
+        for (int i = 0; i < terms.size(); i++) {
+            termIds.put(terms.get(i), i);
+        }
+
+        Path binary = Paths.get(binaryPath);
+        long[] offsets = new long[terms.size() + 1];
+        long recordCount = 0;
+        try (BufferedReader coTerms = Files.newBufferedReader(Paths.get(coTermsPath), StandardCharsets.UTF_8);
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(binary)))) {
+            output.writeInt(CoTermsBinaryFormat.MAGIC);
+            output.writeInt(CoTermsBinaryFormat.VERSION);
+            output.writeInt(terms.size());
+            output.writeLong(0L);
+            for (String term : terms) {
+                byte[] termBytes = term.getBytes(StandardCharsets.US_ASCII);
+                Preconditions.checkState(termBytes.length == CoTermsBinaryFormat.TERM_BYTES,
+                        "Co-occurring term %s is not %s characters long", term, CoTermsBinaryFormat.TERM_BYTES);
+                output.write(termBytes);
+            }
+            for (int i = 0; i < offsets.length; i++) {
+                output.writeLong(0L);
+            }
+
+            for (int i = 0; i < HEADER_LINES; i++) {
+                coTerms.readLine();
+            }
+
+            int currentTermId = -1;
+            String line;
+            while ((line = coTerms.readLine()) != null) {
+                String[] columns = line.split(DELIMITER);
+                int targetId = termId(termIds, columns[COLUMN_TARGET]);
+                if (targetId != currentTermId) {
+                    Preconditions.checkState(targetId > currentTermId,
+                            "Co-terms file is not in ascending order of target term at %s", columns[COLUMN_TARGET]);
+                    while (currentTermId < targetId) {
+                        offsets[++currentTermId] = recordCount;
+                    }
+                }
+
+                output.writeInt(termId(termIds, columns[COLUMN_COMPARED_TERM]));
+                output.writeFloat(Float.parseFloat(columns[COLUMN_PROBABILITY_RATIO]));
+                output.writeFloat(Float.parseFloat(columns[COLUMN_SIMILARITY_RATIO]));
+                output.writeLong(Long.parseLong(columns[COLUMN_TOGETHER]));
+                output.writeLong(Long.parseLong(columns[COLUMN_COMPARED]));
+                recordCount++;
+            }
+            while (currentTermId < terms.size()) {
+                offsets[++currentTermId] = recordCount;
+            }
+        }
+
+        writeRecordCountAndOffsets(binary, terms.size(), recordCount, offsets);
+        LOGGER.info("Wrote {} co-occurring terms of {} terms to {}", recordCount, terms.size(), binaryPath);
+    }
+
+    private static int termId(Map<String, Integer> termIds, String term) {
+        Integer id = termIds.get(term);
+        Preconditions.checkState(id != null, "Co-terms file contains term %s, which has not been aggregated", term);
+        return id;
+    }
+
+    private static void writeRecordCountAndOffsets(Path binary, int termCount, long recordCount, long[] offsets)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.WRITE)) {
+            ByteBuffer recordCountBuffer = ByteBuffer.allocate(Long.BYTES).putLong(recordCount);
+            recordCountBuffer.flip();
+            writeFully(channel, recordCountBuffer, CoTermsBinaryFormat.RECORD_COUNT_POSITION);
+
+            ByteBuffer offsetsBuffer = ByteBuffer.allocate(offsets.length * CoTermsBinaryFormat.OFFSET_BYTES);
+            offsetsBuffer.asLongBuffer().put(offsets);
+            writeFully(channel, offsetsBuffer, CoTermsBinaryFormat.offsetsPosition(termCount));
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
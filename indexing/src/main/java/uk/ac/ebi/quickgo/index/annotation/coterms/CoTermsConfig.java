@@ -6,7 +6,10 @@ import org.springframework.batch.core.ItemWriteListener;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.step.builder.PartitionStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.item.ItemReader;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.file.FlatFileHeaderCallback;
@@ -16,12 +19,15 @@ import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
 import org.springframework.batch.item.file.transform.LineAggregator;
 import org.springframework.batch.item.file.transform.PassThroughLineAggregator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
 import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
 import uk.ac.ebi.quickgo.common.QuickGODocument;
 import uk.ac.ebi.quickgo.index.common.listener.ItemRateWriterListener;
@@ -32,6 +38,7 @@ import uk.ac.ebi.quickgo.index.common.writer.ListItemWriter;
 import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -59,12 +66,25 @@ public class CoTermsConfig {
 
     public static final String CO_TERM_MANUAL_SUMMARIZATION_STEP = "coTermManualSummarizationStep";
     public static final String CO_TERM_ALL_SUMMARIZATION_STEP = "coTermAllSummarizationStep";
+    private static final String CO_TERM_MANUAL_SUMMARIZATION_PARTITION_STEP = "coTermManualSummarizationPartitionStep";
+    private static final String CO_TERM_ALL_SUMMARIZATION_PARTITION_STEP = "coTermAllSummarizationPartitionStep";
+    private static final String CO_TERM_SUMMARIZATION_THREAD_NAME_PREFIX = "coTermSummarization-";
+    private static final int PARTITIONS_PER_THREAD = 4;
     private static final String[] FF_COL_NAMES = {"target", "comparedTerm", "probabilityRatio", "similarityRatio",
             "together", "compared"};
     private static final String DELIMITER = "\t";
+    public static final String PARTITION_INDEX_KEY = "partitionIndex";
 
     @Autowired
     private StepBuilderFactory stepBuilders;
+    @Autowired
+    private CoTermItemReader coTermsManualPartitionReader;
+    @Autowired
+    private CoTermItemReader coTermsAllPartitionReader;
+    @Autowired
+    private ListItemWriter<CoTerm> coTermsManualPartitionStatsWriter;
+    @Autowired
+    private ListItemWriter<CoTerm> coTermsAllPartitionStatsWriter;
 
     @Bean
     @ConfigurationProperties(prefix = "indexing.coterms")
@@ -77,12 +97,34 @@ public class CoTermsConfig {
        LOGGER.info("Created coTermManualSummarizationStep. Will write CoTerms to " + coTermsConfigProperties
                 .getManual());
 
-        return stepBuilders.get(CO_TERM_MANUAL_SUMMARIZATION_STEP)
+        if (coTermsConfigProperties.isPartitioned()) {
+            return partitionedSummarizationStep(CO_TERM_MANUAL_SUMMARIZATION_STEP,
+                    new CoTermsPartitioner(coTermsManualAggregationWriter(), coTermsConfigProperties.getManual()),
+                    stepBuilders.get(CO_TERM_MANUAL_SUMMARIZATION_PARTITION_STEP)
+                            .<String, List<CoTerm>>chunk(coTermsConfigProperties.getChunkSize())
+                            .reader(coTermsManualPartitionReader)
+                            .processor(coTermsManualCalculator(coTermsManualAggregationWriter()))
+                            .writer(coTermsManualPartitionStatsWriter)
+                            .listener(logWriteRateListener(coTermsConfigProperties.getLoginterval()))
+                            .listener(skipLogListener())
+                            .build(),
+                    coTermsConfigProperties.getManual(),
+                    coTermsConfigProperties.getThreads(),
+                    binaryFileWriter(coTermsConfigProperties, coTermsManualAggregationWriter(),
+                            coTermsConfigProperties.getManual(), coTermsConfigProperties.getManualBinary()));
+        }
+
+        SimpleStepBuilder<String, List<CoTerm>> step = stepBuilders.get(CO_TERM_MANUAL_SUMMARIZATION_STEP)
                 .<String, List<CoTerm>>chunk(coTermsConfigProperties.getChunkSize())
                 .reader(coTermsManualReader(coTermsManualAggregationWriter()))
                 .processor(coTermsManualCalculator(coTermsManualAggregationWriter()))
                 .writer(coTermsManualStatsWriter(
-                        new FileSystemResource(coTermsConfigProperties.getManual())))
+                        new FileSystemResource(coTermsConfigProperties.getManual())));
+        binaryFileWriter(coTermsConfigProperties, coTermsManualAggregationWriter(), coTermsConfigProperties.getManual(),
+                coTermsConfigProperties.getManualBinary())
+                .ifPresent(step::listener);
+
+        return step
                 .listener(logStepListener())
                 .listener(logWriteRateListener(coTermsConfigProperties.getLoginterval()))
                 .listener(skipLogListener())
@@ -95,11 +137,33 @@ public class CoTermsConfig {
                 "Created coTermAllSummarizationStep. Will write CoTerms to " +
                         coTermsConfigProperties.getAll());
 
-        return stepBuilders.get(CO_TERM_ALL_SUMMARIZATION_STEP)
+        if (coTermsConfigProperties.isPartitioned()) {
+            return partitionedSummarizationStep(CO_TERM_ALL_SUMMARIZATION_STEP,
+                    new CoTermsPartitioner(coTermsAllAggregationWriter(), coTermsConfigProperties.getAll()),
+                    stepBuilders.get(CO_TERM_ALL_SUMMARIZATION_PARTITION_STEP)
+                            .<String, List<CoTerm>>chunk(coTermsConfigProperties.getChunkSize())
+                            .reader(coTermsAllPartitionReader)
+                            .processor(coTermsAllCalculator(coTermsAllAggregationWriter()))
+                            .writer(coTermsAllPartitionStatsWriter)
+                            .listener(logWriteRateListener(coTermsConfigProperties.getLoginterval()))
+                            .listener(skipLogListener())
+                            .build(),
+                    coTermsConfigProperties.getAll(),
+                    coTermsConfigProperties.getThreads(),
+                    binaryFileWriter(coTermsConfigProperties, coTermsAllAggregationWriter(),
+                            coTermsConfigProperties.getAll(), coTermsConfigProperties.getAllBinary()));
+        }
+
+        SimpleStepBuilder<String, List<CoTerm>> step = stepBuilders.get(CO_TERM_ALL_SUMMARIZATION_STEP)
                 .<String, List<CoTerm>>chunk(coTermsConfigProperties.getChunkSize())
                 .reader(coTermsAllReader(coTermsAllAggregationWriter()))
                 .processor(coTermsAllCalculator(coTermsAllAggregationWriter()))
-                .writer(coTermsAllStatsWriter(new FileSystemResource(coTermsConfigProperties.getAll())))
+                .writer(coTermsAllStatsWriter(new FileSystemResource(coTermsConfigProperties.getAll())));
+        binaryFileWriter(coTermsConfigProperties, coTermsAllAggregationWriter(), coTermsConfigProperties.getAll(),
+                coTermsConfigProperties.getAllBinary())
+                .ifPresent(step::listener);
+
+        return step
                 .listener(logStepListener())
                 .listener(logWriteRateListener(coTermsConfigProperties.getLoginterval()))
                 .listener(skipLogListener())
@@ -116,6 +180,20 @@ public class CoTermsConfig {
         return new CoTermsAggregationWriter(INCLUDE_ALL_ANNOTATIONS);
     }
 
+    @Bean
+    @StepScope
+    public CoTermsPartitionAggregationWriter coTermsManualPartitionAggregationWriter(
+            @Value("#{stepExecutionContext['" + PARTITION_INDEX_KEY + "']}") int partitionIndex) {
+        return new CoTermsPartitionAggregationWriter(coTermsManualAggregationWriter(), partitionIndex);
+    }
+
+    @Bean
+    @StepScope
+    public CoTermsPartitionAggregationWriter coTermsAllPartitionAggregationWriter(
+            @Value("#{stepExecutionContext['" + PARTITION_INDEX_KEY + "']}") int partitionIndex) {
+        return new CoTermsPartitionAggregationWriter(coTermsAllAggregationWriter(), partitionIndex);
+    }
+
     @Bean
     public CoTermsProcessor coTermsManualCalculator(CoTermsAggregationWriter coTermsManualAggregationWriter) {
         return new CoTermsProcessor(coTermsManualAggregationWriter);
@@ -127,6 +205,87 @@ public class CoTermsConfig {
         return new CoTermsProcessor(coTermsAllAggregationWriter);
     }
 
+    /**
+     * Reads the range of GO terms of a partition created by {@link CoTermsPartitioner}, from the 'manual' aggregation.
+     */
+    @Bean
+    @StepScope
+    public CoTermItemReader coTermsManualPartitionReader(
+            @Value("#{stepExecutionContext['" + CoTermsPartitioner.FROM_INDEX_KEY + "']}") int fromIndex,
+            @Value("#{stepExecutionContext['" + CoTermsPartitioner.TO_INDEX_KEY + "']}") int toIndex) {
+        return new CoTermItemReader(coTermsManualAggregationWriter(), fromIndex, toIndex);
+    }
+
+    /**
+     * Reads the range of GO terms of a partition created by {@link CoTermsPartitioner}, from the 'all' aggregation.
+     */
+    @Bean
+    @StepScope
+    public CoTermItemReader coTermsAllPartitionReader(
+            @Value("#{stepExecutionContext['" + CoTermsPartitioner.FROM_INDEX_KEY + "']}") int fromIndex,
+            @Value("#{stepExecutionContext['" + CoTermsPartitioner.TO_INDEX_KEY + "']}") int toIndex) {
+        return new CoTermItemReader(coTermsAllAggregationWriter(), fromIndex, toIndex);
+    }
+
+    /**
+     * Writes the 'manual' co-occurrence statistics of a partition to its shard, which has no header.
+     */
+    @Bean
+    @StepScope
+    public ListItemWriter<CoTerm> coTermsManualPartitionStatsWriter(
+            @Value("#{stepExecutionContext['" + CoTermsPartitioner.SHARD_KEY + "']}") String shard) {
+        return shardWriter(shard);
+    }
+
+    /**
+     * Writes the 'all' co-occurrence statistics of a partition to its shard, which has no header.
+     */
+    @Bean
+    @StepScope
+    public ListItemWriter<CoTerm> coTermsAllPartitionStatsWriter(
+            @Value("#{stepExecutionContext['" + CoTermsPartitioner.SHARD_KEY + "']}") String shard) {
+        return shardWriter(shard);
+    }
+
+    /**
+     * Calculates the co-occurrence statistics of contiguous ranges of GO terms in concurrent partitions, each
+     * writing its own shard. Once every partition has completed, the shards are concatenated, in order, into the
+     * co-terms file.
+     */
+    private Step partitionedSummarizationStep(String stepName, CoTermsPartitioner partitioner, Step partitionStep,
+            String outputPath, int threads, Optional<StepExecutionListener> binaryFileWriter) {
+        int gridSize = threads * PARTITIONS_PER_THREAD;
+        PartitionStepBuilder step = stepBuilders.get(stepName)
+                .partitioner(partitionStep.getName(), partitioner)
+                .step(partitionStep)
+                .gridSize(gridSize)
+                .taskExecutor(partitionTaskExecutor(threads));
+        binaryFileWriter.ifPresent(step::listener);
+        return step
+                .listener(logStepListener())
+                .listener(new CoTermsShardMerger(outputPath, gridSize))
+                .build();
+    }
+
+    /**
+     * Step listeners run after a step in the reverse of the order in which they were registered, so the binary
+     * co-terms file writer is registered before any other listener, to run once the co-terms file is complete.
+     */
+    private Optional<StepExecutionListener> binaryFileWriter(CoTermsConfigProperties coTermsConfigProperties,
+            CoTermsAggregationWriter aggregator, String outputPath, String binaryPath) {
+        if (!coTermsConfigProperties.isBinary()) {
+            return Optional.empty();
+        }
+        LOGGER.info("Write out binary co-occurring terms to {}", binaryPath);
+        return Optional.of(new CoTermsBinaryFileWriter(aggregator, outputPath, binaryPath));
+    }
+
+    private TaskExecutor partitionTaskExecutor(int threads) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(CO_TERM_SUMMARIZATION_THREAD_NAME_PREFIX);
+        taskExecutor.setConcurrencyLimit(threads);
+        return taskExecutor;
+    }
+
     private ItemReader<String> coTermsManualReader(
             CoTermsAggregationWriter coTermsManualAggregationWriter) {
         return new CoTermItemReader(coTermsManualAggregationWriter);
@@ -155,6 +314,16 @@ public class CoTermsConfig {
         return listWriter;
     }
 
+    private ListItemWriter<CoTerm> shardWriter(String shard) {
+        checkArgument(Objects.nonNull(shard), "The shard path for the coterms file cannot be null");
+        FlatFileItemWriter<CoTerm> ffw = new FlatFileItemWriter<>();
+        ffw.setLineAggregator(lineAggregator());
+        ffw.setResource(new FileSystemResource(shard));
+        ListItemWriter<CoTerm> listWriter = new ListItemWriter<>(ffw);
+        listWriter.setLineAggregator(new PassThroughLineAggregator<>());
+        return listWriter;
+    }
+
     private FlatFileItemWriter<CoTerm> flatFileWriter(Resource outputFile) {
         FlatFileItemWriter<CoTerm> ffw = new FlatFileItemWriter<>();
         ffw.setLineAggregator(lineAggregator());
@@ -11,15 +11,19 @@ import com.google.common.base.Preconditions;
  * @author Edd
  */
 public class CoTermsConfigProperties {
-    private static final int DEFAULT_CHUNK_SIZE = 1;
+    private static final int DEFAULT_CHUNK_SIZE = 100;
     private static final int DEFAULT_LOG_INTERVAL = 1000;
     private static final String DEFAULT_MANUAL_PATH = System.getProperty("user.home") + "/QuickGO/CoTermsManual";
     private static final String DEFAULT_ALL_PATH = System.getProperty("user.home") + "/QuickGO/CoTermsAll";
+    private static final String BINARY_SUFFIX = ".bin";
 
     private int chunkSize = DEFAULT_CHUNK_SIZE;
     private int loginterval = DEFAULT_LOG_INTERVAL;
     private String manual = DEFAULT_MANUAL_PATH;
     private String all = DEFAULT_ALL_PATH;
+    private boolean partitioned = false;
+    private int threads = 0;
+    private boolean binary = false;
 
     public int getChunkSize() {
         return chunkSize;
@@ -64,4 +68,48 @@ public class CoTermsConfigProperties {
     public void setAll(String all) {
         this.all = all;
     }
+
+    /**
+     * @return whether the co-occurrence statistics are calculated by concurrent partitions, each writing a shard of
+     * the co-terms file.
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    public void setPartitioned(boolean partitioned) {
+        this.partitioned = partitioned;
+    }
+
+    /**
+     * @return the number of partitions calculating co-occurrence statistics concurrently; 0 (the default) means one
+     * per available processor.
+     */
+    public int getThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * @return whether the co-occurrence statistics are also written in binary, alongside each co-terms file, with
+     * the suffix {@value #BINARY_SUFFIX}.
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public String getManualBinary() {
+        return getManual() + BINARY_SUFFIX;
+    }
+
+    public String getAllBinary() {
+        return getAll() + BINARY_SUFFIX;
+    }
 }
@@ -0,0 +1,85 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.batch.item.support.AbstractItemStreamItemWriter;
+
+import static uk.ac.ebi.quickgo.index.annotation.coterms.GeneProductBatch.buildBatch;
+
+/**
+ * Aggregates the co-occurrence data for the annotations read by a single partition of a partitioned annotation
+ * indexing step, i.e., the annotations from one input file.
+ *
+ * Each partition is written by its own thread, and its own instance of this class. The annotations for a gene
+ * product are complete once a partition has moved on to the next gene product, and are then added to this
+ * partition's own counts, so that partitions do not contend for the shared {@link CoTermsAggregationWriter} while
+ * they are read. The first and last gene products read by a partition may also be annotated in the neighbouring input
+ * files, so these are handed to the shared writer, with the partition's counts, when the partition is closed, to be
+ * joined and merged when all partitions have completed, via {@link CoTermsAggregationWriter#completePartitions()}.
+ *
+ * <B>*IMPORTANT* As for {@link CoTermsAggregationWriter}, the AnnotationDocuments need to be passed to the write method
+ * in gene product order (asc).</B>
+ */
+public class CoTermsPartitionAggregationWriter extends AbstractItemStreamItemWriter<AnnotationDocument> {
+    private final CoTermsAggregationWriter aggregationWriter;
+    private final int partitionIndex;
+
+    private CoTermCounts counts = new CoTermCounts();
+    private GeneProductBatch firstBatch;
+    private GeneProductBatch geneProductBatch;
+
+    public CoTermsPartitionAggregationWriter(CoTermsAggregationWriter aggregationWriter, int partitionIndex) {
+        Preconditions.checkArgument(aggregationWriter != null, "Null aggregation writer passed to " +
+                "CoTermsPartitionAggregationWriter constructor.");
+        Preconditions.checkArgument(partitionIndex >= 0, "Partition index cannot be negative: %s", partitionIndex);
+
+        this.aggregationWriter = aggregationWriter;
+        this.partitionIndex = partitionIndex;
+    }
+
+    @Override
+    public void write(List<? extends AnnotationDocument> items) throws Exception {
+        Preconditions.checkArgument(items != null, "Null annotation passed to process");
+        items.stream()
+                .filter(aggregationWriter.getToBeProcessed())
+                .forEach(this::addGOTermToAggregationForGeneProduct);
+    }
+
+    /**
+     * When all of this partition's annotation documents have been written, hand its counts, and its first and last
+     * gene product batches, to the shared aggregation writer.
+     */
+    @Override
+    public void close() {
+        List<GeneProductBatch> boundaries = new ArrayList<>();
+        if (firstBatch != null) {
+            boundaries.add(firstBatch);
+        }
+        if (geneProductBatch != null) {
+            boundaries.add(geneProductBatch);
+        }
+        aggregationWriter.addPartition(partitionIndex, counts, boundaries);
+
+        counts = new CoTermCounts();
+        firstBatch = null;
+        geneProductBatch = null;
+    }
+
+    private void addGOTermToAggregationForGeneProduct(AnnotationDocument doc) {
+        if (geneProductBatch == null) {
+            geneProductBatch = buildBatch(doc);
+        } else if (!doc.geneProductId.equals(geneProductBatch.geneProduct)) {
+            if (firstBatch == null) {
+                firstBatch = geneProductBatch;
+            } else {
+                counts.add(geneProductBatch);
+            }
+            geneProductBatch = buildBatch(doc);
+        } else {
+            geneProductBatch.addTerm(doc.goId);
+        }
+    }
+}
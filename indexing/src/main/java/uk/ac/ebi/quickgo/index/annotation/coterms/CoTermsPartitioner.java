@@ -0,0 +1,64 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import com.google.common.base.Preconditions;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * Divides the GO terms with co-occurring terms, in ascending order, into contiguous ranges, one per partition, so
+ * that the co-occurrence statistics for each range can be calculated concurrently. Each partition's
+ * {@link ExecutionContext} holds its range of terms, and the shard file to which it writes the statistics. Since the
+ * ranges are contiguous, concatenating the shards in partition order gives the same file as calculating the
+ * statistics serially.
+ */
+class CoTermsPartitioner implements Partitioner {
+    static final String FROM_INDEX_KEY = "fromIndex";
+    static final String TO_INDEX_KEY = "toIndex";
+    static final String SHARD_KEY = "shard";
+    private static final String PARTITION_NAME_PREFIX = "partition";
+    private static final String SHARD_SUFFIX = ".shard";
+
+    private final CoTermsAggregationWriter aggregator;
+    private final String outputPath;
+
+    CoTermsPartitioner(CoTermsAggregationWriter aggregator, String outputPath) {
+        Preconditions.checkArgument(aggregator != null, "Co-terms aggregator cannot be null");
+        Preconditions.checkArgument(outputPath != null, "Co-terms output path cannot be null");
+        this.aggregator = aggregator;
+        this.outputPath = outputPath;
+    }
+
+    /**
+     * The shard file written by a partition.
+     * @param outputPath the path of the co-terms file the shards are concatenated into.
+     * @param partitionIndex the position of the partition's range of terms amongst all the ranges.
+     * @return the path of the shard file.
+     */
+    static String shardPath(String outputPath, int partitionIndex) {
+        return outputPath + SHARD_SUFFIX + partitionIndex;
+    }
+
+    /**
+     * Create {@code gridSize} partitions, with ranges of terms that differ in size by at most one term.
+     * @param gridSize the number of partitions to create.
+     * @return the execution context for each partition, keyed by partition name.
+     */
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Preconditions.checkArgument(gridSize > 0, "Grid size must be positive: %s", gridSize);
+
+        int termCount = aggregator.getCoTerms().size();
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (int i = 0; i < gridSize; i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putInt(FROM_INDEX_KEY, (int) ((long) termCount * i / gridSize));
+            context.putInt(TO_INDEX_KEY, (int) ((long) termCount * (i + 1) / gridSize));
+            context.putInt(CoTermsConfig.PARTITION_INDEX_KEY, i);
+            context.putString(SHARD_KEY, shardPath(outputPath, i));
+            partitions.put(PARTITION_NAME_PREFIX + i, context);
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,83 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+/**
+ * Once every partition of a partitioned co-terms summarization step has written its shard, concatenates the shards,
+ * in partition order, beneath the co-terms header, into the co-terms file, then deletes them.
+ * <p>
+ * Every partition writes a shard, even if it is empty, so a missing shard means that partition's co-terms were lost.
+ * If a shard is missing, or the shards cannot be merged, the step is failed, rather than only given a failed exit
+ * status, so that the job stops, instead of going on without a complete co-terms file. An exception thrown from a
+ * step listener would only be logged by the step.
+ */
+class CoTermsShardMerger implements StepExecutionListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CoTermsShardMerger.class);
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    private final String outputPath;
+    private final int shardCount;
+
+    CoTermsShardMerger(String outputPath, int shardCount) {
+        Preconditions.checkArgument(outputPath != null, "Co-terms output path cannot be null");
+        Preconditions.checkArgument(shardCount > 0, "Shard count must be positive: %s", shardCount);
+        this.outputPath = outputPath;
+        this.shardCount = shardCount;
+    }
+
+    @Override public void beforeStep(StepExecution stepExecution) {}
+
+    @Override public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+            return stepExecution.getExitStatus();
+        }
+
+        try {
+            merge();
+            return stepExecution.getExitStatus();
+        } catch (IOException e) {
+            LOGGER.error("Failed to merge co-terms shards into " + outputPath, e);
+            stepExecution.setStatus(BatchStatus.FAILED);
+            stepExecution.addFailureException(e);
+            return ExitStatus.FAILED.addExitDescription(e);
+        }
+    }
+
+    void merge() throws IOException {
+        try (OutputStream output = Files.newOutputStream(Paths.get(outputPath))) {
+            Writer header = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            new CoTermsFlatFileHeaderCallBack().writeHeader(header);
+            header.write(LINE_SEPARATOR);
+            header.flush();
+
+            for (int i = 0; i < shardCount; i++) {
+                Path shard = Paths.get(CoTermsPartitioner.shardPath(outputPath, i));
+                if (!Files.exists(shard)) {
+                    throw new NoSuchFileException(shard.toString(), null,
+                            "Co-terms shard of partition " + i + " was not written");
+                }
+                Files.copy(shard, output);
+            }
+        }
+
+        for (int i = 0; i < shardCount; i++) {
+            Files.deleteIfExists(Paths.get(CoTermsPartitioner.shardPath(outputPath, i)));
+        }
+        LOGGER.info("Merged {} co-terms shards into {}", shardCount, outputPath);
+    }
+}
@@ -5,8 +5,13 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
+import uk.ac.ebi.quickgo.annotation.common.GoIdAncestors;
 import uk.ac.ebi.quickgo.index.common.DocumentReaderException;
 import uk.ac.ebi.quickgo.index.common.datafile.GOADataFileParsingHelper;
+import uk.ac.ebi.quickgo.model.ontology.generic.GenericTerm;
+import uk.ac.ebi.quickgo.model.ontology.generic.RelationType;
+import uk.ac.ebi.quickgo.model.ontology.generic.TermRelation;
+import uk.ac.ebi.quickgo.model.ontology.go.GeneOntology;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -133,6 +138,16 @@ class AnnotationDocumentConverterTest {
         assertThat(doc.withFrom, containsInAnyOrder("GO:0036376", "GO:0036377"));
     }
 
+    @Test
+    void withAndTargetSetsAreJoinedInOrderForExport() {
+        annotation.with = "GO:0036377|GO:0036376";
+
+        AnnotationDocument doc = converter.process(annotation);
+
+        assertThat(doc.withFromExport, is("GO:0036377|GO:0036376"));
+        assertThat(doc.targetSetsExport, is("BHF-UCL,Exosome,KRUK"));
+    }
+
     // annotation properties: go evidence
     @Test
     void convertsNullGOEvidenceAnnotationPropertiesToNullValue() {
@@ -528,6 +543,37 @@ class AnnotationDocumentConverterTest {
         assertThat(doc.gpRelatedGoIds, contains(go1, go2));
     }
 
+    @Test
+    void nullGoTermAncestorsThrowsException() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new AnnotationDocumentConverter(null));
+    }
+
+    @Test
+    void convertsGoIdWithoutOntologyToNullGoIdAncestors() {
+        AnnotationDocument doc = converter.process(annotation);
+
+        assertThat(doc.goIdAncestors, is(nullValue()));
+    }
+
+    @Test
+    void convertsGoIdToItsAncestors() {
+        String parentGoId = "GO:0005524";
+        GeneOntology ontology = new GeneOntology();
+        GenericTerm term = new GenericTerm(annotation.goId, annotation.goId, "N");
+        GenericTerm parent = new GenericTerm(parentGoId, parentGoId, "N");
+        term.parents.add(new TermRelation(term, parent, RelationType.ISA));
+        ontology.addTerm(term);
+        ontology.addTerm(parent);
+        converter = new AnnotationDocumentConverter(GoTermAncestors.fromOntology(ontology));
+
+        AnnotationDocument doc = converter.process(annotation);
+
+        String isAKey = GoIdAncestors.indexedRelationsKey("is_a").get();
+        assertThat(doc.goIdAncestors, hasItems(
+                GoIdAncestors.value(isAKey, annotation.goId),
+                GoIdAncestors.value(isAKey, parentGoId)));
+    }
+
     private String constructGeneProductId(Annotation annotation) {return annotation.db + ":" + annotation.dbObjectId;}
 
     private String buildKeyValuesPair(String key, String... values) {
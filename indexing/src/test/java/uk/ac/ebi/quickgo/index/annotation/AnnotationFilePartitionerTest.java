@@ -0,0 +1,64 @@
+package uk.ac.ebi.quickgo.index.annotation;
+
+import uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the behaviour of the {@link AnnotationFilePartitioner} class.
+ */
+class AnnotationFilePartitionerTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void nullResourcesThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new AnnotationFilePartitioner(null));
+    }
+
+    @Test
+    void partitionsAreNumberedInTheOrderOfTheirFileNames() throws IOException {
+        Resource[] resources = {resource("annotations-b.gpa.gz"), resource("annotations-c.gpa.gz"),
+                resource("annotations-a.gpa.gz")};
+
+        Map<String, ExecutionContext> partitions = new AnnotationFilePartitioner(resources).partition(1);
+
+        assertThat(partitions.size(), is(3));
+        assertPartition(partitions, 0, "annotations-a.gpa.gz");
+        assertPartition(partitions, 1, "annotations-b.gpa.gz");
+        assertPartition(partitions, 2, "annotations-c.gpa.gz");
+    }
+
+    @Test
+    void resourcesSuppliedAreNotReordered() {
+        Resource[] resources = {resource("annotations-b.gpa.gz"), resource("annotations-a.gpa.gz")};
+
+        new AnnotationFilePartitioner(resources);
+
+        assertThat(resources[0].getFilename(), is("annotations-b.gpa.gz"));
+    }
+
+    private Resource resource(String fileName) {
+        return new FileSystemResource(folder.resolve(fileName));
+    }
+
+    private void assertPartition(Map<String, ExecutionContext> partitions, int index, String fileName)
+            throws IOException {
+        ExecutionContext partition = partitions.get("partition" + index);
+        assertThat(partition.getInt(CoTermsConfig.PARTITION_INDEX_KEY), is(index));
+        assertThat(partition.getString(AnnotationFilePartitioner.RESOURCE_KEY),
+                is(resource(fileName).getURL().toExternalForm()));
+    }
+}
@@ -11,13 +11,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
 import uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfigProperties;
 import uk.ac.ebi.quickgo.index.common.JobTestRunnerConfig;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
@@ -35,6 +41,8 @@ import static uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfig.CO_TERM_M
 @SpringBootTest(classes = {CoTermIndexingBatchIT.TestConfig.class, CoTermIndexingConfig.class,
   JobTestRunnerConfig.class})
 class CoTermIndexingBatchIT {
+    static final String CO_TERMS_MANUAL = "CoTermsManual";
+    static final String CO_TERMS_ALL = "CoTermsAll";
 
     @TempDir
     private static Path basicTemporaryFolder;
@@ -90,6 +98,24 @@ class CoTermIndexingBatchIT {
         //Has finished
         BatchStatus status = jobExecution.getStatus();
         assertThat(status, is(BatchStatus.COMPLETED));
+
+        assertThat(Files.readAllBytes(basicTemporaryFolder.resolve(CO_TERMS_MANUAL)),
+                is(expectedCoTerms(CO_TERMS_MANUAL)));
+        assertThat(Files.readAllBytes(basicTemporaryFolder.resolve(CO_TERMS_ALL)), is(expectedCoTerms(CO_TERMS_ALL)));
+    }
+
+    /**
+     * The co-terms file expected to be written from the test annotations, with the line separator of the platform the
+     * file is written on.
+     */
+    static byte[] expectedCoTerms(String fileName) throws IOException {
+        ClassPathResource expected = new ClassPathResource("coterms/" + fileName);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(expected.getInputStream(), UTF_8))) {
+            return reader.lines()
+                    .map(line -> line + System.lineSeparator())
+                    .collect(Collectors.joining())
+                    .getBytes(UTF_8);
+        }
     }
 
     /**
@@ -103,8 +129,8 @@ class CoTermIndexingBatchIT {
             CoTermsConfigProperties properties = new CoTermsConfigProperties();
             properties.setChunkSize(1);
             properties.setLoginterval(1000);
-            properties.setManual(basicTemporaryFolder + "/CoTermsManual");
-            properties.setAll(basicTemporaryFolder + "/CoTermsAll");
+            properties.setManual(basicTemporaryFolder.resolve(CO_TERMS_MANUAL).toString());
+            properties.setAll(basicTemporaryFolder.resolve(CO_TERMS_ALL).toString());
             return properties;
         }
     }
@@ -0,0 +1,91 @@
+package uk.ac.ebi.quickgo.index.annotation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfigProperties;
+import uk.ac.ebi.quickgo.index.common.JobTestRunnerConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static uk.ac.ebi.quickgo.index.annotation.CoTermIndexingBatchIT.CO_TERMS_ALL;
+import static uk.ac.ebi.quickgo.index.annotation.CoTermIndexingBatchIT.CO_TERMS_MANUAL;
+import static uk.ac.ebi.quickgo.index.annotation.CoTermIndexingBatchIT.expectedCoTerms;
+import static uk.ac.ebi.quickgo.index.annotation.CoTermIndexingConfig.COTERM_INDEXING_JOB_NAME;
+import static uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfig.CO_TERM_ALL_SUMMARIZATION_STEP;
+import static uk.ac.ebi.quickgo.index.annotation.coterms.CoTermsConfig.CO_TERM_MANUAL_SUMMARIZATION_STEP;
+
+/**
+ * Tests that calculating the co-occurrence statistics in concurrent partitions writes co-terms files identical to
+ * those written by {@link CoTermIndexingBatchIT}, which calculates them serially.
+ */
+@SpringBootTest(classes = {CoTermIndexingPartitionedBatchIT.TestConfig.class, CoTermIndexingConfig.class,
+  JobTestRunnerConfig.class})
+class CoTermIndexingPartitionedBatchIT {
+
+    @TempDir
+    private static Path partitionedTemporaryFolder;
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Test
+    void partitionedCoTermsOnlyJobWritesTheSameFilesAsTheSerialJob() throws Exception {
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob();
+        assertThat(jobExecution.getJobInstance().getJobName(), is(COTERM_INDEXING_JOB_NAME));
+
+        assertThat(summarizationStep(jobExecution, CO_TERM_MANUAL_SUMMARIZATION_STEP).getStatus(),
+                is(BatchStatus.COMPLETED));
+        assertThat(summarizationStep(jobExecution, CO_TERM_ALL_SUMMARIZATION_STEP).getStatus(),
+                is(BatchStatus.COMPLETED));
+        assertThat(jobExecution.getStatus(), is(BatchStatus.COMPLETED));
+
+        assertThat(Files.readAllBytes(partitionedTemporaryFolder.resolve(CO_TERMS_MANUAL)),
+                is(expectedCoTerms(CO_TERMS_MANUAL)));
+        assertThat(Files.readAllBytes(partitionedTemporaryFolder.resolve(CO_TERMS_ALL)),
+                is(expectedCoTerms(CO_TERMS_ALL)));
+    }
+
+    private static StepExecution summarizationStep(JobExecution jobExecution, String stepName) {
+        List<StepExecution> steps = jobExecution.getStepExecutions()
+                .stream()
+                .filter(step -> step.getStepName().equals(stepName))
+                .collect(Collectors.toList());
+        assertThat(steps, hasSize(1));
+        return steps.get(0);
+    }
+
+    /**
+     * Configure properties used by co-term generation, using test values, calculating the statistics in more
+     * partitions than there are terms, so that some partitions are empty.
+     */
+    @Configuration
+    public static class TestConfig {
+        @Primary
+        @Bean
+        public CoTermsConfigProperties primaryCoTermsConfigProperties() {
+            CoTermsConfigProperties properties = new CoTermsConfigProperties();
+            properties.setChunkSize(1);
+            properties.setLoginterval(1000);
+            properties.setManual(partitionedTemporaryFolder.resolve(CO_TERMS_MANUAL).toString());
+            properties.setAll(partitionedTemporaryFolder.resolve(CO_TERMS_ALL).toString());
+            properties.setPartitioned(true);
+            properties.setThreads(2);
+            return properties;
+        }
+    }
+}
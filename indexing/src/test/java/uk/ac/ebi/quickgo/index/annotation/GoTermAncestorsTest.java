@@ -0,0 +1,140 @@
+package uk.ac.ebi.quickgo.index.annotation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.quickgo.annotation.common.GoIdAncestors;
+import uk.ac.ebi.quickgo.model.ontology.generic.GenericTerm;
+import uk.ac.ebi.quickgo.model.ontology.generic.RelationType;
+import uk.ac.ebi.quickgo.model.ontology.generic.TermRelation;
+import uk.ac.ebi.quickgo.model.ontology.go.GeneOntology;
+
+import java.io.File;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GoTermAncestorsTest {
+    private static final String ROOT = "GO:0000001";
+    private static final String PART = "GO:0000002";
+    private static final String REGULATOR = "GO:0000003";
+    private static final String CHILD = "GO:0000004";
+
+    private static final String IS_A = "is_a";
+    private static final String IS_A_PART_OF_OCCURS_IN = "is_a,part_of,occurs_in";
+
+    private GeneOntology ontology;
+
+    @BeforeEach
+    void setUp() {
+        ontology = new GeneOntology();
+        GenericTerm root = addTerm(ROOT);
+        GenericTerm part = addTerm(PART);
+        GenericTerm regulator = addTerm(REGULATOR);
+        GenericTerm child = addTerm(CHILD);
+
+        relate(part, root, RelationType.PARTOF);
+        relate(regulator, part, RelationType.POSITIVEREGULATES);
+        relate(child, regulator, RelationType.ISA);
+    }
+
+    @Test
+    void nullOntologyThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> GoTermAncestors.fromOntology(null));
+    }
+
+    @Test
+    void emptyHasNoAncestors() {
+        assertThat(GoTermAncestors.empty().ancestorValues(CHILD), is(nullValue()));
+    }
+
+    @Test
+    void unknownTermHasNoAncestors() {
+        assertThat(GoTermAncestors.fromOntology(ontology).ancestorValues("GO:9999999"), is(nullValue()));
+    }
+
+    @Test
+    void termIsItsOwnAncestorOverEveryIndexedSetOfRelationships() {
+        List<String> values = GoTermAncestors.fromOntology(ontology).ancestorValues(ROOT);
+
+        assertThat(values, containsInAnyOrder(
+                value(IS_A, ROOT),
+                value(IS_A_PART_OF_OCCURS_IN, ROOT),
+                value(GoIdAncestors.DEFAULT_RELATIONS, ROOT)));
+    }
+
+    @Test
+    void ancestorsAreOnlyReachedOverTheIndexedRelationships() {
+        List<String> values = GoTermAncestors.fromOntology(ontology).ancestorValues(CHILD);
+
+        assertThat(values, hasItems(value(IS_A, REGULATOR), value(IS_A_PART_OF_OCCURS_IN, REGULATOR)));
+        assertThat(values, not(hasItem(value(IS_A_PART_OF_OCCURS_IN, PART))));
+    }
+
+    @Test
+    void positivelyRegulatesIsTraversedAsRegulates() {
+        List<String> values = GoTermAncestors.fromOntology(ontology).ancestorValues(CHILD);
+
+        assertThat(values, hasItems(
+                value(GoIdAncestors.DEFAULT_RELATIONS, CHILD),
+                value(GoIdAncestors.DEFAULT_RELATIONS, REGULATOR),
+                value(GoIdAncestors.DEFAULT_RELATIONS, PART),
+                value(GoIdAncestors.DEFAULT_RELATIONS, ROOT)));
+    }
+
+    @Test
+    void cyclicRelationshipsDoNotPreventAncestorsBeingComputed() {
+        relate(ontology.getTerm(ROOT), ontology.getTerm(CHILD), RelationType.ISA);
+
+        List<String> values = GoTermAncestors.fromOntology(ontology).ancestorValues(ROOT);
+
+        assertThat(values, hasItems(value(IS_A, ROOT), value(IS_A, CHILD)));
+    }
+
+    @Test
+    void everyTermInACycleHasEveryOtherTermInTheCycleAsAnAncestor() {
+        relate(ontology.getTerm(ROOT), ontology.getTerm(CHILD), RelationType.ISA);
+
+        GoTermAncestors ancestors = GoTermAncestors.fromOntology(ontology);
+
+        for (String goId : asList(ROOT, PART, REGULATOR, CHILD)) {
+            assertThat(goId, ancestors.ancestorValues(goId), hasItems(
+                    value(GoIdAncestors.DEFAULT_RELATIONS, ROOT),
+                    value(GoIdAncestors.DEFAULT_RELATIONS, PART),
+                    value(GoIdAncestors.DEFAULT_RELATIONS, REGULATOR),
+                    value(GoIdAncestors.DEFAULT_RELATIONS, CHILD)));
+        }
+        assertThat(ancestors.ancestorValues(CHILD), containsInAnyOrder(
+                value(IS_A, CHILD),
+                value(IS_A, REGULATOR),
+                value(IS_A_PART_OF_OCCURS_IN, CHILD),
+                value(IS_A_PART_OF_OCCURS_IN, REGULATOR),
+                value(GoIdAncestors.DEFAULT_RELATIONS, ROOT),
+                value(GoIdAncestors.DEFAULT_RELATIONS, PART),
+                value(GoIdAncestors.DEFAULT_RELATIONS, REGULATOR),
+                value(GoIdAncestors.DEFAULT_RELATIONS, CHILD)));
+    }
+
+    @Test
+    void ontologyThatCannotBeLoadedThrowsException() {
+        assertThrows(IllegalStateException.class, () -> GoTermAncestors.load(new File("missing-ontology-directory")));
+    }
+
+    private GenericTerm addTerm(String id) {
+        GenericTerm term = new GenericTerm(id, id, "N");
+        ontology.addTerm(term);
+        return term;
+    }
+
+    private static void relate(GenericTerm child, GenericTerm parent, RelationType relationType) {
+        TermRelation relation = new TermRelation(child, parent, relationType);
+        child.parents.add(relation);
+        parent.children.add(relation);
+    }
+
+    private static String value(String relations, String goId) {
+        return GoIdAncestors.value(GoIdAncestors.indexedRelationsKey(relations).get(), goId);
+    }
+}
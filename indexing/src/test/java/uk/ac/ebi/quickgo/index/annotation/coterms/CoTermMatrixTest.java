@@ -0,0 +1,83 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+class CoTermMatrixTest {
+    private CoTermMatrix matrix;
+
+    @BeforeEach
+    void setup() {
+        matrix = new CoTermMatrix();
+    }
+
+    @Test
+    void termCoOccursWithItself() {
+        matrix.incrementCoTerms(new int[]{0});
+
+        assertThat(coTerms(0), is(counts(0, 1L)));
+    }
+
+    @Test
+    void termsInSameBatchCoOccurWithEachOther() {
+        matrix.incrementCoTerms(new int[]{0, 1});
+        matrix.incrementCoTerms(new int[]{1, 2});
+
+        assertThat(coTerms(0), is(counts(0, 1L, 1, 1L)));
+        assertThat(coTerms(1), is(counts(0, 1L, 1, 2L, 2, 1L)));
+        assertThat(coTerms(2), is(counts(1, 1L, 2, 1L)));
+    }
+
+    @Test
+    void addedCountsAreAddedToCountsAlreadyHeld() {
+        matrix.incrementCoTerms(new int[]{0, 1});
+        matrix.add(0, 1, 3L);
+        matrix.add(0, 2, 2L);
+
+        assertThat(coTerms(0), is(counts(0, 1L, 1, 4L, 2, 2L)));
+    }
+
+    @Test
+    void termWithoutCoTermsHasNone() {
+        matrix.incrementCoTerms(new int[]{0});
+
+        assertThat(coTerms(1).entrySet(), is(empty()));
+        assertThat(coTerms(100_000).entrySet(), is(empty()));
+    }
+
+    @Test
+    void countsAreKeptWhenRowsAndMatrixGrow() {
+        int[] termIds = IntStream.range(0, 3000).map(i -> i * 7).toArray();
+        matrix.incrementCoTerms(termIds);
+        matrix.incrementCoTerms(termIds);
+
+        Map<Integer, Long> coTerms = coTerms(termIds[termIds.length - 1]);
+
+        assertThat(coTerms.size(), is(termIds.length));
+        for (int termId : termIds) {
+            assertThat(coTerms.get(termId), is(2L));
+        }
+    }
+
+    private Map<Integer, Long> coTerms(int termId) {
+        Map<Integer, Long> coTerms = new HashMap<>();
+        matrix.forEachCoTerm(termId, coTerms::put);
+        return coTerms;
+    }
+
+    private static Map<Integer, Long> counts(Object... termIdsAndCounts) {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (int i = 0; i < termIdsAndCounts.length; i += 2) {
+            counts.put((Integer) termIdsAndCounts[i], (Long) termIdsAndCounts[i + 1]);
+        }
+        return counts;
+    }
+}
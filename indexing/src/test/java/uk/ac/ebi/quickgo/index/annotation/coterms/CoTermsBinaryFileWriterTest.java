@@ -0,0 +1,130 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import uk.ac.ebi.quickgo.annotation.common.CoTermsBinaryFormat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoTermsBinaryFileWriterTest {
+    private static final String HEADER = "Source Term|Compared Term|Probability Ratio|Significance Ratio|Together" +
+            " (Overlap)|Compared count";
+    private static final String GO_1 = "GO:0000001";
+    private static final String GO_2 = "GO:0000002";
+    private static final String GO_3 = "GO:0000003";
+    private static final List<String> TERMS = Arrays.asList(GO_1, GO_2, GO_3);
+
+    @TempDir
+    Path folder;
+
+    @Mock
+    private CoTermsAggregationWriter aggregator;
+
+    private Path coTerms;
+    private Path binary;
+
+    @BeforeEach
+    void setUp() {
+        coTerms = folder.resolve("CoTermsManual");
+        binary = folder.resolve("CoTermsManual.bin");
+    }
+
+    @Test
+    void recordsOfEachTermAreFoundThroughItsOffsets() throws IOException {
+        when(aggregator.getCoTerms()).thenReturn(TERMS);
+        Files.write(coTerms, Arrays.asList(HEADER,
+                GO_1 + "\t" + GO_1 + "\t1.5\t100.0\t2\t2",
+                GO_1 + "\t" + GO_3 + "\t0.75\t50.0\t1\t3",
+                GO_3 + "\t" + GO_3 + "\t1.0\t100.0\t3\t3"));
+
+        writer().write();
+
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(binary));
+        assertThat(file.getInt(CoTermsBinaryFormat.MAGIC_POSITION), is(CoTermsBinaryFormat.MAGIC));
+        assertThat(file.getInt(CoTermsBinaryFormat.VERSION_POSITION), is(CoTermsBinaryFormat.VERSION));
+        assertThat(file.getInt(CoTermsBinaryFormat.TERM_COUNT_POSITION), is(3));
+        assertThat(file.getLong(CoTermsBinaryFormat.RECORD_COUNT_POSITION), is(3L));
+        assertThat(term(file, 1), is(GO_2));
+        assertThat(offsets(file), is(new long[]{0, 2, 2, 3}));
+
+        int secondRecord = (int) CoTermsBinaryFormat.recordsPosition(3) + CoTermsBinaryFormat.RECORD_BYTES;
+        assertThat(file.getInt(secondRecord + CoTermsBinaryFormat.COMPARED_TERM_FIELD), is(2));
+        assertThat(file.getFloat(secondRecord + CoTermsBinaryFormat.PROBABILITY_RATIO_FIELD), is(0.75f));
+        assertThat(file.getFloat(secondRecord + CoTermsBinaryFormat.SIMILARITY_RATIO_FIELD), is(50.0f));
+        assertThat(file.getLong(secondRecord + CoTermsBinaryFormat.TOGETHER_FIELD), is(1L));
+        assertThat(file.getLong(secondRecord + CoTermsBinaryFormat.COMPARED_FIELD), is(3L));
+        assertThat(file.limit(), is((int) CoTermsBinaryFormat.recordsPosition(3) +
+                3 * CoTermsBinaryFormat.RECORD_BYTES));
+    }
+
+    @Test
+    void coTermsNotInAscendingOrderOfTargetCannotBeWritten() throws IOException {
+        when(aggregator.getCoTerms()).thenReturn(TERMS);
+        Files.write(coTerms, Arrays.asList(HEADER,
+                GO_2 + "\t" + GO_2 + "\t1.0\t100.0\t1\t1",
+                GO_1 + "\t" + GO_1 + "\t1.0\t100.0\t1\t1"));
+
+        assertThrows(IllegalStateException.class, () -> writer().write());
+    }
+
+    @Test
+    void coTermsOfTermsThatWereNotAggregatedCannotBeWritten() throws IOException {
+        when(aggregator.getCoTerms()).thenReturn(TERMS);
+        Files.write(coTerms, Arrays.asList(HEADER, "GO:0000004\tGO:0000004\t1.0\t100.0\t1\t1"));
+
+        assertThrows(IllegalStateException.class, () -> writer().write());
+    }
+
+    @Test
+    void stepFailsWhenBinaryFileCannotBeWritten() throws IOException {
+        when(aggregator.getCoTerms()).thenReturn(TERMS);
+        Files.write(coTerms, Arrays.asList(HEADER, "GO:0000004\tGO:0000004\t1.0\t100.0\t1\t1"));
+        StepExecution stepExecution = new StepExecution("coTermManualSummarizationStep", null);
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        stepExecution.setExitStatus(ExitStatus.COMPLETED);
+
+        ExitStatus exitStatus = writer().afterStep(stepExecution);
+
+        assertThat(exitStatus.getExitCode(), is(ExitStatus.FAILED.getExitCode()));
+        assertThat(stepExecution.getStatus(), is(BatchStatus.FAILED));
+    }
+
+    private CoTermsBinaryFileWriter writer() {
+        return new CoTermsBinaryFileWriter(aggregator, coTerms.toString(), binary.toString());
+    }
+
+    private static String term(ByteBuffer file, int termId) {
+        byte[] term = new byte[CoTermsBinaryFormat.TERM_BYTES];
+        file.get((int) CoTermsBinaryFormat.termsPosition() + termId * CoTermsBinaryFormat.TERM_BYTES, term);
+        return new String(term, StandardCharsets.US_ASCII);
+    }
+
+    private static long[] offsets(ByteBuffer file) {
+        long[] offsets = new long[4];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = file.getLong((int) CoTermsBinaryFormat.offsetsPosition(3) +
+                    i * CoTermsBinaryFormat.OFFSET_BYTES);
+        }
+        return offsets;
+    }
+}
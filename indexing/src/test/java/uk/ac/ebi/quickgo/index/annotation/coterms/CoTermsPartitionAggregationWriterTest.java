@@ -0,0 +1,157 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.ac.ebi.quickgo.annotation.common.AnnotationDocument;
+import uk.ac.ebi.quickgo.annotation.common.document.AnnotationDocMocker;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoTermsPartitionAggregationWriterTest {
+    private static final String GO_ID_1 = "GO:0000001";
+    private static final String GO_ID_2 = "GO:0000002";
+    private static final String GO_ID_3 = "GO:0000003";
+    private static final String GO_ID_4 = "GO:0000004";
+
+    private CoTermsAggregationWriter serialAggregator;
+    private CoTermsAggregationWriter partitionedAggregator;
+
+    @BeforeEach
+    void setup() {
+        serialAggregator = new CoTermsAggregationWriter(t -> true);
+        partitionedAggregator = new CoTermsAggregationWriter(t -> true);
+    }
+
+    @Test
+    void geneProductSpanningTwoPartitionsIsAggregatedAsIfSerial() throws Exception {
+        List<AnnotationDocument> firstFile = asList(
+                doc("A0A000", GO_ID_1),
+                doc("A0A001", GO_ID_2),
+                doc("A0A002", GO_ID_1));
+        List<AnnotationDocument> secondFile = asList(
+                doc("A0A002", GO_ID_3),
+                doc("A0A003", GO_ID_1),
+                doc("A0A003", GO_ID_4));
+
+        aggregateSerially(firstFile, secondFile);
+        aggregateInPartitions(firstFile, secondFile);
+
+        assertSameCoTerms(GO_ID_1, GO_ID_2, GO_ID_3, GO_ID_4);
+    }
+
+    @Test
+    void geneProductSpanningThreePartitionsIsAggregatedAsIfSerial() throws Exception {
+        List<AnnotationDocument> firstFile = asList(
+                doc("A0A000", GO_ID_1),
+                doc("A0A001", GO_ID_2));
+        List<AnnotationDocument> secondFile = singletonList(doc("A0A001", GO_ID_3));
+        List<AnnotationDocument> thirdFile = asList(
+                doc("A0A001", GO_ID_4),
+                doc("A0A002", GO_ID_2));
+
+        aggregateSerially(firstFile, secondFile, thirdFile);
+        aggregateInPartitions(firstFile, secondFile, thirdFile);
+
+        assertSameCoTerms(GO_ID_1, GO_ID_2, GO_ID_3, GO_ID_4);
+    }
+
+    @Test
+    void partitionsCompletingOutOfOrderAreAggregatedAsIfSerial() throws Exception {
+        List<AnnotationDocument> firstFile = asList(
+                doc("A0A000", GO_ID_1),
+                doc("A0A001", GO_ID_2));
+        List<AnnotationDocument> secondFile = asList(
+                doc("A0A001", GO_ID_1),
+                doc("A0A002", GO_ID_3));
+
+        aggregateSerially(firstFile, secondFile);
+        writePartition(1, secondFile);
+        writePartition(0, firstFile);
+        partitionedAggregator.completePartitions();
+
+        assertSameCoTerms(GO_ID_1, GO_ID_2, GO_ID_3);
+    }
+
+    @Test
+    void geneProductsWithinPartitionsThatInternTermsInDifferentOrdersAreAggregatedAsIfSerial() throws Exception {
+        List<AnnotationDocument> firstFile = asList(
+                doc("A0A000", GO_ID_1),
+                doc("A0A001", GO_ID_1),
+                doc("A0A001", GO_ID_2),
+                doc("A0A002", GO_ID_2),
+                doc("A0A002", GO_ID_3),
+                doc("A0A003", GO_ID_4));
+        List<AnnotationDocument> secondFile = asList(
+                doc("A0A004", GO_ID_4),
+                doc("A0A005", GO_ID_3),
+                doc("A0A005", GO_ID_1),
+                doc("A0A006", GO_ID_2),
+                doc("A0A006", GO_ID_1),
+                doc("A0A007", GO_ID_3));
+
+        aggregateSerially(firstFile, secondFile);
+        aggregateInPartitions(firstFile, secondFile);
+
+        assertSameCoTerms(GO_ID_1, GO_ID_2, GO_ID_3, GO_ID_4);
+    }
+
+    @Test
+    void exceptionThrownIfNullAggregationWriterPassedToConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new CoTermsPartitionAggregationWriter(null, 0));
+    }
+
+    @Test
+    void exceptionThrownIfNegativePartitionIndexPassedToConstructor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CoTermsPartitionAggregationWriter(partitionedAggregator, -1));
+    }
+
+    @Test
+    void exceptionThrownIfNullAnnotationsWritten() {
+        CoTermsPartitionAggregationWriter writer = new CoTermsPartitionAggregationWriter(partitionedAggregator, 0);
+        assertThrows(IllegalArgumentException.class, () -> writer.write(null));
+    }
+
+    private AnnotationDocument doc(String geneProductId, String goId) {
+        AnnotationDocument doc = AnnotationDocMocker.createAnnotationDoc(geneProductId);
+        doc.goId = goId;
+        return doc;
+    }
+
+    @SafeVarargs
+    private final void aggregateSerially(List<AnnotationDocument>... files) throws Exception {
+        for (List<AnnotationDocument> file : files) {
+            serialAggregator.write(file);
+        }
+        serialAggregator.close();
+    }
+
+    @SafeVarargs
+    private final void aggregateInPartitions(List<AnnotationDocument>... files) throws Exception {
+        for (int i = 0; i < files.length; i++) {
+            writePartition(i, files[i]);
+        }
+        partitionedAggregator.completePartitions();
+    }
+
+    private void writePartition(int partitionIndex, List<AnnotationDocument> file) throws Exception {
+        CoTermsPartitionAggregationWriter writer =
+                new CoTermsPartitionAggregationWriter(partitionedAggregator, partitionIndex);
+        writer.write(file);
+        writer.close();
+    }
+
+    private void assertSameCoTerms(String... goIds) {
+        for (String goId : goIds) {
+            assertThat(new HashSet<>(partitionedAggregator.createCoTermsForSelectedTerm(goId).highestSimilarity()),
+                    is(new HashSet<>(serialAggregator.createCoTermsForSelectedTerm(goId).highestSimilarity())));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoTermsPartitionerTest {
+    private static final String OUTPUT_PATH = "CoTermsManual";
+    private static final List<String> TERMS = Arrays.asList("GO:0000001", "GO:0000002", "GO:0000003",
+            "GO:0000004", "GO:0000005", "GO:0000006", "GO:0000007");
+
+    @Mock
+    private CoTermsAggregationWriter aggregator;
+
+    private CoTermsPartitioner partitioner;
+
+    @BeforeEach
+    void setUp() {
+        partitioner = new CoTermsPartitioner(aggregator, OUTPUT_PATH);
+    }
+
+    @Test
+    void nullAggregatorThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new CoTermsPartitioner(null, OUTPUT_PATH));
+    }
+
+    @Test
+    void nullOutputPathThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new CoTermsPartitioner(aggregator, null));
+    }
+
+    @Test
+    void nonPositiveGridSizeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> partitioner.partition(0));
+    }
+
+    @Test
+    void rangesAreContiguousAndCoverEveryTermInOrder() {
+        when(aggregator.getCoTerms()).thenReturn(TERMS);
+
+        Map<String, ExecutionContext> partitions = partitioner.partition(3);
+
+        List<String> partitionedTerms = new ArrayList<>();
+        for (int i = 0; i < partitions.size(); i++) {
+            ExecutionContext context = partitions.get("partition" + i);
+            assertThat(context.getInt(CoTermsConfig.PARTITION_INDEX_KEY), is(i));
+            assertThat(context.getString(CoTermsPartitioner.SHARD_KEY),
+                    is(CoTermsPartitioner.shardPath(OUTPUT_PATH, i)));
+            partitionedTerms.addAll(TERMS.subList(context.getInt(CoTermsPartitioner.FROM_INDEX_KEY),
+                    context.getInt(CoTermsPartitioner.TO_INDEX_KEY)));
+        }
+
+        assertThat(partitions.size(), is(3));
+        assertThat(partitionedTerms, is(TERMS));
+    }
+
+    @Test
+    void morePartitionsThanTermsCreatesEmptyRanges() {
+        when(aggregator.getCoTerms()).thenReturn(TERMS.subList(0, 1));
+
+        Map<String, ExecutionContext> partitions = partitioner.partition(2);
+
+        ExecutionContext first = partitions.get("partition0");
+        ExecutionContext second = partitions.get("partition1");
+        assertThat(first.getInt(CoTermsPartitioner.FROM_INDEX_KEY), is(0));
+        assertThat(first.getInt(CoTermsPartitioner.TO_INDEX_KEY), is(0));
+        assertThat(second.getInt(CoTermsPartitioner.FROM_INDEX_KEY), is(0));
+        assertThat(second.getInt(CoTermsPartitioner.TO_INDEX_KEY), is(1));
+    }
+}
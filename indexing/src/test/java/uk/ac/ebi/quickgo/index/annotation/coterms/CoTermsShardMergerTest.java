@@ -0,0 +1,101 @@
+package uk.ac.ebi.quickgo.index.annotation.coterms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoTermsShardMergerTest {
+    private static final String HEADER = "Source Term|Compared Term|Probability Ratio|Significance Ratio|Together" +
+            " (Overlap)|Compared count";
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void nonPositiveShardCountThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new CoTermsShardMerger(output(), 0));
+    }
+
+    @Test
+    void shardsAreConcatenatedInOrderBeneathTheHeaderAndDeleted() throws IOException {
+        writeShard(0, "GO:0000001\tGO:0000001");
+        writeShard(1);
+        writeShard(2, "GO:0000002\tGO:0000001", "GO:0000002\tGO:0000002");
+
+        ExitStatus exitStatus = new CoTermsShardMerger(output(), 3).afterStep(stepExecution(BatchStatus.COMPLETED));
+
+        assertThat(exitStatus, is(ExitStatus.COMPLETED));
+        assertThat(Files.readAllLines(Paths.get(output())), is(Arrays.asList(HEADER,
+                "GO:0000001\tGO:0000001", "GO:0000002\tGO:0000001", "GO:0000002\tGO:0000002")));
+        for (int i = 0; i < 3; i++) {
+            assertThat(Files.exists(Paths.get(CoTermsPartitioner.shardPath(output(), i))), is(false));
+        }
+    }
+
+    @Test
+    void shardsAreNotMergedWhenStepFails() throws IOException {
+        writeShard(0, "GO:0000001\tGO:0000001");
+        StepExecution stepExecution = stepExecution(BatchStatus.FAILED);
+        stepExecution.setExitStatus(ExitStatus.FAILED);
+
+        ExitStatus exitStatus = new CoTermsShardMerger(output(), 1).afterStep(stepExecution);
+
+        assertThat(exitStatus, is(ExitStatus.FAILED));
+        assertThat(Files.exists(Paths.get(output())), is(false));
+    }
+
+    @Test
+    void stepFailsWhenShardsCannotBeMerged() {
+        StepExecution stepExecution = stepExecution(BatchStatus.COMPLETED);
+        String output = folder.resolve("missing").resolve("CoTermsManual").toString();
+
+        ExitStatus exitStatus = new CoTermsShardMerger(output, 1).afterStep(stepExecution);
+
+        assertThat(exitStatus.getExitCode(), is(ExitStatus.FAILED.getExitCode()));
+        assertThat(stepExecution.getStatus(), is(BatchStatus.FAILED));
+    }
+
+    @Test
+    void stepFailsWhenAShardIsMissing() throws IOException {
+        writeShard(0, "GO:0000001\tGO:0000001");
+        writeShard(2, "GO:0000002\tGO:0000001");
+        StepExecution stepExecution = stepExecution(BatchStatus.COMPLETED);
+
+        ExitStatus exitStatus = new CoTermsShardMerger(output(), 3).afterStep(stepExecution);
+
+        assertThat(exitStatus.getExitCode(), is(ExitStatus.FAILED.getExitCode()));
+        assertThat(stepExecution.getStatus(), is(BatchStatus.FAILED));
+        assertThat(stepExecution.getFailureExceptions().get(0), is(instanceOf(NoSuchFileException.class)));
+    }
+
+    private String output() {
+        return folder.resolve("CoTermsManual").toString();
+    }
+
+    private void writeShard(int partitionIndex, String... lines) throws IOException {
+        List<String> shardLines = Arrays.asList(lines);
+        Files.write(Paths.get(CoTermsPartitioner.shardPath(output(), partitionIndex)), shardLines);
+    }
+
+    private static StepExecution stepExecution(BatchStatus status) {
+        StepExecution stepExecution = new StepExecution("coTermManualSummarizationStep", null);
+        stepExecution.setStatus(status);
+        stepExecution.setExitStatus(ExitStatus.COMPLETED);
+        return stepExecution;
+    }
+}
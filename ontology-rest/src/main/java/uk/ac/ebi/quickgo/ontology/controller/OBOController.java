@@ -14,6 +14,7 @@ import uk.ac.ebi.quickgo.ontology.model.graph.AncestorGraph;
 import uk.ac.ebi.quickgo.ontology.model.graph.AncestorVertex;
 import uk.ac.ebi.quickgo.ontology.service.OntologyService;
 import uk.ac.ebi.quickgo.ontology.service.search.SearchServiceConfig;
+import uk.ac.ebi.quickgo.ontology.traversal.OntologyPaths;
 import uk.ac.ebi.quickgo.rest.ParameterBindingException;
 import uk.ac.ebi.quickgo.rest.ResponseExceptionHandler;
 import uk.ac.ebi.quickgo.rest.comm.ResponseType;
@@ -42,11 +43,13 @@ import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.apache.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS;
 import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.DEFAULT_TRAVERSAL_TYPES;
 import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.DEFAULT_TRAVERSAL_TYPES_CSV;
 import static uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery.and;
@@ -76,6 +79,7 @@ public abstract class OBOController<T extends OBOTerm> {
     static final String CHART_COORDINATES_SUB_RESOURCE = CHART_SUB_RESOURCE + "/coords";
     static final String SECONDARY_IDS_SUB_RESOURCE = "secondaryids";
     static final String BASE_64_CONTENT_ENCODING = "base64";
+    static final String PATHS_TRUNCATED_HEADER = "X-Paths-Truncated";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OBOController.class);
     private static final String COLON = ":";
@@ -390,14 +394,18 @@ public abstract class OBOController<T extends OBOTerm> {
     }
 
     /**
-     * Retrieves the paths between ontology terms
+     * Retrieves the paths between ontology terms. The number of paths, and the number of relationships in each, are
+     * limited; the {@value #PATHS_TRUNCATED_HEADER} response header states whether those limits left out any paths.
      * @param ids the term ids in CSV format, from which paths begin
      * @param toIds the term ids in CSV format, to which the paths lead
      * @param relations the ontology relationships over which descendants will be found
      * @return a result containing a list of paths between the {@code ids} terms, and {@code toIds} terms
      */
     @ApiOperation(value = "Retrieves the paths between two specified sets of ontology terms. Each path is " +
-            "formed from a list of (term, relationship, term) triples.")
+            "formed from a list of (term, relationship, term) triples.",
+            notes = "At most 10000 paths are returned, each of at most 50 relationships, unless configured " +
+                    "otherwise. The " + PATHS_TRUNCATED_HEADER + " response header is true if either limit left " +
+                    "out any paths, in which case the results are a subset of the paths between the terms.")
     @RequestMapping(value = TERMS_RESOURCE + "/{ids}/" + PATHS_SUB_RESOURCE + "/{toIds}", method = RequestMethod.GET,
             produces = {MediaType.APPLICATION_JSON_VALUE})
     public ResponseEntity<QueryResult<List<OntologyRelationship>>> findPaths(
@@ -405,13 +413,18 @@ public abstract class OBOController<T extends OBOTerm> {
             @ApiParam(value = "Comma-separated target term IDs") @PathVariable(value = "toIds") String toIds,
             @ApiParam(value = "Comma-separated ontology relationships")
             @RequestParam(value = "relations", defaultValue = DEFAULT_TRAVERSAL_TYPES_CSV) String relations) {
-        return getResultsResponse(
-                ontologyService.paths(
-                        asSet(validationHelper.validateCSVIds(ids)),
-                        asSet(validationHelper.validateCSVIds(toIds)),
-                        asOntologyRelationTypeArray(validationHelper.validateRelationTypes(relations,
-                                DEFAULT_TRAVERSAL_TYPES))
-                ));
+        OntologyPaths paths = ontologyService.paths(
+                asSet(validationHelper.validateCSVIds(ids)),
+                asSet(validationHelper.validateCSVIds(toIds)),
+                asOntologyRelationTypeArray(validationHelper.validateRelationTypes(relations,
+                        DEFAULT_TRAVERSAL_TYPES)));
+
+        MultiValueMap<String, String> headers = httpHeadersProvider.provide();
+        headers.add(PATHS_TRUNCATED_HEADER, Boolean.toString(paths.isTruncated()));
+        headers.add(ACCESS_CONTROL_EXPOSE_HEADERS, PATHS_TRUNCATED_HEADER);
+        QueryResult<List<OntologyRelationship>> queryResult =
+                new QueryResult.Builder<>(paths.getPaths().size(), paths.getPaths()).build();
+        return new ResponseEntity<>(queryResult, headers, HttpStatus.OK);
     }
 
     /**
@@ -1,7 +1,5 @@
 package uk.ac.ebi.quickgo.ontology.model;
 
-import org.jgrapht.graph.DefaultEdge;
-
 /**
  * This class represents the components of an ontology graph: child vertices,
  * parent vertices and the edges that relate these vertices.
@@ -9,7 +7,7 @@ import org.jgrapht.graph.DefaultEdge;
  * Created 18/05/16
  * @author Edd
  */
-public class OntologyRelationship extends DefaultEdge {
+public class OntologyRelationship {
     public String child;
     public String parent;
     public OntologyRelationType relationship;
@@ -68,29 +66,42 @@ public class OntologyRelationship extends DefaultEdge {
                     "parent: " + parent.toString());
         }
 
+        return new OntologyRelationship(child.child, parent.parent,
+                combineRelationTypes(child.relationship, parent.relationship));
+    }
+
+    /**
+     * Combine the types of two consecutive ontology relationships, as documented on
+     * http://geneontology.org/page/ontology-relations.
+     * @param child the type of the relationship from which the combination starts
+     * @param parent the type of the relationship to which the combination ends
+     * @return the combined relationship type, which is {@link OntologyRelationType#UNDEFINED} if the types cannot be
+     * combined
+     */
+    public static OntologyRelationType combineRelationTypes(OntologyRelationType child, OntologyRelationType parent) {
         OntologyRelationType mergedType = OntologyRelationType.UNDEFINED;
 
-        if (child.relationship == OntologyRelationType.IDENTITY) {
-            mergedType = parent.relationship;
-        } else if (parent.relationship == OntologyRelationType.IDENTITY) {
-            mergedType = child.relationship;
-        } else if (child.relationship == OntologyRelationType.HAS_PART
-                || parent.relationship == OntologyRelationType.HAS_PART) {
+        if (child == OntologyRelationType.IDENTITY) {
+            mergedType = parent;
+        } else if (parent == OntologyRelationType.IDENTITY) {
+            mergedType = child;
+        } else if (child == OntologyRelationType.HAS_PART
+                || parent == OntologyRelationType.HAS_PART) {
             mergedType = OntologyRelationType.UNDEFINED;
-        } else if (child.relationship == OntologyRelationType.IS_A) {
-            mergedType = parent.relationship;
-        } else if (parent.relationship == OntologyRelationType.IS_A) {
-            mergedType = child.relationship;
-        } else if (child.relationship == OntologyRelationType.PART_OF
-                && parent.relationship == OntologyRelationType.PART_OF) {
+        } else if (child == OntologyRelationType.IS_A) {
+            mergedType = parent;
+        } else if (parent == OntologyRelationType.IS_A) {
+            mergedType = child;
+        } else if (child == OntologyRelationType.PART_OF
+                && parent == OntologyRelationType.PART_OF) {
             mergedType = OntologyRelationType.PART_OF;
-        } else if (child.relationship == OntologyRelationType.OCCURS_IN) {
+        } else if (child == OntologyRelationType.OCCURS_IN) {
             mergedType = OntologyRelationType.OCCURS_IN;
-        } else if (child.relationship == OntologyRelationType.REGULATES
-                && parent.relationship == OntologyRelationType.PART_OF) {
+        } else if (child == OntologyRelationType.REGULATES
+                && parent == OntologyRelationType.PART_OF) {
             mergedType = OntologyRelationType.REGULATES;
         }
 
-        return new OntologyRelationship(child.child, parent.parent, mergedType);
+        return mergedType;
     }
 }
\ No newline at end of file
@@ -0,0 +1,209 @@
+package uk.ac.ebi.quickgo.ontology.service;
+
+import uk.ac.ebi.quickgo.ontology.common.OntologyDocument;
+import uk.ac.ebi.quickgo.ontology.common.OntologyRepository;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.slf4j.Logger;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * An in-process cache of the {@link OntologyDocument}s returned by the {@link OntologyRepository} term look-ups.
+ * Each look-up fetches a different set of fields (its {@link Projection}), so documents are held in a separate,
+ * size-bounded region per projection, keyed by ontology type and term id. Only the ids that are not already cached
+ * are requested from the repository.
+ * <p>
+ * Documents are cached under their primary id, and under any of their secondary ids that were requested and are
+ * present in the projection. Ids that did not resolve to a document are not cached, and are therefore requested again
+ * on every look-up.
+ * <p>
+ * The cache should be {@link #invalidateAll() invalidated} whenever a new version of the ontology is loaded. Since the
+ * ontology index can be reloaded without the ontology graph being reloaded, documents can also be expired a given
+ * time after they were cached, so that they are never staler than that.
+ * <p>
+ * {@link Projection#CORE} look-ups for an ontology whose terms are held in full by the {@link OntologyTermStore} are
+ * served by that store instead.
+ */
+public class OntologyDocumentCache {
+    private static final Logger LOGGER = getLogger(OntologyDocumentCache.class);
+    private static final String KEY_SEPARATOR = "|";
+
+    /**
+     * The sets of fields fetched by the {@link OntologyRepository} term look-ups.
+     */
+    public enum Projection {
+        COMPLETE, CORE, HISTORY, XREFS, TAXON_CONSTRAINTS, XORELATIONS, ANNOTATION_GUIDELINES, SECONDARY_IDS
+    }
+
+    private final Map<Projection, Cache<String, OntologyDocument>> regions = new EnumMap<>(Projection.class);
+    private final OntologyTermStore termStore;
+    private final boolean enabled;
+
+    /**
+     * Creates a cache whose regions can each hold up to {@code maxDocumentsPerProjection} documents.
+     *
+     * @param maxDocumentsPerProjection the maximum number of documents held per projection; 0 disables caching
+     */
+    public OntologyDocumentCache(long maxDocumentsPerProjection) {
+        this(maxDocumentsPerProjection, new OntologyTermStore());
+    }
+
+    /**
+     * Creates a cache whose regions can each hold up to {@code maxDocumentsPerProjection} documents, and which
+     * serves {@link Projection#CORE} look-ups from {@code termStore} for the ontologies it has loaded.
+     *
+     * @param maxDocumentsPerProjection the maximum number of documents held per projection; 0 disables caching
+     * @param termStore the store of core term attributes
+     */
+    public OntologyDocumentCache(long maxDocumentsPerProjection, OntologyTermStore termStore) {
+        this(maxDocumentsPerProjection, 0, termStore);
+    }
+
+    /**
+     * Creates a cache whose regions can each hold up to {@code maxDocumentsPerProjection} documents, each for up to
+     * {@code expireAfterWriteMinutes}, and which serves {@link Projection#CORE} look-ups from {@code termStore} for
+     * the ontologies it has loaded.
+     *
+     * @param maxDocumentsPerProjection the maximum number of documents held per projection; 0 disables caching
+     * @param expireAfterWriteMinutes the number of minutes after which a cached document is expired; 0 never
+     * expires documents
+     * @param termStore the store of core term attributes
+     */
+    public OntologyDocumentCache(long maxDocumentsPerProjection, long expireAfterWriteMinutes,
+            OntologyTermStore termStore) {
+        this(maxDocumentsPerProjection, expireAfterWriteMinutes, termStore, Ticker.systemTicker());
+    }
+
+    OntologyDocumentCache(long maxDocumentsPerProjection, long expireAfterWriteMinutes, OntologyTermStore termStore,
+            Ticker ticker) {
+        Preconditions.checkArgument(maxDocumentsPerProjection >= 0,
+                "Maximum documents per projection cannot be negative: " + maxDocumentsPerProjection);
+        Preconditions.checkArgument(expireAfterWriteMinutes >= 0,
+                "Expire after write minutes cannot be negative: " + expireAfterWriteMinutes);
+        Preconditions.checkArgument(termStore != null, "OntologyTermStore cannot be null");
+        this.termStore = termStore;
+        this.enabled = maxDocumentsPerProjection > 0;
+
+        for (Projection projection : Projection.values()) {
+            CacheBuilder<Object, Object> region = CacheBuilder.newBuilder()
+                    .maximumSize(maxDocumentsPerProjection)
+                    .ticker(ticker)
+                    .recordStats();
+            if (expireAfterWriteMinutes > 0) {
+                region.expireAfterWrite(expireAfterWriteMinutes, TimeUnit.MINUTES);
+            }
+            regions.put(projection, region.build());
+        }
+    }
+
+    /**
+     * Creates a cache that holds nothing, so that every look-up is passed to the repository.
+     *
+     * @return a disabled cache
+     */
+    public static OntologyDocumentCache disabled() {
+        return new OntologyDocumentCache(0);
+    }
+
+    /**
+     * Finds the documents of the requested ids, fetching only those that are not cached.
+     *
+     * @param projection the set of fields the documents hold
+     * @param ontologyType the ontology the ids belong to
+     * @param ids the (unsanitized) ids of the documents to find
+     * @param fetcher fetches the documents of the ids not found in the cache, given the ontology type and those ids
+     * @return the documents found, without duplicates, in the order in which they were requested; or, when caching is
+     * disabled, in the order in which the fetcher returned them
+     */
+    public List<OntologyDocument> find(Projection projection, String ontologyType, Collection<String> ids,
+            BiFunction<String, List<String>, List<OntologyDocument>> fetcher) {
+        Preconditions.checkArgument(projection != null, "Projection cannot be null");
+        Preconditions.checkArgument(ids != null, "List of IDs cannot be null");
+        Preconditions.checkArgument(fetcher != null, "Document fetcher cannot be null");
+
+        if (projection == Projection.CORE && termStore.isLoaded(ontologyType)) {
+            return termStore.find(ontologyType, ids);
+        }
+
+        if (!enabled) {
+            return ids.isEmpty() ? new ArrayList<>() : fetcher.apply(ontologyType, new ArrayList<>(ids));
+        }
+
+        Cache<String, OntologyDocument> region = regions.get(projection);
+        Map<String, OntologyDocument> docsByRequestedId = new HashMap<>();
+        List<String> missingIds = new ArrayList<>();
+
+        for (String id : ids) {
+            OntologyDocument doc = region.getIfPresent(key(ontologyType, id));
+            if (doc == null) {
+                missingIds.add(id);
+            } else {
+                docsByRequestedId.put(id, doc);
+            }
+        }
+
+        List<OntologyDocument> fetchedDocs = missingIds.isEmpty() ?
+                Collections.emptyList() : fetcher.apply(ontologyType, missingIds);
+        for (OntologyDocument doc : fetchedDocs) {
+            missingIds.stream()
+                    .filter(id -> isIdentifiedBy(doc, id))
+                    .forEach(id -> {
+                        region.put(key(ontologyType, id), doc);
+                        docsByRequestedId.putIfAbsent(id, doc);
+                    });
+        }
+
+        // cached and fetched documents are merged in the order in which they were requested
+        Map<String, OntologyDocument> docsById = new LinkedHashMap<>();
+        for (String id : ids) {
+            OntologyDocument doc = docsByRequestedId.get(id);
+            if (doc != null) {
+                docsById.putIfAbsent(doc.id, doc);
+            }
+        }
+        fetchedDocs.forEach(doc -> docsById.putIfAbsent(doc.id, doc));
+
+        return new ArrayList<>(docsById.values());
+    }
+
+    /**
+     * Discards every cached document, e.g., after a new version of the ontology has been loaded.
+     */
+    public void invalidateAll() {
+        regions.values().forEach(Cache::invalidateAll);
+        LOGGER.info("Invalidated all cached ontology documents");
+    }
+
+    /**
+     * @param projection the projection whose statistics are requested
+     * @return the hit, miss and eviction counts of the region holding the projection
+     */
+    public CacheStats stats(Projection projection) {
+        return regions.get(projection).stats();
+    }
+
+    /**
+     * @param projection the projection whose size is requested
+     * @return the approximate number of documents held for the projection
+     */
+    public long size(Projection projection) {
+        return regions.get(projection).size();
+    }
+
+    private static String key(String ontologyType, String id) {
+        return ontologyType + KEY_SEPARATOR + id.toLowerCase();
+    }
+
+    private static boolean isIdentifiedBy(OntologyDocument doc, String id) {
+        return id.equalsIgnoreCase(doc.id) ||
+                (doc.secondaryIds != null && doc.secondaryIds.stream().anyMatch(id::equalsIgnoreCase));
+    }
+}
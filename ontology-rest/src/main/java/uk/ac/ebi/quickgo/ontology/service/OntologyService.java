@@ -5,6 +5,7 @@ import uk.ac.ebi.quickgo.ontology.common.OntologyType;
 import uk.ac.ebi.quickgo.ontology.model.*;
 import uk.ac.ebi.quickgo.ontology.model.graph.AncestorGraph;
 import uk.ac.ebi.quickgo.ontology.model.graph.AncestorVertex;
+import uk.ac.ebi.quickgo.ontology.traversal.OntologyPaths;
 import uk.ac.ebi.quickgo.rest.search.query.RegularPage;
 import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
 
@@ -92,9 +93,10 @@ public interface OntologyService<T extends OBOTerm> {
      * @param endingIds the ending ids from which returned paths end
      * @param relations a varargs value containing the relationships over which paths can only travel.
      *                  By omitting a {@code relation} value, all paths will be returned.
-     * @return a list of paths from {@code startingIds} to {@code endingIds} via {@code relations}
+     * @return the paths from {@code startingIds} to {@code endingIds} via {@code relations}, limited in number and
+     * in length, and marked as truncated if those limits left out any paths
      */
-    List<List<OntologyRelationship>> paths(
+    OntologyPaths paths(
             Set<String> startingIds,
             Set<String> endingIds,
             OntologyRelationType... relations);
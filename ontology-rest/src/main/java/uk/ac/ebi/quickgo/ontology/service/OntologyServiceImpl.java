@@ -10,9 +10,12 @@ import uk.ac.ebi.quickgo.ontology.common.OntologyType;
 import uk.ac.ebi.quickgo.ontology.model.*;
 import uk.ac.ebi.quickgo.ontology.model.graph.AncestorGraph;
 import uk.ac.ebi.quickgo.ontology.model.graph.AncestorVertex;
+import uk.ac.ebi.quickgo.ontology.service.OntologyDocumentCache.Projection;
 import uk.ac.ebi.quickgo.ontology.service.converter.OntologyDocConverter;
 import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraphTraversal;
+import uk.ac.ebi.quickgo.ontology.traversal.OntologyPaths;
 import uk.ac.ebi.quickgo.ontology.traversal.TermSlimmer;
+import uk.ac.ebi.quickgo.ontology.traversal.TermSlimmerCache;
 import uk.ac.ebi.quickgo.rest.search.QueryStringSanitizer;
 import uk.ac.ebi.quickgo.rest.search.query.RegularPage;
 import uk.ac.ebi.quickgo.rest.search.results.PageInfo;
@@ -25,6 +28,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.util.Collections.singleton;
+import static uk.ac.ebi.quickgo.ontology.service.OntologyDocumentCache.Projection.*;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -44,6 +48,8 @@ public class OntologyServiceImpl<T extends OBOTerm> implements OntologyService<T
     private QueryStringSanitizer queryStringSanitizer;
     private OntologyRepository ontologyRepository;
     private OntologyDocConverter<T> converter;
+    private OntologyDocumentCache documentCache;
+    private TermSlimmerCache slimmerCache;
     private String ontologyType;
 
     // necessary for Spring to create a proxy class
@@ -56,18 +62,44 @@ public class OntologyServiceImpl<T extends OBOTerm> implements OntologyService<T
             OntologyType type,
             QueryStringSanitizer queryStringSanitizer,
             OntologyGraphTraversal ontologyTraversal) {
+        this(repository, converter, type, queryStringSanitizer, ontologyTraversal, OntologyDocumentCache.disabled());
+    }
+
+    OntologyServiceImpl(
+            OntologyRepository repository,
+            OntologyDocConverter<T> converter,
+            OntologyType type,
+            QueryStringSanitizer queryStringSanitizer,
+            OntologyGraphTraversal ontologyTraversal,
+            OntologyDocumentCache documentCache) {
+        this(repository, converter, type, queryStringSanitizer, ontologyTraversal, documentCache,
+                TermSlimmerCache.disabled());
+    }
+
+    OntologyServiceImpl(
+            OntologyRepository repository,
+            OntologyDocConverter<T> converter,
+            OntologyType type,
+            QueryStringSanitizer queryStringSanitizer,
+            OntologyGraphTraversal ontologyTraversal,
+            OntologyDocumentCache documentCache,
+            TermSlimmerCache slimmerCache) {
 
         Preconditions.checkArgument(repository != null, "Ontology repository cannot be null");
         Preconditions.checkArgument(type != null, "Ontology type cannot be null");
         Preconditions.checkArgument(converter != null, "Ontology converter cannot be null");
         Preconditions.checkArgument(queryStringSanitizer != null, "Ontology query string sanitizer cannot be null");
         Preconditions.checkArgument(ontologyTraversal != null, "OntologyGraphTraversal cannot be null");
+        Preconditions.checkArgument(documentCache != null, "OntologyDocumentCache cannot be null");
+        Preconditions.checkArgument(slimmerCache != null, "TermSlimmerCache cannot be null");
 
         this.ontologyType = type.name();
         this.ontologyRepository = repository;
         this.converter = converter;
         this.queryStringSanitizer = queryStringSanitizer;
         this.ontologyTraversal = ontologyTraversal;
+        this.documentCache = documentCache;
+        this.slimmerCache = slimmerCache;
     }
 
     @Override
@@ -82,69 +114,69 @@ public class OntologyServiceImpl<T extends OBOTerm> implements OntologyService<T
 
     @Override
     public List<T> findCompleteInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findCompleteByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(COMPLETE, ids, ontologyRepository::findCompleteByTermId))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<T> findCoreInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findCoreAttrByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(CORE, ids, ontologyRepository::findCoreAttrByTermId))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<T> findHistoryInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findHistoryByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(HISTORY, ids, ontologyRepository::findHistoryByTermId))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<T> findXRefsInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findXRefsByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(XREFS, ids, ontologyRepository::findXRefsByTermId))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<T> findTaxonConstraintsInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findTaxonConstraintsByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(TAXON_CONSTRAINTS, ids, ontologyRepository::findTaxonConstraintsByTermId))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<T> findXORelationsInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findXOntologyRelationsByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(XORELATIONS, ids, ontologyRepository::findXOntologyRelationsByTermId))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<T> findAnnotationGuideLinesInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findAnnotationGuidelinesByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(ANNOTATION_GUIDELINES, ids, ontologyRepository::findAnnotationGuidelinesByTermId))
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<List<OntologyRelationship>> paths(Set<String> startingIds, Set<String> endingIds,
+    public OntologyPaths paths(Set<String> startingIds, Set<String> endingIds,
             OntologyRelationType... relations) {
         return ontologyTraversal.paths(startingIds, endingIds, relations);
     }
 
     @Override
     public List<T> findAncestorsInfoByOntologyId(List<String> ids, OntologyRelationType... relations) {
-        return convertDocs(ontologyRepository.findCoreAttrByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(CORE, ids, ontologyRepository::findCoreAttrByTermId))
                 .map(term -> this.insertAncestors(term, relations))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<T> findDescendantsInfoByOntologyId(List<String> ids, OntologyRelationType... relations) {
-        return convertDocs(ontologyRepository.findCoreAttrByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(CORE, ids, ontologyRepository::findCoreAttrByTermId))
                 .map(term -> this.insertDescendants(term, relations))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<OBOMinimum> findChildrenInfoByOntologyId(List<String> ids) {
-        return convertDocs(ontologyRepository.findCoreAttrByTermId(ontologyType, buildIdList(ids)))
+        return convertDocs(findDocs(CORE, ids, ontologyRepository::findCoreAttrByTermId))
           .map(this::convertMinimum)
           .collect(Collectors.toList());
     }
@@ -162,7 +194,7 @@ public class OntologyServiceImpl<T extends OBOTerm> implements OntologyService<T
             return Collections.emptyList();
 
         List<String> idsOfChildren = children.stream().map(c -> c.id).collect(Collectors.toList());
-        return convertDocs(ontologyRepository.findCoreAttrByTermId(ontologyType, buildIdList(idsOfChildren)))
+        return convertDocs(findDocs(CORE, idsOfChildren, ontologyRepository::findCoreAttrByTermId))
           .map(term -> convertMinimumChild(children, term))
           .collect(Collectors.toList());
     }
@@ -182,8 +214,8 @@ public class OntologyServiceImpl<T extends OBOTerm> implements OntologyService<T
     @Override
     public List<SlimTerm> findSlimmedInfoForSlimmedTerms(Set<String> slimsFromTerms, List<String> slimsToTerms,
             OntologyRelationType... relationTypes) {
-        TermSlimmer slimmer = TermSlimmer
-                .createSlims(OntologyType.valueOf(ontologyType), ontologyTraversal, slimsToTerms, relationTypes);
+        TermSlimmer slimmer = slimmerCache
+                .get(OntologyType.valueOf(ontologyType), ontologyTraversal, slimsToTerms, relationTypes);
 
         return slimmer.getSlimmedTermsMap().entrySet().stream()
                 .map(Map.Entry::getKey)
@@ -208,7 +240,7 @@ public class OntologyServiceImpl<T extends OBOTerm> implements OntologyService<T
 
     @Override
     public List<T> findSecondaryIdsByOntologyId(List<String> ids) {
-        return ontologyRepository.findSecondaryIdsByTermId(ontologyType, buildIdList(ids))
+        return findDocs(SECONDARY_IDS, ids, ontologyRepository::findSecondaryIdsByTermId)
           .stream()
           .map(converter::convert)
           .collect(Collectors.toList());
@@ -220,6 +252,23 @@ public class OntologyServiceImpl<T extends OBOTerm> implements OntologyService<T
         return ids.stream().map(queryStringSanitizer::sanitize).collect(Collectors.toList());
     }
 
+    /**
+     * Finds the documents of the specified ids, using the {@link OntologyDocumentCache} where possible, and otherwise
+     * the supplied repository query.
+     *
+     * @param projection the set of fields fetched by {@code query}
+     * @param ids the ids of the documents to find
+     * @param query the repository query fetching the documents of sanitized ids
+     * @return the documents found
+     */
+    private List<OntologyDocument> findDocs(Projection projection, Collection<String> ids,
+            BiFunction<String, List<String>, List<OntologyDocument>> query) {
+        Preconditions.checkArgument(ids != null, "List of IDs cannot be null");
+
+        return documentCache.find(projection, ontologyType, ids,
+                (type, missingIds) -> query.apply(type, buildIdList(missingIds)));
+    }
+
     /**
      * <p>Converts a specified list of {@link OntologyDocument}s into a {@link Stream}
      * of {@link T} instances.
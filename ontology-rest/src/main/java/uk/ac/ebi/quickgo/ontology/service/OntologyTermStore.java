@@ -0,0 +1,129 @@
+package uk.ac.ebi.quickgo.ontology.service;
+
+import uk.ac.ebi.quickgo.ontology.common.OntologyDocument;
+import uk.ac.ebi.quickgo.ontology.common.OntologyRepository;
+
+import com.google.common.base.Preconditions;
+import java.util.*;
+import org.slf4j.Logger;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Holds the core attributes (see {@link OntologyRepository#findCoreAttrByTermId}) of every term of an ontology in
+ * memory, so that responses listing many terms, e.g., ancestors, descendants, children and sub-graphs, need not
+ * query the repository at all.
+ * <p>
+ * An ontology's terms are loaded as a whole, and replace any previously held for that ontology only once they have
+ * all been read; so until then, and should loading fail, look-ups continue to use the previous terms, if any.
+ * Look-ups for an ontology that has not been loaded must be made against the repository instead.
+ */
+public class OntologyTermStore {
+    private static final Logger LOGGER = getLogger(OntologyTermStore.class);
+
+    private volatile Map<String, Map<String, OntologyDocument>> termsByIdByType = Collections.emptyMap();
+
+    /**
+     * @param ontologyType the ontology type
+     * @return whether the terms of the ontology have been loaded
+     */
+    public boolean isLoaded(String ontologyType) {
+        return termsByIdByType.containsKey(ontologyType);
+    }
+
+    /**
+     * @param ontologyType the ontology type
+     * @return the number of terms held for the ontology
+     */
+    public int size(String ontologyType) {
+        Map<String, OntologyDocument> termsById = termsByIdByType.get(ontologyType);
+        return termsById == null ? 0 : new HashSet<>(termsById.values()).size();
+    }
+
+    /**
+     * Finds the core attributes of the terms with the specified primary or secondary ids.
+     *
+     * @param ontologyType the ontology the ids belong to, which must have been loaded
+     * @param ids the ids of the terms to find
+     * @return the terms found, without duplicates, in the order in which they were requested
+     */
+    public List<OntologyDocument> find(String ontologyType, Collection<String> ids) {
+        Preconditions.checkArgument(ids != null, "List of IDs cannot be null");
+        Map<String, OntologyDocument> termsById = termsByIdByType.get(ontologyType);
+        Preconditions.checkState(termsById != null, "Terms of ontology have not been loaded: " + ontologyType);
+
+        Map<String, OntologyDocument> found = new LinkedHashMap<>();
+        for (String id : ids) {
+            OntologyDocument term = termsById.get(id.toLowerCase());
+            if (term != null) {
+                found.putIfAbsent(term.id, term);
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    /**
+     * Reads every term of an ontology from the repository, a page at a time, and once they have all been read,
+     * replaces the terms held for that ontology.
+     *
+     * @param repository the repository from which the terms are read
+     * @param ontologyType the ontology whose terms are read
+     * @param pageSize the number of terms read per request
+     * @return the number of terms loaded
+     */
+    public int load(OntologyRepository repository, String ontologyType, int pageSize) {
+        Preconditions.checkArgument(repository != null, "Ontology repository cannot be null");
+        Preconditions.checkArgument(ontologyType != null, "Ontology type cannot be null");
+        Preconditions.checkArgument(pageSize > 0, "Page size must be greater than 0: " + pageSize);
+
+        Map<String, OntologyDocument> termsById = new HashMap<>();
+        int loaded = 0;
+        Page<OntologyDocument> page;
+        int pageNumber = 0;
+        do {
+            page = repository.findAllByOntologyType(ontologyType, PageRequest.of(pageNumber++, pageSize));
+            for (OntologyDocument doc : page.getContent()) {
+                OntologyDocument term = coreAttributesOf(doc);
+                termsById.put(doc.id.toLowerCase(), term);
+                if (doc.secondaryIds != null) {
+                    doc.secondaryIds.forEach(secondaryId -> termsById.putIfAbsent(secondaryId.toLowerCase(), term));
+                }
+                loaded++;
+            }
+        } while (page.hasNext());
+
+        replace(ontologyType, termsById);
+        LOGGER.info("Loaded {} {} terms into memory", loaded, ontologyType);
+        return loaded;
+    }
+
+    private synchronized void replace(String ontologyType, Map<String, OntologyDocument> termsById) {
+        Map<String, Map<String, OntologyDocument>> replacement = new HashMap<>(termsByIdByType);
+        replacement.put(ontologyType, Collections.unmodifiableMap(termsById));
+        termsByIdByType = Collections.unmodifiableMap(replacement);
+    }
+
+    /**
+     * Copies only the fields fetched by {@link OntologyRepository#findCoreAttrByTermId}, so that the store holds
+     * what the repository would have returned, and no more.
+     */
+    private static OntologyDocument coreAttributesOf(OntologyDocument doc) {
+        OntologyDocument term = new OntologyDocument();
+        term.id = doc.id;
+        term.name = doc.name;
+        term.isObsolete = doc.isObsolete;
+        term.comment = doc.comment;
+        term.aspect = doc.aspect == null ? null : doc.aspect.intern();
+        term.usage = doc.usage == null ? null : doc.usage.intern();
+        term.synonyms = copyOf(doc.synonyms);
+        term.definition = doc.definition;
+        term.definitionXrefs = copyOf(doc.definitionXrefs);
+        return term;
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? null : List.copyOf(values);
+    }
+}
@@ -8,20 +8,33 @@ import uk.ac.ebi.quickgo.ontology.common.OntologyRepository;
 import uk.ac.ebi.quickgo.ontology.common.OntologyType;
 import uk.ac.ebi.quickgo.ontology.model.ECOTerm;
 import uk.ac.ebi.quickgo.ontology.model.GOTerm;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
 import uk.ac.ebi.quickgo.ontology.service.converter.ECODocConverter;
 import uk.ac.ebi.quickgo.ontology.service.converter.GODocConverter;
 import uk.ac.ebi.quickgo.ontology.service.search.SearchServiceConfig;
 import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraphTraversal;
+import uk.ac.ebi.quickgo.ontology.traversal.TermSlimmerCache;
 import uk.ac.ebi.quickgo.ontology.traversal.read.OntologyGraphConfig;
 import uk.ac.ebi.quickgo.rest.search.QueryStringSanitizer;
 import uk.ac.ebi.quickgo.rest.search.SolrQueryStringSanitizer;
 
 import java.io.File;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.listener.JobExecutionListenerSupport;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.DEFAULT_SLIM_TRAVERSAL_TYPES;
 
 /**
  * Spring configuration for the service layer, which depends on the repositories
@@ -35,29 +48,113 @@ import org.springframework.context.annotation.Import;
 @ComponentScan({"uk.ac.ebi.quickgo.ontology.service, uk.ac.ebi.quickgo.graphics.service"})
 @Import({OntologyRepoConfig.class, OntologyGraphConfig.class})
 public class ServiceConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceConfig.class);
+
     @Value("${graphics.ontology.source}")
     private String sourceFile;
+    @Value("${ontology.document.cache.max.size:10000}")
+    private long documentCacheMaxSize;
+    @Value("${ontology.document.cache.expire.after.write.minutes:60}")
+    private long documentCacheExpireAfterWriteMinutes;
+    @Value("${ontology.term.store.enabled:false}")
+    private boolean termStoreEnabled;
+    @Value("${ontology.term.store.page.size:1000}")
+    private int termStorePageSize;
+    @Value("${ontology.slim.cache.max.size:100}")
+    private long slimCacheMaxSize;
+    @Value("${ontology.slim.preset.source:}")
+    private String slimPresetSource;
+    @Value("${ontology.slim.preset.header.lines:1}")
+    private int slimPresetHeaderLines;
 
     @Bean
     public OntologyService<GOTerm> goOntologyService(OntologyRepository ontologyRepository,
-            OntologyGraphTraversal ontologyGraphTraversal) {
+            OntologyGraphTraversal ontologyGraphTraversal, OntologyDocumentCache ontologyDocumentCache,
+            TermSlimmerCache termSlimmerCache) {
         return new OntologyServiceImpl<>(
                 ontologyRepository,
                 goDocumentConverter(),
                 OntologyType.GO,
                 queryStringSanitizer(),
-                ontologyGraphTraversal);
+                ontologyGraphTraversal,
+                ontologyDocumentCache,
+                termSlimmerCache);
     }
 
     @Bean
     public OntologyService<ECOTerm> ecoOntologyService(OntologyRepository ontologyRepository,
-            OntologyGraphTraversal ontologyGraphTraversal) {
+            OntologyGraphTraversal ontologyGraphTraversal, OntologyDocumentCache ontologyDocumentCache) {
         return new OntologyServiceImpl<>(
                 ontologyRepository,
                 ecoDocConverter(),
                 OntologyType.ECO,
                 queryStringSanitizer(),
-                ontologyGraphTraversal);
+                ontologyGraphTraversal,
+                ontologyDocumentCache);
+    }
+
+    /**
+     * Holds the ontology documents fetched by both the GO and ECO services. Since documents are keyed by
+     * ontology type, the services can share one cache.
+     */
+    @Bean
+    public OntologyDocumentCache ontologyDocumentCache(OntologyTermStore ontologyTermStore) {
+        return new OntologyDocumentCache(documentCacheMaxSize, documentCacheExpireAfterWriteMinutes, ontologyTermStore);
+    }
+
+    /**
+     * Holds the core attributes of every term in memory, if enabled, once the ontology graph has been loaded.
+     */
+    @Bean
+    public OntologyTermStore ontologyTermStore() {
+        return new OntologyTermStore();
+    }
+
+    /**
+     * Each time a new version of the ontology has been loaded: discards the cached ontology documents, and
+     * reloads the in-memory store of core term attributes, if enabled.
+     */
+    @Bean
+    public JobExecutionListener ontologyDocumentCacheInvalidator(OntologyDocumentCache ontologyDocumentCache,
+            OntologyTermStore ontologyTermStore, OntologyRepository ontologyRepository) {
+        return new JobExecutionListenerSupport() {
+            @Override public void afterJob(JobExecution jobExecution) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                    ontologyDocumentCache.invalidateAll();
+                    if (termStoreEnabled) {
+                        loadTermStore(ontologyTermStore, ontologyRepository);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Holds the term slimmers created for the slim-sets requested of the GO service.
+     */
+    @Bean
+    public TermSlimmerCache termSlimmerCache() {
+        return new TermSlimmerCache(slimCacheMaxSize);
+    }
+
+    /**
+     * Each time a new version of the ontology has been loaded: discards the cached term slimmers, and creates those
+     * of the preset slim-sets, if a source of them is configured. The ontology graph, whose job this listens to,
+     * is only looked up once the job has run.
+     */
+    @Bean
+    public JobExecutionListener termSlimmerCachePrebuilder(TermSlimmerCache termSlimmerCache,
+            ObjectProvider<OntologyGraphTraversal> ontologyGraphTraversal) {
+        return new JobExecutionListenerSupport() {
+            @Override public void afterJob(JobExecution jobExecution) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                    termSlimmerCache.invalidateAll();
+                    if (!slimPresetSource.trim().isEmpty()) {
+                        prebuildPresetSlims(termSlimmerCache, ontologyGraphTraversal.getObject());
+                    }
+                }
+            }
+        };
     }
 
     @Bean
@@ -75,6 +172,30 @@ public class ServiceConfig {
         return new OntologyGraphicsSourceLoader(new File(sourceFile));
     }
 
+    private void loadTermStore(OntologyTermStore ontologyTermStore, OntologyRepository ontologyRepository) {
+        for (OntologyType type : OntologyType.values()) {
+            try {
+                ontologyTermStore.load(ontologyRepository, type.name(), termStorePageSize);
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to load " + type + " terms into memory; they will be fetched from the " +
+                        "repository instead", e);
+            }
+        }
+    }
+
+    private void prebuildPresetSlims(TermSlimmerCache termSlimmerCache,
+            OntologyGraphTraversal ontologyGraphTraversal) {
+        try {
+            Resource source = new DefaultResourceLoader().getResource(slimPresetSource.trim());
+            termSlimmerCache.prebuild(OntologyType.GO, ontologyGraphTraversal,
+                    SlimSetPresetReader.read(source, slimPresetHeaderLines),
+                    DEFAULT_SLIM_TRAVERSAL_TYPES.toArray(new OntologyRelationType[0]));
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to prebuild the slims of the preset slim-sets; they will be created on request " +
+                    "instead", e);
+        }
+    }
+
     private GODocConverter goDocumentConverter() {
         return new GODocConverter();
     }
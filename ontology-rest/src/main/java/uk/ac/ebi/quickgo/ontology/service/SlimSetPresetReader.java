@@ -0,0 +1,65 @@
+package uk.ac.ebi.quickgo.ontology.service;
+
+import com.google.common.base.Preconditions;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.springframework.core.io.Resource;
+
+/**
+ * Reads the preset slim-sets from a tab separated source file (optionally gzipped), whose first column holds the
+ * name of a slim-set and whose second column holds the id of one of its terms. This is the format of the file from
+ * which the preset slim-sets offered to clients are loaded.
+ */
+class SlimSetPresetReader {
+    private static final String TAB = "\t";
+    private static final int SLIM_SET_COLUMN = 0;
+    private static final int TERM_ID_COLUMN = 1;
+
+    private SlimSetPresetReader() {}
+
+    /**
+     * @param source the source file
+     * @param headerLines the number of lines at the start of the file to skip
+     * @return the term ids of each slim-set, in the order in which they appear in the file, by slim-set name
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    static Map<String, List<String>> read(Resource source, int headerLines) {
+        Preconditions.checkArgument(source != null, "Slim-set preset source cannot be null");
+        Preconditions.checkArgument(headerLines >= 0, "Header lines cannot be negative: " + headerLines);
+
+        Map<String, List<String>> slimSets = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(open(source), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                if (lineNumber++ < headerLines || line.trim().isEmpty()) {
+                    continue;
+                }
+                String[] columns = line.split(TAB);
+                if (columns.length > TERM_ID_COLUMN) {
+                    slimSets.computeIfAbsent(columns[SLIM_SET_COLUMN].trim(), name -> new ArrayList<>())
+                            .add(columns[TERM_ID_COLUMN].trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read slim-set presets from " + source, e);
+        }
+        return slimSets;
+    }
+
+    private static InputStream open(Resource source) throws IOException {
+        InputStream inputStream = source.getInputStream();
+        String filename = source.getFilename();
+        return filename != null && filename.endsWith(".gz") ? new GZIPInputStream(inputStream) : inputStream;
+    }
+}
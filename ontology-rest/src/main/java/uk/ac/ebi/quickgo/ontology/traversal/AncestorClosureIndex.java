@@ -0,0 +1,226 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable index of the transitive ancestors of every vertex in an ontology graph, together with the type of
+ * relationship (combined along the path, see {@link OntologyRelationship#combineRelationships}) by which each ancestor
+ * is reached. A vertex is its own ancestor, via {@link OntologyRelationType#IDENTITY}.
+ * <p>
+ * Vertices are numbered as in the {@link CompactOntologyGraph} from which the index is built, and the ancestors of all
+ * vertices are held in two arrays, in which the entries of each vertex are contiguous and sorted by ancestor number.
+ * The index is built once, after which it is only read, so it can be safely shared by any number of threads once
+ * published.
+ */
+class AncestorClosureIndex {
+    private static final OntologyRelationType[] RELATION_TYPES = OntologyRelationType.values();
+    private static final OntologyRelationType[][] COMBINED_RELATION_TYPES = combinedRelationTypes();
+    private static final int RELATION_TYPE_BITS = 8;
+    private static final int RELATION_TYPE_MASK = (1 << RELATION_TYPE_BITS) - 1;
+
+    private final CompactOntologyGraph graph;
+    private final int[] offsets;
+    private final int[] ancestors;
+    private final byte[] relationTypes;
+
+    private AncestorClosureIndex(CompactOntologyGraph graph, int[] offsets, int[] ancestors, byte[] relationTypes) {
+        this.graph = graph;
+        this.offsets = offsets;
+        this.ancestors = ancestors;
+        this.relationTypes = relationTypes;
+    }
+
+    /**
+     * Computes the ancestors of every vertex in {@code ontology}. Ancestors are not looked for beyond any of the
+     * {@code stopVertices}.
+     *
+     * @param ontology the ontology graph
+     * @param stopVertices the vertices whose ancestors are not computed
+     * @return the index
+     * @throws IllegalStateException if the graph contains a cycle
+     */
+    static AncestorClosureIndex build(CompactOntologyGraph ontology, Collection<String> stopVertices) {
+        int vertexCount = ontology.vertexCount();
+        long[][] closures = new long[vertexCount][];
+        boolean[] visiting = new boolean[vertexCount];
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int root = 0; root < vertexCount; root++) {
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                int vertex = stack.peek();
+                if (closures[vertex] != null) {
+                    stack.pop();
+                    continue;
+                }
+
+                boolean isStopVertex = stopVertices.contains(ontology.vertex(vertex));
+                boolean parentsComputed = true;
+                if (!isStopVertex) {
+                    for (int edge = ontology.firstParentEdge(vertex); edge < ontology.firstParentEdge(vertex + 1);
+                         edge++) {
+                        int parent = ontology.parent(edge);
+                        if (closures[parent] == null) {
+                            if (visiting[parent]) {
+                                throw new IllegalStateException("Ontology graph contains a cycle through: " +
+                                        ontology.vertex(parent));
+                            }
+                            parentsComputed = false;
+                            stack.push(parent);
+                        }
+                    }
+                }
+
+                if (parentsComputed) {
+                    closures[vertex] = closureOf(ontology, vertex, isStopVertex, closures);
+                    visiting[vertex] = false;
+                    stack.pop();
+                } else {
+                    visiting[vertex] = true;
+                }
+            }
+        }
+
+        return compact(ontology, closures);
+    }
+
+    /**
+     * @param vertex a vertex of the ontology
+     * @return the number of the vertex, or -1 if it is not in the ontology
+     */
+    int numberOf(String vertex) {
+        return graph.numberOf(vertex);
+    }
+
+    String vertex(int number) {
+        return graph.vertex(number);
+    }
+
+    /**
+     * Determines which relationship types satisfy a request for ancestors over {@code relations}; see
+     * {@link OntologyRelationType#hasTransitiveType(OntologyRelationType...)}.
+     *
+     * @param relations the requested relations
+     * @return an array, indexed by {@link OntologyRelationType#ordinal()}, of whether each type is satisfied
+     */
+    static boolean[] matchingRelationTypes(OntologyRelationType... relations) {
+        boolean[] matching = new boolean[RELATION_TYPES.length];
+        for (OntologyRelationType type : RELATION_TYPES) {
+            matching[type.ordinal()] = type.hasTransitiveType(relations);
+        }
+        return matching;
+    }
+
+    /**
+     * Supplies the number of each ancestor of a vertex that is reached by one of the matching relationship types.
+     * An ancestor reached by more than one matching type is supplied once for each.
+     *
+     * @param vertex the number of the vertex
+     * @param matchingTypes the relationship types to match, see {@link #matchingRelationTypes}
+     * @param ancestorConsumer receives the number of each ancestor
+     */
+    void forEachAncestor(int vertex, boolean[] matchingTypes, IntConsumer ancestorConsumer) {
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+            if (matchingTypes[relationTypes[i]]) {
+                ancestorConsumer.accept(ancestors[i]);
+            }
+        }
+    }
+
+    /**
+     * @param vertex the number of the vertex
+     * @param ancestor the number of the potential ancestor
+     * @param matchingTypes the relationship types to match, see {@link #matchingRelationTypes}
+     * @return whether {@code ancestor} is reached from {@code vertex} by one of the matching relationship types
+     */
+    boolean hasAncestor(int vertex, int ancestor, boolean[] matchingTypes) {
+        int from = offsets[vertex];
+        int to = offsets[vertex + 1];
+        int found = Arrays.binarySearch(ancestors, from, to, ancestor);
+        if (found < 0) {
+            return false;
+        }
+
+        // an ancestor reached by several relationship types has several adjacent entries
+        for (int i = found; i >= from && ancestors[i] == ancestor; i--) {
+            if (matchingTypes[relationTypes[i]]) {
+                return true;
+            }
+        }
+        for (int i = found + 1; i < to && ancestors[i] == ancestor; i++) {
+            if (matchingTypes[relationTypes[i]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] closureOf(CompactOntologyGraph ontology, int vertex, boolean isStopVertex,
+            long[][] closures) {
+        long[] closure = new long[16];
+        int size = 0;
+        closure[size++] = pack(vertex, OntologyRelationType.IDENTITY);
+
+        if (!isStopVertex) {
+            for (int edge = ontology.firstParentEdge(vertex); edge < ontology.firstParentEdge(vertex + 1); edge++) {
+                OntologyRelationType[] combinations = COMBINED_RELATION_TYPES[ontology.parentRelationType(edge)];
+                for (long parentEntry : closures[ontology.parent(edge)]) {
+                    OntologyRelationType combined = combinations[(int) (parentEntry & RELATION_TYPE_MASK)];
+                    if (combined != OntologyRelationType.UNDEFINED) {
+                        if (size == closure.length) {
+                            closure = Arrays.copyOf(closure, size * 2);
+                        }
+                        closure[size++] = pack((int) (parentEntry >>> RELATION_TYPE_BITS), combined);
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(closure, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || closure[distinct - 1] != closure[i]) {
+                closure[distinct++] = closure[i];
+            }
+        }
+        return Arrays.copyOf(closure, distinct);
+    }
+
+    private static AncestorClosureIndex compact(CompactOntologyGraph ontology, long[][] closures) {
+        int vertexCount = closures.length;
+        int[] offsets = new int[vertexCount + 1];
+        for (int i = 0; i < vertexCount; i++) {
+            offsets[i + 1] = offsets[i] + closures[i].length;
+        }
+
+        int[] ancestors = new int[offsets[vertexCount]];
+        byte[] relationTypes = new byte[ancestors.length];
+        for (int i = 0; i < vertexCount; i++) {
+            int offset = offsets[i];
+            for (long entry : closures[i]) {
+                ancestors[offset] = (int) (entry >>> RELATION_TYPE_BITS);
+                relationTypes[offset++] = (byte) (entry & RELATION_TYPE_MASK);
+            }
+        }
+
+        return new AncestorClosureIndex(ontology, offsets, ancestors, relationTypes);
+    }
+
+    private static long pack(int ancestor, OntologyRelationType relationType) {
+        return ((long) ancestor << RELATION_TYPE_BITS) | relationType.ordinal();
+    }
+
+    private static OntologyRelationType[][] combinedRelationTypes() {
+        OntologyRelationType[][] combined = new OntologyRelationType[RELATION_TYPES.length][RELATION_TYPES.length];
+        for (OntologyRelationType child : RELATION_TYPES) {
+            for (OntologyRelationType parent : RELATION_TYPES) {
+                combined[child.ordinal()][parent.ordinal()] =
+                        OntologyRelationship.combineRelationTypes(child, parent);
+            }
+        }
+        return combined;
+    }
+}
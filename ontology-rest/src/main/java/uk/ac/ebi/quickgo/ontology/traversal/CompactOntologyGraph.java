@@ -0,0 +1,247 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
+
+import com.google.common.base.Preconditions;
+import java.util.*;
+
+/**
+ * An immutable, compact representation of an ontology graph, whose vertices are numbered in the order in which they
+ * were first added, and whose edges are held as arrays of vertex numbers, in compressed sparse row form, once by
+ * child (giving the parents of each vertex) and once by parent (giving its children). The type of each edge is held
+ * alongside it, as the {@link OntologyRelationType#ordinal()} of its relationship.
+ * <p>
+ * The edges of a vertex are contiguous, and sorted by the number of the related vertex and then by type; duplicate
+ * edges are held only once. Vertex ids are only used to look up vertex numbers, and to recreate
+ * {@link OntologyRelationship}s, at the boundary of the graph.
+ * <p>
+ * The graph is built once, after which it is only read, so it can be safely shared by any number of threads once
+ * published.
+ */
+class CompactOntologyGraph {
+    static final CompactOntologyGraph EMPTY = build(null, Collections.emptyList());
+
+    private static final OntologyRelationType[] RELATION_TYPES = OntologyRelationType.values();
+    private static final int RELATION_TYPE_BITS = 8;
+    private static final int RELATION_TYPE_MASK = (1 << RELATION_TYPE_BITS) - 1;
+    private static final int VERTEX_BITS = 27;
+    private static final int VERTEX_MASK = (1 << VERTEX_BITS) - 1;
+
+    private final Map<String, Integer> vertexNumbers;
+    private final String[] vertices;
+    private final int[] parentOffsets;
+    private final int[] parents;
+    private final byte[] parentRelationTypes;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final byte[] childRelationTypes;
+
+    private CompactOntologyGraph(Map<String, Integer> vertexNumbers, String[] vertices, int[] parentOffsets,
+            int[] parents, byte[] parentRelationTypes, int[] childOffsets, int[] children, byte[] childRelationTypes) {
+        this.vertexNumbers = vertexNumbers;
+        this.vertices = vertices;
+        this.parentOffsets = parentOffsets;
+        this.parents = parents;
+        this.parentRelationTypes = parentRelationTypes;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.childRelationTypes = childRelationTypes;
+    }
+
+    /**
+     * Builds a graph holding the vertices and edges of an existing graph, if any, together with further
+     * relationships. The vertices of the existing graph keep their numbers.
+     *
+     * @param existing the graph whose vertices and edges are copied, or null
+     * @param relationships the relationships to add
+     * @return the graph
+     */
+    static CompactOntologyGraph build(CompactOntologyGraph existing,
+            Collection<? extends OntologyRelationship> relationships) {
+        Map<String, Integer> vertexNumbers = existing == null ?
+                new HashMap<>() : new HashMap<>(existing.vertexNumbers);
+        List<String> vertices = existing == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(existing.vertices));
+
+        int existingEdges = existing == null ? 0 : existing.parents.length;
+        long[] edges = new long[existingEdges + relationships.size()];
+        int size = 0;
+        if (existing != null) {
+            for (int child = 0; child < existing.vertices.length; child++) {
+                for (int i = existing.parentOffsets[child]; i < existing.parentOffsets[child + 1]; i++) {
+                    edges[size++] = pack(child, existing.parents[i], existing.parentRelationTypes[i]);
+                }
+            }
+        }
+        for (OntologyRelationship relationship : relationships) {
+            Preconditions.checkArgument(relationship.relationship != null,
+                    "Relationship type cannot be null: " + relationship);
+            int child = numberVertex(relationship.child, vertexNumbers, vertices);
+            int parent = numberVertex(relationship.parent, vertexNumbers, vertices);
+            edges[size++] = pack(child, parent, relationship.relationship.ordinal());
+        }
+
+        // sorting orders the edges by child, then parent, then type, i.e., gives the parent rows directly
+        Arrays.sort(edges, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || edges[distinct - 1] != edges[i]) {
+                edges[distinct++] = edges[i];
+            }
+        }
+
+        int vertexCount = vertices.size();
+        int[] parentOffsets = new int[vertexCount + 1];
+        int[] parents = new int[distinct];
+        byte[] parentRelationTypes = new byte[distinct];
+        int[] childOffsets = new int[vertexCount + 1];
+        for (int i = 0; i < distinct; i++) {
+            parentOffsets[childOf(edges[i]) + 1]++;
+            childOffsets[parentOf(edges[i]) + 1]++;
+            parents[i] = parentOf(edges[i]);
+            parentRelationTypes[i] = (byte) relationTypeOf(edges[i]);
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            parentOffsets[v + 1] += parentOffsets[v];
+            childOffsets[v + 1] += childOffsets[v];
+        }
+
+        // a stable counting sort by parent keeps the children of each vertex ordered by child, then type
+        int[] children = new int[distinct];
+        byte[] childRelationTypes = new byte[distinct];
+        int[] next = Arrays.copyOf(childOffsets, vertexCount);
+        for (int i = 0; i < distinct; i++) {
+            int position = next[parentOf(edges[i])]++;
+            children[position] = childOf(edges[i]);
+            childRelationTypes[position] = (byte) relationTypeOf(edges[i]);
+        }
+
+        return new CompactOntologyGraph(Collections.unmodifiableMap(vertexNumbers), vertices.toArray(new String[0]),
+                parentOffsets, parents, parentRelationTypes, childOffsets, children, childRelationTypes);
+    }
+
+    /**
+     * @param vertex a vertex of the ontology
+     * @return the number of the vertex, or -1 if it is not in the graph
+     */
+    int numberOf(String vertex) {
+        Integer number = vertexNumbers.get(vertex);
+        return number == null ? -1 : number;
+    }
+
+    String vertex(int number) {
+        return vertices[number];
+    }
+
+    int vertexCount() {
+        return vertices.length;
+    }
+
+    int edgeCount() {
+        return parents.length;
+    }
+
+    /**
+     * @return a read-only view of the vertices of the graph
+     */
+    Set<String> vertexSet() {
+        return vertexNumbers.keySet();
+    }
+
+    /**
+     * @return the edges of the graph, recreated as {@link OntologyRelationship}s
+     */
+    Set<OntologyRelationship> edgeSet() {
+        Set<OntologyRelationship> edges = new HashSet<>(parents.length * 2);
+        for (int child = 0; child < vertices.length; child++) {
+            for (int i = parentOffsets[child]; i < parentOffsets[child + 1]; i++) {
+                edges.add(parentEdge(child, i));
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * The parent edges of a vertex are those numbered from {@code firstParentEdge(vertex)} (inclusive) to
+     * {@code firstParentEdge(vertex + 1)} (exclusive).
+     */
+    int firstParentEdge(int vertex) {
+        return parentOffsets[vertex];
+    }
+
+    int parent(int parentEdge) {
+        return parents[parentEdge];
+    }
+
+    int parentRelationType(int parentEdge) {
+        return parentRelationTypes[parentEdge];
+    }
+
+    /**
+     * The child edges of a vertex are those numbered from {@code firstChildEdge(vertex)} (inclusive) to
+     * {@code firstChildEdge(vertex + 1)} (exclusive).
+     */
+    int firstChildEdge(int vertex) {
+        return childOffsets[vertex];
+    }
+
+    int child(int childEdge) {
+        return children[childEdge];
+    }
+
+    int childRelationType(int childEdge) {
+        return childRelationTypes[childEdge];
+    }
+
+    OntologyRelationship parentEdge(int child, int parentEdge) {
+        return new OntologyRelationship(vertices[child], vertices[parents[parentEdge]],
+                RELATION_TYPES[parentRelationTypes[parentEdge]]);
+    }
+
+    OntologyRelationship childEdge(int parent, int childEdge) {
+        return new OntologyRelationship(vertices[children[childEdge]], vertices[parent],
+                RELATION_TYPES[childRelationTypes[childEdge]]);
+    }
+
+    /**
+     * Determines which relationship types are among {@code relations}.
+     *
+     * @param relations the relations
+     * @return an array, indexed by {@link OntologyRelationType#ordinal()}, of whether each type is included
+     */
+    static boolean[] includedRelationTypes(OntologyRelationType... relations) {
+        boolean[] included = new boolean[RELATION_TYPES.length];
+        for (OntologyRelationType relation : relations) {
+            included[relation.ordinal()] = true;
+        }
+        return included;
+    }
+
+    private static int numberVertex(String vertex, Map<String, Integer> vertexNumbers, List<String> vertices) {
+        Integer number = vertexNumbers.get(vertex);
+        if (number == null) {
+            Preconditions.checkState(vertices.size() <= VERTEX_MASK, "Too many vertices in ontology graph");
+            number = vertices.size();
+            vertexNumbers.put(vertex, number);
+            vertices.add(vertex);
+        }
+        return number;
+    }
+
+    private static long pack(int child, int parent, int relationType) {
+        return ((long) child << (VERTEX_BITS + RELATION_TYPE_BITS)) | ((long) parent << RELATION_TYPE_BITS) |
+                relationType;
+    }
+
+    private static int childOf(long edge) {
+        return (int) (edge >>> (VERTEX_BITS + RELATION_TYPE_BITS));
+    }
+
+    private static int parentOf(long edge) {
+        return (int) (edge >>> RELATION_TYPE_BITS) & VERTEX_MASK;
+    }
+
+    private static int relationTypeOf(long edge) {
+        return (int) (edge & RELATION_TYPE_MASK);
+    }
+}
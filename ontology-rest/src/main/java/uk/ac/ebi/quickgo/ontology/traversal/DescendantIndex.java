@@ -0,0 +1,135 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable index of the descendants of every vertex in a {@link CompactOntologyGraph}, over a fixed set of
+ * relationship types. A vertex is its own descendant.
+ * <p>
+ * The descendants of all vertices are held in a single array, in which the entries of each vertex are contiguous.
+ * The index is built once, after which it is only read, so it can be safely shared by any number of threads once
+ * published.
+ */
+class DescendantIndex {
+    private final CompactOntologyGraph graph;
+    private final int[] offsets;
+    private final int[] descendants;
+
+    private DescendantIndex(CompactOntologyGraph graph, int[] offsets, int[] descendants) {
+        this.graph = graph;
+        this.offsets = offsets;
+        this.descendants = descendants;
+    }
+
+    /**
+     * Computes the descendants of every vertex in {@code ontology}, by a breadth-first search from each vertex that
+     * visits every descendant once, however many paths lead to it. Cycles are therefore tolerated.
+     *
+     * @param ontology the ontology graph
+     * @param relationTypes whether each relationship type, by {@link OntologyRelationType#ordinal()}, is followed
+     * @return the index
+     */
+    static DescendantIndex build(CompactOntologyGraph ontology, boolean[] relationTypes) {
+        int vertexCount = ontology.vertexCount();
+        int[] offsets = new int[vertexCount + 1];
+        int[] descendants = new int[Math.max(vertexCount, 16)];
+        int size = 0;
+
+        // each vertex is queued at most once per search, so the queue ends up holding the descendants found
+        int[] queue = new int[vertexCount];
+        int[] lastSearchedFrom = new int[vertexCount];
+        Arrays.fill(lastSearchedFrom, -1);
+        for (int top = 0; top < vertexCount; top++) {
+            int tail = 0;
+            lastSearchedFrom[top] = top;
+            queue[tail++] = top;
+            for (int head = 0; head < tail; head++) {
+                int vertex = queue[head];
+                for (int edge = ontology.firstChildEdge(vertex); edge < ontology.firstChildEdge(vertex + 1); edge++) {
+                    int child = ontology.child(edge);
+                    if (relationTypes[ontology.childRelationType(edge)] && lastSearchedFrom[child] != top) {
+                        lastSearchedFrom[child] = top;
+                        queue[tail++] = child;
+                    }
+                }
+            }
+
+            if (size + tail > descendants.length) {
+                descendants = Arrays.copyOf(descendants, Math.max(descendants.length * 2, size + tail));
+            }
+            System.arraycopy(queue, 0, descendants, size, tail);
+            size += tail;
+            offsets[top + 1] = size;
+        }
+
+        return new DescendantIndex(ontology, offsets, Arrays.copyOf(descendants, size));
+    }
+
+    /**
+     * Finds the descendants of the specified vertices by a breadth-first search, without an index, visiting each
+     * descendant once, however many paths lead to it.
+     *
+     * @param ontology the ontology graph
+     * @param tops the numbers of the vertices whose descendants are found
+     * @param relationTypes whether each relationship type, by {@link OntologyRelationType#ordinal()}, is followed
+     * @param descendantConsumer receives the number of each of the vertices and their descendants, once
+     */
+    static void search(CompactOntologyGraph ontology, int[] tops, boolean[] relationTypes,
+            IntConsumer descendantConsumer) {
+        BitSet visited = new BitSet();
+        int[] queue = new int[Math.max(tops.length, 16)];
+        int tail = 0;
+        for (int top : tops) {
+            if (!visited.get(top)) {
+                visited.set(top);
+                queue[tail++] = top;
+            }
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int vertex = queue[head];
+            descendantConsumer.accept(vertex);
+            for (int edge = ontology.firstChildEdge(vertex); edge < ontology.firstChildEdge(vertex + 1); edge++) {
+                int child = ontology.child(edge);
+                if (relationTypes[ontology.childRelationType(edge)] && !visited.get(child)) {
+                    visited.set(child);
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the graph whose vertex numbers the index uses
+     */
+    CompactOntologyGraph graph() {
+        return graph;
+    }
+
+    /**
+     * @param vertex the number of the vertex
+     * @return the number of descendants of the vertex, including itself
+     */
+    int count(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    /**
+     * Supplies the number of each descendant of a vertex, including itself, once.
+     *
+     * @param vertex the number of the vertex
+     * @param descendantConsumer receives the number of each descendant
+     */
+    void forEachDescendant(int vertex, IntConsumer descendantConsumer) {
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+            descendantConsumer.accept(descendants[i]);
+        }
+    }
+}
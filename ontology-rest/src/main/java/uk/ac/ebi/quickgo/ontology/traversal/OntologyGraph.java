@@ -12,21 +12,18 @@ import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import org.jgrapht.DirectedGraph;
-import org.jgrapht.Graph;
-import org.jgrapht.GraphPath;
-import org.jgrapht.alg.AllDirectedPaths;
-import org.jgrapht.graph.ClassBasedEdgeFactory;
-import org.jgrapht.graph.DirectedMultigraph;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static java.util.stream.Collectors.toSet;
-
 /**
  * This class represents an ontology graph whose vertices are ontology terms,
  * and edges are the relationships between terms.
  * <p>
+ * Relationships are added in batches, and are held as a {@link CompactOntologyGraph}, in which vertices are numbered
+ * and edges are held in arrays of vertex numbers. The compact graph is rebuilt, once, by the first look-up made after
+ * relationships have been added; look-ups then only read it, mapping vertex ids to and from numbers at their
+ * boundaries.
+ * <p>
  * Created 18/05/16
  *
  * @author Edd
@@ -47,47 +44,150 @@ public class OntologyGraph implements OntologyGraphTraversal {
         ONTOLOGY_TYPE_PATTERN_MAP.put(OntologyType.GO, Pattern.compile("^GO:[0-9]+").matcher(""));
     }
 
-    private final DirectedGraph<String, OntologyRelationship> ontology;
-    private final Map<String, Set<OntologyRelationship>> ancestorEdgesMap = new HashMap<>();
     private final EnumMap<OntologyType, Set<String>> typeToVertexMap;
+    private final List<OntologyRelationship> pendingRelationships;
+    private CompactOntologyGraph lastBuiltGraph;
+    private volatile CompactOntologyGraph compactGraph;
+    private volatile AncestorClosureIndex ancestorClosureIndex;
+    private final Set<Set<OntologyRelationType>> indexedDescendantRelations;
+    private volatile Map<Set<OntologyRelationType>, DescendantIndex> descendantIndexes;
+
+    private volatile long version;
+    private final int maxPaths;
+    private final int maxPathLength;
 
     public OntologyGraph() {
-        ontology = new DirectedMultigraph<>(new ClassBasedEdgeFactory<>(OntologyRelationship.class));
+        this(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a graph whose path look-ups are limited in the number and length of paths found. A look-up that leaves
+     * out any paths because of either limit returns {@link OntologyPaths} marked as truncated.
+     *
+     * @param maxPaths the maximum number of paths returned by a path look-up
+     * @param maxPathLength the maximum number of edges in a path returned by a path look-up
+     */
+    public OntologyGraph(int maxPaths, int maxPathLength) {
+        Preconditions.checkArgument(maxPaths > 0, "Maximum paths must be greater than 0: " + maxPaths);
+        Preconditions.checkArgument(maxPathLength > 0,
+                "Maximum path length must be greater than 0: " + maxPathLength);
+        this.maxPaths = maxPaths;
+        this.maxPathLength = maxPathLength;
         typeToVertexMap = new EnumMap<>(OntologyType.class);
+        pendingRelationships = new ArrayList<>();
+        indexedDescendantRelations = new HashSet<>();
+        lastBuiltGraph = CompactOntologyGraph.EMPTY;
+        compactGraph = lastBuiltGraph;
     }
 
     public Set<OntologyRelationship> getEdges() {
-        return ontology.edgeSet();
+        return compactGraph().edgeSet();
     }
 
     public Set<String> getVertices() {
-        return ontology.vertexSet();
+        return compactGraph().vertexSet();
     }
 
-    public void addRelationships(Collection<? extends OntologyRelationship> relationships) {
+    public synchronized void addRelationships(Collection<? extends OntologyRelationship> relationships) {
         Preconditions.checkArgument(relationships != null, "Relationships to add to the graph cannot be null");
 
-        // populate graph with edges, whilst recording the vertices
+        // record the edges, and the vertices, until the compact graph is next needed
+        Set<String> knownVertices = lastBuiltGraph.vertexSet();
         relationships.forEach(
                 oEdge -> {
-                    if (!ontology.containsVertex(oEdge.child)) {
-                        ontology.addVertex(oEdge.child);
+                    Preconditions.checkArgument(oEdge.relationship != null,
+                            "Relationship type cannot be null: " + oEdge);
+                    if (!knownVertices.contains(oEdge.child)) {
                         categoriseVertexIfRequired(oEdge.child);
                     }
-                    if (!ontology.containsVertex(oEdge.parent)) {
-                        ontology.addVertex(oEdge.parent);
+                    if (!knownVertices.contains(oEdge.parent)) {
                         categoriseVertexIfRequired(oEdge.parent);
                     }
-                    ontology.addEdge(
-                            oEdge.child,
-                            oEdge.parent,
-                            new OntologyRelationship(oEdge.child, oEdge.parent, oEdge.relationship));
+                    pendingRelationships.add(new OntologyRelationship(oEdge.child, oEdge.parent, oEdge.relationship));
                 }
         );
+
+        // the compact graph, and the ancestors and descendants of the existing vertices, may have changed
+        if (!pendingRelationships.isEmpty()) {
+            version++;
+            compactGraph = null;
+            ancestorClosureIndex = null;
+            descendantIndexes = null;
+        }
+    }
+
+    /**
+     * Removes every vertex and edge from the graph, e.g., before it is populated with a new version of the ontology.
+     */
+    public synchronized void clear() {
+        version++;
+        pendingRelationships.clear();
+        typeToVertexMap.clear();
+        lastBuiltGraph = CompactOntologyGraph.EMPTY;
+        compactGraph = lastBuiltGraph;
+        ancestorClosureIndex = null;
+        descendantIndexes = null;
+    }
+
+    /**
+     * Adds the relationships added since the compact graph was last built to it, so that subsequent look-ups need
+     * only read it. This is otherwise done by the first look-up after relationships have been added.
+     */
+    public synchronized void buildCompactGraph() {
+        long start = System.currentTimeMillis();
+        lastBuiltGraph = CompactOntologyGraph.build(lastBuiltGraph, pendingRelationships);
+        pendingRelationships.clear();
+        compactGraph = lastBuiltGraph;
+        LOGGER.info("Built compact ontology graph of " + lastBuiltGraph.vertexCount() + " vertices and " +
+                lastBuiltGraph.edgeCount() + " edges in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Computes the ancestors of every vertex in the graph, so that subsequent ancestor look-ups need only read the
+     * resulting index. This should be called once all relationships have been added; otherwise, the index is
+     * built by the first ancestor look-up.
+     */
+    public synchronized void buildAncestorClosureIndex() {
+        CompactOntologyGraph graph = compactGraph();
+        long start = System.currentTimeMillis();
+        ancestorClosureIndex = AncestorClosureIndex.build(graph, STOP_NODES);
+        LOGGER.info("Built ancestor closure index of " + graph.vertexCount() + " vertices in " +
+                (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Requests that the descendants of every vertex, over the specified relations, be precomputed, so that
+     * descendant look-ups over exactly those relations need only read the resulting index. Look-ups over any other
+     * relations search the graph instead.
+     *
+     * @param relations the relations over which descendants are indexed; if none are specified, all relations
+     */
+    public synchronized void indexDescendantsOver(OntologyRelationType... relations) {
+        Preconditions.checkArgument(relations != null, "Relations cannot be null");
+        indexedDescendantRelations.add(relevantRelationsSet(relations));
+        descendantIndexes = null;
+    }
+
+    /**
+     * Computes the descendant indexes requested via {@link #indexDescendantsOver}. This should be called once all
+     * relationships have been added; otherwise, the indexes are built by the first descendant look-up.
+     */
+    public synchronized void buildDescendantIndexes() {
+        CompactOntologyGraph graph = compactGraph();
+        Map<Set<OntologyRelationType>, DescendantIndex> indexes = new HashMap<>();
+        for (Set<OntologyRelationType> relations : indexedDescendantRelations) {
+            long start = System.currentTimeMillis();
+            boolean[] relationTypes =
+                    CompactOntologyGraph.includedRelationTypes(relations.toArray(new OntologyRelationType[0]));
+            indexes.put(relations, DescendantIndex.build(graph, relationTypes));
+            LOGGER.info("Built descendant index over " + relations + " of " + graph.vertexCount() + " vertices in " +
+                    (System.currentTimeMillis() - start) + "ms");
+        }
+        descendantIndexes = Collections.unmodifiableMap(indexes);
     }
 
     @Override
-    public List<List<OntologyRelationship>> paths(
+    public OntologyPaths paths(
             Set<String> startingVertices,
             Set<String> endingVertices,
             OntologyRelationType... relations) {
@@ -96,7 +196,8 @@ public class OntologyGraph implements OntologyGraphTraversal {
         Preconditions.checkArgument(notEmpty(endingVertices), "Ending vertices cannot be null/empty.");
         errorIfAllStartingVerticesAreEndingVertices(startingVertices, endingVertices);
 
-        Set<OntologyRelationType> relationsSet = createRelevantRelationsSet(relations);
+        CompactOntologyGraph graph = compactGraph();
+        boolean[] relationTypes = relevantRelationTypes(relations);
 
         Set<String> startEndIntersection = new HashSet<>(startingVertices);
         startEndIntersection.retainAll(endingVertices);
@@ -106,49 +207,37 @@ public class OntologyGraph implements OntologyGraphTraversal {
                     + "\tending vertices: " + endingVertices);
         }
 
-        List<List<OntologyRelationship>> interestingPaths = new ArrayList<>();
+        PathFinder pathFinder = new PathFinder(graph, vertexNumbers(graph, startingVertices),
+                vertexNumbers(graph, endingVertices), relationTypes, maxPathLength);
+        List<List<OntologyRelationship>> interestingPaths = pathFinder.stream()
+                .limit(maxPaths + 1L)
+                .collect(Collectors.toList());
 
-        List<OntologyRelationship> immediateSuccessors = successorEdges(startingVertices, endingVertices, relationsSet);
-        if (!immediateSuccessors.isEmpty()) {
-            immediateSuccessors.stream()
-                    .map(Collections::singletonList)
-                    .forEach(interestingPaths::add);
+        boolean limitedInNumber = interestingPaths.size() > maxPaths;
+        if (limitedInNumber) {
+            interestingPaths.remove(maxPaths);
+            LOGGER.warn("Paths from " + startingVertices + " to " + endingVertices + " were limited to " + maxPaths);
         }
-
-        AllDirectedPaths<String, OntologyRelationship> allPaths = new AllDirectedPaths<>(ontology);
-        List<GraphPath<String, OntologyRelationship>> v1v2Paths =
-                allPaths.getAllPaths(startingVertices, endingVertices, true, null);
-        List<GraphPath<String, OntologyRelationship>> invalidPaths = new ArrayList<>();
-
-        for (GraphPath<String, OntologyRelationship> path : v1v2Paths) {
-            if (!relationsSet
-                    .containsAll(path.getEdgeList().stream().map(e -> e.relationship).collect(Collectors.toList()))) {
-                invalidPaths.add(path);
-            }
+        if (pathFinder.isLengthLimited()) {
+            LOGGER.warn("Paths from " + startingVertices + " to " + endingVertices + " were limited to " +
+                    maxPathLength + " edges");
         }
-
-        v1v2Paths.removeAll(invalidPaths);
-
-        interestingPaths.addAll(v1v2Paths.stream().map(GraphPath::getEdgeList).collect(Collectors.toList()));
-
-        return interestingPaths;
+        return new OntologyPaths(interestingPaths, limitedInNumber || pathFinder.isLengthLimited());
     }
 
     @Override
     public List<String> ancestors(Set<String> baseVertices, OntologyRelationType... relations) {
         Preconditions.checkArgument(notEmpty(baseVertices), "Base vertices cannot be null/empty.");
 
+        AncestorClosureIndex index = ancestorClosureIndex();
+        boolean[] matchingTypes = AncestorClosureIndex.matchingRelationTypes(transitiveRelations(relations));
         Set<String> ancestorsFound = new HashSet<>();
-        if (relations.length == 0) {
-            relations = new OntologyRelationType[1];
-            relations[0] = OntologyRelationType.UNDEFINED;
-        }
-
         for (String base : baseVertices) {
-            for (OntologyRelationship relation : getAncestorEdges(base)) {
-                if (relation.relationship.hasTransitiveType(relations)) {
-                    ancestorsFound.add(relation.parent);
-                }
+            int vertex = numberOf(index, base);
+            if (vertex < 0) {
+                ancestorsFound.add(base);
+            } else {
+                index.forEachAncestor(vertex, matchingTypes, ancestor -> ancestorsFound.add(index.vertex(ancestor)));
             }
         }
 
@@ -160,22 +249,48 @@ public class OntologyGraph implements OntologyGraphTraversal {
         Preconditions.checkArgument(baseVertex != null && !baseVertex.trim().isEmpty(),
                                     "Base vertex cannot be null or empty");
 
-        Set<OntologyRelationType> relationsSet = createRelevantRelationsSet(relations);
-        return ontology.outgoingEdgesOf(baseVertex).stream()
-                       .filter(ontologyRelationship -> relationsSet.contains(ontologyRelationship.relationship))
-                       .collect(toSet());
+        CompactOntologyGraph graph = compactGraph();
+        int vertex = vertexNumber(graph, baseVertex);
+        boolean[] relationTypes = relevantRelationTypes(relations);
+
+        Set<OntologyRelationship> parents = new HashSet<>();
+        for (int edge = graph.firstParentEdge(vertex); edge < graph.firstParentEdge(vertex + 1); edge++) {
+            if (relationTypes[graph.parentRelationType(edge)]) {
+                parents.add(graph.parentEdge(vertex, edge));
+            }
+        }
+        return parents;
     }
 
     @Override
     public List<String> descendants(Set<String> topVertices, OntologyRelationType... relations) {
         Preconditions.checkArgument(notEmpty(topVertices), "Top vertices cannot be null/empty.");
 
-        Set<String> descendantsFound = new HashSet<>();
-        descendantsFound.addAll(topVertices); // as with ancestors, include itself (indicating IDENTITY relationship)
-
-        Set<OntologyRelationType> relationsSet = createRelevantRelationsSet(relations);
-        descendants(topVertices, descendantsFound, relationsSet);
-        return new ArrayList<>(descendantsFound);
+        // as with ancestors, each vertex is its own descendant (indicating IDENTITY relationship)
+        List<String> descendantsFound = new ArrayList<>();
+        DescendantIndex index = descendantIndex(relevantRelationsSet(relations));
+        if (index == null) {
+            CompactOntologyGraph graph = compactGraph();
+            DescendantIndex.search(graph, vertexNumbers(graph, topVertices), relevantRelationTypes(relations),
+                    descendant -> descendantsFound.add(graph.vertex(descendant)));
+        } else {
+            CompactOntologyGraph graph = index.graph();
+            int[] tops = vertexNumbers(graph, topVertices);
+            if (tops.length == 1) {
+                index.forEachDescendant(tops[0], descendant -> descendantsFound.add(graph.vertex(descendant)));
+            } else {
+                BitSet found = new BitSet();
+                for (int top : tops) {
+                    index.forEachDescendant(top, descendant -> {
+                        if (!found.get(descendant)) {
+                            found.set(descendant);
+                            descendantsFound.add(graph.vertex(descendant));
+                        }
+                    });
+                }
+            }
+        }
+        return descendantsFound;
     }
 
     @Override
@@ -183,11 +298,17 @@ public class OntologyGraph implements OntologyGraphTraversal {
         Preconditions.checkArgument(topVertex != null && !topVertex.trim().isEmpty(),
                                     "Top vertex cannot be null or empty");
 
-        Set<OntologyRelationType> relationsSet = createRelevantRelationsSet(relations);
+        CompactOntologyGraph graph = compactGraph();
+        int vertex = vertexNumber(graph, topVertex);
+        boolean[] relationTypes = relevantRelationTypes(relations);
 
-        return ontology.incomingEdgesOf(topVertex).stream()
-                       .filter(ontologyRelationship -> relationsSet.contains(ontologyRelationship.relationship))
-                       .collect(toSet());
+        Set<OntologyRelationship> children = new HashSet<>();
+        for (int edge = graph.firstChildEdge(vertex); edge < graph.firstChildEdge(vertex + 1); edge++) {
+            if (relationTypes[graph.childRelationType(edge)]) {
+                children.add(graph.childEdge(vertex, edge));
+            }
+        }
+        return children;
     }
 
     @Override
@@ -200,13 +321,28 @@ public class OntologyGraph implements OntologyGraphTraversal {
         }
     }
 
+    @Override
+    public long version() {
+        return version;
+    }
+
     @Override
     public BitSet getAncestorsBitSet(String vertex, List<String> range, OntologyRelationType... requestedRelations) {
+        AncestorClosureIndex index = ancestorClosureIndex();
+        int vertexNumber = numberOf(index, vertex);
         BitSet results = new BitSet();
-        Set<String> filteredAncestors = getFilteredAncestors(vertex, requestedRelations);
+        boolean[] matchingTypes = AncestorClosureIndex.matchingRelationTypes(transitiveRelations(requestedRelations));
         for (int i = 0; i < range.size(); i++) {
-            if (filteredAncestors.contains(range.get(i))) {
-                results.set(i);
+            String candidate = range.get(i);
+            if (vertexNumber < 0) {
+                if (candidate.equals(vertex)) {
+                    results.set(i);
+                }
+            } else {
+                int candidateNumber = index.numberOf(candidate);
+                if (candidateNumber >= 0 && index.hasAncestor(vertexNumber, candidateNumber, matchingTypes)) {
+                    results.set(i);
+                }
             }
         }
 
@@ -238,9 +374,7 @@ public class OntologyGraph implements OntologyGraphTraversal {
 
     @Override
     public int hashCode() {
-        int result = ontology != null ? ontology.hashCode() : 0;
-        result = 31 * result + (ancestorEdgesMap != null ? ancestorEdgesMap.hashCode() : 0);
-        return result;
+        return 31 * getVertices().hashCode() + getEdges().hashCode();
     }
 
     @Override
@@ -254,11 +388,7 @@ public class OntologyGraph implements OntologyGraphTraversal {
 
         OntologyGraph that = (OntologyGraph) o;
 
-        if (ontology != null ? !ontology.equals(that.ontology) : that.ontology != null) {
-            return false;
-        }
-        return ancestorEdgesMap != null ? ancestorEdgesMap.equals(that.ancestorEdgesMap) :
-                that.ancestorEdgesMap == null;
+        return getVertices().equals(that.getVertices()) && getEdges().equals(that.getEdges());
     }
 
     private static Set<AncestorEdge> mapOntologyRelationshipsToAncestorEdges(Set<OntologyRelationship> parents) {
@@ -275,24 +405,11 @@ public class OntologyGraph implements OntologyGraphTraversal {
                .forEach(request.targetVertices::add);
     }
 
-    private static String getOppositeVertex(Graph<String, OntologyRelationship> graph, OntologyRelationship edge,
-            String vertex) {
-        String source = graph.getEdgeSource(edge);
-        String target = graph.getEdgeTarget(edge);
-        if (vertex.equals(source)) {
-            return target;
-        } else if (vertex.equals(target)) {
-            return source;
-        } else {
-            throw new IllegalArgumentException(
-                    "No such graph vertex: " + vertex);
-        }
-    }
-
     private Queue<String> buildTargetVertices(Set<String> baseVertices) {
+        CompactOntologyGraph graph = compactGraph();
         Queue<String> targetVertices = new LinkedList<>();
         baseVertices.stream()
-                .filter(ontology::containsVertex)
+                .filter(vertex -> graph.numberOf(vertex) >= 0)
                 .forEach(targetVertices::add);
         return targetVertices;
     }
@@ -351,107 +468,91 @@ public class OntologyGraph implements OntologyGraphTraversal {
         return collection != null && !collection.isEmpty();
     }
 
-    private Set<OntologyRelationship> getAncestorEdges(String vertex) {
-        if (!ancestorEdgesMap.containsKey(vertex)) {
-            Set<OntologyRelationship> ancestorEdgesOfV = new HashSet<>();
-
-            ancestorEdgesOfV.add(new OntologyRelationship(vertex, vertex, OntologyRelationType.IDENTITY));
-
-            if (isNotStopNode(vertex)) {
-                for (OntologyRelationship successorEdge : ontology.outgoingEdgesOf(vertex)) {
-                    for (OntologyRelationship grandparentSuccessorEdge : getAncestorEdges(successorEdge.parent)) {
-                        OntologyRelationship combinedRelationship =
-                                OntologyRelationship.combineRelationships(successorEdge, grandparentSuccessorEdge);
-                        if (combinedRelationship.relationship != OntologyRelationType.UNDEFINED) {
-                            ancestorEdgesOfV.add(combinedRelationship);
-                        }
-                    }
+    private CompactOntologyGraph compactGraph() {
+        CompactOntologyGraph graph = compactGraph;
+        if (graph == null) {
+            synchronized (this) {
+                if (compactGraph == null) {
+                    buildCompactGraph();
                 }
+                graph = compactGraph;
             }
-
-            ancestorEdgesMap.put(vertex, ancestorEdgesOfV);
         }
-        return ancestorEdgesMap.get(vertex);
+        return graph;
     }
 
     /**
-     * <p>
-     * Finds the outgoing, i.e., successor, edges originating from a {@link Collection} of starting vertices,
-     * whose target vertices must be in a specified {@link Collection} of vertices, and whose target vertices
-     * are reached by a specified {@link Set} of {@link OntologyRelationType}s.
-     * <p>
-     * Note that in this context, an edge is the formal name of an {@link OntologyRelationship}.
-     * @param fromVertices the starting vertices
-     * @param toVertices the target vertices
-     * @param relations the edge labels over which starting vertices can reach target vertices
-     * @return the {@link List} of {@link OntologyRelationship} instances defining the edges between {@code
-     * fromVertices}
-     *         to {@code toVertices} via {@code relations}
+     * @return the descendant index over exactly the specified relations, or null if they are not indexed
      */
-    private List<OntologyRelationship> successorEdges(
-            Collection<String> fromVertices,
-            Collection<String> toVertices,
-            Set<OntologyRelationType> relations) {
-        List<OntologyRelationship> successors = new ArrayList<>();
-
-        fromVertices.forEach(
-                from ->
-                        ontology.outgoingEdgesOf(from).stream()
-                                .filter(e -> relations.contains(e.relationship) && toVertices.contains(e.parent))
-                                .forEach(successors::add)
-        );
-
-        return successors;
+    private DescendantIndex descendantIndex(Set<OntologyRelationType> relations) {
+        Map<Set<OntologyRelationType>, DescendantIndex> indexes = descendantIndexes;
+        if (indexes == null) {
+            synchronized (this) {
+                if (descendantIndexes == null) {
+                    buildDescendantIndexes();
+                }
+                indexes = descendantIndexes;
+            }
+        }
+        return indexes.get(relations);
     }
 
-    private HashSet<OntologyRelationType> createRelevantRelationsSet(OntologyRelationType[] relations) {
-        return new HashSet<>(Arrays.asList(OntologyRelationType.relevantRelations(relations)));
+    private AncestorClosureIndex ancestorClosureIndex() {
+        AncestorClosureIndex index = ancestorClosureIndex;
+        if (index == null) {
+            synchronized (this) {
+                if (ancestorClosureIndex == null) {
+                    buildAncestorClosureIndex();
+                }
+                index = ancestorClosureIndex;
+            }
+        }
+        return index;
     }
 
-    private Set<String> getFilteredAncestors(String vertex, OntologyRelationType... requestedRelations) {
-        OntologyRelationType[] relations;
-        if (requestedRelations.length == 0) {
-            relations = new OntologyRelationType[]{OntologyRelationType.UNDEFINED};
-        } else {
-            relations = requestedRelations;
+    /**
+     * Finds the number of a vertex within the ancestor closure index. A stop node that is not in the graph is
+     * nevertheless its own ancestor, and so is reported as absent (-1) rather than unknown.
+     *
+     * @throws IllegalArgumentException if the vertex is neither in the graph nor a stop node
+     */
+    private int numberOf(AncestorClosureIndex index, String vertex) {
+        int number = index.numberOf(vertex);
+        if (number < 0 && isNotStopNode(vertex)) {
+            throw new IllegalArgumentException("no such vertex in graph: " + vertex);
         }
+        return number;
+    }
 
-        Set<String> results = new HashSet<>();
-        for (OntologyRelationship ancestorRel : getAncestorEdges(vertex)) {
-            if (ancestorRel.relationship.hasTransitiveType(relations)) {
-                results.add(ancestorRel.parent);
-            }
+    /**
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     */
+    private static int vertexNumber(CompactOntologyGraph graph, String vertex) {
+        int number = graph.numberOf(vertex);
+        if (number < 0) {
+            throw new IllegalArgumentException("no such vertex in graph: " + vertex);
         }
-
-        return results;
+        return number;
     }
 
-    private boolean isNotStopNode(String id) {
-        return !STOP_NODES.contains(id);
+    private static int[] vertexNumbers(CompactOntologyGraph graph, Collection<String> vertices) {
+        return vertices.stream().mapToInt(vertex -> vertexNumber(graph, vertex)).toArray();
     }
 
-    private Set<String> getRelatives(String base, Set<OntologyRelationship> relativeEdges,
-            Set<OntologyRelationType> relations) {
-        Set<String> relatives = new HashSet<>();
-
-        relativeEdges.forEach(
-                e -> {
-                    if (relations.contains(e.relationship)) {
-                        relatives.add(getOppositeVertex(ontology, e, base));
-                    }
-                }
-        );
+    private static OntologyRelationType[] transitiveRelations(OntologyRelationType... requestedRelations) {
+        return requestedRelations.length == 0 ?
+                new OntologyRelationType[]{OntologyRelationType.UNDEFINED} : requestedRelations;
+    }
 
-        return relatives;
+    private static Set<OntologyRelationType> relevantRelationsSet(OntologyRelationType[] relations) {
+        return EnumSet.copyOf(Arrays.asList(OntologyRelationType.relevantRelations(relations)));
     }
 
-    private void descendants(Set<String> topVertices, Set<String> currentDescendants, Set<OntologyRelationType>
-            relations) {
-        for (String top : topVertices) {
-            Set<String> descendants = getRelatives(top, ontology.incomingEdgesOf(top), relations);
+    private static boolean[] relevantRelationTypes(OntologyRelationType[] relations) {
+        return CompactOntologyGraph.includedRelationTypes(OntologyRelationType.relevantRelations(relations));
+    }
 
-            currentDescendants.addAll(descendants);
-            descendants(descendants, currentDescendants, relations);
-        }
+    private boolean isNotStopNode(String id) {
+        return !STOP_NODES.contains(id);
     }
 }
@@ -24,9 +24,11 @@ public interface OntologyGraphTraversal {
      * @param endingVertices the ending vertices from which returned paths end
      * @param relations a varargs value containing the relationships over which paths can only travel.
      *                  By omitting a {@code relation} value, all paths will be returned.
-     * @return a list of paths from {@code child} to {@code parent} via {@code relations}
+     * @return the paths from {@code startingVertices} to {@code endingVertices} via {@code relations}. An
+     * implementation may limit the number of paths returned, and the number of edges in each; if a limit left out
+     * any paths, the result is marked as truncated
      */
-    List<List<OntologyRelationship>> paths(
+    OntologyPaths paths(
             Set<String> startingVertices,
             Set<String> endingVertices,
             OntologyRelationType... relations);
@@ -111,4 +113,11 @@ public interface OntologyGraphTraversal {
      */
     AncestorGraph<String> subGraph(Set<String> startVertices, Set<String> stopVertices,
             OntologyRelationType... relations);
+
+    /**
+     * Identifies the current state of the graph, so that results computed from it can be recognised as out of date.
+     *
+     * @return a value that changes whenever vertices or edges are added to, or removed from, the graph
+     */
+    long version();
 }
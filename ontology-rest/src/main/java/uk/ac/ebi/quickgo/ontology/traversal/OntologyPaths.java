@@ -0,0 +1,47 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
+
+import com.google.common.base.Preconditions;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The paths found by a path look-up, together with whether the look-up was truncated: that is, whether it stopped
+ * at its maximum number of paths while more remained, or did not follow a path beyond its maximum path length.
+ * If truncated, the paths are a subset of those between the vertices.
+ */
+public class OntologyPaths {
+    private static final OntologyPaths NONE = new OntologyPaths(Collections.emptyList(), false);
+
+    private final List<List<OntologyRelationship>> paths;
+    private final boolean truncated;
+
+    public OntologyPaths(List<List<OntologyRelationship>> paths, boolean truncated) {
+        Preconditions.checkArgument(paths != null, "Paths cannot be null");
+        this.paths = paths;
+        this.truncated = truncated;
+    }
+
+    /**
+     * @return the result of a look-up that found no paths, and was not truncated
+     */
+    public static OntologyPaths none() {
+        return NONE;
+    }
+
+    public List<List<OntologyRelationship>> getPaths() {
+        return paths;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override public String toString() {
+        return "OntologyPaths{" +
+                "paths=" + paths +
+                ", truncated=" + truncated +
+                '}';
+    }
+}
@@ -0,0 +1,206 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
+
+import com.google.common.base.Preconditions;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates the simple paths, over specified relationship types, from any of a set of starting vertices up to any
+ * of a set of ending vertices of a {@link CompactOntologyGraph}. Paths continue beyond ending vertices, so a path
+ * to one ending vertex may be the prefix of a path to another.
+ * <p>
+ * Before searching, the graph is restricted to the vertices that are both ancestors of a starting vertex and
+ * descendants of an ending vertex, over the specified relationship types only. The depth-first search then only
+ * follows edges of those types between those vertices, so that every branch it takes leads to a path; and it
+ * produces paths one at a time, as they are consumed, optionally up to a maximum length. Whether the search stopped
+ * anywhere at that length, when it could otherwise have continued, is reported by {@link #isLengthLimited()}.
+ * <p>
+ * A path finder holds the state of a single search, and so is not thread safe.
+ */
+class PathFinder implements Iterator<List<OntologyRelationship>> {
+    private final CompactOntologyGraph graph;
+    private final int[] starts;
+    private final BitSet ends;
+    private final boolean[] relationTypes;
+    private final int maxPathLength;
+    private final BitSet inScope;
+    private final BitSet onPath;
+    private final int[] pathVertices;
+    private final int[] pathEdges;
+    private final int[] nextEdges;
+
+    private int nextStart;
+    private int depth;
+    private boolean lengthLimited;
+    private List<OntologyRelationship> nextPath;
+
+    /**
+     * @param graph the graph to search
+     * @param starts the numbers of the starting vertices
+     * @param ends the numbers of the ending vertices
+     * @param relationTypes whether each relationship type, by {@link OntologyRelationType#ordinal()}, can be followed
+     * @param maxPathLength the maximum number of edges in a path
+     */
+    PathFinder(CompactOntologyGraph graph, int[] starts, int[] ends, boolean[] relationTypes, int maxPathLength) {
+        Preconditions.checkArgument(maxPathLength > 0, "Maximum path length must be greater than 0: " + maxPathLength);
+        this.graph = graph;
+        this.starts = starts;
+        this.ends = new BitSet();
+        for (int end : ends) {
+            this.ends.set(end);
+        }
+        this.relationTypes = relationTypes;
+        this.maxPathLength = maxPathLength;
+        this.inScope = scope();
+        this.onPath = new BitSet();
+
+        int maxVertices = (int) Math.min((long) maxPathLength + 1, Math.max(graph.vertexCount(), 1));
+        this.pathVertices = new int[maxVertices];
+        this.pathEdges = new int[maxVertices];
+        this.nextEdges = new int[maxVertices];
+        this.depth = -1;
+    }
+
+    /**
+     * @return a sequential stream of the paths, found as it is consumed
+     */
+    Stream<List<OntologyRelationship>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * @return whether, among the paths found so far, the search did not follow an edge it could have followed
+     * because the path had reached the maximum length; if so, longer paths may have been left out
+     */
+    boolean isLengthLimited() {
+        return lengthLimited;
+    }
+
+    @Override public boolean hasNext() {
+        if (nextPath == null) {
+            nextPath = findNextPath();
+        }
+        return nextPath != null;
+    }
+
+    @Override public List<OntologyRelationship> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<OntologyRelationship> path = nextPath;
+        nextPath = null;
+        return path;
+    }
+
+    private List<OntologyRelationship> findNextPath() {
+        while (true) {
+            if (depth < 0) {
+                if (nextStart == starts.length) {
+                    return null;
+                }
+                int start = starts[nextStart++];
+                if (inScope.get(start)) {
+                    push(start);
+                }
+                continue;
+            }
+
+            int vertex = pathVertices[depth];
+            int edge = nextEdges[depth];
+            if (depth == maxPathLength && !lengthLimited) {
+                lengthLimited = canContinue(vertex);
+            }
+            if (edge == graph.firstParentEdge(vertex + 1) || depth == maxPathLength) {
+                onPath.clear(vertex);
+                depth--;
+                continue;
+            }
+
+            nextEdges[depth] = edge + 1;
+            if (canFollow(edge)) {
+                int parent = graph.parent(edge);
+                pathEdges[depth] = edge;
+                push(parent);
+                if (ends.get(parent)) {
+                    return path();
+                }
+            }
+        }
+    }
+
+    private boolean canContinue(int vertex) {
+        for (int edge = graph.firstParentEdge(vertex); edge < graph.firstParentEdge(vertex + 1); edge++) {
+            if (canFollow(edge)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canFollow(int edge) {
+        int parent = graph.parent(edge);
+        return relationTypes[graph.parentRelationType(edge)] && inScope.get(parent) && !onPath.get(parent);
+    }
+
+    private void push(int vertex) {
+        depth++;
+        pathVertices[depth] = vertex;
+        nextEdges[depth] = graph.firstParentEdge(vertex);
+        onPath.set(vertex);
+    }
+
+    private List<OntologyRelationship> path() {
+        List<OntologyRelationship> path = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            path.add(graph.parentEdge(pathVertices[i], pathEdges[i]));
+        }
+        return path;
+    }
+
+    /**
+     * Finds the ancestors of the starting vertices, and then those of them that are descendants of an ending
+     * vertex, over the followed relationship types.
+     */
+    private BitSet scope() {
+        BitSet ancestors = new BitSet();
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int start : starts) {
+            ancestors.set(start);
+            queue.add(start);
+        }
+        while (!queue.isEmpty()) {
+            int vertex = queue.poll();
+            for (int edge = graph.firstParentEdge(vertex); edge < graph.firstParentEdge(vertex + 1); edge++) {
+                int parent = graph.parent(edge);
+                if (relationTypes[graph.parentRelationType(edge)] && !ancestors.get(parent)) {
+                    ancestors.set(parent);
+                    queue.add(parent);
+                }
+            }
+        }
+
+        BitSet scope = new BitSet();
+        for (int end = ends.nextSetBit(0); end >= 0; end = ends.nextSetBit(end + 1)) {
+            if (ancestors.get(end)) {
+                scope.set(end);
+                queue.add(end);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int vertex = queue.poll();
+            for (int edge = graph.firstChildEdge(vertex); edge < graph.firstChildEdge(vertex + 1); edge++) {
+                int child = graph.child(edge);
+                if (relationTypes[graph.childRelationType(edge)] && ancestors.get(child) && !scope.get(child)) {
+                    scope.set(child);
+                    queue.add(child);
+                }
+            }
+        }
+        return scope;
+    }
+}
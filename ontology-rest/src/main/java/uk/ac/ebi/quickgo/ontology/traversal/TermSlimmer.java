@@ -24,9 +24,12 @@ public class TermSlimmer {
             DEFAULT_SLIM_TRAVERSAL_TYPES.toArray(new OntologyRelationType[DEFAULT_TRAVERSAL_TYPES.size()]);
     private final Map<String, List<String>> slimTranslate;
     private final OntologyRelationType[] relationTypes;
+    private final List<String> slimTerms;
 
-    private TermSlimmer(OntologyRelationType[] relationTypes, Map<String, List<String>> slimTranslate) {
+    private TermSlimmer(OntologyRelationType[] relationTypes, List<String> slimTerms,
+            Map<String, List<String>> slimTranslate) {
         this.relationTypes = relationTypes;
+        this.slimTerms = slimTerms;
         this.slimTranslate = slimTranslate;
     }
 
@@ -81,7 +84,42 @@ public class TermSlimmer {
             // else: none of this term's ancestors are in the slim-set, so there's nothing more to be done
         }
 
-        return new TermSlimmer(relationTypes, unmodifiableMap(slimTranslationMap));
+        return new TermSlimmer(relationTypes, slimTerms, unmodifiableMap(slimTranslationMap));
+    }
+
+    /**
+     * Creates a {@link TermSlimmer} holding the same translations as this one, but whose slimmed-to terms are listed
+     * in the order in which they appear in {@code requestedSlimTerms}, rather than in the order of the slim-set from
+     * which this one was created. No slimming is recomputed.
+     *
+     * @param requestedSlimTerms the slimmed-terms, containing (at least) those of this slimmer
+     * @return a {@link TermSlimmer} whose slimmed-to terms are ordered as requested; this one, if they already are
+     */
+    TermSlimmer orderedAs(List<String> requestedSlimTerms) {
+        Map<String, Integer> ranks = new HashMap<>();
+        for (String requestedTerm : requestedSlimTerms) {
+            ranks.putIfAbsent(requestedTerm, ranks.size());
+        }
+
+        Comparator<String> byRank = Comparator.comparing(ranks::get);
+        if (isOrdered(slimTerms, byRank)) {
+            return this;
+        }
+
+        Map<String, List<String>> reorderedTranslationMap = new HashMap<>();
+        slimTranslate.forEach((id, slimmedToTerms) -> {
+            if (isOrdered(slimmedToTerms, byRank)) {
+                reorderedTranslationMap.put(id, slimmedToTerms);
+            } else {
+                List<String> reordered = new ArrayList<>(slimmedToTerms);
+                reordered.sort(byRank);
+                reorderedTranslationMap.put(id, reordered);
+            }
+        });
+
+        List<String> reorderedSlimTerms = new ArrayList<>(slimTerms);
+        reorderedSlimTerms.sort(byRank);
+        return new TermSlimmer(relationTypes, reorderedSlimTerms, unmodifiableMap(reorderedTranslationMap));
     }
 
     /**
@@ -113,6 +151,15 @@ public class TermSlimmer {
         return slimTranslate;
     }
 
+    private static boolean isOrdered(List<String> terms, Comparator<String> order) {
+        for (int i = 1; i < terms.size(); i++) {
+            if (order.compare(terms.get(i - 1), terms.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static List<String> retainValidSlimTerms(OntologyGraphTraversal ontology, OntologyType ontologyType,
             List<String> requestedSlimTerms) {
         List<String> validSlimTerms = new ArrayList<>();
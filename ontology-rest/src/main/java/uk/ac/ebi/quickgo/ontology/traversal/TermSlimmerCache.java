@@ -0,0 +1,172 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.common.OntologyType;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.*;
+import org.slf4j.Logger;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * An in-process cache of the {@link TermSlimmer}s created for slim-sets, so that slimming the terms of a slim-set
+ * that has been slimmed to before is a look-up, rather than a traversal of the whole ontology. Slimmers are keyed
+ * by ontology type, the set of slimmed-terms (regardless of their order or repetition) and the set of requested
+ * relation types; the slimmed-to terms of a cached slimmer are re-ordered to match each request.
+ * <p>
+ * Slimmers are also keyed by the {@link OntologyGraphTraversal#version() version} of the ontology from which they
+ * were created, so that they are never used once the ontology has changed; the whole cache is discarded when a new
+ * version is first seen.
+ * <p>
+ * The slim-sets that are known in advance, such as the preset slim-sets, can be {@link #prebuild prebuilt} once the
+ * ontology has been loaded.
+ */
+public class TermSlimmerCache {
+    private static final Logger LOGGER = getLogger(TermSlimmerCache.class);
+
+    private final Cache<Key, TermSlimmer> slimmers;
+    private volatile long ontologyVersion;
+
+    /**
+     * Creates a cache that can hold up to {@code maxSlimmers} slimmers.
+     *
+     * @param maxSlimmers the maximum number of slimmers held; 0 disables caching
+     */
+    public TermSlimmerCache(long maxSlimmers) {
+        Preconditions.checkArgument(maxSlimmers >= 0, "Maximum slimmers cannot be negative: " + maxSlimmers);
+        this.slimmers = CacheBuilder.newBuilder()
+                .maximumSize(maxSlimmers)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Creates a cache that holds nothing, so that every slimmer is created on request.
+     *
+     * @return a disabled cache
+     */
+    public static TermSlimmerCache disabled() {
+        return new TermSlimmerCache(0);
+    }
+
+    /**
+     * Finds the {@link TermSlimmer} for a slim-set, creating it (see {@link TermSlimmer#createSlims}) if it is
+     * not cached.
+     *
+     * @param ontologyType           the ontology type
+     * @param ontology               the ontology
+     * @param requestedSlimTerms     the slimmed-terms
+     * @param requestedRelationTypes the relationships over which slimmed ancestors will be computed
+     * @return a {@link TermSlimmer}, whose slimmed-to terms are in the order of {@code requestedSlimTerms}
+     */
+    public TermSlimmer get(
+            OntologyType ontologyType,
+            OntologyGraphTraversal ontology,
+            List<String> requestedSlimTerms,
+            OntologyRelationType... requestedRelationTypes) {
+        Preconditions.checkArgument(ontology != null, "Ontology cannot be null");
+        Preconditions.checkArgument(requestedSlimTerms != null && !requestedSlimTerms.isEmpty(),
+                "Slim-set cannot be null or empty");
+        Preconditions.checkArgument(requestedRelationTypes != null, "Requested relation types cannot be null");
+
+        long version = ontology.version();
+        if (version != ontologyVersion) {
+            slimmers.invalidateAll();
+            ontologyVersion = version;
+        }
+
+        Key key = new Key(ontologyType, version, requestedSlimTerms, requestedRelationTypes);
+        TermSlimmer slimmer = slimmers.getIfPresent(key);
+        if (slimmer == null) {
+            List<String> distinctSlimTerms = new ArrayList<>(new LinkedHashSet<>(requestedSlimTerms));
+            slimmer = TermSlimmer.createSlims(ontologyType, ontology, distinctSlimTerms, requestedRelationTypes);
+            slimmers.put(key, slimmer);
+        }
+        return slimmer.orderedAs(requestedSlimTerms);
+    }
+
+    /**
+     * Creates and caches the {@link TermSlimmer}s of the given slim-sets. Slim-sets containing no terms of the
+     * ontology are logged and skipped.
+     *
+     * @param ontologyType           the ontology type
+     * @param ontology               the ontology
+     * @param slimSets               the slimmed-terms of each slim-set, by slim-set name
+     * @param requestedRelationTypes the relationships over which slimmed ancestors will be computed
+     * @return the number of slim-sets whose slimmers were created
+     */
+    public int prebuild(
+            OntologyType ontologyType,
+            OntologyGraphTraversal ontology,
+            Map<String, List<String>> slimSets,
+            OntologyRelationType... requestedRelationTypes) {
+        Preconditions.checkArgument(slimSets != null, "Slim-sets cannot be null");
+
+        long start = System.currentTimeMillis();
+        int built = 0;
+        for (Map.Entry<String, List<String>> slimSet : slimSets.entrySet()) {
+            try {
+                get(ontologyType, ontology, slimSet.getValue(), requestedRelationTypes);
+                built++;
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Could not prebuild slims of slim-set " + slimSet.getKey() + ": " + e.getMessage());
+            }
+        }
+        LOGGER.info("Prebuilt slims of " + built + " of " + slimSets.size() + " slim-sets in " +
+                (System.currentTimeMillis() - start) + "ms");
+        return built;
+    }
+
+    /**
+     * Discards every cached slimmer.
+     */
+    public void invalidateAll() {
+        slimmers.invalidateAll();
+    }
+
+    public long size() {
+        return slimmers.size();
+    }
+
+    public CacheStats stats() {
+        return slimmers.stats();
+    }
+
+    private static final class Key {
+        private final OntologyType ontologyType;
+        private final long ontologyVersion;
+        private final Set<String> slimTerms;
+        private final Set<OntologyRelationType> relationTypes;
+
+        private Key(OntologyType ontologyType, long ontologyVersion, List<String> slimTerms,
+                OntologyRelationType[] relationTypes) {
+            this.ontologyType = ontologyType;
+            this.ontologyVersion = ontologyVersion;
+            this.slimTerms = new HashSet<>(slimTerms);
+            this.relationTypes = EnumSet.noneOf(OntologyRelationType.class);
+            Collections.addAll(this.relationTypes, relationTypes);
+        }
+
+        @Override public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return ontologyVersion == key.ontologyVersion &&
+                    ontologyType == key.ontologyType &&
+                    slimTerms.equals(key.slimTerms) &&
+                    relationTypes.equals(key.relationTypes);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hash(ontologyType, ontologyVersion, slimTerms, relationTypes);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package uk.ac.ebi.quickgo.ontology.traversal.read;
 
 import org.slf4j.Logger;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
@@ -22,6 +24,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
 import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
 import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraph;
 import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraphTraversal;
@@ -29,6 +32,7 @@ import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraphTraversal;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 
 import static org.slf4j.LoggerFactory.getLogger;
@@ -59,12 +63,27 @@ public class OntologyGraphConfig {
     private int chunkSize;
     @Value("${ontology.traversal.header.lines:1}")
     private int headerLines;
+    @Value("${ontology.traversal.descendant.index.relations:" + OntologyRelationType.DEFAULT_TRAVERSAL_TYPES_CSV + "}")
+    private String descendantIndexRelations;
+    @Value("${ontology.traversal.paths.max.paths:10000}")
+    private int maxPaths;
+    @Value("${ontology.traversal.paths.max.length:50}")
+    private int maxPathLength;
+    @Autowired(required = false)
+    private List<JobExecutionListener> ontologyLoadListeners = new ArrayList<>();
 
     private static final int SKIP_LIMIT = 0;
 
     @Bean
     public OntologyGraph ontologyGraph() {
-        return new OntologyGraph();
+        OntologyGraph ontologyGraph = new OntologyGraph(maxPaths, maxPathLength);
+        if (!descendantIndexRelations.trim().isEmpty()) {
+            ontologyGraph.indexDescendantsOver(Stream.of(descendantIndexRelations.split(","))
+                    .map(String::trim)
+                    .map(OntologyRelationType::getByLongName)
+                    .toArray(OntologyRelationType[]::new));
+        }
+        return ontologyGraph;
     }
 
     @Bean
@@ -75,9 +94,10 @@ public class OntologyGraphConfig {
     @Bean
     public Job ontologyGraphBuildJob(OntologyGraph ontologyGraph) {
         return jobBuilders.get(ONTOLOGY_TRAVERSAL_LOADING_JOB_NAME)
-                    .start(ontologyGraphBuildStep(ontologyGraph))
-                    .listener(logJobListener())
-                    .build();
+                .start(ontologyGraphBuildStep(ontologyGraph))
+                .listener(logJobListener())
+                .listener(ontologyLoadedListener(ontologyGraph))
+                .build();
     }
 
     @Bean
@@ -158,6 +178,30 @@ public class OntologyGraphConfig {
         return new LogJobListener();
     }
 
+    /**
+     * Indexes the ancestors, and the descendants over the configured relations, of every term once the graph has
+     * been populated, so that the first requests for them need not compute them; and only then runs the ontology
+     * load listeners, in order, so that whatever they rebuild from the graph reads its new indexes.
+     *
+     * The listeners are run by this one listener, rather than registered with the job, since a job runs the
+     * afterJob methods of its listeners in the reverse of the order they were registered in.
+     */
+    private JobExecutionListener ontologyLoadedListener(OntologyGraph ontologyGraph) {
+        return new JobExecutionListener() {
+            @Override public void beforeJob(JobExecution jobExecution) {
+                ontologyLoadListeners.forEach(listener -> listener.beforeJob(jobExecution));
+            }
+
+            @Override public void afterJob(JobExecution jobExecution) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                    ontologyGraph.buildAncestorClosureIndex();
+                    ontologyGraph.buildDescendantIndexes();
+                }
+                ontologyLoadListeners.forEach(listener -> listener.afterJob(jobExecution));
+            }
+        };
+    }
+
     private ItemProcessor<RawOntologyRelationship, OntologyRelationship> ontologyRelationshipValidator() {
         return new OntologyRelationshipValidator();
     }
@@ -28,6 +28,7 @@ import uk.ac.ebi.quickgo.ontology.common.OntologyDocument;
 import uk.ac.ebi.quickgo.ontology.common.OntologyRepository;
 import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
 import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
+import uk.ac.ebi.quickgo.ontology.service.OntologyDocumentCache;
 import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraph;
 
 import java.util.ArrayList;
@@ -75,6 +76,9 @@ public abstract class OBOControllerIT {
 
     @Autowired
     protected OntologyGraph ontologyGraph;
+
+    @Autowired
+    protected OntologyDocumentCache ontologyDocumentCache;
     protected MockMvc mockMvc;
 
     @MockBean
@@ -118,7 +122,9 @@ public abstract class OBOControllerIT {
 
         ontologyRepository.deleteAll();
         ontologyRepository.saveAll(basicDocs);
+        ontologyDocumentCache.invalidateAll();
 
+        ontologyGraph.clear();
         setupSimpleRelationshipChain();
 
         validIdShortList = validIdList.subList(0, 2);
@@ -713,8 +719,10 @@ public abstract class OBOControllerIT {
 
         response.andDo(print())
                 .andExpect(jsonPath("$.numberOfHits").value(2))
-                .andExpect(jsonPath("$.results[0].descendants", hasSize(9)))
-                .andExpect(jsonPath("$.results[1].descendants", hasSize(10)));
+                .andExpect(jsonPath("$.results[0].id").value(top))
+                .andExpect(jsonPath("$.results[0].descendants", hasSize(10)))
+                .andExpect(jsonPath("$.results[1].id").value(secondTop))
+                .andExpect(jsonPath("$.results[1].descendants", hasSize(9)));
     }
 
     @Test
@@ -772,7 +780,8 @@ public abstract class OBOControllerIT {
 
         response.andDo(print())
                 .andExpect(jsonPath("$.numberOfHits").value(1))
-                .andExpect(jsonPath("$.results").isArray());
+                .andExpect(jsonPath("$.results").isArray())
+                .andExpect(header().string(PATHS_TRUNCATED_HEADER, "false"));
     }
 
     @Test
@@ -7,9 +7,11 @@ import uk.ac.ebi.quickgo.ontology.common.OntologyType;
 import uk.ac.ebi.quickgo.ontology.controller.validation.OBOControllerValidationHelper;
 import uk.ac.ebi.quickgo.ontology.model.OBOTerm;
 import uk.ac.ebi.quickgo.ontology.model.OntologyRelationType;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
 import uk.ac.ebi.quickgo.ontology.model.OntologySpecifier;
 import uk.ac.ebi.quickgo.ontology.service.OntologyService;
 import uk.ac.ebi.quickgo.ontology.service.search.SearchServiceConfig;
+import uk.ac.ebi.quickgo.ontology.traversal.OntologyPaths;
 import uk.ac.ebi.quickgo.rest.headers.HttpHeadersProvider;
 import uk.ac.ebi.quickgo.rest.search.SearchService;
 import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
@@ -25,12 +27,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+import static uk.ac.ebi.quickgo.ontology.controller.OBOController.PATHS_TRUNCATED_HEADER;
+import static uk.ac.ebi.quickgo.ontology.controller.OBOController.asOntologyRelationTypeArray;
+import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.DEFAULT_TRAVERSAL_TYPES;
+import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.DEFAULT_TRAVERSAL_TYPES_CSV;
 
 /**
  * Unit tests available components of the {@link OBOController} class.
@@ -220,6 +230,25 @@ class OBOControllerTest {
         );
     }
 
+    @Test
+    void pathsResponseStatesWhetherThePathsWereTruncated() {
+        when(oboControllerValidationHelper.validateCSVIds("id1")).thenReturn(singletonList("id1"));
+        when(oboControllerValidationHelper.validateCSVIds("id2")).thenReturn(singletonList("id2"));
+        when(oboControllerValidationHelper.validateRelationTypes(DEFAULT_TRAVERSAL_TYPES_CSV, DEFAULT_TRAVERSAL_TYPES))
+                .thenReturn(DEFAULT_TRAVERSAL_TYPES);
+        when(ontologyService.paths(singleton("id1"), singleton("id2"), asOntologyRelationTypeArray(
+                DEFAULT_TRAVERSAL_TYPES))).thenReturn(new OntologyPaths(Collections.emptyList(), true));
+        when(headersProvider.provide()).thenReturn(new HttpHeaders());
+
+        ResponseEntity<QueryResult<List<OntologyRelationship>>> pathsResponse =
+                controller.findPaths("id1", "id2", DEFAULT_TRAVERSAL_TYPES_CSV);
+
+        assertThat(pathsResponse.getHeaders().getFirst(PATHS_TRUNCATED_HEADER), is("true"));
+        assertThat(pathsResponse.getHeaders().getFirst(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS),
+                is(PATHS_TRUNCATED_HEADER));
+        assertThat(pathsResponse.getBody().getResults(), is(empty()));
+    }
+
     private static class FakeOBOTerm extends OBOTerm {}
 
 }
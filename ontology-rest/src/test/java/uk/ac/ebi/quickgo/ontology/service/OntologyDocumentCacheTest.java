@@ -0,0 +1,318 @@
+package uk.ac.ebi.quickgo.ontology.service;
+
+import uk.ac.ebi.quickgo.ontology.common.OntologyDocument;
+import uk.ac.ebi.quickgo.ontology.common.OntologyType;
+
+import com.google.common.base.Ticker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.ac.ebi.quickgo.ontology.common.document.OntologyDocMocker.createGODoc;
+import static uk.ac.ebi.quickgo.ontology.service.OntologyDocumentCache.Projection.COMPLETE;
+import static uk.ac.ebi.quickgo.ontology.service.OntologyDocumentCache.Projection.CORE;
+
+/**
+ * Tests the {@link OntologyDocumentCache} class.
+ */
+class OntologyDocumentCacheTest {
+    private static final String GO = OntologyType.GO.name();
+    private static final String ECO = OntologyType.ECO.name();
+    private static final String GO_ID_1 = "GO:0000001";
+    private static final String GO_ID_2 = "GO:0000002";
+
+    private OntologyDocumentCache cache;
+    private RecordingFetcher fetcher;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OntologyDocumentCache(100);
+        fetcher = new RecordingFetcher(createGODoc(GO_ID_1, "name1"), createGODoc(GO_ID_2, "name2"));
+    }
+
+    @Test
+    void negativeMaxSizeCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new OntologyDocumentCache(-1));
+    }
+
+    @Test
+    void nullTermStoreCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new OntologyDocumentCache(100, null));
+    }
+
+    @Test
+    void nullIdsCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> cache.find(CORE, GO, null, fetcher));
+    }
+
+    @Test
+    void firstLookUpIsFetched() {
+        List<OntologyDocument> docs = cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_1));
+        assertThat(fetcher.requests, contains(singletonList(GO_ID_1)));
+    }
+
+    @Test
+    void repeatedLookUpIsServedFromCache() {
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        List<OntologyDocument> docs = cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_1));
+        assertThat(fetcher.requests.size(), is(1));
+        assertThat(cache.stats(CORE).hitCount(), is(1L));
+    }
+
+    @Test
+    void onlyMissingIdsAreFetched() {
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        List<OntologyDocument> docs = cache.find(CORE, GO, asList(GO_ID_1, GO_ID_2), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_1, GO_ID_2));
+        assertThat(fetcher.requests, contains(singletonList(GO_ID_1), singletonList(GO_ID_2)));
+    }
+
+    @Test
+    void cachedAndFetchedDocumentsAreReturnedInRequestOrder() {
+        cache.find(CORE, GO, singletonList(GO_ID_2), fetcher);
+
+        List<OntologyDocument> docs = cache.find(CORE, GO, asList(GO_ID_2, GO_ID_1), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_2, GO_ID_1));
+    }
+
+    @Test
+    void fetchedDocumentsAreReturnedInRequestOrder() {
+        List<OntologyDocument> docs = cache.find(CORE, GO, asList(GO_ID_2, GO_ID_1), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_2, GO_ID_1));
+    }
+
+    @Test
+    void lookUpIsCaseInsensitive() {
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        cache.find(CORE, GO, singletonList(GO_ID_1.toLowerCase()), fetcher);
+
+        assertThat(fetcher.requests.size(), is(1));
+    }
+
+    @Test
+    void projectionsAreCachedSeparately() {
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        cache.find(COMPLETE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(2));
+    }
+
+    @Test
+    void ontologyTypesAreCachedSeparately() {
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        cache.find(CORE, ECO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(2));
+    }
+
+    @Test
+    void documentFoundBySecondaryIdIsCachedUnderThatId() {
+        OntologyDocument doc = createGODoc(GO_ID_1, "name1");
+        doc.secondaryIds = singletonList(GO_ID_2);
+        fetcher = new RecordingFetcher(doc);
+        cache.find(COMPLETE, GO, singletonList(GO_ID_2), fetcher);
+
+        List<OntologyDocument> docs = cache.find(COMPLETE, GO, singletonList(GO_ID_2), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_1));
+        assertThat(fetcher.requests.size(), is(1));
+    }
+
+    @Test
+    void documentRequestedByPrimaryAndSecondaryIdIsReturnedOnce() {
+        OntologyDocument doc = createGODoc(GO_ID_1, "name1");
+        doc.secondaryIds = singletonList(GO_ID_2);
+        fetcher = new RecordingFetcher(doc);
+        cache.find(COMPLETE, GO, asList(GO_ID_1, GO_ID_2), fetcher);
+
+        List<OntologyDocument> docs = cache.find(COMPLETE, GO, asList(GO_ID_1, GO_ID_2), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_1));
+        assertThat(fetcher.requests.size(), is(1));
+    }
+
+    @Test
+    void unknownIdsAreNotCached() {
+        String unknownId = "GO:9999999";
+        cache.find(CORE, GO, singletonList(unknownId), fetcher);
+
+        List<OntologyDocument> docs = cache.find(CORE, GO, singletonList(unknownId), fetcher);
+
+        assertThat(docs, is(empty()));
+        assertThat(fetcher.requests.size(), is(2));
+    }
+
+    @Test
+    void invalidatingCacheCausesDocumentsToBeFetchedAgain() {
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        cache.invalidateAll();
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(2));
+        assertThat(cache.size(CORE), is(1L));
+    }
+
+    @Test
+    void negativeExpireAfterWriteCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OntologyDocumentCache(100, -1, new OntologyTermStore()));
+    }
+
+    @Test
+    void documentIsFetchedAgainOnceExpired() {
+        FakeTicker ticker = new FakeTicker();
+        cache = new OntologyDocumentCache(100, 60, new OntologyTermStore(), ticker);
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        ticker.advance(61, TimeUnit.MINUTES);
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(2));
+    }
+
+    @Test
+    void documentIsServedFromCacheUntilExpired() {
+        FakeTicker ticker = new FakeTicker();
+        cache = new OntologyDocumentCache(100, 60, new OntologyTermStore(), ticker);
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        ticker.advance(59, TimeUnit.MINUTES);
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(1));
+    }
+
+    @Test
+    void documentIsNeverExpiredWithoutExpireAfterWrite() {
+        FakeTicker ticker = new FakeTicker();
+        cache = new OntologyDocumentCache(100, 0, new OntologyTermStore(), ticker);
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        ticker.advance(365, TimeUnit.DAYS);
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(1));
+    }
+
+    @Test
+    void disabledCacheAlwaysFetches() {
+        cache = OntologyDocumentCache.disabled();
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(2));
+    }
+
+    @Test
+    void disabledCacheReturnsDocumentsInFetchedOrder() {
+        cache = OntologyDocumentCache.disabled();
+        fetcher = new RecordingFetcher(createGODoc(GO_ID_2, "name2"), createGODoc(GO_ID_1, "name1"));
+
+        List<OntologyDocument> docs = cache.find(CORE, GO, asList(GO_ID_1, GO_ID_2), fetcher);
+
+        assertThat(ids(docs), contains(GO_ID_2, GO_ID_1));
+    }
+
+    @Test
+    void coreLookUpIsServedByTermStoreOnceLoaded() {
+        OntologyTermStore termStore = mock(OntologyTermStore.class);
+        List<OntologyDocument> storedDocs = singletonList(createGODoc(GO_ID_1, "name1"));
+        when(termStore.isLoaded(GO)).thenReturn(true);
+        when(termStore.find(GO, singletonList(GO_ID_1))).thenReturn(storedDocs);
+        cache = new OntologyDocumentCache(100, termStore);
+
+        List<OntologyDocument> docs = cache.find(CORE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(docs, is(storedDocs));
+        assertThat(fetcher.requests, is(empty()));
+    }
+
+    @Test
+    void nonCoreLookUpIsNotServedByTermStore() {
+        OntologyTermStore termStore = mock(OntologyTermStore.class);
+        when(termStore.isLoaded(GO)).thenReturn(true);
+        cache = new OntologyDocumentCache(100, termStore);
+
+        cache.find(COMPLETE, GO, singletonList(GO_ID_1), fetcher);
+
+        assertThat(fetcher.requests.size(), is(1));
+    }
+
+    @Test
+    void emptyIdsAreNotFetched() {
+        List<OntologyDocument> docs = cache.find(CORE, GO, emptyList(), fetcher);
+
+        assertThat(docs, is(empty()));
+        assertThat(fetcher.requests, is(empty()));
+    }
+
+    private static List<String> ids(List<OntologyDocument> docs) {
+        List<String> ids = new ArrayList<>();
+        docs.forEach(doc -> ids.add(doc.id));
+        return ids;
+    }
+
+    /**
+     * Returns the known documents identified by the requested ids, and records the ids requested.
+     */
+    private static class FakeTicker extends Ticker {
+        private long nanos;
+
+        void advance(long duration, TimeUnit unit) {
+            nanos += unit.toNanos(duration);
+        }
+
+        @Override public long read() {
+            return nanos;
+        }
+    }
+
+    private static class RecordingFetcher implements BiFunction<String, List<String>, List<OntologyDocument>> {
+        private final List<OntologyDocument> knownDocs;
+        private final List<List<String>> requests = new ArrayList<>();
+
+        RecordingFetcher(OntologyDocument... knownDocs) {
+            this.knownDocs = asList(knownDocs);
+        }
+
+        @Override public List<OntologyDocument> apply(String ontologyType, List<String> ids) {
+            requests.add(new ArrayList<>(ids));
+            List<OntologyDocument> found = new ArrayList<>();
+            for (OntologyDocument doc : knownDocs) {
+                boolean requested = ids.stream().anyMatch(id -> id.equalsIgnoreCase(doc.id) ||
+                        (doc.secondaryIds != null && doc.secondaryIds.stream().anyMatch(id::equalsIgnoreCase)));
+                if (requested) {
+                    found.add(doc);
+                }
+            }
+            return found;
+        }
+    }
+}
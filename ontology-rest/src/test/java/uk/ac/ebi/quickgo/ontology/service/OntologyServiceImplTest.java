@@ -17,6 +17,7 @@ import uk.ac.ebi.quickgo.ontology.model.graph.AncestorVertex;
 import uk.ac.ebi.quickgo.ontology.service.converter.ECODocConverter;
 import uk.ac.ebi.quickgo.ontology.service.converter.GODocConverter;
 import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraphTraversal;
+import uk.ac.ebi.quickgo.ontology.traversal.OntologyPaths;
 import uk.ac.ebi.quickgo.rest.search.SolrQueryStringSanitizer;
 import uk.ac.ebi.quickgo.rest.search.query.RegularPage;
 import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
@@ -105,6 +106,19 @@ class OntologyServiceImplTest {
           OntologyType.GO, new SolrQueryStringSanitizer(), null));
     }
 
+    @Test
+    void nullDocumentCacheProducesIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class , () ->  new OntologyServiceImpl<>(repositoryMock, goDocumentConverterMock,
+          OntologyType.GO, new SolrQueryStringSanitizer(), ontologyTraversalMock, null));
+    }
+
+    @Test
+    void nullSlimmerCacheProducesIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class , () ->  new OntologyServiceImpl<>(repositoryMock, goDocumentConverterMock,
+          OntologyType.GO, new SolrQueryStringSanitizer(), ontologyTraversalMock, OntologyDocumentCache.disabled(),
+          null));
+    }
+
     @Nested
     class GOServiceTests {
 
@@ -127,6 +141,23 @@ class OntologyServiceImplTest {
             assertThat(expectedGoTerm.id, is(equalTo(goId)));
         }
 
+        @Test
+        void cachedTermIsNotFetchedFromRepositoryAgain() {
+            String goId = "GO:0000001";
+            OntologyDocument doc = createGODoc(goId, "name1");
+            OntologyServiceImpl<GOTerm> cachingService = new OntologyServiceImpl<>(repositoryMock, goDocumentConverterMock,
+              OntologyType.GO, new SolrQueryStringSanitizer(), ontologyTraversalMock, new OntologyDocumentCache(10));
+            when(repositoryMock.findCoreAttrByTermId(OntologyType.GO.name(), idsViaOntologyService(goId)))
+                    .thenReturn(singletonList(doc));
+            when(goDocumentConverterMock.convert(doc)).thenReturn(createGOTerm(goId));
+
+            cachingService.findCoreInfoByOntologyId(singletonList(goId));
+            List<GOTerm> goTerms = cachingService.findCoreInfoByOntologyId(singletonList(goId));
+
+            assertThat(goTerms.get(0).id, is(goId));
+            verify(repositoryMock, times(1)).findCoreAttrByTermId(OntologyType.GO.name(), idsViaOntologyService(goId));
+        }
+
         @Test
         void retrievesFirstPageOfGOTerms() {
             int zeroBasedPageNumber = 0;
@@ -446,8 +477,8 @@ class OntologyServiceImplTest {
             Set<String> fromIds = new HashSet<>(idsViaOntologyService("GO:0000001"));
             Set<String> toIds = new HashSet<>(idsViaOntologyService("GO:0000002"));
 
-            when(ontologyTraversalMock.paths(fromIds, toIds)).thenReturn(Collections.emptyList());
-            List<List<OntologyRelationship>> paths = goOntologyService.paths(fromIds, toIds);
+            when(ontologyTraversalMock.paths(fromIds, toIds)).thenReturn(OntologyPaths.none());
+            List<List<OntologyRelationship>> paths = goOntologyService.paths(fromIds, toIds).getPaths();
 
             assertThat(paths.size(), is(0));
         }
@@ -459,13 +490,10 @@ class OntologyServiceImplTest {
             Set<String> fromIds = new HashSet<>(idsViaOntologyService(child));
             Set<String> toIds = new HashSet<>(idsViaOntologyService(parent));
 
-            when(ontologyTraversalMock.paths(fromIds, toIds)).thenReturn(Collections.singletonList(Collections
-                                                                                                           .singletonList(
-                                                                                                                   new OntologyRelationship(
-                                                                                                                           child,
-                                                                                                                           parent,
-                                                                                                                           OntologyRelationType.IS_A))));
-            List<List<OntologyRelationship>> paths = goOntologyService.paths(fromIds, toIds);
+            when(ontologyTraversalMock.paths(fromIds, toIds)).thenReturn(new OntologyPaths(Collections.singletonList(
+                    Collections.singletonList(new OntologyRelationship(child, parent, OntologyRelationType.IS_A))),
+                    false));
+            List<List<OntologyRelationship>> paths = goOntologyService.paths(fromIds, toIds).getPaths();
 
             assertThat(paths.size(), is(1));
         }
@@ -478,15 +506,26 @@ class OntologyServiceImplTest {
             Set<String> toIds = new HashSet<>(idsViaOntologyService(parent));
 
             when(ontologyTraversalMock.paths(fromIds, toIds, OntologyRelationType.IS_A))
-                    .thenReturn(Collections.singletonList(Collections
-                                                                  .singletonList(new OntologyRelationship(child,
-                                                                                                          parent,
-                                                                                                          OntologyRelationType.IS_A))));
-            List<List<OntologyRelationship>> paths = goOntologyService.paths(fromIds, toIds, OntologyRelationType.IS_A);
+                    .thenReturn(new OntologyPaths(Collections.singletonList(Collections.singletonList(
+                            new OntologyRelationship(child, parent, OntologyRelationType.IS_A))), false));
+            List<List<OntologyRelationship>> paths =
+                    goOntologyService.paths(fromIds, toIds, OntologyRelationType.IS_A).getPaths();
 
             assertThat(paths.size(), is(1));
         }
 
+        @Test
+        void findsTruncatedPathsForTerm() {
+            Set<String> fromIds = new HashSet<>(idsViaOntologyService("GO:0000001"));
+            Set<String> toIds = new HashSet<>(idsViaOntologyService("GO:0000002"));
+
+            when(ontologyTraversalMock.paths(fromIds, toIds))
+                    .thenReturn(new OntologyPaths(Collections.emptyList(), true));
+            OntologyPaths paths = goOntologyService.paths(fromIds, toIds);
+
+            assertThat(paths.isTruncated(), is(true));
+        }
+
         //SUB-GRAPH
         @Test
         void populatedAncestorGraphForSelectedTerm() {
@@ -867,8 +906,8 @@ class OntologyServiceImplTest {
             Set<String> fromIds = new HashSet<>(idsViaOntologyService("ECO:0000001"));
             Set<String> toIds = new HashSet<>(idsViaOntologyService("ECO:0000002"));
 
-            when(ontologyTraversalMock.paths(fromIds, toIds)).thenReturn(Collections.emptyList());
-            List<List<OntologyRelationship>> paths = ecoOntologyService.paths(fromIds, toIds);
+            when(ontologyTraversalMock.paths(fromIds, toIds)).thenReturn(OntologyPaths.none());
+            List<List<OntologyRelationship>> paths = ecoOntologyService.paths(fromIds, toIds).getPaths();
 
             assertThat(paths.size(), is(0));
         }
@@ -881,8 +920,9 @@ class OntologyServiceImplTest {
             Set<String> toIds = new HashSet<>(idsViaOntologyService(parent));
 
             when(ontologyTraversalMock.paths(fromIds, toIds))
-              .thenReturn(List.of(List.of(new OntologyRelationship(child,parent,OntologyRelationType.IS_A))));
-            List<List<OntologyRelationship>> paths = ecoOntologyService.paths(fromIds, toIds);
+              .thenReturn(new OntologyPaths(
+                      List.of(List.of(new OntologyRelationship(child,parent,OntologyRelationType.IS_A))), false));
+            List<List<OntologyRelationship>> paths = ecoOntologyService.paths(fromIds, toIds).getPaths();
 
             assertThat(paths.size(), is(1));
         }
@@ -895,8 +935,10 @@ class OntologyServiceImplTest {
             Set<String> toIds = new HashSet<>(idsViaOntologyService(parent));
 
             when(ontologyTraversalMock.paths(fromIds, toIds, OntologyRelationType.IS_A))
-                    .thenReturn(List.of(List.of(new OntologyRelationship(child,parent,OntologyRelationType.IS_A))));
-            List<List<OntologyRelationship>> paths = ecoOntologyService.paths(fromIds, toIds, OntologyRelationType.IS_A);
+                    .thenReturn(new OntologyPaths(
+                            List.of(List.of(new OntologyRelationship(child,parent,OntologyRelationType.IS_A))), false));
+            List<List<OntologyRelationship>> paths =
+                    ecoOntologyService.paths(fromIds, toIds, OntologyRelationType.IS_A).getPaths();
 
             assertThat(paths.size(), is(1));
         }
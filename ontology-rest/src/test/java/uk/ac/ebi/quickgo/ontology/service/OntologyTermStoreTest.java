@@ -0,0 +1,149 @@
+package uk.ac.ebi.quickgo.ontology.service;
+
+import uk.ac.ebi.quickgo.ontology.common.OntologyDocument;
+import uk.ac.ebi.quickgo.ontology.common.OntologyRepository;
+import uk.ac.ebi.quickgo.ontology.common.OntologyType;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.ac.ebi.quickgo.ontology.common.document.OntologyDocMocker.createGODoc;
+
+/**
+ * Tests the {@link OntologyTermStore} class.
+ */
+class OntologyTermStoreTest {
+    private static final String GO = OntologyType.GO.name();
+    private static final String ECO = OntologyType.ECO.name();
+    private static final String GO_ID_1 = "GO:0000001";
+    private static final String GO_ID_2 = "GO:0000002";
+    private static final String GO_ID_3 = "GO:0000003";
+
+    private OntologyTermStore termStore;
+    private OntologyRepository repositoryMock;
+
+    @BeforeEach
+    void setUp() {
+        termStore = new OntologyTermStore();
+        repositoryMock = mock(OntologyRepository.class);
+    }
+
+    @Test
+    void ontologyIsNotLoadedInitially() {
+        assertThat(termStore.isLoaded(GO), is(false));
+    }
+
+    @Test
+    void findingTermsOfUnloadedOntologyCausesException() {
+        List<String> ids = singletonList(GO_ID_1);
+
+        assertThrows(IllegalStateException.class, () -> termStore.find(GO, ids));
+    }
+
+    @Test
+    void nonPositivePageSizeCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> termStore.load(repositoryMock, GO, 0));
+    }
+
+    @Test
+    void allPagesOfTermsAreLoaded() {
+        OntologyDocument doc1 = createGODoc(GO_ID_1, "name1");
+        OntologyDocument doc2 = createGODoc(GO_ID_2, "name2");
+        OntologyDocument doc3 = createGODoc(GO_ID_3, "name3");
+        when(repositoryMock.findAllByOntologyType(GO, PageRequest.of(0, 2)))
+                .thenReturn(new PageImpl<>(asList(doc1, doc2), PageRequest.of(0, 2), 3));
+        when(repositoryMock.findAllByOntologyType(GO, PageRequest.of(1, 2)))
+                .thenReturn(new PageImpl<>(singletonList(doc3), PageRequest.of(1, 2), 3));
+
+        int loaded = termStore.load(repositoryMock, GO, 2);
+
+        assertThat(loaded, is(3));
+        assertThat(termStore.isLoaded(GO), is(true));
+        assertThat(termStore.isLoaded(ECO), is(false));
+        assertThat(termStore.size(GO), is(3));
+        verify(repositoryMock, times(2)).findAllByOntologyType(eq(GO), any());
+    }
+
+    @Test
+    void termsAreFoundInRequestOrderByPrimaryOrSecondaryId() {
+        OntologyDocument doc1 = createGODoc(GO_ID_1, "name1");
+        doc1.secondaryIds = singletonList(GO_ID_3);
+        OntologyDocument doc2 = createGODoc(GO_ID_2, "name2");
+        loadTerms(doc1, doc2);
+
+        List<OntologyDocument> terms = termStore.find(GO, asList(GO_ID_2, GO_ID_3.toLowerCase(), GO_ID_1));
+
+        assertThat(ids(terms), contains(GO_ID_2, GO_ID_1));
+    }
+
+    @Test
+    void unknownTermsAreNotFound() {
+        loadTerms(createGODoc(GO_ID_1, "name1"));
+
+        assertThat(termStore.find(GO, singletonList(GO_ID_2)), is(empty()));
+    }
+
+    @Test
+    void onlyCoreAttributesAreHeld() {
+        OntologyDocument doc = createGODoc(GO_ID_1, "name1");
+        loadTerms(doc);
+
+        OntologyDocument term = termStore.find(GO, singletonList(GO_ID_1)).get(0);
+
+        assertThat(term.name, is(doc.name));
+        assertThat(term.aspect, is(doc.aspect));
+        assertThat(term.definition, is(doc.definition));
+        assertThat(term.synonyms, is(doc.synonyms));
+        assertThat(term.history, is(nullValue()));
+        assertThat(term.xrefs, is(nullValue()));
+        assertThat(term.blacklist, is(nullValue()));
+    }
+
+    @Test
+    void reloadingReplacesPreviousTerms() {
+        loadTerms(createGODoc(GO_ID_1, "name1"));
+
+        loadTerms(createGODoc(GO_ID_2, "name2"));
+
+        assertThat(termStore.find(GO, singletonList(GO_ID_1)), is(empty()));
+        assertThat(ids(termStore.find(GO, singletonList(GO_ID_2))), contains(GO_ID_2));
+    }
+
+    @Test
+    void failedReloadKeepsPreviousTerms() {
+        loadTerms(createGODoc(GO_ID_1, "name1"));
+        when(repositoryMock.findAllByOntologyType(eq(GO), any())).thenThrow(new RuntimeException("unavailable"));
+
+        assertThrows(RuntimeException.class, () -> termStore.load(repositoryMock, GO, 10));
+
+        assertThat(ids(termStore.find(GO, singletonList(GO_ID_1))), contains(GO_ID_1));
+    }
+
+    private void loadTerms(OntologyDocument... docs) {
+        OntologyRepository repository = mock(OntologyRepository.class);
+        when(repository.findAllByOntologyType(eq(GO), any())).thenReturn(new PageImpl<>(asList(docs)));
+        termStore.load(repository, GO, 10);
+    }
+
+    private static List<String> ids(List<OntologyDocument> docs) {
+        return docs.stream().map(doc -> doc.id).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,63 @@
+package uk.ac.ebi.quickgo.ontology.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link SlimSetPresetReader} class.
+ */
+class SlimSetPresetReaderTest {
+    private static final String PRESETS = "SLIM\tTERM_ID\tASPECT\tTERM\n" +
+            "goslim_a\tGO:0000002\tC\tterm2\n" +
+            "goslim_b\tGO:0000003\tF\tterm3\n" +
+            "goslim_a\tGO:0000001\tC\tterm1\n" +
+            "\n";
+
+    @Test
+    void nullSourceCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> SlimSetPresetReader.read(null, 1));
+    }
+
+    @Test
+    void termsAreGroupedBySlimSetInFileOrder() {
+        Map<String, List<String>> slimSets = SlimSetPresetReader.read(resource(PRESETS.getBytes(), "presets.dat"), 1);
+
+        assertThat(slimSets.keySet(), contains("goslim_a", "goslim_b"));
+        assertThat(slimSets.get("goslim_a"), contains("GO:0000002", "GO:0000001"));
+        assertThat(slimSets.get("goslim_b"), contains("GO:0000003"));
+    }
+
+    @Test
+    void gzippedSourceIsRead() throws IOException {
+        Map<String, List<String>> slimSets = SlimSetPresetReader.read(resource(gzip(PRESETS), "presets.dat.gz"), 1);
+
+        assertThat(slimSets.size(), is(2));
+    }
+
+    private static ByteArrayResource resource(byte[] content, String filename) {
+        return new ByteArrayResource(content) {
+            @Override public String getFilename() {
+                return filename;
+            }
+        };
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
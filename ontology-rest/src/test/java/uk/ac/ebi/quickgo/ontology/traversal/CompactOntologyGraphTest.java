@@ -0,0 +1,123 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.*;
+
+/**
+ * Tests the {@link CompactOntologyGraph} class.
+ */
+class CompactOntologyGraphTest {
+    private static final String V1 = "GO:0000001";
+    private static final String V2 = "GO:0000002";
+    private static final String V3 = "GO:0000003";
+
+    private final OntologyRelationship v1_IS_v2 = new OntologyRelationship(V1, V2, IS_A);
+    private final OntologyRelationship v1_PO_v2 = new OntologyRelationship(V1, V2, PART_OF);
+    private final OntologyRelationship v3_IS_v2 = new OntologyRelationship(V3, V2, IS_A);
+
+    @Test
+    void emptyGraphContainsNothing() {
+        CompactOntologyGraph graph = CompactOntologyGraph.EMPTY;
+
+        assertThat(graph.vertexCount(), is(0));
+        assertThat(graph.vertexSet(), is(empty()));
+        assertThat(graph.edgeSet(), is(empty()));
+    }
+
+    @Test
+    void verticesAreNumberedInTheOrderTheyAreFirstAdded() {
+        CompactOntologyGraph graph = CompactOntologyGraph.build(null, asList(v1_IS_v2, v3_IS_v2));
+
+        assertThat(graph.numberOf(V1), is(0));
+        assertThat(graph.numberOf(V2), is(1));
+        assertThat(graph.numberOf(V3), is(2));
+        assertThat(graph.vertex(2), is(V3));
+        assertThat(graph.numberOf("GO:0000009"), is(-1));
+    }
+
+    @Test
+    void parentsAndChildrenOfEachVertexAreHeld() {
+        CompactOntologyGraph graph = CompactOntologyGraph.build(null, asList(v3_IS_v2, v1_PO_v2, v1_IS_v2));
+
+        assertThat(parentEdges(graph, graph.numberOf(V1)), contains(v1_IS_v2, v1_PO_v2));
+        assertThat(parentEdges(graph, graph.numberOf(V2)), is(empty()));
+        assertThat(childEdges(graph, graph.numberOf(V2)), contains(v3_IS_v2, v1_IS_v2, v1_PO_v2));
+        assertThat(childEdges(graph, graph.numberOf(V1)), is(empty()));
+    }
+
+    @Test
+    void duplicateEdgesAreHeldOnce() {
+        CompactOntologyGraph graph = CompactOntologyGraph.build(null, asList(v1_IS_v2, v1_IS_v2));
+
+        assertThat(graph.edgeCount(), is(1));
+        assertThat(graph.edgeSet(), contains(v1_IS_v2));
+    }
+
+    @Test
+    void buildingFromExistingGraphKeepsItsVerticesAndEdges() {
+        CompactOntologyGraph existing = CompactOntologyGraph.build(null, singletonList(v3_IS_v2));
+
+        CompactOntologyGraph graph = CompactOntologyGraph.build(existing, asList(v1_IS_v2, v3_IS_v2));
+
+        assertThat(graph.numberOf(V3), is(existing.numberOf(V3)));
+        assertThat(graph.numberOf(V2), is(existing.numberOf(V2)));
+        assertThat(graph.edgeSet(), containsInAnyOrder(v1_IS_v2, v3_IS_v2));
+        assertThat(existing.edgeSet(), contains(v3_IS_v2));
+    }
+
+    @Test
+    void buildingWithoutRelationshipsCopiesExistingGraph() {
+        CompactOntologyGraph existing = CompactOntologyGraph.build(null, singletonList(v3_IS_v2));
+
+        CompactOntologyGraph graph = CompactOntologyGraph.build(existing, emptyList());
+
+        assertThat(graph.vertexSet(), is(existing.vertexSet()));
+        assertThat(graph.edgeSet(), is(existing.edgeSet()));
+    }
+
+    @Test
+    void relationshipWithoutTypeCausesException() {
+        List<OntologyRelationship> relationships = singletonList(new OntologyRelationship(V1, V2, null));
+
+        assertThrows(IllegalArgumentException.class, () -> CompactOntologyGraph.build(null, relationships));
+    }
+
+    @Test
+    void includedRelationTypesAreIndexedByOrdinal() {
+        boolean[] included = CompactOntologyGraph.includedRelationTypes(IS_A, REGULATES);
+
+        assertThat(included[IS_A.ordinal()], is(true));
+        assertThat(included[REGULATES.ordinal()], is(true));
+        assertThat(included[POSITIVE_REGULATES.ordinal()], is(false));
+    }
+
+    private static List<OntologyRelationship> parentEdges(CompactOntologyGraph graph, int vertex) {
+        List<OntologyRelationship> edges = new ArrayList<>();
+        for (int edge = graph.firstParentEdge(vertex); edge < graph.firstParentEdge(vertex + 1); edge++) {
+            edges.add(graph.parentEdge(vertex, edge));
+        }
+        return edges;
+    }
+
+    private static List<OntologyRelationship> childEdges(CompactOntologyGraph graph, int vertex) {
+        List<OntologyRelationship> edges = new ArrayList<>();
+        for (int edge = graph.firstChildEdge(vertex); edge < graph.firstChildEdge(vertex + 1); edge++) {
+            edges.add(graph.childEdge(vertex, edge));
+        }
+        return edges;
+    }
+}
@@ -7,6 +7,9 @@ import uk.ac.ebi.quickgo.ontology.model.graph.AncestorEdge;
 import uk.ac.ebi.quickgo.ontology.model.graph.AncestorGraph;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -91,6 +94,55 @@ class OntologyGraphTest {
             assertThat(ontologyGraph.getEdges().size(), is(3));
         }
 
+        @Test
+        void clearingGraphRemovesEverything() {
+            setupGraphWith3SimpleRelationships();
+
+            ontologyGraph.clear();
+
+            assertThat(ontologyGraph.getVertices().size(), is(0));
+            assertThat(ontologyGraph.getEdges().size(), is(0));
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.getVertices(OntologyType.GO));
+        }
+
+        @Test
+        void addingDuplicateRelationshipsAddsThemOnce() {
+            setupGraphWith3SimpleRelationships();
+            setupGraphWith3SimpleRelationships();
+
+            assertThat(ontologyGraph.getVertices().size(), is(3));
+            assertThat(ontologyGraph.getEdges(), containsInAnyOrder(v1_CO_v2, v1_CP_v2, v2_OI_v3));
+        }
+
+        @Test
+        void relationshipsAddedAfterALookUpAreIncluded() {
+            ontologyGraph.addRelationships(singletonList(v1_CO_v2));
+            assertThat(ontologyGraph.getEdges(), contains(v1_CO_v2));
+
+            ontologyGraph.addRelationships(asList(v1_CP_v2, v2_OI_v3));
+
+            assertThat(ontologyGraph.getVertices(), containsInAnyOrder(id("1"), id("2"), id("3")));
+            assertThat(ontologyGraph.getEdges(), containsInAnyOrder(v1_CO_v2, v1_CP_v2, v2_OI_v3));
+            assertThat(ontologyGraph.children(id("2")), containsInAnyOrder(v1_CO_v2, v1_CP_v2));
+        }
+
+        @Test
+        void addingRelationshipWithoutTypeThrowsException() {
+            List<OntologyRelationship> relationships = singletonList(createRelationship(id("1"), id("2"), null));
+
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.addRelationships(relationships));
+        }
+
+        @Test
+        void graphsWithTheSameRelationshipsAreEqual() {
+            setupGraphWith3SimpleRelationships();
+            OntologyGraph other = new OntologyGraph();
+            other.addRelationships(asList(v2_OI_v3, v1_CP_v2, v1_CO_v2));
+
+            assertThat(ontologyGraph, is(other));
+            assertThat(ontologyGraph.hashCode(), is(other.hashCode()));
+        }
+
         @Test
         void addingNullRelationshipsThrowsException() {
             assertThrows(IllegalArgumentException.class, () -> ontologyGraph.addRelationships(null));
@@ -187,7 +239,7 @@ class OntologyGraphTest {
             List<List<OntologyRelationship>> paths = ontologyGraph.paths(
                     ids("1"),
                     ids("2")
-            );
+            ).getPaths();
 
             assertThat(paths, hasSize(2));
             checkPathsContains(paths, singletonList(v1_CO_v2));
@@ -202,7 +254,7 @@ class OntologyGraphTest {
                     ids("1"),
                     ids("2"),
                     CAPABLE_OF_PART_OF
-            );
+            ).getPaths();
 
             assertThat(paths, hasSize(1));
             checkPathsContains(paths, singletonList(v1_CP_v2));
@@ -215,7 +267,7 @@ class OntologyGraphTest {
             List<List<OntologyRelationship>> paths = ontologyGraph.paths(
                     ids("1"),
                     ids("3")
-            );
+            ).getPaths();
 
             assertThat(paths, hasSize(2));
             checkPathsContains(paths, asList(v1_CO_v2, v2_OI_v3));
@@ -230,7 +282,7 @@ class OntologyGraphTest {
                     ids("1"),
                     ids("3"),
                     CAPABLE_OF_PART_OF
-            );
+            ).getPaths();
 
             assertThat(paths, hasSize(0));
         }
@@ -244,7 +296,7 @@ class OntologyGraphTest {
                     ids("3"),
                     CAPABLE_OF_PART_OF,
                     OCCURS_IN
-            );
+            ).getPaths();
 
             assertThat(paths, hasSize(1));
             checkPathsContains(paths, asList(v1_CP_v2, v2_OI_v3));
@@ -281,7 +333,7 @@ class OntologyGraphTest {
             List<List<OntologyRelationship>> paths = ontologyGraph.paths(
                     ids("1"),
                     ids("6")
-            );
+            ).getPaths();
 
             assertThat(paths, hasSize(4));
             checkPathsContains(paths, asList(v1_IS_v2, v2_IS_v5, v5_IS_v6));
@@ -321,7 +373,7 @@ class OntologyGraphTest {
             List<List<OntologyRelationship>> paths = ontologyGraph.paths(
                     ids("1", "2"),
                     ids("6", "4")
-            );
+            ).getPaths();
 
             assertThat(paths, hasSize(7));
 
@@ -339,6 +391,168 @@ class OntologyGraphTest {
             checkPathsContains(paths, asList(v2_IS_v5, v5_IS_v6));
         }
 
+        @Test
+        void pathsContinueBeyondEndingVertices() {
+            OntologyRelationship v1_IS_v2 = createRelationship(id("1"), id("2"), IS_A);
+            OntologyRelationship v2_IS_v3 = createRelationship(id("2"), id("3"), IS_A);
+            OntologyRelationship v3_IS_v4 = createRelationship(id("3"), id("4"), IS_A);
+            ontologyGraph.addRelationships(asList(v1_IS_v2, v2_IS_v3, v3_IS_v4));
+
+            List<List<OntologyRelationship>> paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("2", "4")
+            ).getPaths();
+
+            assertThat(paths, hasSize(2));
+            checkPathsContains(paths, singletonList(v1_IS_v2));
+            checkPathsContains(paths, asList(v1_IS_v2, v2_IS_v3, v3_IS_v4));
+        }
+
+        @Test
+        void findingPathsFromUnknownVertexThrowsException() {
+            setupGraphWith3SimpleRelationships();
+
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.paths(
+                    ids("9"),
+                    ids("3")
+            ));
+        }
+
+        @Test
+        void nonPositiveMaxPathsThrowsException() {
+            assertThrows(IllegalArgumentException.class, () -> new OntologyGraph(0, 10));
+        }
+
+        @Test
+        void nonPositiveMaxPathLengthThrowsException() {
+            assertThrows(IllegalArgumentException.class, () -> new OntologyGraph(10, 0));
+        }
+
+        @Test
+        void numberOfPathsFoundIsLimited() {
+            ontologyGraph = new OntologyGraph(2, 10);
+            ontologyGraph.addRelationships(multipleInheritanceRelationships());
+
+            OntologyPaths paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("6")
+            );
+
+            assertThat(paths.getPaths(), hasSize(2));
+            assertThat(paths.isTruncated(), is(true));
+        }
+
+        @Test
+        void pathsNumberingExactlyTheLimitAreNotTruncated() {
+            ontologyGraph = new OntologyGraph(4, 10);
+            ontologyGraph.addRelationships(multipleInheritanceRelationships());
+
+            OntologyPaths paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("6")
+            );
+
+            assertThat(paths.getPaths(), hasSize(4));
+            assertThat(paths.isTruncated(), is(false));
+        }
+
+        @Test
+        void lengthOfPathsFoundIsLimited() {
+            ontologyGraph = new OntologyGraph(10, 3);
+            ontologyGraph.addRelationships(multipleInheritanceRelationships());
+
+            OntologyPaths paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("6")
+            );
+
+            assertThat(paths.getPaths(), hasSize(3));
+            paths.getPaths().forEach(path -> assertThat(path, hasSize(3)));
+            assertThat(paths.isTruncated(), is(true));
+        }
+
+        @Test
+        void pathsOfExactlyTheMaximumLengthAreNotTruncated() {
+            ontologyGraph = new OntologyGraph(10, 4);
+            ontologyGraph.addRelationships(multipleInheritanceRelationships());
+
+            OntologyPaths paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("6")
+            );
+
+            assertThat(paths.getPaths(), hasSize(4));
+            assertThat(paths.isTruncated(), is(false));
+        }
+
+        @Test
+        void pathsReachingTheMaximumLengthAtAVertexLeadingToNoEndingVertexAreNotTruncated() {
+            ontologyGraph = new OntologyGraph(10, 3);
+            ontologyGraph.addRelationships(multipleInheritanceRelationships());
+
+            OntologyPaths paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("9")
+            );
+
+            assertThat(paths.getPaths(), hasSize(3));
+            assertThat(paths.isTruncated(), is(false));
+        }
+
+        @Test
+        void unlimitedPathsAreNotTruncated() {
+            ontologyGraph.addRelationships(multipleInheritanceRelationships());
+
+            OntologyPaths paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("6")
+            );
+
+            assertThat(paths.getPaths(), hasSize(4));
+            assertThat(paths.isTruncated(), is(false));
+        }
+
+        @Test
+        void pathsOfCyclicGraphAreSimple() {
+            OntologyRelationship v1_IS_v2 = createRelationship(id("1"), id("2"), IS_A);
+            OntologyRelationship v2_IS_v3 = createRelationship(id("2"), id("3"), IS_A);
+            OntologyRelationship v3_IS_v1 = createRelationship(id("3"), id("1"), IS_A);
+            ontologyGraph.addRelationships(asList(v1_IS_v2, v2_IS_v3, v3_IS_v1));
+
+            List<List<OntologyRelationship>> paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("3")
+            ).getPaths();
+
+            assertThat(paths, contains(asList(v1_IS_v2, v2_IS_v3)));
+        }
+
+        @Test
+        void pathsThroughVerticesThatCannotReachEndingVerticesAreNotFound() {
+            setupGraphWith3SimpleRelationships();
+            ontologyGraph.addRelationships(singletonList(createRelationship(id("1"), id("4"), IS_A)));
+
+            List<List<OntologyRelationship>> paths = ontologyGraph.paths(
+                    ids("1"),
+                    ids("3")
+            ).getPaths();
+
+            assertThat(paths, containsInAnyOrder(asList(v1_CO_v2, v2_OI_v3), asList(v1_CP_v2, v2_OI_v3)));
+        }
+
+        private List<OntologyRelationship> multipleInheritanceRelationships() {
+            return asList(
+                    createRelationship(id("1"), id("2"), IS_A),
+                    createRelationship(id("2"), id("5"), IS_A),
+                    createRelationship(id("5"), id("6"), IS_A),
+                    createRelationship(id("1"), id("8"), IS_A),
+                    createRelationship(id("7"), id("8"), IS_A),
+                    createRelationship(id("1"), id("7"), IS_A),
+                    createRelationship(id("8"), id("9"), IS_A),
+                    createRelationship(id("7"), id("9"), IS_A),
+                    createRelationship(id("9"), id("6"), IS_A));
+        }
+
         private void checkPathsContains(
                 List<List<OntologyRelationship>> paths,
                 List<OntologyRelationship> ontologyRelationships) {
@@ -529,6 +743,76 @@ class OntologyGraphTest {
                 }
             }
         }
+
+        @Test
+        void ancestorsReflectRelationshipsAddedAfterAPreviousLookUp() {
+            ontologyGraph.addRelationships(singletonList(createRelationship(id("1"), id("2"), IS_A)));
+            assertThat(ontologyGraph.ancestors(ids("1")), containsInAnyOrder(id("1"), id("2")));
+
+            ontologyGraph.addRelationships(singletonList(createRelationship(id("2"), id("3"), IS_A)));
+
+            assertThat(ontologyGraph.ancestors(ids("1")), containsInAnyOrder(id("1"), id("2"), id("3")));
+        }
+
+        @Test
+        void ancestorsAreTheSameWhetherOrNotIndexWasBuiltEagerly() {
+            setupGraphWith3SimpleRelationships();
+            List<String> lazilyIndexedAncestors = ontologyGraph.ancestors(ids("1"), CAPABLE_OF_PART_OF);
+
+            ontologyGraph.buildAncestorClosureIndex();
+
+            assertThat(ontologyGraph.ancestors(ids("1"), CAPABLE_OF_PART_OF),
+                    containsInAnyOrder(lazilyIndexedAncestors.toArray()));
+        }
+
+        @Test
+        void findingAncestorsOfUnknownVertexThrowsException() {
+            setupGraphWith3SimpleRelationships();
+            Set<String> unknownVertices = ids("99");
+
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.ancestors(unknownVertices));
+        }
+
+        @Test
+        void unknownStopNodeIsItsOwnAncestor() {
+            setupGraphWith3SimpleRelationships();
+
+            List<String> ancestors = ontologyGraph.ancestors(Collections.singleton(MOLECULAR_FUNCTION_STOP_NODE));
+
+            assertThat(ancestors, contains(MOLECULAR_FUNCTION_STOP_NODE));
+        }
+
+        @Test
+        void indexingCyclicGraphThrowsException() {
+            ontologyGraph.addRelationships(asList(
+                    createRelationship(id("1"), id("2"), IS_A),
+                    createRelationship(id("2"), id("3"), IS_A),
+                    createRelationship(id("3"), id("1"), IS_A)));
+
+            assertThrows(IllegalStateException.class, () -> ontologyGraph.buildAncestorClosureIndex());
+        }
+
+        @Test
+        void concurrentLookUpsOfUnindexedGraphAgree() throws Exception {
+            List<OntologyRelationship> chain = new ArrayList<>();
+            for (int i = 1; i < 200; i++) {
+                chain.add(createRelationship(id(Integer.toString(i)), id(Integer.toString(i + 1)), IS_A));
+            }
+            ontologyGraph.addRelationships(chain);
+
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<List<String>>> lookUps = new ArrayList<>();
+                for (int i = 0; i < 32; i++) {
+                    lookUps.add(executor.submit(() -> ontologyGraph.ancestors(ids("1"))));
+                }
+                for (Future<List<String>> lookUp : lookUps) {
+                    assertThat(lookUp.get(), hasSize(200));
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
     }
 
     @Nested
@@ -543,6 +827,79 @@ class OntologyGraphTest {
             assertThrows(IllegalArgumentException.class, () -> ontologyGraph.descendants(Collections.emptySet()));
         }
 
+        @Test
+        void findingDescendantsOfUnknownVertexThrowsException() {
+            setupGraphWith3SimpleRelationships();
+
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.descendants(ids("9")));
+        }
+
+        @Test
+        void findingIndexedDescendantsOfUnknownVertexThrowsException() {
+            ontologyGraph.indexDescendantsOver();
+            setupGraphWith3SimpleRelationships();
+
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.descendants(ids("9")));
+        }
+
+        @Test
+        void descendantReachedByManyPathsIsFoundOnce() {
+            setupDiamondGraph();
+
+            List<String> descendants = ontologyGraph.descendants(ids("1"));
+
+            assertThat(descendants, hasSize(5));
+            assertThat(descendants, containsInAnyOrder(id("1"), id("2"), id("3"), id("4"), id("5")));
+        }
+
+        @Test
+        void descendantsOfCyclicGraphAreFound() {
+            ontologyGraph.addRelationships(asList(
+                    createRelationship(id("2"), id("1"), IS_A),
+                    createRelationship(id("3"), id("2"), IS_A),
+                    createRelationship(id("1"), id("3"), IS_A)
+            ));
+
+            assertThat(ontologyGraph.descendants(ids("1")), containsInAnyOrder(id("1"), id("2"), id("3")));
+        }
+
+        @Test
+        void indexedDescendantsAreTheSameAsSearchedDescendants() {
+            OntologyGraph indexedGraph = new OntologyGraph();
+            indexedGraph.indexDescendantsOver();
+            indexedGraph.indexDescendantsOver(IS_A, PART_OF);
+            List<OntologyRelationship> relationships = asList(
+                    createRelationship(id("2"), id("1"), IS_A),
+                    createRelationship(id("3"), id("1"), PART_OF),
+                    createRelationship(id("4"), id("2"), IS_A),
+                    createRelationship(id("4"), id("3"), REGULATES),
+                    createRelationship(id("5"), id("4"), PART_OF),
+                    createRelationship(id("6"), id("3"), IS_A));
+            ontologyGraph.addRelationships(relationships);
+            indexedGraph.addRelationships(relationships);
+            indexedGraph.buildDescendantIndexes();
+
+            for (OntologyRelationType[] relations : asList(new OntologyRelationType[0],
+                    new OntologyRelationType[]{IS_A, PART_OF}, new OntologyRelationType[]{IS_A})) {
+                for (Set<String> tops : asList(ids("1"), ids("3"), ids("2", "3"), ids("4", "6"))) {
+                    assertThat(indexedGraph.descendants(tops, relations),
+                            containsInAnyOrder(ontologyGraph.descendants(tops, relations).toArray()));
+                }
+            }
+        }
+
+        @Test
+        void descendantsReflectRelationshipsAddedAfterIndexing() {
+            ontologyGraph.indexDescendantsOver(IS_A);
+            ontologyGraph.addRelationships(singletonList(createRelationship(id("2"), id("1"), IS_A)));
+            ontologyGraph.buildDescendantIndexes();
+            assertThat(ontologyGraph.descendants(ids("1"), IS_A), containsInAnyOrder(id("1"), id("2")));
+
+            ontologyGraph.addRelationships(singletonList(createRelationship(id("3"), id("2"), IS_A)));
+
+            assertThat(ontologyGraph.descendants(ids("1"), IS_A), containsInAnyOrder(id("1"), id("2"), id("3")));
+        }
+
         @Test
         void findDescendantsViaAllRelations() {
             setupGraphWith3SimpleRelationships();
@@ -640,6 +997,16 @@ class OntologyGraphTest {
         }
     }
 
+    private void setupDiamondGraph() {
+        ontologyGraph.addRelationships(asList(
+                createRelationship(id("2"), id("1"), IS_A),
+                createRelationship(id("3"), id("1"), IS_A),
+                createRelationship(id("4"), id("2"), IS_A),
+                createRelationship(id("4"), id("3"), PART_OF),
+                createRelationship(id("5"), id("4"), IS_A)
+        ));
+    }
+
     @Nested
     class ChildrenTests {
         private final String parentId = id("1");
@@ -673,6 +1040,11 @@ class OntologyGraphTest {
             assertThrows(IllegalArgumentException.class, () -> ontologyGraph.children(""));
         }
 
+        @Test
+        void findingChildrenOfUnknownVertexThrowsException() {
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.children(id("9")));
+        }
+
         @Test
         void finds1IsAChildOfParent1() {
             Set<OntologyRelationship> expectedChildren = ontologyGraph.children(parentId, IS_A);
@@ -744,6 +1116,11 @@ class OntologyGraphTest {
             assertThrows(IllegalArgumentException.class, () -> ontologyGraph.parents(""));
         }
 
+        @Test
+        void findingParentsOfUnknownVertexThrowsException() {
+            assertThrows(IllegalArgumentException.class, () -> ontologyGraph.parents(id("9")));
+        }
+
         @Test
         void finds1IsAParentOfChild1() {
             Set<OntologyRelationship> expectedParents = ontologyGraph.parents(childId, IS_A);
@@ -0,0 +1,134 @@
+package uk.ac.ebi.quickgo.ontology.traversal;
+
+import uk.ac.ebi.quickgo.ontology.common.OntologyType;
+import uk.ac.ebi.quickgo.ontology.model.OntologyRelationship;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.IS_A;
+import static uk.ac.ebi.quickgo.ontology.model.OntologyRelationType.PART_OF;
+
+/**
+ * Tests the {@link TermSlimmerCache} class.
+ */
+class TermSlimmerCacheTest {
+    private static final String CELLULAR_COMPONENT = "GO:0005575";
+    private static final String MEMBRANE = "GO:0016020";
+    private static final String CELL_PART = "GO:0044464";
+    private static final String MEMBRANE_PART = "GO:0044425";
+    private static final String PLASMA_MEMBRANE_PART = "GO:0044459";
+    private static final String LATERAL_PLASMA_MEMBRANE = "GO:0016328";
+
+    private OntologyGraph ontology;
+    private TermSlimmerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ontology = new OntologyGraph();
+        ontology.addRelationships(createRelationships());
+        cache = new TermSlimmerCache(10);
+    }
+
+    @Test
+    void negativeMaximumSizeCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new TermSlimmerCache(-1));
+    }
+
+    @Test
+    void emptySlimsCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> cache.get(OntologyType.GO, ontology, new ArrayList<>()));
+    }
+
+    @Test
+    void slimmerOfSameSlimSetIsCreatedOnce() {
+        TermSlimmer first = cache.get(OntologyType.GO, ontology, asList(CELL_PART, MEMBRANE_PART));
+        TermSlimmer second = cache.get(OntologyType.GO, ontology, asList(CELL_PART, MEMBRANE_PART));
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(cache.size(), is(1L));
+        assertThat(cache.stats().hitCount(), is(1L));
+    }
+
+    @Test
+    void slimmerOfReorderedSlimSetIsCachedAndOrderedAsRequested() {
+        cache.get(OntologyType.GO, ontology, asList(CELL_PART, MEMBRANE_PART));
+
+        TermSlimmer reordered = cache.get(OntologyType.GO, ontology, asList(MEMBRANE_PART, CELL_PART, MEMBRANE_PART));
+
+        assertThat(cache.size(), is(1L));
+        assertThat(reordered.findSlimmedToTerms(PLASMA_MEMBRANE_PART), contains(MEMBRANE_PART, CELL_PART));
+        assertThat(reordered.findSlimmedToTerms(LATERAL_PLASMA_MEMBRANE), contains(MEMBRANE_PART, CELL_PART));
+        assertThat(reordered.findSlimmedToTerms(CELL_PART), contains(CELL_PART));
+    }
+
+    @Test
+    void slimmersOverDifferentRelationsAreCachedSeparately() {
+        TermSlimmer overIsA = cache.get(OntologyType.GO, ontology, singletonList(MEMBRANE), IS_A);
+        TermSlimmer overPartOf = cache.get(OntologyType.GO, ontology, singletonList(MEMBRANE), PART_OF);
+
+        assertThat(overPartOf, is(not(sameInstance(overIsA))));
+        assertThat(cache.size(), is(2L));
+    }
+
+    @Test
+    void slimmerIsRecreatedOnceOntologyChanges() {
+        TermSlimmer before = cache.get(OntologyType.GO, ontology, singletonList(MEMBRANE));
+        String newMembranePart = "GO:0000001";
+        ontology.addRelationships(singletonList(new OntologyRelationship(newMembranePart, MEMBRANE, PART_OF)));
+
+        TermSlimmer after = cache.get(OntologyType.GO, ontology, singletonList(MEMBRANE));
+
+        assertThat(after, is(not(sameInstance(before))));
+        assertThat(after.findSlimmedToTerms(newMembranePart), contains(MEMBRANE));
+        assertThat(cache.size(), is(1L));
+    }
+
+    @Test
+    void disabledCacheHoldsNothing() {
+        TermSlimmerCache disabled = TermSlimmerCache.disabled();
+
+        TermSlimmer slimmer = disabled.get(OntologyType.GO, ontology, singletonList(MEMBRANE));
+
+        assertThat(slimmer.findSlimmedToTerms(MEMBRANE_PART), contains(MEMBRANE));
+        assertThat(disabled.size(), is(0L));
+    }
+
+    @Test
+    void prebuildingSkipsSlimSetsWithoutValidTerms() {
+        Map<String, List<String>> slimSets = new LinkedHashMap<>();
+        slimSets.put("valid", asList(CELL_PART, MEMBRANE_PART));
+        slimSets.put("invalid", singletonList("GO:9999999"));
+
+        int built = cache.prebuild(OntologyType.GO, ontology, slimSets);
+
+        assertThat(built, is(1));
+        assertThat(cache.size(), is(1L));
+        cache.get(OntologyType.GO, ontology, asList(CELL_PART, MEMBRANE_PART));
+        assertThat(cache.stats().hitCount(), is(1L));
+    }
+
+    private List<OntologyRelationship> createRelationships() {
+        List<OntologyRelationship> relationships = new ArrayList<>();
+        relationships.add(new OntologyRelationship(MEMBRANE, CELLULAR_COMPONENT, IS_A));
+        relationships.add(new OntologyRelationship(CELL_PART, CELLULAR_COMPONENT, IS_A));
+        relationships.add(new OntologyRelationship(MEMBRANE_PART, MEMBRANE, PART_OF));
+        relationships.add(new OntologyRelationship(MEMBRANE_PART, CELLULAR_COMPONENT, IS_A));
+        relationships.add(new OntologyRelationship(PLASMA_MEMBRANE_PART, CELL_PART, IS_A));
+        relationships.add(new OntologyRelationship(PLASMA_MEMBRANE_PART, MEMBRANE_PART, IS_A));
+        relationships.add(new OntologyRelationship(LATERAL_PLASMA_MEMBRANE, PLASMA_MEMBRANE_PART, IS_A));
+        return relationships;
+    }
+}
@@ -1,11 +1,16 @@
 package uk.ac.ebi.quickgo.ontology.traversal.read;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.test.JobLauncherTestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
 import uk.ac.ebi.quickgo.ontology.traversal.OntologyGraph;
 
@@ -15,6 +20,7 @@ import java.util.stream.Collectors;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.Mockito.inOrder;
 
 /**
  * Check that the {@link OntologyGraphConfig} correctly sets up an instance of
@@ -24,15 +30,20 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
  * @author Edd
  */
 @SpringBootTest(classes = {OntologyGraphConfig.class, JobTestRunnerConfig.class})
+// the job reads its sources from streams, which can only be read once
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @TestPropertySource(properties = "ontology.traversal.source=classpath:/relations/RELATIONS.dat.gz,classpath:/relations/ECO_RELATIONS.dat.gz")
 class OntologyGraphConfigIT {
 
     @Autowired
     private JobLauncherTestUtils jobLauncherTestUtils;
 
-    @Autowired
+    @SpyBean
     private OntologyGraph ontologyGraph;
 
+    @MockBean
+    private JobExecutionListener ontologyLoadListener;
+
     @Test
     void runOntologyGraphLoading() throws Exception {
         JobExecution jobExecution = jobLauncherTestUtils.launchJob();
@@ -56,4 +67,15 @@ class OntologyGraphConfigIT {
                         "I", "P", "R", "CO", "UI"
                 ));
     }
+
+    @Test
+    void ontologyLoadListenersRunAfterTheGraphIsIndexed() throws Exception {
+        JobExecution jobExecution = jobLauncherTestUtils.launchJob();
+
+        InOrder inOrder = inOrder(ontologyGraph, ontologyLoadListener);
+        inOrder.verify(ontologyLoadListener).beforeJob(jobExecution);
+        inOrder.verify(ontologyGraph).buildAncestorClosureIndex();
+        inOrder.verify(ontologyGraph).buildDescendantIndexes();
+        inOrder.verify(ontologyLoadListener).afterJob(jobExecution);
+    }
 }
\ No newline at end of file
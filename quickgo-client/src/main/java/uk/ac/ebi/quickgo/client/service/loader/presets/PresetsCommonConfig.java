@@ -10,6 +10,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestOperations;
 import uk.ac.ebi.quickgo.client.model.presets.impl.CompositePresetImpl;
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.search.request.config.FilterConfigRetrieval;
 import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
 
@@ -43,9 +44,10 @@ public class PresetsCommonConfig {
 
     @Bean
     public RestValuesRetriever restValuesRetriever(FilterConfigRetrieval externalFilterConfigRetrieval,
-                                                   RestOperations restOperations) {
+                                                   RestOperations restOperations,
+                                                   RESTRequestExecutor restRequestExecutor) {
         RESTFilterConverterFactory restConverterFactory =
-                new RESTFilterConverterFactory(externalFilterConfigRetrieval, restOperations);
+                new RESTFilterConverterFactory(externalFilterConfigRetrieval, restOperations, restRequestExecutor);
         return new RestValuesRetriever(restConverterFactory);
     }
 }
@@ -51,6 +51,15 @@ public class ResponseExceptionHandler {
         return new ResponseEntity<>(error, headers(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    protected ResponseEntity<ErrorInfo> handleTooManyRequests(TooManyRequestsException ex,
+            HttpServletRequest request) {
+        ErrorInfo error = new ErrorInfo(request.getRequestURL().toString(), ex.getMessage());
+        HttpHeaders headers = headers();
+        headers.add(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(error, headers, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     private HttpHeaders headers(){
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Type", MediaType.APPLICATION_JSON_VALUE);
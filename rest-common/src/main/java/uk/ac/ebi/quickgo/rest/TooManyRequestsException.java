@@ -0,0 +1,25 @@
+package uk.ac.ebi.quickgo.rest;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Exception that is thrown to indicate that a request cannot be served now, because the service is busy, and that the
+ * client should retry it after a given time.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        Preconditions.checkArgument(retryAfterSeconds >= 0,
+                "Retry after seconds cannot be negative: " + retryAfterSeconds);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return the number of seconds after which the client should retry the request
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
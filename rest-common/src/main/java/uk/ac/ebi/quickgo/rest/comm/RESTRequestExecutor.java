@@ -0,0 +1,133 @@
+package uk.ac.ebi.quickgo.rest.comm;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * The {@link Executor} on which outbound REST calls made by {@link RESTRequesterImpl} block. Keeping these calls
+ * off the JVM-wide common {@link java.util.concurrent.ForkJoinPool} means that bursts of slow external requests
+ * cannot starve parallel streams, nor each other.
+ *
+ * <p>Two modes are available: {@link Type#VIRTUAL}, which runs each call on its own virtual thread; and
+ * {@link Type#BOUNDED}, which uses a fixed size pool with a bounded queue, and rejects calls once the queue is full.
+ * In both cases the number of queued, in-flight, completed and rejected calls is recorded.
+ */
+public class RESTRequestExecutor implements Executor {
+    static final String THREAD_NAME_PREFIX = "rest-request-";
+
+    public enum Type {
+        VIRTUAL, BOUNDED
+    }
+
+    private final ExecutorService delegate;
+    private final ThreadPoolExecutor pool;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private RESTRequestExecutor(ExecutorService delegate, ThreadPoolExecutor pool) {
+        this.delegate = delegate;
+        this.pool = pool;
+    }
+
+    /**
+     * Creates an executor of the requested {@link Type}.
+     *
+     * @param type the type of executor
+     * @param poolSize the number of threads used by a {@link Type#BOUNDED} executor
+     * @param queueCapacity the number of calls a {@link Type#BOUNDED} executor can queue before rejecting new ones
+     * @return the executor
+     */
+    public static RESTRequestExecutor create(Type type, int poolSize, int queueCapacity) {
+        Preconditions.checkArgument(type != null, "Executor type cannot be null");
+        return type == Type.VIRTUAL ? virtualThreads() : bounded(poolSize, queueCapacity);
+    }
+
+    public static RESTRequestExecutor virtualThreads() {
+        return new RESTRequestExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory()),
+                null);
+    }
+
+    public static RESTRequestExecutor bounded(int poolSize, int queueCapacity) {
+        Preconditions.checkArgument(poolSize > 0, "Pool size must be greater than 0: " + poolSize);
+        Preconditions.checkArgument(queueCapacity > 0, "Queue capacity must be greater than 0: " + queueCapacity);
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+        pool.allowCoreThreadTimeOut(true);
+        return new RESTRequestExecutor(pool, pool);
+    }
+
+    @Override public void execute(Runnable command) {
+        try {
+            delegate.execute(() -> {
+                inFlight.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of calls waiting for a thread; always 0 for {@link Type#VIRTUAL} executors
+     */
+    public int getQueueDepth() {
+        return pool == null ? 0 : pool.getQueue().size();
+    }
+
+    /**
+     * @return the number of calls currently being made
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the number of calls that have finished, successfully or not
+     */
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * @return the number of calls refused because the queue was full
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    @Override public String toString() {
+        return "RESTRequestExecutor{" +
+                "type=" + (pool == null ? Type.VIRTUAL : Type.BOUNDED) +
+                ", queueDepth=" + getQueueDepth() +
+                ", inFlight=" + getInFlight() +
+                ", completed=" + getCompleted() +
+                ", rejected=" + getRejected() +
+                '}';
+    }
+}
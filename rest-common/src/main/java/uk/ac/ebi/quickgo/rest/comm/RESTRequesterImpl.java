@@ -5,6 +5,8 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import org.slf4j.Logger;
 import org.springframework.web.client.RestOperations;
 
@@ -19,6 +21,7 @@ public class RESTRequesterImpl implements RESTRequester {
     private final String url;
     private String backupUrl;
     private final RestOperations restOperations;
+    private final Executor executor;
     private Map<String, String> requestParameters;
 
     private RESTRequesterImpl(Builder builder) {
@@ -26,6 +29,7 @@ public class RESTRequesterImpl implements RESTRequester {
         this.backupUrl = builder.backupUrl;
         this.requestParameters = Collections.unmodifiableMap(builder.requestParameters);
         this.restOperations = builder.restOperations;
+        this.executor = builder.executor;
     }
 
     @Override
@@ -47,7 +51,7 @@ public class RESTRequesterImpl implements RESTRequester {
 
     <T> CompletableFuture<T> get(String url, RestOperations template, Class<T> responseType) {
         return CompletableFuture.supplyAsync(() ->
-                template.getForObject(url, responseType, requestParameters));
+                template.getForObject(url, responseType, requestParameters), executor);
     }
 
     public static class Builder {
@@ -56,6 +60,7 @@ public class RESTRequesterImpl implements RESTRequester {
         private String backupUrl;
         private Map<String, String> requestParameters;
         private RestOperations restOperations;
+        private Executor executor;
 
         Builder(RestOperations restOperations, String url, String backupUrl) {
             checkURL(url);
@@ -65,6 +70,7 @@ public class RESTRequesterImpl implements RESTRequester {
             this.backupUrl = backupUrl;
             this.restOperations = restOperations;
             this.requestParameters = new LinkedHashMap<>();
+            this.executor = ForkJoinPool.commonPool();
         }
 
         public RESTRequesterImpl build() {
@@ -78,6 +84,20 @@ public class RESTRequesterImpl implements RESTRequester {
             return this;
         }
 
+        /**
+         * Sets the {@link Executor} on which the REST call blocks. Defaults to the common
+         * {@link ForkJoinPool}, which should only be relied on for occasional requests.
+         *
+         * @param executor the executor to run the REST call on
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            Preconditions.checkArgument(executor != null, "Executor cannot be null");
+
+            this.executor = executor;
+            return this;
+        }
+
         public Builder addRequestParameter(String name, String value) {
             Preconditions.checkArgument(name != null && !name.trim().isEmpty(), "Name cannot be null or empty");
             Preconditions.checkArgument(value != null, "Value cannot be null");
@@ -1,5 +1,8 @@
 package uk.ac.ebi.quickgo.rest.controller;
 
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestOperations;
@@ -13,10 +16,26 @@ import org.springframework.web.client.RestTemplate;
  */
 @Configuration
 public class FilterRequestConfig {
+    private static final String DEFAULT_EXECUTOR_TYPE = "VIRTUAL";
+    private static final int DEFAULT_EXECUTOR_POOL_SIZE = 50;
+    private static final int DEFAULT_EXECUTOR_QUEUE_CAPACITY = 500;
+
     @Bean
     public RestOperations restOperations() {
         // todo: use connection pooling? http://stackoverflow.com/questions/31869193/using-spring-rest-template-either-creating-too-many-connections-or-slow
         // ... to prevent exceeding local port range when performing numerous requests
         return new RestTemplate();
     }
+
+    /**
+     * The executor on which outbound REST calls are made. By default each call runs on its own virtual thread;
+     * setting {@code rest.executor.type} to {@code BOUNDED} uses a fixed size pool with a bounded queue instead.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public RESTRequestExecutor restRequestExecutor(
+            @Value("${rest.executor.type:" + DEFAULT_EXECUTOR_TYPE + "}") RESTRequestExecutor.Type type,
+            @Value("${rest.executor.poolSize:" + DEFAULT_EXECUTOR_POOL_SIZE + "}") int poolSize,
+            @Value("${rest.executor.queueCapacity:" + DEFAULT_EXECUTOR_QUEUE_CAPACITY + "}") int queueCapacity) {
+        return RESTRequestExecutor.create(type, poolSize, queueCapacity);
+    }
 }
@@ -3,6 +3,7 @@ package uk.ac.ebi.quickgo.rest.metadata;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Simple data structure for a service's meta data.
@@ -27,4 +28,13 @@ public class MetaData {
     public Map<String, MetaDataMarker> getProperties() {
         return properties;
     }
+
+    /**
+     * @return the properties, in the order of their keys, so that equal metadata is written the same way
+     */
+    @Override public String toString() {
+        return "MetaData{" +
+                "properties=" + new TreeMap<>(properties) +
+                '}';
+    }
 }
@@ -3,6 +3,7 @@ package uk.ac.ebi.quickgo.rest.metadata;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Create MetaData from Strings.
@@ -22,4 +23,13 @@ public class MetaDataStringOnly implements MetaDataMarker  {
     public Map<String, String> getProperties() {
         return properties;
     }
+
+    /**
+     * @return the properties, in the order of their keys, so that equal metadata is written the same way
+     */
+    @Override public String toString() {
+        return "MetaDataStringOnly{" +
+                "properties=" + new TreeMap<>(properties) +
+                '}';
+    }
 }
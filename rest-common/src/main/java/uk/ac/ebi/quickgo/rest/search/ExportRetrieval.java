@@ -0,0 +1,39 @@
+package uk.ac.ebi.quickgo.rest.search;
+
+import uk.ac.ebi.quickgo.rest.search.query.QueryRequest;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An interface that exports every result matching a domain specific {@link QueryRequest} from a data source, as a
+ * single, continuous stream of results, rather than as a sequence of pages, each requiring its own request.
+ *
+ * @param <T> the type of the results that are exported
+ */
+public interface ExportRetrieval<T> {
+    /**
+     * Export the results matching the given query, in the order given by its sort criteria.
+     *
+     * @param request contains the query, filters, returned fields and sort criteria of the export; its page is
+     *                ignored
+     * @return the exported results, which must be closed once they have been read
+     * @throws RetrievalException when an issue occurs whilst starting the export
+     */
+    ExportedResults<T> exportByQuery(QueryRequest request);
+
+    /**
+     * Find the fields that cannot be exported as they would be returned by a search, because the data source
+     * either cannot export them at all, or would alter their values in doing so. By default, every field can be
+     * exported.
+     *
+     * @param collection the collection the fields belong to
+     * @param fields the fields to be returned or sorted on by an export
+     * @return the fields that cannot be exported, or an empty list if all of them can be
+     * @throws RetrievalException when an issue occurs whilst finding the fields that can be exported
+     */
+    default List<String> findUnexportableFields(String collection, Collection<String> fields) {
+        return Collections.emptyList();
+    }
+}
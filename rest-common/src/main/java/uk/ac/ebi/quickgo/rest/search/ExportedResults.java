@@ -0,0 +1,21 @@
+package uk.ac.ebi.quickgo.rest.search;
+
+import java.util.Iterator;
+
+/**
+ * The results of an export, read one at a time from the data source as they are iterated over. A
+ * {@link RetrievalException} is thrown by {@link #hasNext()} or {@link #next()} if the results cannot be read.
+ *
+ * @param <T> the type of the results
+ */
+public interface ExportedResults<T> extends Iterator<T>, AutoCloseable {
+    /**
+     * @return the total number of results being exported
+     */
+    long getNumberOfHits();
+
+    /**
+     * Stops reading the results, and releases the resources used to read them.
+     */
+    @Override void close();
+}
@@ -0,0 +1,197 @@
+package uk.ac.ebi.quickgo.rest.search;
+
+import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
+
+import com.google.common.base.Preconditions;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterates over the pages of a cursored search, fetching (and transforming) the pages that follow the current one
+ * in a background task, whilst the caller consumes the current page. At most {@code readAheadPages} pages are held
+ * ahead of the caller, so that a slow consumer does not cause all of the results to be held in memory.
+ * <p>
+ * Pages must be fetched in order, since each depends on the cursor returned by the previous one, so a single
+ * background task fetches all of them. If the executor rejects this task, the pages are fetched by the caller as
+ * they are requested instead.
+ * <p>
+ * A {@link RetrievalException} (or any other runtime exception) thrown whilst fetching a page in the background is
+ * rethrown to the caller when it requests that page. {@link #close()} stops the background task, and must be
+ * called if the caller stops iterating early.
+ *
+ * @param <T> the type of result in each page
+ */
+class ReadAheadPageIterator<T> implements Iterator<QueryResult<T>>, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReadAheadPageIterator.class);
+    private static final long OFFER_WAIT_MILLIS = 500;
+
+    private final UnaryOperator<QueryResult<T>> nextPage;
+    private final int pageCount;
+    private final BlockingQueue<Slot<T>> readAhead;
+    private final FutureTask<Void> fetcher;
+
+    private volatile boolean closed;
+    private boolean fetchingInBackground;
+    private QueryResult<T> lastPage;
+    private Slot<T> next;
+    private int returnedCount;
+
+    /**
+     * @param firstPage the first page of results, which has already been fetched
+     * @param nextPage fetches the page following the one it is given, or returns null if there are no more pages
+     * @param pageCount the total number of pages to iterate over, including the first
+     * @param readAheadPages the maximum number of pages to fetch ahead of the caller
+     * @param executor the executor in which the pages are fetched
+     */
+    ReadAheadPageIterator(QueryResult<T> firstPage, UnaryOperator<QueryResult<T>> nextPage, int pageCount,
+            int readAheadPages, Executor executor) {
+        Preconditions.checkArgument(firstPage != null, "First page cannot be null");
+        Preconditions.checkArgument(nextPage != null, "Next page function cannot be null");
+        Preconditions.checkArgument(readAheadPages > 0, "Read ahead pages must be greater than 0: " + readAheadPages);
+        Preconditions.checkArgument(executor != null, "Executor cannot be null");
+        this.nextPage = nextPage;
+        this.pageCount = pageCount;
+        this.readAhead = new ArrayBlockingQueue<>(readAheadPages);
+        this.lastPage = firstPage;
+        this.next = pageCount > 0 ? Slot.of(firstPage) : Slot.end();
+        this.fetcher = new FutureTask<>(this::fetchRemainingPages, null);
+
+        if (pageCount > 1) {
+            try {
+                executor.execute(fetcher);
+                fetchingInBackground = true;
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("Could not fetch search results ahead, fetching them as they are read instead.", e);
+            }
+        }
+    }
+
+    @Override public boolean hasNext() {
+        if (next == null) {
+            next = fetchingInBackground ? takeReadAhead() : fetchNext();
+        }
+        return !next.isEnd();
+    }
+
+    @Override public QueryResult<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Slot<T> current = next;
+        if (current.isFailure()) {
+            next = Slot.end();
+            throw current.failure;
+        }
+        next = null;
+        returnedCount++;
+        return current.page;
+    }
+
+    /**
+     * Stops fetching pages in the background, and discards any pages already fetched. The background task is
+     * cancelled, rather than its thread interrupted, so that a pooled thread that has since moved on to another
+     * task is never interrupted.
+     */
+    @Override public void close() {
+        closed = true;
+        fetcher.cancel(true);
+        readAhead.clear();
+    }
+
+    private Slot<T> fetchNext() {
+        if (returnedCount >= pageCount) {
+            return Slot.end();
+        }
+        QueryResult<T> page = nextPage.apply(lastPage);
+        if (page == null) {
+            return Slot.end();
+        }
+        lastPage = page;
+        return Slot.of(page);
+    }
+
+    private Slot<T> takeReadAhead() {
+        try {
+            return readAhead.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new RetrievalException("Interrupted whilst waiting for the next page of search results", e);
+        }
+    }
+
+    private void fetchRemainingPages() {
+        Slot<T> last = Slot.end();
+        try {
+            QueryResult<T> page = lastPage;
+            for (int fetched = 1; fetched < pageCount && !closed; fetched++) {
+                page = nextPage.apply(page);
+                if (page == null || !offer(Slot.of(page))) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            last = Slot.failure(e);
+        } finally {
+            offer(last);
+        }
+    }
+
+    private boolean offer(Slot<T> slot) {
+        try {
+            while (!closed) {
+                if (readAhead.offer(slot, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            LOGGER.debug("Stopped fetching search results ahead.");
+        }
+        return false;
+    }
+
+    /**
+     * An entry in the read ahead queue: a page of results, the failure to fetch one, or the end of the results.
+     */
+    private static final class Slot<T> {
+        private static final Slot<?> END = new Slot<>(null, null);
+
+        private final QueryResult<T> page;
+        private final RuntimeException failure;
+
+        private Slot(QueryResult<T> page, RuntimeException failure) {
+            this.page = page;
+            this.failure = failure;
+        }
+
+        static <T> Slot<T> of(QueryResult<T> page) {
+            return new Slot<>(page, null);
+        }
+
+        static <T> Slot<T> failure(RuntimeException failure) {
+            return new Slot<>(null, failure);
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Slot<T> end() {
+            return (Slot<T>) END;
+        }
+
+        boolean isEnd() {
+            return page == null && failure == null;
+        }
+
+        boolean isFailure() {
+            return failure != null;
+        }
+    }
+}
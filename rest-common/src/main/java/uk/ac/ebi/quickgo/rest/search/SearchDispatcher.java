@@ -8,11 +8,19 @@ import uk.ac.ebi.quickgo.rest.search.results.PageInfo;
 import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
 import uk.ac.ebi.quickgo.rest.search.results.transformer.ResultTransformerChain;
 
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -144,48 +152,271 @@ public final class SearchDispatcher {
             ResultTransformerChain<QueryResult<T>> transformer,
             FilterContext context,
             int limit) {
+        return streamSearchResults(firstQueryRequest, queryTemplate, searchService, transformer, context, limit, null,
+                0);
+    }
 
-        Stream<QueryResult<T>> resultStream;
+    /**
+     * <p>Dispatch a request to a {@link SearchService} and return a stream of
+     * its results, as {@link #streamSearchResults(QueryRequest, DefaultSearchQueryTemplate, SearchService,
+     * ResultTransformerChain, FilterContext, int)} does.
+     *
+     * <p>If {@code readAheadPages} is greater than zero, the pages following the first are fetched and
+     * transformed by a task run in {@code readAheadExecutor}, whilst the caller consumes the current page, holding
+     * at most {@code readAheadPages} pages ahead of the caller. The time taken to stream all of the results then
+     * approaches that of the slower of fetching the pages and consuming them, rather than the sum of the two. The
+     * returned stream must be closed if it is not consumed completely, to stop the task.
+     *
+     * @param firstQueryRequest the {@link QueryRequest}
+     * @param queryTemplate the template used to build any required subsequent {@link QueryRequest}s
+     * @param searchService the service which is to be searched
+     * @param transformer the result transformer
+     * @param context data made available to the result transformations
+     * @param limit the number of results to be streamed back to the caller
+     * @param readAheadExecutor the executor in which subsequent pages are fetched, if reading ahead
+     * @param readAheadPages the maximum number of pages to fetch ahead of the caller, or zero to fetch each page
+     *                       only once the caller requests it
+     * @param <T> the type of the {@link QueryResult}
+     * @return a stream of {@link QueryResult} instances, containing up to {@code limit} results in total
+     */
+    public static <T> Stream<QueryResult<T>> streamSearchResults(
+            QueryRequest firstQueryRequest,
+            DefaultSearchQueryTemplate queryTemplate,
+            SearchService<T> searchService,
+            ResultTransformerChain<QueryResult<T>> transformer,
+            FilterContext context,
+            int limit,
+            Executor readAheadExecutor,
+            int readAheadPages) {
+        Preconditions.checkArgument(readAheadPages >= 0, "Read ahead pages cannot be negative: " + readAheadPages);
+        Preconditions.checkArgument(readAheadPages == 0 || readAheadExecutor != null,
+                "Read ahead executor cannot be null when reading ahead");
 
         if (firstQueryRequest == null) {
-            resultStream = Stream.empty();
-        } else {
-            try {
-                final QueryResult<T> firstQueryResult = searchService.findByQuery(firstQueryRequest);
-                int pageSize = firstQueryRequest.getPage().getPageSize();
-
-                QueryResult<T> firstTransformedQueryResult = transformer.applyTransformations(firstQueryResult, context);
-                long totalHits = firstTransformedQueryResult.getNumberOfHits();
-
-                firstTransformedQueryResult = resizeResultsIfRequired(firstTransformedQueryResult, limit);
-                MutableValue<String> cursor = new MutableValue<>(FIRST_CURSOR);
-                MutableValue<Integer> fetchedCount = new MutableValue<>(0);
-                int requiredIterations = getRequiredNumberOfPagesToFetch(pageSize, totalHits, limit);
-
-                resultStream = Stream.iterate(firstTransformedQueryResult, qr -> {
-                    String nextCursor = qr.getPageInfo().getNextCursor();
-                    if (isCursorAtEnd(cursor.getValue(), nextCursor)) {
-                        return qr;
-                    } else {
-                        cursor.setValue(nextCursor);
-
-                        incrementFetchedCount(fetchedCount, qr);
-                        int nextPageSize = getNextPageSize(fetchedCount.getValue(), limit, pageSize);
-                        QueryRequest nextQueryRequest =
-                                createNextCursorQueryRequest(queryTemplate, firstQueryRequest, nextCursor, nextPageSize);
-
-                        return transformer.applyTransformations(
-                                searchService.findByQuery(nextQueryRequest),
-                                context);
-                    }
+            return Stream.empty();
+        }
+
+        QueryResult<T> firstQueryResult;
+        try {
+            firstQueryResult = searchService.findByQuery(firstQueryRequest);
+        } catch (RetrievalException e) {
+            LOGGER.error(createErrorMessage(firstQueryRequest), e);
+            throw e;
+        }
+        return streamSearchResults(firstQueryRequest, firstQueryResult, queryTemplate, searchService, transformer,
+                context, limit, readAheadExecutor, readAheadPages);
+    }
+
+    /**
+     * <p>Return a stream of the results of a request whose first page has already been fetched from a
+     * {@link SearchService}, as {@link #streamSearchResults(QueryRequest, DefaultSearchQueryTemplate, SearchService,
+     * ResultTransformerChain, FilterContext, int, Executor, int)} does, so that a caller that needs the first page
+     * before streaming the results, for instance to count them, does not fetch it twice.
+     *
+     * @param firstQueryRequest the {@link QueryRequest}
+     * @param firstQueryResult the untransformed results of {@code firstQueryRequest}
+     * @param queryTemplate the template used to build any required subsequent {@link QueryRequest}s
+     * @param searchService the service which is to be searched
+     * @param transformer the result transformer
+     * @param context data made available to the result transformations
+     * @param limit the number of results to be streamed back to the caller
+     * @param readAheadExecutor the executor in which subsequent pages are fetched, if reading ahead
+     * @param readAheadPages the maximum number of pages to fetch ahead of the caller, or zero to fetch each page
+     *                       only once the caller requests it
+     * @param <T> the type of the {@link QueryResult}
+     * @return a stream of {@link QueryResult} instances, containing up to {@code limit} results in total
+     */
+    public static <T> Stream<QueryResult<T>> streamSearchResults(
+            QueryRequest firstQueryRequest,
+            QueryResult<T> firstQueryResult,
+            DefaultSearchQueryTemplate queryTemplate,
+            SearchService<T> searchService,
+            ResultTransformerChain<QueryResult<T>> transformer,
+            FilterContext context,
+            int limit,
+            Executor readAheadExecutor,
+            int readAheadPages) {
+        Preconditions.checkArgument(firstQueryRequest != null, "First query request cannot be null");
+        Preconditions.checkArgument(firstQueryResult != null, "First query result cannot be null");
+        Preconditions.checkArgument(readAheadPages >= 0, "Read ahead pages cannot be negative: " + readAheadPages);
+        Preconditions.checkArgument(readAheadPages == 0 || readAheadExecutor != null,
+                "Read ahead executor cannot be null when reading ahead");
+
+        try {
+            int pageSize = firstQueryRequest.getPage().getPageSize();
+
+            QueryResult<T> firstTransformedQueryResult = transformer.applyTransformations(firstQueryResult, context);
+            long totalHits = firstTransformedQueryResult.getNumberOfHits();
+
+            firstTransformedQueryResult = resizeResultsIfRequired(firstTransformedQueryResult, limit);
+            int requiredIterations = getRequiredNumberOfPagesToFetch(pageSize, totalHits, limit);
+            UnaryOperator<QueryResult<T>> nextPage = nextPageFetcher(firstQueryRequest, queryTemplate,
+                    searchService, transformer, context, limit, pageSize);
+
+            if (readAheadPages > 0) {
+                ReadAheadPageIterator<T> pages = new ReadAheadPageIterator<>(firstTransformedQueryResult,
+                        nextPage, requiredIterations, readAheadPages, readAheadExecutor);
+                return StreamSupport.stream(Spliterators.spliterator(pages, requiredIterations,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                        .onClose(pages::close);
+            } else {
+                return Stream.iterate(firstTransformedQueryResult, qr -> {
+                    QueryResult<T> next = nextPage.apply(qr);
+                    return next == null ? qr : next;
                 }).limit(requiredIterations);
-            } catch (RetrievalException e) {
-                LOGGER.error(createErrorMessage(firstQueryRequest), e);
-                throw e;
             }
+        } catch (RetrievalException e) {
+            LOGGER.error(createErrorMessage(firstQueryRequest), e);
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Export the results of a request from an {@link ExportRetrieval} and return them as a stream of pages,
+     * as {@link #streamSearchResults(QueryRequest, DefaultSearchQueryTemplate, SearchService,
+     * ResultTransformerChain, FilterContext, int, Executor, int)} does, so that the results can be transformed and
+     * written a page at a time. Rather than making a request per page, the results of every page are read from a
+     * single export, as they are needed.
+     *
+     * <p>The returned stream must be closed, to close the export.
+     *
+     * @param queryRequest the {@link QueryRequest}, whose page is ignored
+     * @param exportRetrieval the retrieval from which the results are exported
+     * @param transformer the result transformer
+     * @param context data made available to the result transformations
+     * @param limit the number of results to be streamed back to the caller
+     * @param pageSize the number of results in each page
+     * @param readAheadExecutor the executor in which subsequent pages are read, if reading ahead
+     * @param readAheadPages the maximum number of pages to read ahead of the caller, or zero to read each page only
+     *                       once the caller requests it
+     * @param <T> the type of the {@link QueryResult}
+     * @return a stream of {@link QueryResult} instances, containing up to {@code limit} results in total
+     */
+    public static <T> Stream<QueryResult<T>> streamExportedResults(
+            QueryRequest queryRequest,
+            ExportRetrieval<T> exportRetrieval,
+            ResultTransformerChain<QueryResult<T>> transformer,
+            FilterContext context,
+            int limit,
+            int pageSize,
+            Executor readAheadExecutor,
+            int readAheadPages) {
+        Preconditions.checkArgument(pageSize > 0, "Page size must be greater than 0: " + pageSize);
+        Preconditions.checkArgument(readAheadPages >= 0, "Read ahead pages cannot be negative: " + readAheadPages);
+        Preconditions.checkArgument(readAheadPages == 0 || readAheadExecutor != null,
+                "Read ahead executor cannot be null when reading ahead");
+
+        if (queryRequest == null) {
+            return Stream.empty();
+        }
+
+        ExportedResults<T> results;
+        try {
+            results = exportRetrieval.exportByQuery(queryRequest);
+        } catch (RetrievalException e) {
+            LOGGER.error(createErrorMessage(queryRequest), e);
+            throw e;
+        }
+
+        try {
+            long totalHits = results.getNumberOfHits();
+            int requiredPages = getRequiredNumberOfPagesToFetch(pageSize, totalHits, limit);
+            UnaryOperator<QueryResult<T>> nextPage = exportedPageReader(results, transformer, context, limit,
+                    pageSize);
+            QueryResult<T> firstPage = nextPage.apply(null);
+
+            if (firstPage == null) {
+                results.close();
+                return Stream.empty();
+            } else if (readAheadPages > 0) {
+                ReadAheadPageIterator<T> pages = new ReadAheadPageIterator<>(firstPage, nextPage, requiredPages,
+                        readAheadPages, readAheadExecutor);
+                return StreamSupport.stream(Spliterators.spliterator(pages, requiredPages,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                        .onClose(() -> {
+                            pages.close();
+                            results.close();
+                        });
+            } else {
+                return Stream.iterate(firstPage, qr -> {
+                    QueryResult<T> next = nextPage.apply(qr);
+                    return next == null ? qr : next;
+                }).limit(requiredPages)
+                        .onClose(results::close);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error(createErrorMessage(queryRequest), e);
+            results.close();
+            throw e;
         }
+    }
+
+    /**
+     * Creates a function that reads and transforms the next page of exported results, ignoring the page it is
+     * given, or returns null once {@code limit} results have been read, or there are no more. The function holds
+     * the state of the iteration, so must be applied to each page in turn.
+     */
+    private static <T> UnaryOperator<QueryResult<T>> exportedPageReader(
+            ExportedResults<T> results,
+            ResultTransformerChain<QueryResult<T>> transformer,
+            FilterContext context,
+            int limit,
+            int pageSize) {
+        MutableValue<Integer> readCount = new MutableValue<>(0);
+
+        return previous -> {
+            int nextPageSize = getNextPageSize(readCount.getValue(), limit, pageSize);
+            List<T> page = new ArrayList<>(Math.max(nextPageSize, 0));
+            while (page.size() < nextPageSize && results.hasNext()) {
+                page.add(results.next());
+            }
+            if (page.isEmpty()) {
+                return null;
+            }
+            readCount.setValue(readCount.getValue() + page.size());
+
+            QueryResult<T> queryResult = new QueryResult.Builder<>(results.getNumberOfHits(), page)
+                    .withPageInfo(new PageInfo.Builder()
+                            .withResultsPerPage(page.size())
+                            .build())
+                    .build();
+            return transformer.applyTransformations(queryResult, context);
+        };
+    }
 
-        return resultStream;
+    /**
+     * Creates a function that fetches and transforms the page of results that follows the one it is given, using
+     * the cursor of that page, or returns null if that page's cursor shows there are no more results. The function
+     * holds the state of the iteration, so must be applied to each page in turn.
+     */
+    private static <T> UnaryOperator<QueryResult<T>> nextPageFetcher(
+            QueryRequest firstQueryRequest,
+            DefaultSearchQueryTemplate queryTemplate,
+            SearchService<T> searchService,
+            ResultTransformerChain<QueryResult<T>> transformer,
+            FilterContext context,
+            int limit,
+            int pageSize) {
+        MutableValue<String> cursor = new MutableValue<>(FIRST_CURSOR);
+        MutableValue<Integer> fetchedCount = new MutableValue<>(0);
+
+        return qr -> {
+            String nextCursor = qr.getPageInfo().getNextCursor();
+            if (isCursorAtEnd(cursor.getValue(), nextCursor)) {
+                return null;
+            } else {
+                cursor.setValue(nextCursor);
+
+                incrementFetchedCount(fetchedCount, qr);
+                int nextPageSize = getNextPageSize(fetchedCount.getValue(), limit, pageSize);
+                QueryRequest nextQueryRequest =
+                        createNextCursorQueryRequest(queryTemplate, firstQueryRequest, nextCursor, nextPageSize);
+
+                return transformer.applyTransformations(
+                        searchService.findByQuery(nextQueryRequest),
+                        context);
+            }
+        };
     }
 
     /**
@@ -1,5 +1,6 @@
 package uk.ac.ebi.quickgo.rest.search.request.converter;
 
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.controller.FilterRequestConfig;
 import uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
@@ -24,14 +25,18 @@ public class FilterConverterFactory {
 
     private final FilterConfigRetrieval filterConfigRetrieval;
     private final RestOperations restOperations;
+    private final RESTRequestExecutor restRequestExecutor;
 
     @Autowired
-    public FilterConverterFactory(FilterConfigRetrieval globalFilterConfigRetrieval, RestOperations restOperations) {
+    public FilterConverterFactory(FilterConfigRetrieval globalFilterConfigRetrieval, RestOperations restOperations,
+            RESTRequestExecutor restRequestExecutor) {
         Preconditions.checkArgument(globalFilterConfigRetrieval != null, "RequestConfigRetrieval cannot be null");
         Preconditions.checkArgument(restOperations != null, "RestOperations cannot be null");
+        Preconditions.checkArgument(restRequestExecutor != null, "RESTRequestExecutor cannot be null");
 
         this.filterConfigRetrieval = globalFilterConfigRetrieval;
         this.restOperations = restOperations;
+        this.restRequestExecutor = restRequestExecutor;
     }
 
     public ConvertedFilter<QuickGOQuery> convert(FilterRequest request) {
@@ -40,7 +45,8 @@ public class FilterConverterFactory {
             FilterConfig filterConfig = configOpt.get();
             switch (filterConfig.getExecution()) {
                 case REST_COMM:
-                    return new RESTFilterConverter<QuickGOQuery>(filterConfig, restOperations).transform(request);
+                    return new RESTFilterConverter<QuickGOQuery>(filterConfig, restOperations, restRequestExecutor)
+                            .transform(request);
                 case SIMPLE:
                     return new SimpleFilterConverter(filterConfig).transform(request);
                 case JOIN:
@@ -1,5 +1,6 @@
 package uk.ac.ebi.quickgo.rest.search.request.converter;
 
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.comm.RESTRequesterImpl;
 import uk.ac.ebi.quickgo.rest.comm.ResponseType;
 import uk.ac.ebi.quickgo.rest.search.RetrievalException;
@@ -51,15 +52,18 @@ class RESTFilterConverter<T> implements FilterConverter<FilterRequest, T> {
 
     private final FilterConfig filterConfig;
     private final RestOperations restOperations;
+    private final RESTRequestExecutor executor;
     private final Map<String, Constructor<?>> constructorMap;
     private int timeoutMillis;
 
-    RESTFilterConverter(FilterConfig filterConfig, RestOperations restOperations) {
+    RESTFilterConverter(FilterConfig filterConfig, RestOperations restOperations, RESTRequestExecutor executor) {
         Preconditions.checkArgument(filterConfig != null, "FilterConfig cannot be null");
         Preconditions.checkArgument(restOperations != null, "RestOperations cannot be null");
+        Preconditions.checkArgument(executor != null, "RESTRequestExecutor cannot be null");
 
         this.filterConfig = filterConfig;
         this.restOperations = restOperations;
+        this.executor = executor;
 
         checkMandatoryProperty(HOST);
         checkMandatoryProperty(RESOURCE_FORMAT);
@@ -138,7 +142,7 @@ class RESTFilterConverter<T> implements FilterConverter<FilterRequest, T> {
 
     RESTRequesterImpl.Builder createRestRequesterBuilder() {
         return RESTRequesterImpl.newBuilder(restOperations, buildResourceTemplate(filterConfig),
-          buildBackupResourceTemplate(filterConfig));
+          buildBackupResourceTemplate(filterConfig)).executor(executor);
     }
 
     private Class<?> loadResponseType() {
@@ -217,6 +221,7 @@ class RESTFilterConverter<T> implements FilterConverter<FilterRequest, T> {
         } catch (ExecutionException | InterruptedException | TimeoutException exception) {
             if (restRequester.hasBackup()) {
                 LOGGER.error("Request to primary URL is failed after "+primaryWait+" milis, trying backup and will wait for "+timeoutMillis);
+                LOGGER.warn("REST request executor state at primary URL failure: " + executor);
                 return restRequester
                   .getBackup(responseType)
                   .get(timeoutMillis, TimeUnit.MILLISECONDS);
@@ -1,5 +1,6 @@
 package uk.ac.ebi.quickgo.rest.search.request.converter;
 
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.controller.FilterRequestConfig;
 import uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
@@ -29,16 +30,20 @@ import org.springframework.web.client.RestOperations;
 public class RESTFilterConverterFactory {
     private final FilterConfigRetrieval filterConfigRetrieval;
     private final RestOperations restOperations;
+    private final RESTRequestExecutor restRequestExecutor;
 
     @Autowired
     public RESTFilterConverterFactory(
             FilterConfigRetrieval globalFilterConfigRetrieval,
-            RestOperations restOperations) {
+            RestOperations restOperations,
+            RESTRequestExecutor restRequestExecutor) {
         Preconditions.checkArgument(globalFilterConfigRetrieval != null, "RequestConfigRetrieval cannot be null");
         Preconditions.checkArgument(restOperations != null, "RestOperations cannot be null");
+        Preconditions.checkArgument(restRequestExecutor != null, "RESTRequestExecutor cannot be null");
 
         this.filterConfigRetrieval = globalFilterConfigRetrieval;
         this.restOperations = restOperations;
+        this.restRequestExecutor = restRequestExecutor;
     }
 
     public <T> ConvertedFilter<T> convert(FilterRequest request) {
@@ -47,7 +52,8 @@ public class RESTFilterConverterFactory {
             FilterConfig filterConfig = configOpt.get();
             switch (filterConfig.getExecution()) {
                 case REST_COMM:
-                    return new RESTFilterConverter<T>(filterConfig, restOperations).transform(request);
+                    return new RESTFilterConverter<T>(filterConfig, restOperations, restRequestExecutor)
+                            .transform(request);
                 default:
                     throw new IllegalStateException(
                             "RequestConfig execution has not been handled " +
@@ -64,6 +70,7 @@ public class RESTFilterConverterFactory {
         return "RESTFilterConverterFactory{" +
                 "filterConfigRetrieval=" + filterConfigRetrieval +
                 ", restOperations=" + restOperations +
+                ", restRequestExecutor=" + restRequestExecutor +
                 '}';
     }
 }
@@ -0,0 +1,100 @@
+package uk.ac.ebi.quickgo.rest.search.results.transformer;
+
+import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
+import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
+import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+
+/**
+ * Extends {@link AbstractValueInjector} so that a list of {@link M} instances (e.g., a page of search results) can
+ * be supplemented using as few RESTful calls as possible. The distinct keys of the models are collected, requested
+ * in groups of at most {@code maxKeysPerRequest} keys, and the values in each response are fanned back out to every
+ * model sharing a key. If a group's request fails non-fatally, its keys are requested one at a time.
+ *
+ * @param <T> the type of the converted RESTful response
+ * @param <M> the type of model to inject values into
+ */
+public abstract class AbstractBatchValueInjector<T, M> extends AbstractValueInjector<T, M> {
+    public static final int DEFAULT_MAX_KEYS_PER_REQUEST = 100;
+
+    private final int maxKeysPerRequest;
+
+    protected AbstractBatchValueInjector() {
+        this(DEFAULT_MAX_KEYS_PER_REQUEST);
+    }
+
+    protected AbstractBatchValueInjector(int maxKeysPerRequest) {
+        checkArgument(maxKeysPerRequest > 0, "Maximum keys per request must be greater than 0");
+        this.maxKeysPerRequest = maxKeysPerRequest;
+    }
+
+    /**
+     * The key of a model, whose value is looked up through the RESTful service.
+     *
+     * @param model the model from which to extract the key
+     * @return the key, or null if there is nothing to look up for this model
+     */
+    public abstract String keyOf(M model);
+
+    /**
+     * Creates a {@link FilterRequest} that fetches the values for all the supplied keys in one RESTful call.
+     *
+     * @param keys the keys to look up
+     * @return a tailored {@link FilterRequest}
+     */
+    public abstract FilterRequest buildFilterRequest(List<String> keys);
+
+    /**
+     * Injects the values held in a RESTful response answering several keys, into the models that share those keys.
+     *
+     * @param convertedRequest contains the RESTful response
+     * @param modelsByKey the models into which to inject new values, grouped by their key
+     */
+    public abstract void injectValuesFromResponse(ConvertedFilter<T> convertedRequest,
+            Map<String, List<M>> modelsByKey);
+
+    @Override
+    public FilterRequest buildFilterRequest(M model) {
+        return buildFilterRequest(singletonList(keyOf(model)));
+    }
+
+    @Override
+    public void injectAll(RESTFilterConverterFactory restFetcher, List<M> models) {
+        Map<String, List<M>> modelsByKey = new LinkedHashMap<>();
+        for (M model : models) {
+            String key = keyOf(model);
+            if (key != null) {
+                modelsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(model);
+            }
+        }
+
+        for (List<String> keys : Lists.partition(new ArrayList<>(modelsByKey.keySet()), maxKeysPerRequest)) {
+            Map<String, List<M>> requestedModels = new LinkedHashMap<>();
+            keys.forEach(key -> requestedModels.put(key, modelsByKey.get(key)));
+
+            boolean injected = fetchAndInject(restFetcher, buildFilterRequest(keys),
+                    convertedRequest -> injectValuesFromResponse(convertedRequest, requestedModels));
+            if (!injected && keys.size() > 1) {
+                injectEachKey(restFetcher, requestedModels);
+            }
+        }
+    }
+
+    /**
+     * When a request for several keys fails non-fatally, e.g., because one of the keys is not found, each key is
+     * requested on its own, so that only the models of the failing keys are left untouched.
+     */
+    private void injectEachKey(RESTFilterConverterFactory restFetcher, Map<String, List<M>> requestedModels) {
+        requestedModels.forEach((key, keyModels) -> fetchAndInject(restFetcher, buildFilterRequest(singletonList(key)),
+                convertedRequest -> injectValuesFromResponse(convertedRequest, singletonMap(key, keyModels))));
+    }
+}
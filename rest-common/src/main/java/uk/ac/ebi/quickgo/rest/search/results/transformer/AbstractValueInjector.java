@@ -5,6 +5,7 @@ import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
 import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
 
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.client.HttpClientErrorException;
@@ -40,12 +41,26 @@ public abstract class AbstractValueInjector<T, M> implements ResponseValueInject
     public abstract void injectValueFromResponse(ConvertedFilter<T> convertedRequest, M model);
 
     @Override public void inject(RESTFilterConverterFactory restFetcher, M model) {
-        FilterRequest request = buildFilterRequest(model);
+        fetchAndInject(restFetcher, buildFilterRequest(model),
+                convertedRequest -> injectValueFromResponse(convertedRequest, model));
+    }
 
+    /**
+     * Fetches the RESTful response for a {@link FilterRequest}, and hands it to an {@code injection} that updates
+     * one or more models. Non-fatal retrieval problems leave the models untouched.
+     *
+     * @param restFetcher used to fetch a RESTful response
+     * @param request the request to fetch
+     * @param injection the logic used to inject values from the response
+     * @return true if the response was injected, or false if a non-fatal retrieval problem left the models untouched
+     */
+    protected boolean fetchAndInject(RESTFilterConverterFactory restFetcher, FilterRequest request,
+            Consumer<ConvertedFilter<T>> injection) {
         try {
             ConvertedFilter<T> convertedRequest = restFetcher.convert(request);
 
-            injectValueFromResponse(convertedRequest, model);
+            injection.accept(convertedRequest);
+            return true;
         } catch (RetrievalException e) {
             if (exceptionIsFatal(e)) {
                 LOGGER.error("Problem retrieving external service response from annotations service.", e);
@@ -54,6 +69,7 @@ public abstract class AbstractValueInjector<T, M> implements ResponseValueInject
                 LOGGER.info("Recoverable exception encountered when retrieving external service response from " +
                         "annotations service.");
                 LOGGER.debug("Recoverable exception info:", e);
+                return false;
             }
         }
     }
@@ -2,6 +2,8 @@ package uk.ac.ebi.quickgo.rest.search.results.transformer;
 
 import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
 
+import java.util.List;
+
 /**
  * This class is responsible for injecting some value from a RESTful response
  * into an instance {@link M} of the model.
@@ -26,4 +28,16 @@ public interface ResponseValueInjector<M> {
      * @param model the subject of the value injection
      */
     void inject(RESTFilterConverterFactory restFetcher, M model);
+
+    /**
+     * Injects the necessary value into every instance of {@link M} in a list. By default each model is handled
+     * by its own call to {@link #inject(RESTFilterConverterFactory, Object)}; implementations able to answer many
+     * models with a single RESTful response should override this.
+     *
+     * @param restFetcher used to fetch RESTful responses
+     * @param models the subjects of the value injection
+     */
+    default void injectAll(RESTFilterConverterFactory restFetcher, List<M> models) {
+        models.forEach(model -> inject(restFetcher, model));
+    }
 }
@@ -9,6 +9,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 /**
  * For every model held by a {@link QueryResult}, update the model using each injector passed to the mutate method.
+ * Each injector is given the whole page of models at once, so that injectors supporting batching can answer the
+ * page with as few RESTful calls as possible.
  * @author Tony Wardell
  * Date: 09/10/2017
  * Time: 10:33
@@ -25,9 +27,9 @@ public class ValueInjectionToQueryResults<R> implements ValueMutator<QueryResult
 
     @Override
     public void mutate(QueryResult<R> results, List<ResponseValueInjector<R>> requiredInjectors) {
-        results.getResults()
-                .forEach(result -> requiredInjectors.forEach(valueInjector -> valueInjector.inject(
-                        restFilterConverterFactory,
-                        result)));
+        List<R> models = results.getResults();
+        if (!models.isEmpty()) {
+            requiredInjectors.forEach(valueInjector -> valueInjector.injectAll(restFilterConverterFactory, models));
+        }
     }
 }
@@ -0,0 +1,211 @@
+package uk.ac.ebi.quickgo.rest.search.solr;
+
+import uk.ac.ebi.quickgo.rest.search.RetrievalException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.solr.common.SolrDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the JSON written by Solr's export handler, one document at a time, as the documents are iterated over, so
+ * that only the current document is held in memory however many are exported.
+ * <p>
+ * The export is written as:
+ * <pre>
+ * {"responseHeader":{"status":0},"response":{"numFound":2,"docs":[{"id":"1", ...},{"id":"2", ...}]}}
+ * </pre>
+ * A failure to export is written as a document containing only an {@code EXCEPTION} field, either in place of the
+ * first document, or after those that were exported before the failure. Reading such a document causes a
+ * {@link RetrievalException}; since the first document is read when the reader is created, a request that cannot
+ * be exported at all fails immediately.
+ */
+class SolrExportReader implements Iterator<SolrDocument>, AutoCloseable {
+    static final String EXCEPTION_FIELD = "EXCEPTION";
+    static final String EOF_FIELD = "EOF";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolrExportReader.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String RESPONSE = "response";
+    private static final String NUM_FOUND = "numFound";
+    private static final String DOCS = "docs";
+
+    private final JsonParser parser;
+    private long numberOfHits;
+    private SolrDocument next;
+    private boolean ended;
+
+    /**
+     * @param export the JSON written by the export handler, which is closed when the reader is closed
+     */
+    SolrExportReader(InputStream export) {
+        Preconditions.checkArgument(export != null, "Export stream cannot be null");
+        try {
+            this.parser = JSON_FACTORY.createParser(export);
+        } catch (IOException e) {
+            closeQuietly(export);
+            throw new RetrievalException(e);
+        }
+
+        try {
+            readToFirstDocument();
+            hasNext();
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the total number of documents being exported
+     */
+    long getNumberOfHits() {
+        return numberOfHits;
+    }
+
+    @Override public boolean hasNext() {
+        if (next == null && !ended) {
+            next = readDocument();
+        }
+        return next != null;
+    }
+
+    @Override public SolrDocument next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SolrDocument current = next;
+        next = null;
+        return current;
+    }
+
+    /**
+     * Stops reading documents, and closes the export stream.
+     */
+    @Override public void close() {
+        ended = true;
+        next = null;
+        try {
+            parser.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close Solr export stream", e);
+        }
+    }
+
+    private void readToFirstDocument() {
+        try {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                if (RESPONSE.equals(name) && readToDocuments()) {
+                    return;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new RetrievalException(e);
+        }
+        throw new RetrievalException("Solr export contains no documents");
+    }
+
+    private boolean readToDocuments() throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (NUM_FOUND.equals(name)) {
+                numberOfHits = parser.getLongValue();
+            } else if (DOCS.equals(name)) {
+                expect(value, JsonToken.START_ARRAY);
+                return true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private SolrDocument readDocument() {
+        try {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                ended = true;
+                return null;
+            }
+            expect(token, JsonToken.START_OBJECT);
+
+            SolrDocument document = new SolrDocument();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                Object value = readValue(parser.nextToken());
+                if (value != null) {
+                    document.setField(name, value);
+                }
+            }
+
+            if (document.containsKey(EXCEPTION_FIELD)) {
+                ended = true;
+                throw new RetrievalException("Solr export failed: " + document.getFieldValue(EXCEPTION_FIELD));
+            }
+            if (document.containsKey(EOF_FIELD)) {
+                ended = true;
+                return null;
+            }
+            return document;
+        } catch (IOException e) {
+            ended = true;
+            throw new RetrievalException(e);
+        }
+    }
+
+    private Object readValue(JsonToken token) throws IOException {
+        switch (token) {
+            case START_ARRAY:
+                List<Object> values = new ArrayList<>();
+                for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY;
+                     element = parser.nextToken()) {
+                    Object value = readValue(element);
+                    if (value != null) {
+                        values.add(value);
+                    }
+                }
+                return values;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return parser.getBooleanValue();
+            default:
+                parser.skipChildren();
+                return null;
+        }
+    }
+
+    private void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new RetrievalException("Unexpected content in Solr export: expected " + expected + ", but found " +
+                    actual);
+        }
+    }
+
+    private static void closeQuietly(InputStream export) {
+        try {
+            export.close();
+        } catch (IOException e) {
+            LOGGER.warn("Could not close Solr export stream", e);
+        }
+    }
+}
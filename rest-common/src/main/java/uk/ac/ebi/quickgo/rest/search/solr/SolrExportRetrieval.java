@@ -0,0 +1,305 @@
+package uk.ac.ebi.quickgo.rest.search.solr;
+
+import uk.ac.ebi.quickgo.rest.search.ExportRetrieval;
+import uk.ac.ebi.quickgo.rest.search.ExportedResults;
+import uk.ac.ebi.quickgo.rest.search.RetrievalException;
+import uk.ac.ebi.quickgo.rest.search.query.QueryRequest;
+import uk.ac.ebi.quickgo.rest.search.query.QueryRequestConverter;
+
+import com.google.common.base.Preconditions;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.embedded.EmbeddedSolrServer;
+import org.apache.solr.client.solrj.impl.InputStreamResponseParser;
+import org.apache.solr.client.solrj.request.schema.SchemaRequest;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.params.SolrParams;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.core.SolrCore;
+import org.apache.solr.request.LocalSolrQueryRequest;
+import org.apache.solr.request.SolrQueryRequest;
+import org.apache.solr.request.SolrRequestInfo;
+import org.apache.solr.response.QueryResponseWriterUtil;
+import org.apache.solr.response.SolrQueryResponse;
+import org.apache.solr.schema.SchemaField;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Exports the results of a query using Solr's export handler, which streams every matching document from its
+ * docValues in a single response, rather than paging through them with a cursor, where each page is a separate
+ * request that must collect and sort the matching documents again. The response is parsed as it is read, so
+ * the results can be consumed as soon as the first of them arrives.
+ * <p>
+ * The export handler requires the query to specify the fields to return and the order of the results, and each
+ * of those fields must have docValues. The page of the query is ignored, as are any facets, aggregations and
+ * highlighting.
+ * <p>
+ * Each returned field is exported from the first of these that applies:
+ * <ul>
+ *     <li>the field itself, if it is single-valued and has docValues;</li>
+ *     <li>its export field, named with the suffix {@value #EXPORT_FIELD_SUFFIX}, if that is single-valued and has
+ *     docValues; the document converter is given the export field's value, in place of the field's;</li>
+ *     <li>nothing, if the field is neither stored nor has docValues, since a search cannot return it either.</li>
+ * </ul>
+ * Any other field cannot be exported: in particular, the docValues of a multi-valued field hold its values sorted and
+ * without duplicates, so such a field needs an export field to be exported as a search returns it. The fields are
+ * found from the collection's schema, which is read at the start of each export.
+ *
+ * @param <T> the type of the exported results
+ */
+public class SolrExportRetrieval<T> implements ExportRetrieval<T> {
+    static final String EXPORT_REQUEST_HANDLER = "/export";
+    public static final String EXPORT_FIELD_SUFFIX = "_export";
+
+    private static final String JSON = "json";
+    private static final String STREAM = "stream";
+    private static final String FIELD_SEPARATOR = ",";
+    private static final String SHOW_DEFAULTS = "showDefaults";
+    private static final String NAME = "name";
+    private static final String DOC_VALUES = "docValues";
+    private static final String MULTI_VALUED = "multiValued";
+    private static final String STORED = "stored";
+
+    private final SolrClient solrClient;
+    private final QueryRequestConverter<SolrQuery> queryRequestConverter;
+    private final Function<SolrDocument, T> documentConverter;
+
+    public SolrExportRetrieval(
+            SolrClient solrClient,
+            QueryRequestConverter<SolrQuery> queryRequestConverter,
+            Function<SolrDocument, T> documentConverter) {
+        Preconditions.checkArgument(solrClient != null, "Solr server cannot be null");
+        Preconditions.checkArgument(queryRequestConverter != null, "Query request converter cannot be null");
+        Preconditions.checkArgument(documentConverter != null, "Document converter cannot be null");
+
+        this.solrClient = solrClient;
+        this.queryRequestConverter = queryRequestConverter;
+        this.documentConverter = documentConverter;
+    }
+
+    @Override public ExportedResults<T> exportByQuery(QueryRequest request) {
+        Preconditions.checkArgument(request != null, "Cannot export the results of a null query request");
+
+        SolrQuery exportQuery = createExportQuery(queryRequestConverter.convert(request));
+
+        try {
+            Map<String, FieldProperties> schema = readSchema(request.getCollection());
+            List<String> returnedFields = asList(exportQuery.getFields().split(FIELD_SEPARATOR));
+            List<String> unexportableFields = unexportableFields(schema, returnedFields);
+            if (!unexportableFields.isEmpty()) {
+                throw new RetrievalException("These fields cannot be exported: " + unexportableFields);
+            }
+            exportQuery.setFields(returnedFields.stream()
+                    .map(field -> exportedField(schema, field))
+                    .filter(Objects::nonNull)
+                    .toArray(String[]::new));
+
+            SolrExportReader reader = new SolrExportReader(openExport(request.getCollection(), exportQuery));
+            return new ConvertedResults<>(reader, documentConverter);
+        } catch (SolrServerException | SolrException | IOException e) {
+            throw new RetrievalException(e);
+        }
+    }
+
+    @Override public List<String> findUnexportableFields(String collection, Collection<String> fields) {
+        Preconditions.checkArgument(collection != null, "Collection cannot be null");
+        Preconditions.checkArgument(fields != null, "Fields cannot be null");
+
+        try {
+            return unexportableFields(readSchema(collection), fields);
+        } catch (SolrServerException | SolrException | IOException e) {
+            throw new RetrievalException(e);
+        }
+    }
+
+    /**
+     * Creates the query sent to the export handler, from the query that would otherwise be sent to the search
+     * handler, retaining only its query, filters, returned fields and sort criteria.
+     *
+     * @param query the query that would be sent to the search handler
+     * @return the query to send to the export handler
+     */
+    static SolrQuery createExportQuery(SolrQuery query) {
+        Preconditions.checkArgument(query.getFields() != null && !query.getFields().trim().isEmpty(),
+                "An export must specify the fields it returns");
+        Preconditions.checkArgument(!query.getSorts().isEmpty(), "An export must specify the order of its results");
+
+        SolrQuery exportQuery = new SolrQuery(query.getQuery());
+        if (query.getFilterQueries() != null) {
+            exportQuery.setFilterQueries(query.getFilterQueries());
+        }
+        exportQuery.setFields(Stream.of(query.getFields().split(FIELD_SEPARATOR))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .distinct()
+                .toArray(String[]::new));
+        query.getSorts().forEach(exportQuery::addSort);
+        exportQuery.set(CommonParams.WT, JSON);
+        return exportQuery;
+    }
+
+    private InputStream openExport(String collection, SolrParams exportParams)
+            throws SolrServerException, IOException {
+        if (solrClient instanceof EmbeddedSolrServer) {
+            return exportFromCore((EmbeddedSolrServer) solrClient, collection, exportParams);
+        }
+
+        org.apache.solr.client.solrj.request.QueryRequest exportRequest =
+                new org.apache.solr.client.solrj.request.QueryRequest(exportParams);
+        exportRequest.setPath(EXPORT_REQUEST_HANDLER);
+        exportRequest.setResponseParser(new InputStreamResponseParser(JSON));
+
+        NamedList<Object> response = solrClient.request(exportRequest, collection);
+        return (InputStream) response.get(STREAM);
+    }
+
+    private static List<String> unexportableFields(Map<String, FieldProperties> schema, Collection<String> fields) {
+        return fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty() && isUnexportable(schema, field))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isUnexportable(Map<String, FieldProperties> schema, String field) {
+        FieldProperties properties = schema.get(field);
+        return properties == null || (properties.isReturned() && exportedField(schema, field) == null);
+    }
+
+    /**
+     * @return the field exported in place of a returned field, or null if nothing is exported in its place
+     */
+    private static String exportedField(Map<String, FieldProperties> schema, String field) {
+        if (schema.get(field).isExportable()) {
+            return field;
+        }
+        String exportField = field + EXPORT_FIELD_SUFFIX;
+        FieldProperties exportFieldProperties = schema.get(exportField);
+        return exportFieldProperties != null && exportFieldProperties.isExportable() ? exportField : null;
+    }
+
+    /**
+     * Reads the properties of the fields of a collection, directly from the schema of the core of an
+     * {@link EmbeddedSolrServer}, or else from the schema API with the default properties of each field's type
+     * applied.
+     */
+    private Map<String, FieldProperties> readSchema(String collection) throws SolrServerException, IOException {
+        if (solrClient instanceof EmbeddedSolrServer) {
+            try (SolrCore core = getCore((EmbeddedSolrServer) solrClient, collection)) {
+                return core.getLatestSchema().getFields().values().stream()
+                        .collect(Collectors.toMap(SchemaField::getName, field ->
+                                new FieldProperties(field.stored(), field.hasDocValues(), field.multiValued())));
+            }
+        }
+
+        ModifiableSolrParams schemaParams = new ModifiableSolrParams();
+        schemaParams.set(SHOW_DEFAULTS, true);
+        return new SchemaRequest.Fields(schemaParams).process(solrClient, collection).getFields().stream()
+                .collect(Collectors.toMap(field -> (String) field.get(NAME), field -> new FieldProperties(
+                        Boolean.TRUE.equals(field.get(STORED)),
+                        Boolean.TRUE.equals(field.get(DOC_VALUES)),
+                        Boolean.TRUE.equals(field.get(MULTI_VALUED)))));
+    }
+
+    /**
+     * An {@link EmbeddedSolrServer} returns the objects making up a response, rather than the output of a response
+     * writer, and the export handler only produces its documents as its response is written. So an export from an
+     * embedded server is run directly against its core, and the written response is buffered. Embedded servers are
+     * only used in development and testing, where the number of documents exported is small.
+     */
+    private static InputStream exportFromCore(EmbeddedSolrServer server, String collection, SolrParams exportParams)
+            throws IOException {
+        try (SolrCore core = getCore(server, collection)) {
+            SolrQueryRequest request = new LocalSolrQueryRequest(core, exportParams);
+            SolrQueryResponse response = new SolrQueryResponse();
+            SolrRequestInfo.setRequestInfo(new SolrRequestInfo(request, response));
+            try {
+                core.execute(core.getRequestHandler(EXPORT_REQUEST_HANDLER), request, response);
+                if (response.getException() != null) {
+                    throw new SolrException(SolrException.ErrorCode.SERVER_ERROR, response.getException());
+                }
+
+                ByteArrayOutputStream export = new ByteArrayOutputStream();
+                QueryResponseWriterUtil.writeQueryResponse(export, core.getQueryResponseWriter(request), request,
+                        response, null);
+                return new ByteArrayInputStream(export.toByteArray());
+            } finally {
+                SolrRequestInfo.clearRequestInfo();
+                request.close();
+            }
+        }
+    }
+
+    private static SolrCore getCore(EmbeddedSolrServer server, String collection) {
+        SolrCore core = server.getCoreContainer().getCore(collection);
+        if (core == null) {
+            throw new SolrException(SolrException.ErrorCode.NOT_FOUND, "No such core: " + collection);
+        }
+        return core;
+    }
+
+    private static class FieldProperties {
+        private final boolean stored;
+        private final boolean docValues;
+        private final boolean multiValued;
+
+        private FieldProperties(boolean stored, boolean docValues, boolean multiValued) {
+            this.stored = stored;
+            this.docValues = docValues;
+            this.multiValued = multiValued;
+        }
+
+        private boolean isExportable() {
+            return docValues && !multiValued;
+        }
+
+        private boolean isReturned() {
+            return stored || docValues;
+        }
+    }
+
+    /**
+     * Converts each document as it is read from the export.
+     */
+    private static class ConvertedResults<T> implements ExportedResults<T> {
+        private final SolrExportReader reader;
+        private final Function<SolrDocument, T> documentConverter;
+
+        private ConvertedResults(SolrExportReader reader, Function<SolrDocument, T> documentConverter) {
+            this.reader = reader;
+            this.documentConverter = documentConverter;
+        }
+
+        @Override public long getNumberOfHits() {
+            return reader.getNumberOfHits();
+        }
+
+        @Override public boolean hasNext() {
+            return reader.hasNext();
+        }
+
+        @Override public T next() {
+            return documentConverter.apply(reader.next());
+        }
+
+        @Override public void close() {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package uk.ac.ebi.quickgo.rest.comm;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the behaviour of the {@link RESTRequestExecutor}.
+ */
+class RESTRequestExecutorTest {
+    private RESTRequestExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void nullTypeThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> RESTRequestExecutor.create(null, 1, 1));
+    }
+
+    @Test
+    void boundedExecutorWithoutThreadsThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> RESTRequestExecutor.bounded(0, 1));
+    }
+
+    @Test
+    void boundedExecutorWithoutQueueThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> RESTRequestExecutor.bounded(1, 0));
+    }
+
+    @Test
+    void virtualExecutorRunsCallsOnVirtualThreads() throws InterruptedException {
+        executor = RESTRequestExecutor.create(RESTRequestExecutor.Type.VIRTUAL, 1, 1);
+        CountDownLatch done = new CountDownLatch(1);
+        boolean[] virtual = new boolean[1];
+        String[] name = new String[1];
+
+        executor.execute(() -> {
+            virtual[0] = Thread.currentThread().isVirtual();
+            name[0] = Thread.currentThread().getName();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertThat(virtual[0], is(true));
+        assertThat(name[0], startsWith(RESTRequestExecutor.THREAD_NAME_PREFIX));
+    }
+
+    @Test
+    void inFlightQueuedAndRejectedCallsAreRecorded() throws InterruptedException {
+        executor = RESTRequestExecutor.create(RESTRequestExecutor.Type.BOUNDED, 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            started.countDown();
+            awaitQuietly(release);
+        };
+
+        executor.execute(blocking);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {});
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+
+        assertThat(executor.getInFlight(), is(1));
+        assertThat(executor.getQueueDepth(), is(1));
+        assertThat(executor.getRejected(), is(1L));
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertThat(executor.getInFlight(), is(0));
+        assertThat(executor.getCompleted(), is(2L));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
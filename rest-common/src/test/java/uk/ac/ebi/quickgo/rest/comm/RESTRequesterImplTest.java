@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -172,6 +173,28 @@ class RESTRequesterImplTest {
         assertThat(fakeDTO.value, is(failed));
     }
 
+    @Test
+    void settingNullExecutorThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> requesterBuilder.executor(null));
+    }
+
+    @Test
+    void requestIsMadeOnSuppliedExecutor() throws ExecutionException, InterruptedException {
+        String dtoValue = "value";
+        when(restTemplateMock.getForObject(SERVICE_ENDPOINT, FakeDTO.class, requestParameters))
+                .thenReturn(new FakeDTO(dtoValue));
+        RESTRequestExecutor executor = RESTRequestExecutor.bounded(1, 1);
+
+        RESTRequesterImpl requester = requesterBuilder.executor(executor).build();
+        FakeDTO fakeDTO = requester.get(FakeDTO.class).get();
+
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        assertThat(fakeDTO.value, is(dtoValue));
+        assertThat(executor.getCompleted(), is(1L));
+    }
+
     @Test
     void whenBackupUrlEmpty_hasBackup_returnFalse() {
         RESTRequesterImpl requester = requesterBuilder.build();
@@ -0,0 +1,174 @@
+package uk.ac.ebi.quickgo.rest.search;
+
+import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link ReadAheadPageIterator} class.
+ */
+class ReadAheadPageIteratorTest {
+    private static final long SETTLE_MILLIS = 200;
+
+    private ExecutorService executor;
+    private AtomicInteger fetches;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        fetches = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void nonPositiveReadAheadCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReadAheadPageIterator<>(page(1), nextPageUpTo(5), 5, 0, executor));
+    }
+
+    @Test
+    void nullExecutorCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReadAheadPageIterator<>(page(1), nextPageUpTo(5), 5, 1, null));
+    }
+
+    @Test
+    void allPagesAreReturnedInOrder() {
+        ReadAheadPageIterator<Integer> pages = new ReadAheadPageIterator<>(page(1), nextPageUpTo(10), 5, 2, executor);
+
+        assertThat(resultsOf(pages), contains(1, 2, 3, 4, 5));
+    }
+
+    @Test
+    void pagesEndWhenThereIsNoNextPage() {
+        ReadAheadPageIterator<Integer> pages = new ReadAheadPageIterator<>(page(1), nextPageUpTo(3), 5, 2, executor);
+
+        assertThat(resultsOf(pages), contains(1, 2, 3));
+    }
+
+    @Test
+    void singlePageIsReturnedWithoutFetching() {
+        ReadAheadPageIterator<Integer> pages = new ReadAheadPageIterator<>(page(1), nextPageUpTo(10), 1, 2, executor);
+
+        assertThat(resultsOf(pages), contains(1));
+        assertThat(fetches.get(), is(0));
+    }
+
+    @Test
+    void noMoreThanReadAheadPagesAreHeldAheadOfTheCaller() throws InterruptedException {
+        ReadAheadPageIterator<Integer> pages = new ReadAheadPageIterator<>(page(1), nextPageUpTo(100), 100, 2,
+                executor);
+
+        pages.next();
+        Thread.sleep(SETTLE_MILLIS);
+
+        // two pages are queued, and a third is waiting to be queued
+        assertThat(fetches.get(), is(3));
+        pages.close();
+    }
+
+    @Test
+    void failureToFetchPageIsThrownWhenThatPageIsRequested() {
+        UnaryOperator<QueryResult<Integer>> failingAfterSecondPage = qr -> {
+            int next = qr.getResults().get(0) + 1;
+            if (next > 2) {
+                throw new RetrievalException("Solr is unavailable");
+            }
+            return page(next);
+        };
+        ReadAheadPageIterator<Integer> pages =
+                new ReadAheadPageIterator<>(page(1), failingAfterSecondPage, 5, 2, executor);
+
+        assertThat(pages.next().getResults(), contains(1));
+        assertThat(pages.next().getResults(), contains(2));
+        assertThrows(RetrievalException.class, pages::next);
+        assertThat(pages.hasNext(), is(false));
+    }
+
+    @Test
+    void pagesAreFetchedByTheCallerWhenExecutorRejectsTheTask() {
+        ReadAheadPageIterator<Integer> pages = new ReadAheadPageIterator<>(page(1), nextPageUpTo(10), 3, 2,
+                task -> {
+                    throw new RejectedExecutionException("busy");
+                });
+
+        assertThat(pages.next().getResults(), contains(1));
+        assertThat(fetches.get(), is(0));
+        assertThat(resultsOf(pages), contains(2, 3));
+    }
+
+    @Test
+    void closingStopsFetching() throws InterruptedException {
+        ReadAheadPageIterator<Integer> pages = new ReadAheadPageIterator<>(page(1), nextPageUpTo(1000), 1000, 1,
+                executor);
+        pages.next();
+
+        pages.close();
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS), is(true));
+        assertThat(fetches.get() < 1000, is(true));
+    }
+
+    @Test
+    void closingAfterFetchingHasFinishedDoesNotInterruptTheExecutorsNextTask()
+            throws InterruptedException, ExecutionException {
+        ReadAheadPageIterator<Integer> pages = new ReadAheadPageIterator<>(page(1), nextPageUpTo(2), 2, 2, executor);
+        assertThat(resultsOf(pages), contains(1, 2));
+
+        CountDownLatch nextTaskStarted = new CountDownLatch(1);
+        Future<Boolean> nextTask = executor.submit(() -> {
+            nextTaskStarted.countDown();
+            Thread.sleep(SETTLE_MILLIS);
+            return true;
+        });
+        nextTaskStarted.await();
+        pages.close();
+
+        assertThat(nextTask.get(), is(true));
+    }
+
+    private UnaryOperator<QueryResult<Integer>> nextPageUpTo(int lastPage) {
+        return qr -> {
+            int next = qr.getResults().get(0) + 1;
+            if (next > lastPage) {
+                return null;
+            }
+            fetches.incrementAndGet();
+            return page(next);
+        };
+    }
+
+    private static QueryResult<Integer> page(int number) {
+        return new QueryResult.Builder<>(1, singletonList(number)).build();
+    }
+
+    private static List<Integer> resultsOf(ReadAheadPageIterator<Integer> pages) {
+        List<Integer> results = new ArrayList<>();
+        pages.forEachRemaining(qr -> results.addAll(qr.getResults()));
+        return results;
+    }
+}
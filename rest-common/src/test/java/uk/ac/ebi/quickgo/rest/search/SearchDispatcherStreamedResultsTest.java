@@ -16,7 +16,10 @@ import uk.ac.ebi.quickgo.rest.search.results.QueryResult;
 import uk.ac.ebi.quickgo.rest.search.results.transformer.ResultTransformerChain;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -28,6 +31,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 import static uk.ac.ebi.quickgo.rest.search.SearchDispatcher.*;
 import static uk.ac.ebi.quickgo.rest.search.query.CursorPage.createFirstCursorPage;
@@ -208,6 +212,148 @@ class SearchDispatcherStreamedResultsTest {
         assertThat(argument.getAllValues().get(1).getPage().getPageSize(), is(5));
     }
 
+    @Test
+    void checkStreamingResultsThreeIterationsReadingAhead() {
+        int pageSize = 10;
+        int limit = 25;
+        int hitCount = 30;
+
+        QueryResult<String> firstResult = cursorPage(hitCount, 1, pageSize, "secondCursor");
+        QueryResult<String> secondResult = cursorPage(hitCount, 11, pageSize, "thirdCursor");
+        QueryResult<String> thirdResult = cursorPage(hitCount, 21, 5, "fourthCursor");
+
+        when(searchService.findByQuery(any()))
+                .thenReturn(firstResult)
+                .thenReturn(secondResult)
+                .thenReturn(thirdResult);
+
+        when(queryRequest.getPage()).thenReturn(createFirstCursorPage(pageSize));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Stream<QueryResult<String>> resultStream = streamSearchResults(queryRequest, queryTemplate,
+                searchService, transformer, context, limit, executor, 1)) {
+
+            assertThat(resultStream.map(QueryResult::getResults)
+                            .flatMap(Collection::stream)
+                            .collect(Collectors.toList()),
+                    is(rangeStringList(1, limit)));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ArgumentCaptor<QueryRequest> argument = ArgumentCaptor.forClass(QueryRequest.class);
+
+        verify(searchService, times(3)).findByQuery(argument.capture());
+        assertThat(argument.getAllValues().get(1).getPage().getPageSize(), is(10));
+        assertThat(argument.getAllValues().get(2).getPage().getPageSize(), is(5));
+    }
+
+    @Test
+    void alreadyFetchedFirstPageIsStreamedWithoutBeingFetchedAgain() {
+        int pageSize = 10;
+        int limit = 15;
+        int hitCount = 18;
+
+        QueryResult<String> firstResult = cursorPage(hitCount, 1, pageSize, "secondCursor");
+        QueryResult<String> secondResult = cursorPage(hitCount, 11, 5, "thirdCursor");
+
+        when(searchService.findByQuery(any())).thenReturn(secondResult);
+
+        when(queryRequest.getPage()).thenReturn(createFirstCursorPage(pageSize));
+        Stream<QueryResult<String>> resultStream = streamSearchResults(queryRequest, firstResult, queryTemplate,
+                searchService, transformer, context, limit, null, 0);
+
+        assertThat(resultStream.map(QueryResult::getResults)
+                        .flatMap(Collection::stream)
+                        .collect(Collectors.toList()),
+                is(rangeStringList(1, limit)));
+
+        ArgumentCaptor<QueryRequest> argument = ArgumentCaptor.forClass(QueryRequest.class);
+
+        verify(searchService, times(1)).findByQuery(argument.capture());
+        assertThat(argument.getValue().getPage().getPageSize(), is(5));
+    }
+
+    @Test
+    void readingAheadWithoutExecutorCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> streamSearchResults(queryRequest, queryTemplate,
+                searchService, transformer, context, 10, null, 1));
+    }
+
+    @Test
+    void exportedResultsAreStreamedInPagesUpToLimit() {
+        ListExport export = new ListExport(rangeStringList(1, 30));
+
+        List<QueryResult<String>> pages;
+        try (Stream<QueryResult<String>> resultStream = streamExportedResults(queryRequest, request -> export,
+                transformer, context, 25, 10, null, 0)) {
+            pages = resultStream.collect(Collectors.toList());
+        }
+
+        assertThat(pages.stream().map(page -> page.getResults().size()).collect(Collectors.toList()),
+                contains(10, 10, 5));
+        assertThat(pages.stream().map(QueryResult::getResults).flatMap(Collection::stream)
+                .collect(Collectors.toList()), is(rangeStringList(1, 25)));
+        assertThat(pages.get(0).getNumberOfHits(), is(30L));
+        assertThat(export.closed, is(true));
+    }
+
+    @Test
+    void exportedResultsEndWhenThereAreNoMoreThanTheLimit() {
+        ListExport export = new ListExport(rangeStringList(1, 12));
+
+        try (Stream<QueryResult<String>> resultStream = streamExportedResults(queryRequest, request -> export,
+                transformer, context, 100, 10, null, 0)) {
+            assertThat(resultStream.map(QueryResult::getResults)
+                    .flatMap(Collection::stream)
+                    .collect(Collectors.toList()), is(rangeStringList(1, 12)));
+        }
+    }
+
+    @Test
+    void exportedResultsAreStreamedReadingAhead() {
+        ListExport export = new ListExport(rangeStringList(1, 30));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Stream<QueryResult<String>> resultStream = streamExportedResults(queryRequest, request -> export,
+                transformer, context, 25, 10, executor, 1)) {
+            assertThat(resultStream.map(QueryResult::getResults)
+                            .flatMap(Collection::stream)
+                            .collect(Collectors.toList()),
+                    is(rangeStringList(1, 25)));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(export.closed, is(true));
+    }
+
+    @Test
+    void exportWithNoResultsProducesEmptyStreamAndIsClosed() {
+        ListExport export = new ListExport(emptyList());
+
+        Stream<QueryResult<String>> resultStream = streamExportedResults(queryRequest, request -> export,
+                transformer, context, 10, 10, null, 0);
+
+        assertStreamHasCorrectNumberOfResults(resultStream, 0);
+        assertThat(export.closed, is(true));
+    }
+
+    @Test
+    void nullQueryRequestProducesEmptyExportStream() {
+        ListExport export = new ListExport(rangeStringList(1, 5));
+
+        Stream<QueryResult<String>> resultStream = streamExportedResults(null, request -> export, transformer,
+                context, 10, 10, null, 0);
+
+        assertStreamHasCorrectNumberOfResults(resultStream, 0);
+    }
+
+    @Test
+    void failureToExportIsThrown() {
+        assertThrows(RetrievalException.class, () -> streamExportedResults(queryRequest, request -> {
+            throw new RetrievalException("Solr is unavailable");
+        }, transformer, context, 10, 10, null, 0));
+    }
+
     @Test
     void createsCorrectlyNextQueryRequest() {
         QuickGOQuery query = new AllQuery();
@@ -320,10 +466,43 @@ class SearchDispatcherStreamedResultsTest {
         return fields.stream().map(toStringFunction).collect(Collectors.toList());
     }
 
+    private QueryResult<String> cursorPage(int hitCount, int start, int size, String nextCursor) {
+        return new QueryResult.Builder<>(hitCount, rangeStringList(start, size))
+                .withPageInfo(new PageInfo.Builder().withResultsPerPage(size).withNextCursor(nextCursor).build())
+                .build();
+    }
+
     private List<String> rangeStringList(int start, int size) {
         return IntStream.range(start, start + size).boxed().map(i -> "element " + i).collect(Collectors.toList());
     }
 
+    private static class ListExport implements ExportedResults<String> {
+        private final List<String> results;
+        private final Iterator<String> iterator;
+        private boolean closed;
+
+        ListExport(List<String> results) {
+            this.results = results;
+            this.iterator = results.iterator();
+        }
+
+        @Override public long getNumberOfHits() {
+            return results.size();
+        }
+
+        @Override public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override public String next() {
+            return iterator.next();
+        }
+
+        @Override public void close() {
+            closed = true;
+        }
+    }
+
     private static class IdentityResultsTransformationChain extends ResultTransformerChain<QueryResult<String>> {
         @Override
         public QueryResult<String> applyTransformations(QueryResult<String> result, FilterContext filterContext) {
@@ -1,5 +1,6 @@
 package uk.ac.ebi.quickgo.rest.search.request.converter;
 
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.config.FilterConfig;
@@ -38,22 +39,33 @@ class FilterConverterFactoryTest {
     private FilterConfig filterConfigMock;
     @Mock
     private RestOperations restOperationsMock;
+    @Mock
+    private RESTRequestExecutor restRequestExecutorMock;
 
     private FilterConverterFactory converter;
 
     @BeforeEach
     void setUp() {
-        this.converter = new FilterConverterFactory(filterConfigRetrievalMock, restOperationsMock);
+        this.converter = new FilterConverterFactory(filterConfigRetrievalMock, restOperationsMock,
+                restRequestExecutorMock);
     }
 
     @Test
     void nullRestOperationsThrowsException() {
-        assertThrows(IllegalArgumentException.class, () -> new FilterConverterFactory(filterConfigRetrievalMock, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FilterConverterFactory(filterConfigRetrievalMock, null, restRequestExecutorMock));
+    }
+
+    @Test
+    void nullRestRequestExecutorThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FilterConverterFactory(filterConfigRetrievalMock, restOperationsMock, null));
     }
 
     @Test
     void nullConfigRetrievalThrowsException() {
-        assertThrows(IllegalArgumentException.class, () -> new FilterConverterFactory(null, restOperationsMock));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FilterConverterFactory(null, restOperationsMock, restRequestExecutorMock));
     }
 
     // simple request -> QuickGOQuery tests
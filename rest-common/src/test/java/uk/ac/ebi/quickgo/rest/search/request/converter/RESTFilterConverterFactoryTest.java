@@ -1,11 +1,13 @@
 package uk.ac.ebi.quickgo.rest.search.request.converter;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.RestOperations;
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.comm.ResponseType;
 import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
 import uk.ac.ebi.quickgo.rest.search.request.config.FilterConfig;
@@ -35,21 +37,37 @@ class RESTFilterConverterFactoryTest {
     @Mock
     private RestOperations restOperationsMock;
 
+    private RESTRequestExecutor restRequestExecutor;
     private RESTFilterConverterFactory converter;
 
     @BeforeEach
     void setUp() {
-        this.converter = new RESTFilterConverterFactory(filterConfigRetrievalMock, restOperationsMock);
+        this.restRequestExecutor = RESTRequestExecutor.virtualThreads();
+        this.converter = new RESTFilterConverterFactory(filterConfigRetrievalMock, restOperationsMock,
+                restRequestExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        restRequestExecutor.shutdown();
     }
 
     @Test
     void nullRestOperationsThrowsException() {
-        assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverterFactory(filterConfigRetrievalMock, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RESTFilterConverterFactory(filterConfigRetrievalMock, null, restRequestExecutor));
+    }
+
+    @Test
+    void nullRestRequestExecutorThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RESTFilterConverterFactory(filterConfigRetrievalMock, restOperationsMock, null));
     }
 
     @Test
     void nullConfigRetrievalThrowsException() {
-        assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverterFactory(null, restOperationsMock));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RESTFilterConverterFactory(null, restOperationsMock, restRequestExecutor));
     }
 
     @Test
@@ -7,6 +7,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
+import uk.ac.ebi.quickgo.rest.comm.RESTRequestExecutor;
 import uk.ac.ebi.quickgo.rest.comm.RESTRequesterImpl;
 import uk.ac.ebi.quickgo.rest.comm.ResponseType;
 import uk.ac.ebi.quickgo.rest.search.RetrievalException;
@@ -285,7 +286,7 @@ class RESTFilterConverterTest {
         }
 
         private RESTFilterConverter<QuickGOQuery> createConverter(FilterConfig config) {
-            return new RESTFilterConverter<>(config, mock(RestTemplate.class)) {
+            return new RESTFilterConverter<>(config, mock(RestTemplate.class), mock(RESTRequestExecutor.class)) {
               @Override
               RESTRequesterImpl.Builder createRestRequesterBuilder() {
                 return restRequestBuilderMock;
@@ -499,12 +500,14 @@ class RESTFilterConverterTest {
         private FilterConfig filterConfig;
 
         private RestOperations restOperationsMock;
+        private RESTRequestExecutor restRequestExecutorMock;
 
         @BeforeEach
         void setUp() {
             this.filterConfig = new FilterConfig();
             this.filterConfig.setProperties(new HashMap<>());
             this.restOperationsMock = mock(RestOperations.class);
+            this.restRequestExecutorMock = mock(RESTRequestExecutor.class);
         }
 
         @Test
@@ -515,17 +518,25 @@ class RESTFilterConverterTest {
             addConfigParam(RESPONSE_CONVERTER_CLASS, FakeResponseConverter.class.getName());
             addConfigParam(RESPONSE_CLASS, FakeResponse.class.getName());
 
-            new RESTFilterConverter(filterConfig, restOperationsMock);
+            new RESTFilterConverter(filterConfig, restOperationsMock, restRequestExecutorMock);
         }
 
         @Test
         void nullFilterConfigCausesException() {
-            assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverter(null, restOperationsMock));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(null, restOperationsMock, restRequestExecutorMock));
         }
 
         @Test
         void nullRestOperationsFilterConfigCausesException() {
-            assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverter(filterConfig, null));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(filterConfig, null, restRequestExecutorMock));
+        }
+
+        @Test
+        void nullRestRequestExecutorCausesException() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(filterConfig, restOperationsMock, null));
         }
 
         @Test
@@ -535,7 +546,8 @@ class RESTFilterConverterTest {
             addConfigParam(RESPONSE_CLASS, FakeResponse.class.getName());
             addConfigParam(TIMEOUT, "1000");
 
-            assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverter(filterConfig, restOperationsMock));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(filterConfig, restOperationsMock, restRequestExecutorMock));
         }
 
         @Test
@@ -545,7 +557,8 @@ class RESTFilterConverterTest {
             addConfigParam(RESPONSE_CLASS, FakeResponse.class.getName());
             addConfigParam(TIMEOUT, "1000");
 
-            assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverter(filterConfig, restOperationsMock));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(filterConfig, restOperationsMock, restRequestExecutorMock));
         }
 
         @Test
@@ -555,7 +568,8 @@ class RESTFilterConverterTest {
             addConfigParam(RESPONSE_CONVERTER_CLASS, FakeResponseConverter.class.getName());
             addConfigParam(TIMEOUT, "1000");
 
-            assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverter(filterConfig, restOperationsMock));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(filterConfig, restOperationsMock, restRequestExecutorMock));
         }
 
         @Test
@@ -565,7 +579,8 @@ class RESTFilterConverterTest {
             addConfigParam(RESPONSE_CLASS, FakeResponse.class.getName());
             addConfigParam(TIMEOUT, "1000");
 
-            assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverter(filterConfig, restOperationsMock));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(filterConfig, restOperationsMock, restRequestExecutorMock));
         }
 
         @Test
@@ -575,7 +590,8 @@ class RESTFilterConverterTest {
             addConfigParam(RESPONSE_CLASS, FakeResponse.class.getName());
             addConfigParam(TIMEOUT, "THIS IS NOT A NUMBER");
 
-            assertThrows(IllegalArgumentException.class, () -> new RESTFilterConverter(filterConfig, restOperationsMock));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new RESTFilterConverter(filterConfig, restOperationsMock, restRequestExecutorMock));
         }
 
         private void addConfigParam(String name, String value) {
@@ -0,0 +1,193 @@
+package uk.ac.ebi.quickgo.rest.search.results.transformer;
+
+import uk.ac.ebi.quickgo.rest.comm.ResponseType;
+import uk.ac.ebi.quickgo.rest.search.RetrievalException;
+import uk.ac.ebi.quickgo.rest.search.request.FilterRequest;
+import uk.ac.ebi.quickgo.rest.search.request.converter.ConvertedFilter;
+import uk.ac.ebi.quickgo.rest.search.request.converter.RESTFilterConverterFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsMapContaining.hasEntry;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the batching behaviour of {@link AbstractBatchValueInjector}: distinct keys are requested together,
+ * in groups no larger than the configured maximum, and values are fanned back out to every model with that key.
+ */
+@ExtendWith(MockitoExtension.class)
+class AbstractBatchValueInjectorTest {
+    private static final String KEY = "key";
+
+    @Mock
+    private RESTFilterConverterFactory mockRestFetcher;
+
+    @Test
+    void maxKeysPerRequestMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcreteBatchValueInjector(0));
+    }
+
+    @Test
+    void distinctKeysAreFetchedInOneRequest() {
+        ConcreteBatchValueInjector injector = new ConcreteBatchValueInjector(10);
+        when(mockRestFetcher.<ConcreteResponse>convert(any())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        ConcreteModel a1 = new ConcreteModel("a");
+        ConcreteModel b = new ConcreteModel("b");
+        ConcreteModel a2 = new ConcreteModel("a");
+
+        injector.injectAll(mockRestFetcher, asList(a1, b, a2));
+
+        verify(mockRestFetcher, times(1)).convert(requestFor("a", "b"));
+        assertThat(a1.value, is("value-a"));
+        assertThat(a2.value, is("value-a"));
+        assertThat(b.value, is("value-b"));
+    }
+
+    @Test
+    void keysAreSplitIntoRequestsOfAtMostMaxKeys() {
+        ConcreteBatchValueInjector injector = new ConcreteBatchValueInjector(2);
+        when(mockRestFetcher.<ConcreteResponse>convert(any())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        List<ConcreteModel> models = asList(new ConcreteModel("a"), new ConcreteModel("b"), new ConcreteModel("c"));
+
+        injector.injectAll(mockRestFetcher, models);
+
+        verify(mockRestFetcher, times(1)).convert(requestFor("a", "b"));
+        verify(mockRestFetcher, times(1)).convert(requestFor("c"));
+        models.forEach(model -> assertThat(model.value, is("value-" + model.key)));
+    }
+
+    @Test
+    void modelsWithoutKeyAreNotRequested() {
+        ConcreteBatchValueInjector injector = new ConcreteBatchValueInjector(10);
+        ConcreteModel model = new ConcreteModel(null);
+
+        injector.injectAll(mockRestFetcher, singletonList(model));
+
+        verify(mockRestFetcher, never()).convert(any());
+        assertThat(model.value, is(nullValue()));
+    }
+
+    @Test
+    void nonFatalRestResponseLeavesModelsUntouched() {
+        ConcreteBatchValueInjector injector = new ConcreteBatchValueInjector(10);
+        ExecutionException executionException =
+                new ExecutionException(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        doThrow(new RetrievalException(executionException)).when(mockRestFetcher).convert(any());
+        ConcreteModel model = new ConcreteModel("a");
+
+        injector.injectAll(mockRestFetcher, singletonList(model));
+
+        assertThat(model.value, is(nullValue()));
+    }
+
+    @Test
+    void nonFatalRestResponseForSeveralKeysFallsBackToRequestingEachKey() {
+        ConcreteBatchValueInjector injector = new ConcreteBatchValueInjector(10);
+        RetrievalException notFound = new RetrievalException(
+                new ExecutionException(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        doThrow(notFound).when(mockRestFetcher).convert(requestFor("a", "b"));
+        doThrow(notFound).when(mockRestFetcher).convert(requestFor("a"));
+        when(mockRestFetcher.<ConcreteResponse>convert(requestFor("b"))).thenReturn(echo(requestFor("b")));
+        ConcreteModel a = new ConcreteModel("a");
+        ConcreteModel b = new ConcreteModel("b");
+
+        injector.injectAll(mockRestFetcher, asList(a, b));
+
+        assertThat(a.value, is(nullValue()));
+        assertThat(b.value, is("value-b"));
+    }
+
+    @Test
+    void fatalRestResponseCausesException() {
+        ConcreteBatchValueInjector injector = new ConcreteBatchValueInjector(10);
+        ExecutionException executionException =
+                new ExecutionException(new HttpClientErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+        doThrow(new RetrievalException(executionException)).when(mockRestFetcher).convert(any());
+        List<ConcreteModel> models = singletonList(new ConcreteModel("a"));
+
+        assertThrows(RetrievalException.class, () -> injector.injectAll(mockRestFetcher, models));
+    }
+
+    @Test
+    void singleModelFilterRequestUsesItsKey() {
+        ConcreteBatchValueInjector injector = new ConcreteBatchValueInjector(10);
+
+        FilterRequest request = injector.buildFilterRequest(new ConcreteModel("a"));
+
+        assertThat(request.getProperties(), hasEntry(KEY, singletonList("a")));
+    }
+
+    private static FilterRequest requestFor(String... keys) {
+        return FilterRequest.newBuilder().addProperty(KEY, keys).build();
+    }
+
+    private static ConvertedFilter<ConcreteResponse> echo(FilterRequest request) {
+        Map<String, String> values = request.getValue(KEY).orElseThrow().stream()
+                .collect(Collectors.toMap(key -> key, key -> "value-" + key));
+        return new ConvertedFilter<>(new ConcreteResponse(values));
+    }
+
+    private static class ConcreteBatchValueInjector extends AbstractBatchValueInjector<ConcreteResponse,
+            ConcreteModel> {
+        ConcreteBatchValueInjector(int maxKeysPerRequest) {
+            super(maxKeysPerRequest);
+        }
+
+        @Override public String getId() {
+            // not required in test
+            return null;
+        }
+
+        @Override public String keyOf(ConcreteModel model) {
+            return model.key;
+        }
+
+        @Override public FilterRequest buildFilterRequest(List<String> keys) {
+            return requestFor(keys.toArray(new String[0]));
+        }
+
+        @Override
+        public void injectValueFromResponse(ConvertedFilter<ConcreteResponse> convertedRequest, ConcreteModel model) {
+            model.value = convertedRequest.getConvertedValue().valuesByKey().get(model.key);
+        }
+
+        @Override
+        public void injectValuesFromResponse(ConvertedFilter<ConcreteResponse> convertedRequest,
+                Map<String, List<ConcreteModel>> modelsByKey) {
+            convertedRequest.getConvertedValue().valuesByKey().forEach((key, value) ->
+                    modelsByKey.get(key).forEach(model -> model.value = value));
+        }
+    }
+
+    private record ConcreteResponse(Map<String, String> valuesByKey) implements ResponseType {
+    }
+
+    private static class ConcreteModel {
+        final String key;
+        String value;
+
+        ConcreteModel(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -24,6 +24,9 @@ import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNull.nullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -58,6 +61,8 @@ class ExternalServiceResultsTransformerTest {
     void setUp() {
         when(mockGoNameInjector.getId()).thenReturn(GO_NAME_REQUEST);
         when(mockTaxonNameInjector.getId()).thenReturn(TAXON_NAME_REQUEST);
+        lenient().doCallRealMethod().when(mockGoNameInjector).injectAll(any(), anyList());
+        lenient().doCallRealMethod().when(mockTaxonNameInjector).injectAll(any(), anyList());
 
         resultMutator = new
                 ValueInjectionToQueryResults<>(mockRestFetcher);
@@ -12,8 +12,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -56,10 +59,17 @@ class ValueInjectionToQueryResultsTest {
 
         resultMutator.mutate(results, requiredInjectors);
 
-        results.getResults().forEach(result -> {
-            verify(mockGoNameInjector, times(1)).inject(mockRestFetcher, result);
-            verify(mockTaxonNameInjector, times(1)).inject(mockRestFetcher, result);
-        });
+        verify(mockGoNameInjector, times(1)).injectAll(mockRestFetcher, results.getResults());
+        verify(mockTaxonNameInjector, times(1)).injectAll(mockRestFetcher, results.getResults());
+    }
+
+    @Test
+    void defaultInjectAllInjectsEveryModelIndividually() {
+        FakeValueInjector injector = new FakeValueInjector();
+
+        injector.injectAll(mockRestFetcher, results.getResults());
+
+        assertThat(injector.injectedModels, is(results.getResults()));
     }
 
     @Test
@@ -70,8 +80,8 @@ class ValueInjectionToQueryResultsTest {
 
         resultMutator.mutate(emptyResults, requiredInjectors);
 
-        verify(mockGoNameInjector, never()).inject(any(RESTFilterConverterFactory.class), any(FakeResponseModel.class));
-        verify(mockTaxonNameInjector, never()).inject(any(RESTFilterConverterFactory.class), any(FakeResponseModel.class));
+        verify(mockGoNameInjector, never()).injectAll(any(RESTFilterConverterFactory.class), anyList());
+        verify(mockTaxonNameInjector, never()).injectAll(any(RESTFilterConverterFactory.class), anyList());
     }
 
     // -------------------- helpers --------------------
@@ -87,12 +97,14 @@ class ValueInjectionToQueryResultsTest {
      * Used only for mocking purposes
      */
     private static class FakeValueInjector implements ResponseValueInjector<FakeResponseModel> {
+        private final List<FakeResponseModel> injectedModels = new ArrayList<>();
+
         @Override public String getId() {
             return "fake id";
         }
 
         @Override public void inject(RESTFilterConverterFactory restFetcher, FakeResponseModel annotation) {
-            // not implemented
+            injectedModels.add(annotation);
         }
     }
 
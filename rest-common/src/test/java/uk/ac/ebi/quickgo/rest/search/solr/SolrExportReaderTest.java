@@ -0,0 +1,160 @@
+package uk.ac.ebi.quickgo.rest.search.solr;
+
+import uk.ac.ebi.quickgo.rest.search.RetrievalException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.solr.common.SolrDocument;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests the {@link SolrExportReader} class.
+ */
+class SolrExportReaderTest {
+    private static final String HEADER = "{\"responseHeader\":{\"status\":0},\"response\":{\"numFound\":%d,\"docs\":[";
+    private static final String FOOTER = "]}}";
+
+    @Test
+    void nullStreamCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new SolrExportReader(null));
+    }
+
+    @Test
+    void numberOfHitsIsRead() {
+        SolrExportReader reader = new SolrExportReader(export(2, "{\"id\":\"1\"}", "{\"id\":\"2\"}"));
+
+        assertThat(reader.getNumberOfHits(), is(2L));
+    }
+
+    @Test
+    void documentsAreReadInOrder() {
+        SolrExportReader reader = new SolrExportReader(export(3, "{\"id\":\"1\"}", "{\"id\":\"2\"}", "{\"id\":\"3\"}"));
+
+        assertThat(idsOf(reader), contains("1", "2", "3"));
+    }
+
+    @Test
+    void fieldValuesKeepTheirTypes() {
+        SolrExportReader reader = new SolrExportReader(export(1,
+                "{\"id\":\"1\",\"taxonId\":9606,\"score\":1.5,\"obsolete\":true,\"withFrom\":[\"a\",\"b\"]}"));
+
+        SolrDocument document = reader.next();
+
+        assertThat(document.getFieldValue("id"), is("1"));
+        assertThat(document.getFieldValue("taxonId"), is(9606));
+        assertThat(document.getFieldValue("score"), is(1.5));
+        assertThat(document.getFieldValue("obsolete"), is(true));
+        assertThat(document.getFieldValues("withFrom"), contains("a", "b"));
+    }
+
+    @Test
+    void exportWithNoDocumentsHasNoNext() {
+        SolrExportReader reader = new SolrExportReader(export(0));
+
+        assertThat(reader.hasNext(), is(false));
+        assertThrows(NoSuchElementException.class, reader::next);
+    }
+
+    @Test
+    void fieldsPrecedingTheResponseAreSkipped() {
+        SolrExportReader reader = new SolrExportReader(stream("{\"responseHeader\":{\"status\":0,\"params\":" +
+                "{\"q\":[\"*:*\"]}},\"response\":{\"numFound\":1,\"start\":0,\"docs\":[{\"id\":\"1\"}]}}"));
+
+        assertThat(idsOf(reader), contains("1"));
+    }
+
+    @Test
+    void exceptionInPlaceOfFirstDocumentCausesExceptionWhenCreated() {
+        InputStream export = stream("{\"responseHeader\":{\"status\":400},\"response\":{\"numFound\":0,\"docs\":" +
+                "[{\"EXCEPTION\":\"symbol must have DocValues to use this feature.\"}]}}");
+
+        RetrievalException exception = assertThrows(RetrievalException.class, () -> new SolrExportReader(export));
+
+        assertThat(exception.getMessage(), containsString("symbol must have DocValues"));
+    }
+
+    @Test
+    void exceptionAfterDocumentsCausesExceptionWhenItIsReached() {
+        SolrExportReader reader = new SolrExportReader(export(3, "{\"id\":\"1\"}", "{\"EXCEPTION\":\"failed\"}"));
+
+        assertThat(reader.next().getFieldValue("id"), is("1"));
+        assertThrows(RetrievalException.class, reader::hasNext);
+        assertThat(reader.hasNext(), is(false));
+    }
+
+    @Test
+    void endOfFileDocumentEndsTheExport() {
+        SolrExportReader reader = new SolrExportReader(export(1, "{\"id\":\"1\"}", "{\"EOF\":true}"));
+
+        assertThat(idsOf(reader), contains("1"));
+    }
+
+    @Test
+    void responseWithoutDocumentsCausesException() {
+        assertThrows(RetrievalException.class, () -> new SolrExportReader(stream("{\"responseHeader\":{}}")));
+    }
+
+    @Test
+    void malformedExportCausesException() {
+        assertThrows(RetrievalException.class, () -> new SolrExportReader(stream("[1, 2]")));
+    }
+
+    @Test
+    void truncatedExportCausesExceptionWhenTheTruncationIsReached() {
+        SolrExportReader reader = new SolrExportReader(stream(String.format(HEADER, 2) + "{\"id\":\"1\"},{\"id\""));
+
+        assertThat(reader.next().getFieldValue("id"), is("1"));
+        assertThrows(RetrievalException.class, reader::hasNext);
+    }
+
+    @Test
+    void closingTheReaderClosesTheStreamAndEndsTheExport() {
+        ClosingStream export = new ClosingStream(String.format(HEADER, 2) + "{\"id\":\"1\"},{\"id\":\"2\"}" + FOOTER);
+        SolrExportReader reader = new SolrExportReader(export);
+
+        reader.close();
+
+        assertThat(export.closed, is(true));
+        assertThat(idsOf(reader), is(empty()));
+    }
+
+    private static InputStream export(int numFound, String... documents) {
+        return stream(String.format(HEADER, numFound) + String.join(",", asList(documents)) + FOOTER);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<Object> idsOf(SolrExportReader reader) {
+        List<Object> ids = new ArrayList<>();
+        reader.forEachRemaining(document -> ids.add(document.getFieldValue("id")));
+        return ids;
+    }
+
+    private static class ClosingStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        ClosingStream(String content) {
+            super(content.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package uk.ac.ebi.quickgo.rest.search.solr;
+
+import uk.ac.ebi.quickgo.common.SolrCollectionName;
+import uk.ac.ebi.quickgo.rest.search.ExportedResults;
+import uk.ac.ebi.quickgo.rest.search.RetrievalException;
+import uk.ac.ebi.quickgo.rest.search.query.QueryRequest;
+import uk.ac.ebi.quickgo.rest.search.query.QueryRequestConverter;
+import uk.ac.ebi.quickgo.rest.search.query.QuickGOQuery;
+import uk.ac.ebi.quickgo.rest.search.query.SortCriterion;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.InputStreamResponseParser;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.util.NamedList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the {@link SolrExportRetrieval} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class SolrExportRetrievalTest {
+    private static final String COLLECTION = SolrCollectionName.COLLECTION;
+    private static final Function<SolrDocument, String> TO_ID = document -> (String) document.getFieldValue("id");
+
+    @Mock
+    private SolrClient solrClient;
+
+    private QueryRequestConverter<SolrQuery> queryRequestConverter;
+    private SolrExportRetrieval<String> exportRetrieval;
+
+    @BeforeEach
+    void setUp() {
+        queryRequestConverter = SolrQueryConverter.create("/query");
+        exportRetrieval = new SolrExportRetrieval<>(solrClient, queryRequestConverter, TO_ID);
+    }
+
+    @Test
+    void nullSolrClientCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SolrExportRetrieval<>(null, queryRequestConverter, TO_ID));
+    }
+
+    @Test
+    void nullQueryRequestConverterCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new SolrExportRetrieval<>(solrClient, null, TO_ID));
+    }
+
+    @Test
+    void nullDocumentConverterCausesException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SolrExportRetrieval<>(solrClient, queryRequestConverter, null));
+    }
+
+    @Test
+    void nullQueryRequestCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> exportRetrieval.exportByQuery(null));
+    }
+
+    @Test
+    void exportQueryRetainsQueryFiltersFieldsAndSorts() {
+        SolrQuery query = new SolrQuery("*:*");
+        query.setFilterQueries("goId:GO\\:0000001", "taxonId:9606");
+        query.setFields("id", "goId");
+        query.addSort("defaultSort", SolrQuery.ORDER.asc);
+        query.addSort("id", SolrQuery.ORDER.desc);
+
+        SolrQuery exportQuery = SolrExportRetrieval.createExportQuery(query);
+
+        assertThat(exportQuery.getQuery(), is("*:*"));
+        assertThat(exportQuery.getFilterQueries(), arrayContaining("goId:GO\\:0000001", "taxonId:9606"));
+        assertThat(exportQuery.getFields(), is("id,goId"));
+        assertThat(exportQuery.getSortField(), is("defaultSort asc,id desc"));
+        assertThat(exportQuery.get(CommonParams.WT), is("json"));
+    }
+
+    @Test
+    void exportQueryDiscardsPagingAndFaceting() {
+        SolrQuery query = new SolrQuery("*:*");
+        query.setFields("id");
+        query.addSort("id", SolrQuery.ORDER.asc);
+        query.setRows(100);
+        query.set(CursorMarkParams.CURSOR_MARK_PARAM, CursorMarkParams.CURSOR_MARK_START);
+        query.addFacetField("goId");
+        query.setRequestHandler("/query");
+
+        SolrQuery exportQuery = SolrExportRetrieval.createExportQuery(query);
+
+        assertThat(exportQuery.getRows(), is(nullValue()));
+        assertThat(exportQuery.get(CursorMarkParams.CURSOR_MARK_PARAM), is(nullValue()));
+        assertThat(exportQuery.getFacetFields(), is(nullValue()));
+        assertThat(exportQuery.getRequestHandler(), is(nullValue()));
+    }
+
+    @Test
+    void exportQueryReturnsEachFieldOnce() {
+        SolrQuery query = new SolrQuery("*:*");
+        query.setFields("id", "geneProductId", "goId", "geneProductId");
+        query.addSort("id", SolrQuery.ORDER.asc);
+
+        assertThat(SolrExportRetrieval.createExportQuery(query).getFields(), is("id,geneProductId,goId"));
+    }
+
+    @Test
+    void exportQueryWithoutFieldsCausesException() {
+        SolrQuery query = new SolrQuery("*:*");
+        query.addSort("id", SolrQuery.ORDER.asc);
+
+        assertThrows(IllegalArgumentException.class, () -> SolrExportRetrieval.createExportQuery(query));
+    }
+
+    @Test
+    void exportQueryWithoutSortCausesException() {
+        SolrQuery query = new SolrQuery("*:*");
+        query.setFields("id");
+
+        assertThrows(IllegalArgumentException.class, () -> SolrExportRetrieval.createExportQuery(query));
+    }
+
+    @Test
+    void exportIsRequestedFromTheExportHandlerAndItsDocumentsConverted() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(
+                schemaFields(schemaField("id", true, true, false)),
+                exportResponse("{\"responseHeader\":{\"status\":0},\"response\":{\"numFound\":2,\"docs\":[" +
+                        "{\"id\":\"1\"},{\"id\":\"2\"}]}}"));
+
+        ExportedResults<String> results = exportRetrieval.exportByQuery(exportRequest("id"));
+
+        assertThat(results.getNumberOfHits(), is(2L));
+        assertThat(resultsOf(results), contains("1", "2"));
+
+        SolrRequest<?> request = exportRequestSent();
+        assertThat(request.getPath(), is(SolrExportRetrieval.EXPORT_REQUEST_HANDLER));
+        assertThat(request.getResponseParser(), is(instanceOf(InputStreamResponseParser.class)));
+        assertThat(request.getParams().get(CommonParams.FL), is("id"));
+        assertThat(request.getParams().get(CommonParams.SORT), is("id asc"));
+    }
+
+    @Test
+    void exportFieldIsExportedInPlaceOfFieldThatCannotBeExported() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(
+                schemaFields(schemaField("id", true, true, false), schemaField("withFrom", true, false, true),
+                        schemaField("withFrom_export", false, true, false)),
+                exportResponse("{\"responseHeader\":{\"status\":0},\"response\":{\"numFound\":0,\"docs\":[]}}"));
+
+        exportRetrieval.exportByQuery(exportRequest("id", "withFrom")).close();
+
+        assertThat(exportRequestSent().getParams().get(CommonParams.FL), is("id,withFrom_export"));
+    }
+
+    @Test
+    void fieldThatIsNeitherStoredNorHasDocValuesIsNotExported() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(
+                schemaFields(schemaField("id", true, true, false), schemaField("geneProductType", false, false, false)),
+                exportResponse("{\"responseHeader\":{\"status\":0},\"response\":{\"numFound\":0,\"docs\":[]}}"));
+
+        exportRetrieval.exportByQuery(exportRequest("id", "geneProductType")).close();
+
+        assertThat(exportRequestSent().getParams().get(CommonParams.FL), is("id"));
+    }
+
+    @Test
+    void exportOfFieldsThatCannotBeExportedCausesRetrievalException() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(
+                schemaFields(schemaField("id", true, true, false), schemaField("withFrom", true, false, true)));
+
+        assertThrows(RetrievalException.class, () -> exportRetrieval.exportByQuery(exportRequest("id", "withFrom")));
+    }
+
+    @Test
+    void failureToRequestExportCausesRetrievalException() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenThrow(new SolrServerException("down"));
+
+        assertThrows(RetrievalException.class, () -> exportRetrieval.exportByQuery(exportRequest("id")));
+    }
+
+    @Test
+    void failureToReadExportCausesRetrievalException() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION)))
+                .thenReturn(schemaFields(schemaField("id", true, true, false)))
+                .thenThrow(new IOException("reset"));
+
+        assertThrows(RetrievalException.class, () -> exportRetrieval.exportByQuery(exportRequest("id")));
+    }
+
+    @Test
+    void singleValuedFieldsWithDocValuesCanBeExported() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(schemaFields(
+                schemaField("id", true, true, false), schemaField("goId", true, true, false)));
+
+        assertThat(exportRetrieval.findUnexportableFields(COLLECTION, asList("id", "goId")), is(empty()));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<SolrRequest<?>> request = ArgumentCaptor.forClass(SolrRequest.class);
+        verify(solrClient).request(request.capture(), eq(COLLECTION));
+        assertThat(request.getValue().getPath(), is("/schema/fields"));
+        assertThat(request.getValue().getParams().getBool("showDefaults"), is(true));
+    }
+
+    @Test
+    void storedFieldsWithoutDocValuesMultipleValuesOrNotInTheSchemaCannotBeExported() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(schemaFields(
+                schemaField("id", true, true, false), schemaField("withFrom", true, true, true),
+                schemaField("geneProductType", true, false, false)));
+
+        List<String> unexportableFields = exportRetrieval.findUnexportableFields(COLLECTION,
+                asList("id", "withFrom", "geneProductType", "unknown"));
+
+        assertThat(unexportableFields, contains("withFrom", "geneProductType", "unknown"));
+    }
+
+    @Test
+    void fieldsWithExportFieldsOrThatAreNeitherStoredNorHaveDocValuesCanBeExported() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(schemaFields(
+                schemaField("withFrom", true, true, true), schemaField("withFrom_export", false, true, false),
+                schemaField("geneProductType", false, false, false)));
+
+        assertThat(exportRetrieval.findUnexportableFields(COLLECTION, asList("withFrom", "geneProductType")),
+                is(empty()));
+    }
+
+    @Test
+    void exportFieldThatIsMultiValuedCannotBeExported() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenReturn(schemaFields(
+                schemaField("withFrom", true, false, true), schemaField("withFrom_export", false, true, true)));
+
+        assertThat(exportRetrieval.findUnexportableFields(COLLECTION, singletonList("withFrom")),
+                contains("withFrom"));
+    }
+
+    @Test
+    void failureToReadSchemaCausesRetrievalException() throws Exception {
+        when(solrClient.request(any(SolrRequest.class), eq(COLLECTION))).thenThrow(new SolrServerException("down"));
+
+        assertThrows(RetrievalException.class,
+                () -> exportRetrieval.findUnexportableFields(COLLECTION, singletonList("id")));
+    }
+
+    private static QueryRequest exportRequest(String... fields) {
+        QueryRequest.Builder request = new QueryRequest.Builder(QuickGOQuery.createAllQuery(), COLLECTION)
+                .addSortCriterion("id", SortCriterion.SortOrder.ASC);
+        for (String field : fields) {
+            request.addProjectedField(field);
+        }
+        return request.build();
+    }
+
+    private SolrRequest<?> exportRequestSent() throws Exception {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<SolrRequest<?>> request = ArgumentCaptor.forClass(SolrRequest.class);
+        verify(solrClient, times(2)).request(request.capture(), eq(COLLECTION));
+        return request.getValue();
+    }
+
+    private static NamedList<Object> exportResponse(String export) {
+        NamedList<Object> response = new NamedList<>();
+        response.add("stream", new ByteArrayInputStream(export.getBytes(StandardCharsets.UTF_8)));
+        return response;
+    }
+
+    @SafeVarargs
+    private static NamedList<Object> schemaFields(NamedList<Object>... fields) {
+        NamedList<Object> response = new NamedList<>();
+        response.add("fields", asList(fields));
+        return response;
+    }
+
+    private static NamedList<Object> schemaField(String name, boolean stored, boolean docValues,
+            boolean multiValued) {
+        NamedList<Object> field = new NamedList<>();
+        field.add("name", name);
+        field.add("stored", stored);
+        field.add("docValues", docValues);
+        field.add("multiValued", multiValued);
+        return field;
+    }
+
+    private static List<String> resultsOf(ExportedResults<String> results) {
+        List<String> ids = new ArrayList<>();
+        results.forEachRemaining(ids::add);
+        results.close();
+        return ids;
+    }
+}